@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.ComponentAccess;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class UpdateSubscriberSchedulerTest {
+
+    private UpdateSubscriberScheduler scheduler;
+    private List<Thread> updateThreads;
+
+    @Before
+    public void setup() {
+        scheduler = new UpdateSubscriberScheduler();
+        updateThreads = Collections.synchronizedList(Lists.<Thread>newArrayList());
+    }
+
+    @After
+    public void teardown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void undeclaredSystemsRunOnMainThread() {
+        scheduler.add(new UndeclaredSystem());
+        scheduler.add(new UndeclaredSystem());
+        scheduler.update(1.0f);
+
+        assertEquals(2, updateThreads.size());
+        for (Thread thread : updateThreads) {
+            assertSame(Thread.currentThread(), thread);
+        }
+    }
+
+    @Test
+    public void readersShareALevel() {
+        UpdateSubscriberSystem first = new StringReader();
+        UpdateSubscriberSystem second = new StringReader();
+        scheduler.add(first);
+        scheduler.add(second);
+
+        List<List<List<UpdateSubscriberSystem>>> stages = scheduler.buildStages();
+        assertEquals(1, stages.size());
+        assertEquals(1, stages.get(0).size());
+        assertEquals(Lists.newArrayList(first, second), stages.get(0).get(0));
+
+        scheduler.update(1.0f);
+        assertEquals(2, updateThreads.size());
+    }
+
+    @Test
+    public void writerRunsAfterConflictingReader() {
+        UpdateSubscriberSystem reader = new StringReader();
+        UpdateSubscriberSystem writer = new StringWriter();
+        UpdateSubscriberSystem unrelated = new IntegerWriter();
+        scheduler.add(reader);
+        scheduler.add(writer);
+        scheduler.add(unrelated);
+
+        List<List<List<UpdateSubscriberSystem>>> stages = scheduler.buildStages();
+        assertEquals(1, stages.size());
+        assertEquals(Lists.newArrayList(reader, unrelated), stages.get(0).get(0));
+        assertEquals(Lists.newArrayList(writer), stages.get(0).get(1));
+    }
+
+    @Test
+    public void undeclaredSystemSplitsStages() {
+        scheduler.add(new StringReader());
+        scheduler.add(new UndeclaredSystem());
+        scheduler.add(new StringReader());
+
+        List<List<List<UpdateSubscriberSystem>>> stages = scheduler.buildStages();
+        assertEquals(3, stages.size());
+    }
+
+    @Test
+    public void callingThreadTakesPartInParallelUpdate() {
+        scheduler.add(new StringReader());
+        scheduler.add(new StringReader());
+        scheduler.add(new StringReader());
+        scheduler.update(1.0f);
+
+        assertEquals(3, updateThreads.size());
+        assertTrue(updateThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void removedSystemIsNotUpdated() {
+        UpdateSubscriberSystem removed = new StringReader();
+        scheduler.add(new StringReader());
+        scheduler.add(removed);
+        scheduler.update(1.0f);
+        assertEquals(2, updateThreads.size());
+
+        assertTrue(scheduler.remove(removed));
+        assertFalse(scheduler.remove(removed));
+        scheduler.update(1.0f);
+        assertEquals(3, updateThreads.size());
+
+        scheduler.clear();
+        scheduler.update(1.0f);
+        assertEquals(3, updateThreads.size());
+    }
+
+    private class UndeclaredSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+        @Override
+        public void update(float delta) {
+            updateThreads.add(Thread.currentThread());
+        }
+    }
+
+    @ComponentAccess(reads = StringComponent.class)
+    private class StringReader extends UndeclaredSystem {
+    }
+
+    @ComponentAccess(writes = StringComponent.class)
+    private class StringWriter extends UndeclaredSystem {
+    }
+
+    @ComponentAccess(writes = IntegerComponent.class)
+    private class IntegerWriter extends UndeclaredSystem {
+    }
+}
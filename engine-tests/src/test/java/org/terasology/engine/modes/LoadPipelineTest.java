@@ -0,0 +1,217 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.modes;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class LoadPipelineTest {
+
+    private final List<String> events = Collections.synchronizedList(Lists.newArrayList());
+
+    @Test
+    public void undeclaredProcessesRunInOrder() {
+        LoadPipeline pipeline = new LoadPipeline(Lists.newArrayList(
+                new TestProcess("a", null, ImmutableSet.of(), true),
+                new TestProcess("b", null, ImmutableSet.of(), true),
+                new TestProcess("c", null, ImmutableSet.of(), true)));
+        runToCompletion(pipeline);
+
+        assertEquals(Lists.newArrayList("a", "b", "c"), events);
+    }
+
+    @Test
+    public void dependenciesOnlyReferToEarlierProcesses() {
+        LoadPipeline pipeline = new LoadPipeline(Lists.newArrayList(
+                new TestProcess("first", null, ImmutableSet.of(), true),
+                new TestProcess("consumer", ImmutableSet.of(String.class), ImmutableSet.of(), true),
+                new TestProcess("producer", ImmutableSet.of(), ImmutableSet.of(String.class), true)));
+        runToCompletion(pipeline);
+
+        assertEquals(Lists.newArrayList("first", "consumer", "producer"), events);
+    }
+
+    @Test
+    public void independentProcessesOvertakeWaitingOnes() {
+        CountDownLatch independentDone = new CountDownLatch(1);
+        TestProcess producer = new TestProcess("producer", ImmutableSet.of(), ImmutableSet.of(String.class), false) {
+            @Override
+            public boolean step() {
+                try {
+                    assertTrue(independentDone.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.step();
+            }
+        };
+        TestProcess independent = new TestProcess("independent", ImmutableSet.of(), ImmutableSet.of(), true) {
+            @Override
+            public boolean step() {
+                super.step();
+                independentDone.countDown();
+                return true;
+            }
+        };
+        LoadPipeline pipeline = new LoadPipeline(Lists.newArrayList(
+                producer,
+                new TestProcess("consumer", ImmutableSet.of(String.class), ImmutableSet.of(), true),
+                independent,
+                new TestProcess("barrier", null, ImmutableSet.of(), true)));
+        runToCompletion(pipeline);
+
+        assertEquals(Lists.newArrayList("independent", "producer", "consumer", "barrier"), events);
+    }
+
+    @Test
+    public void workerProcessesRunConcurrentlyWithTheMainThread() throws InterruptedException {
+        CountDownLatch mainStepped = new CountDownLatch(1);
+        TestProcess worker = new TestProcess("worker", ImmutableSet.of(), ImmutableSet.of(), false) {
+            @Override
+            public boolean step() {
+                try {
+                    assertTrue(mainStepped.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.step();
+            }
+        };
+        TestProcess main = new TestProcess("main", ImmutableSet.of(), ImmutableSet.of(), true) {
+            @Override
+            public boolean step() {
+                mainStepped.countDown();
+                return super.step();
+            }
+        };
+        LoadPipeline pipeline = new LoadPipeline(Lists.newArrayList(worker, main,
+                new TestProcess("barrier", null, ImmutableSet.of(), true)));
+        runToCompletion(pipeline);
+
+        assertEquals("barrier", events.get(2));
+        assertNotEquals(Thread.currentThread(), worker.thread);
+        assertEquals(Thread.currentThread(), main.thread);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void workerFailuresAreRethrown() {
+        LoadPipeline pipeline = new LoadPipeline(Lists.newArrayList(
+                new TestProcess("failing", ImmutableSet.of(), ImmutableSet.of(), false) {
+                    @Override
+                    public boolean step() {
+                        throw new IllegalStateException("Failed");
+                    }
+                }));
+        try {
+            runToCompletion(pipeline);
+        } finally {
+            pipeline.dispose();
+        }
+    }
+
+    @Test
+    public void progressCoversAllProcesses() {
+        LoadPipeline pipeline = new LoadPipeline(Lists.newArrayList(
+                new TestProcess("a", null, ImmutableSet.of(), true),
+                new TestProcess("b", null, ImmutableSet.of(), true)));
+        assertEquals(0, pipeline.getProgress(), 0.001f);
+        pipeline.step();
+        assertEquals(0.5f, pipeline.getProgress(), 0.001f);
+        runToCompletion(pipeline);
+        assertEquals(1, pipeline.getProgress(), 0.001f);
+        assertFalse(pipeline.step());
+    }
+
+    private void runToCompletion(LoadPipeline pipeline) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!pipeline.isFinished()) {
+            if (!pipeline.step()) {
+                Thread.yield();
+            }
+            assertTrue("Loading timed out", System.nanoTime() < deadline);
+        }
+    }
+
+    private class TestProcess implements LoadProcess {
+        private final String name;
+        private final Set<Class<?>> dependencies;
+        private final Set<Class<?>> products;
+        private final boolean mainThreadRequired;
+        private volatile Thread thread;
+
+        TestProcess(String name, Set<Class<?>> dependencies, Set<Class<?>> products, boolean mainThreadRequired) {
+            this.name = name;
+            this.dependencies = dependencies;
+            this.products = products;
+            this.mainThreadRequired = mainThreadRequired;
+        }
+
+        @Override
+        public String getMessage() {
+            return name;
+        }
+
+        @Override
+        public boolean step() {
+            thread = Thread.currentThread();
+            events.add(name);
+            return true;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public float getProgress() {
+            return 0;
+        }
+
+        @Override
+        public int getExpectedCost() {
+            return 1;
+        }
+
+        @Override
+        public Set<Class<?>> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public Set<Class<?>> getProducts() {
+            return products;
+        }
+
+        @Override
+        public boolean isMainThreadRequired() {
+            return mainThreadRequired;
+        }
+    }
+}
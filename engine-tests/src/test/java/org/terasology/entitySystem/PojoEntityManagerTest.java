@@ -16,10 +16,16 @@
 package org.terasology.entitySystem;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import org.terasology.asset.Assets;
+import org.terasology.config.SystemConfig;
 import org.terasology.context.Context;
 import org.terasology.context.internal.ContextImpl;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
@@ -43,10 +49,17 @@
 import org.terasology.entitySystem.stubs.EntityRefComponent;
 import org.terasology.entitySystem.stubs.IntegerComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.logic.location.Location;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.AABB;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.network.NetworkSystem;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -62,12 +75,24 @@
 
 /**
  */
+@RunWith(Parameterized.class)
 public class PojoEntityManagerTest {
 
     private PojoEntityManager entityManager;
     private Prefab prefab;
     private static Context context;
 
+    private final boolean archetypeStore;
+
+    public PojoEntityManagerTest(boolean archetypeStore) {
+        this.archetypeStore = archetypeStore;
+    }
+
+    @Parameters(name = "archetypeStore={0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{{false}, {true}});
+    }
+
     @BeforeClass
     public static void setupClass() throws Exception {
         context = new ContextImpl();
@@ -83,6 +108,7 @@ public static void setupClass() throws Exception {
 
     @Before
     public void setup() {
+        System.setProperty(SystemConfig.ARCHETYPE_ENTITY_STORE_PROPERTY, Boolean.toString(archetypeStore));
         context.put(NetworkSystem.class, mock(NetworkSystem.class));
         EntitySystemSetupUtil.addReflectionBasedLibraries(context);
         EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
@@ -93,6 +119,11 @@ public void setup() {
         prefab = Assets.generateAsset(new ResourceUrn("unittest:myprefab"), protoPrefab, Prefab.class);
     }
 
+    @After
+    public void teardown() {
+        System.clearProperty(SystemConfig.ARCHETYPE_ENTITY_STORE_PROPERTY);
+    }
+
     @Test
     public void createEntity() {
         EntityRef entity = entityManager.create();
@@ -382,4 +413,82 @@ public void destructionOfUnloadedEntitiesPrevented() {
         entity.destroy();
         assertTrue(entity.exists());
     }
+
+    @Test
+    public void entitiesWithinRadiusAreFound() {
+        EntityRef near = entityManager.create(new LocationComponent(new Vector3f(1, 0, 0)));
+        EntityRef nearOtherChunk = entityManager.create(new LocationComponent(new Vector3f(-2, 0, 0)));
+        entityManager.create(new LocationComponent(new Vector3f(5, 0, 0)));
+        entityManager.create(new StringComponent("Test"));
+
+        List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWithin(new Vector3f(), 3));
+        assertEquals(2, results.size());
+        assertTrue(results.contains(near));
+        assertTrue(results.contains(nearOtherChunk));
+    }
+
+    @Test
+    public void movedEntitiesChangeChunk() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 1, 1)));
+        assertEquals(Lists.newArrayList(entity), Lists.newArrayList(entityManager.getEntitiesInChunk(new Vector3i(0, 0, 0))));
+
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.setWorldPosition(new Vector3f(-1, 1, 1));
+        entity.saveComponent(location);
+
+        assertFalse(entityManager.getEntitiesInChunk(new Vector3i(0, 0, 0)).iterator().hasNext());
+        assertEquals(Lists.newArrayList(entity), Lists.newArrayList(entityManager.getEntitiesInChunk(new Vector3i(-1, 0, 0))));
+        assertEquals(Lists.newArrayList(entity),
+                Lists.newArrayList(entityManager.getEntitiesWithin(AABB.createMinMax(new Vector3f(-2, 0, 0), new Vector3f(0, 2, 2)))));
+    }
+
+    @Test
+    public void childrenFollowParentInSpatialQueries() {
+        EntityRef parent = entityManager.create(new LocationComponent(new Vector3f(0, 0, 0)));
+        EntityRef child = entityManager.create(new LocationComponent(new Vector3f(1, 0, 0)));
+        Location.attachChild(parent, child);
+
+        LocationComponent parentLocation = parent.getComponent(LocationComponent.class);
+        parentLocation.setWorldPosition(new Vector3f(100, 0, 0));
+        parent.saveComponent(parentLocation);
+
+        List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWithin(new Vector3f(101, 0, 0), 0.5f));
+        assertEquals(Lists.newArrayList(child), results);
+    }
+
+    @Test
+    public void destroyedEntitiesAreNotFound() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 1, 1)));
+        entity.destroy();
+        assertFalse(entityManager.getEntitiesWithin(new Vector3f(1, 1, 1), 1).iterator().hasNext());
+    }
+
+    @Test
+    public void spatialQueriesFindEntitiesWhileIndexingIsDeferred() {
+        EntityRef indexed = entityManager.create(new LocationComponent(new Vector3f(1, 1, 1)));
+        entityManager.setSpatialIndexDeferred(true);
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 1, 1)));
+        assertEquals(Sets.newHashSet(indexed, entity), Sets.newHashSet(entityManager.getEntitiesInChunk(new Vector3i(0, 0, 0))));
+
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.setWorldPosition(new Vector3f(-1, 1, 1));
+        entity.saveComponent(location);
+        assertEquals(Lists.newArrayList(indexed), Lists.newArrayList(entityManager.getEntitiesInChunk(new Vector3i(0, 0, 0))));
+        assertEquals(Lists.newArrayList(entity), Lists.newArrayList(entityManager.getEntitiesWithin(new Vector3f(-1, 1, 1), 0.5f)));
+
+        entityManager.setSpatialIndexDeferred(false);
+        assertEquals(Lists.newArrayList(indexed), Lists.newArrayList(entityManager.getEntitiesInChunk(new Vector3i(0, 0, 0))));
+        assertEquals(Lists.newArrayList(entity), Lists.newArrayList(entityManager.getEntitiesInChunk(new Vector3i(-1, 0, 0))));
+    }
+
+    @Test
+    public void entitiesDestroyedWhileIndexingIsDeferredAreNotFound() {
+        entityManager.setSpatialIndexDeferred(true);
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 1, 1)));
+        entity.destroy();
+        assertFalse(entityManager.getEntitiesWithin(new Vector3f(1, 1, 1), 1).iterator().hasNext());
+
+        entityManager.setSpatialIndexDeferred(false);
+        assertFalse(entityManager.getEntitiesWithin(new Vector3f(1, 1, 1), 1).iterator().hasNext());
+    }
 }
@@ -18,9 +18,13 @@
 import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import org.terasology.context.internal.ContextImpl;
 import org.terasology.engine.SimpleUri;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.ArchetypeComponentTable;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.event.AbstractConsumableEvent;
 import org.terasology.entitySystem.event.EventPriority;
@@ -40,6 +44,8 @@
 import org.terasology.reflection.reflect.ReflectionReflectFactory;
 import org.terasology.registry.CoreRegistry;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -49,6 +55,7 @@
 
 /**
  */
+@RunWith(Parameterized.class)
 public class PojoEventSystemTests {
 
     ComponentLibrary compLibrary;
@@ -56,6 +63,17 @@ public class PojoEventSystemTests {
     PojoEntityManager entityManager;
     EntityRef entity;
 
+    private final boolean archetypeStore;
+
+    public PojoEventSystemTests(boolean archetypeStore) {
+        this.archetypeStore = archetypeStore;
+    }
+
+    @Parameters(name = "archetypeStore={0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{{false}, {true}});
+    }
+
     @Before
     public void setup() {
         ContextImpl context = new ContextImpl();
@@ -66,7 +84,7 @@ public void setup() {
 
         EntitySystemLibrary entitySystemLibrary = new EntitySystemLibrary(context, serializationLibrary);
         compLibrary = entitySystemLibrary.getComponentLibrary();
-        entityManager = new PojoEntityManager();
+        entityManager = archetypeStore ? new PojoEntityManager(new ArchetypeComponentTable()) : new PojoEntityManager();
         entityManager.setComponentLibrary(entitySystemLibrary.getComponentLibrary());
         entityManager.setPrefabManager(new PojoPrefabManager(context));
         NetworkSystem networkSystem = mock(NetworkSystem.class);
@@ -197,6 +215,47 @@ public void testChildEventReceivedByUnfilteredHandler() {
         assertEquals(1, handler.unfilteredEvents.size());
     }
 
+    @Test
+    public void testHandlerRegisteredAfterSendReceivesEvent() {
+        entity.addComponent(new StringComponent());
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+
+        TestHighPriorityEventHandler lateHandler = new TestHighPriorityEventHandler();
+        eventSystem.registerEventHandler(lateHandler);
+        eventSystem.send(entity, new TestEvent());
+
+        assertEquals(2, handler.receivedList.size());
+        assertEquals(1, lateHandler.receivedList.size());
+    }
+
+    @Test
+    public void testUnregisteredHandlerNoLongerReceivesEvent() {
+        entity.addComponent(new StringComponent());
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+
+        eventSystem.unregisterEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testHandlersFollowComponentChanges() {
+        entity.addComponent(new StringComponent());
+        TestCompoundComponentEventHandler handler = new TestCompoundComponentEventHandler();
+        eventSystem.registerEventHandler(handler);
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(0, handler.receivedList.size());
+
+        entity.addComponent(new IntegerComponent());
+        eventSystem.send(entity, new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ArchetypeComponentTableTest {
+
+    private ArchetypeComponentTable store;
+
+    @Before
+    public void setup() {
+        store = new ArchetypeComponentTable();
+    }
+
+    @Test
+    public void putAndGet() {
+        StringComponent comp = new StringComponent("Test");
+        assertNull(store.put(1, comp));
+        assertSame(comp, store.get(1, StringComponent.class));
+        assertNull(store.get(1, IntegerComponent.class));
+        assertNull(store.get(2, StringComponent.class));
+    }
+
+    @Test
+    public void replaceComponent() {
+        StringComponent comp = new StringComponent("Hello");
+        StringComponent comp2 = new StringComponent("Goodbye");
+        store.put(1, comp);
+        assertSame(comp, store.put(1, comp2));
+        assertSame(comp2, store.get(1, StringComponent.class));
+        assertEquals(1, store.getArchetypeCount());
+    }
+
+    @Test
+    public void addComponentKeepsExistingComponents() {
+        StringComponent stringComp = new StringComponent("Test");
+        IntegerComponent intComp = new IntegerComponent(3);
+        store.put(1, stringComp);
+        store.put(1, intComp);
+        assertSame(stringComp, store.get(1, StringComponent.class));
+        assertSame(intComp, store.get(1, IntegerComponent.class));
+        assertEquals(2, store.getComponentsInNewList(1).size());
+    }
+
+    @Test
+    public void removeComponentKeepsOtherComponents() {
+        IntegerComponent intComp = new IntegerComponent(3);
+        StringComponent stringComp = new StringComponent("Test");
+        store.put(1, stringComp);
+        store.put(1, intComp);
+        assertSame(stringComp, store.remove(1, StringComponent.class));
+        assertNull(store.get(1, StringComponent.class));
+        assertSame(intComp, store.get(1, IntegerComponent.class));
+        assertEquals(1, store.numEntities());
+    }
+
+    @Test
+    public void removingLastComponentRemovesEntity() {
+        store.put(1, new StringComponent());
+        store.remove(1, StringComponent.class);
+        assertEquals(0, store.numEntities());
+        assertEquals(0, store.getComponentsInNewList(1).size());
+    }
+
+    @Test
+    public void removeEntityKeepsOtherEntitiesInArchetype() {
+        for (int id = 1; id <= 40; ++id) {
+            store.put(id, new IntegerComponent(id));
+        }
+        store.remove(5);
+        store.remove(40);
+        assertEquals(38, store.numEntities());
+        assertEquals(38, store.getComponentCount(IntegerComponent.class));
+        for (int id = 1; id < 40; ++id) {
+            if (id != 5) {
+                assertEquals(id, store.get(id, IntegerComponent.class).value);
+            }
+        }
+    }
+
+    @Test
+    public void removeAndReturnComponents() {
+        store.put(1, new StringComponent());
+        store.put(1, new IntegerComponent());
+        List<Component> components = store.removeAndReturnComponentsOf(1);
+        assertEquals(2, components.size());
+        assertEquals(0, store.numEntities());
+    }
+
+    @Test
+    public void entityIdsWithOnlyVisitMatchingArchetypes() {
+        store.put(1, new StringComponent());
+        store.put(2, new StringComponent());
+        store.put(2, new IntegerComponent());
+        store.put(3, new IntegerComponent());
+
+        TLongList ids = store.getEntityIdsWith(StringComponent.class, IntegerComponent.class);
+        assertEquals(1, ids.size());
+        assertEquals(2, ids.get(0));
+
+        assertEquals(2, store.getEntityIdsWith(IntegerComponent.class).size());
+    }
+
+    @Test
+    public void componentIteratorAcrossArchetypes() {
+        store.put(1, new IntegerComponent(1));
+        store.put(2, new IntegerComponent(2));
+        store.put(2, new StringComponent());
+
+        TLongObjectIterator<IntegerComponent> iterator = store.componentIterator(IntegerComponent.class);
+        long idSum = 0;
+        int valueSum = 0;
+        while (iterator.hasNext()) {
+            iterator.advance();
+            idSum += iterator.key();
+            valueSum += iterator.value().value;
+        }
+        assertEquals(3, idSum);
+        assertEquals(3, valueSum);
+    }
+
+    @Test
+    public void componentIteratorNullForUnknownComponent() {
+        assertNull(store.componentIterator(StringComponent.class));
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        store.put(1, new StringComponent());
+        store.put(2, new IntegerComponent());
+        store.clear();
+        assertEquals(0, store.numEntities());
+        assertEquals(0, store.getArchetypeCount());
+        assertTrue(store.getEntityIdsWith(StringComponent.class).isEmpty());
+    }
+}
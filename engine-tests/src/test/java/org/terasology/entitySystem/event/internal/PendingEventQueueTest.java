@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.event.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.stubs.StringComponent;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ */
+public class PendingEventQueueTest {
+
+    private EventSystem eventSystem;
+    private List<TestEvent> received;
+
+    @Before
+    public void setup() {
+        received = Lists.newArrayList();
+        eventSystem = mock(EventSystem.class);
+        doAnswer(invocation -> received.add((TestEvent) invocation.getArguments()[1]))
+                .when(eventSystem).send(any(EntityRef.class), any(Event.class));
+    }
+
+    @Test
+    public void drainInOrder() {
+        PendingEventQueue queue = new PendingEventQueue(8);
+        for (int i = 0; i < 5; ++i) {
+            queue.put(EntityRef.NULL, new TestEvent(0, i), null);
+        }
+        assertEquals(5, queue.size());
+        assertEquals(5, queue.drainTo(eventSystem, 100));
+        assertEquals(0, queue.size());
+        assertSequence(0, 5);
+    }
+
+    @Test
+    public void fullRingSpillsIntoOverflow() {
+        PendingEventQueue queue = new PendingEventQueue(4);
+        for (int i = 0; i < 10; ++i) {
+            queue.put(EntityRef.NULL, new TestEvent(0, i), null);
+        }
+        assertEquals(10, queue.size());
+        assertEquals(10, queue.drainTo(eventSystem, 100));
+        assertEquals(0, queue.size());
+        assertSequence(0, 10);
+    }
+
+    @Test
+    public void eventsAfterOverflowWaitForIt() {
+        PendingEventQueue queue = new PendingEventQueue(2);
+        for (int i = 0; i < 4; ++i) {
+            queue.put(EntityRef.NULL, new TestEvent(0, i), null);
+        }
+        // Frees ring slots while the overflow still holds events
+        assertEquals(1, queue.drainTo(eventSystem, 1));
+        for (int i = 4; i < 8; ++i) {
+            queue.put(EntityRef.NULL, new TestEvent(0, i), null);
+        }
+        assertEquals(7, queue.size());
+        while (queue.drainTo(eventSystem, 3) > 0) {
+            // Drain in small batches
+        }
+        assertSequence(0, 8);
+
+        // Once drained, the ring is used again
+        queue.put(EntityRef.NULL, new TestEvent(0, 8), null);
+        assertEquals(1, queue.drainTo(eventSystem, 100));
+        assertSequence(0, 9);
+    }
+
+    @Test
+    public void drainRespectsBatchSize() {
+        PendingEventQueue queue = new PendingEventQueue(16);
+        for (int i = 0; i < 10; ++i) {
+            queue.put(EntityRef.NULL, new TestEvent(0, i), null);
+        }
+        assertEquals(4, queue.drainTo(eventSystem, 4));
+        assertEquals(6, queue.size());
+    }
+
+    @Test
+    public void componentEventsAreSentToComponent() {
+        PendingEventQueue queue = new PendingEventQueue(4);
+        StringComponent component = new StringComponent();
+        TestEvent event = new TestEvent(0, 0);
+        queue.put(EntityRef.NULL, event, component);
+        queue.drainTo(eventSystem, 1);
+        verify(eventSystem).send(EntityRef.NULL, event, component);
+    }
+
+    @Test
+    public void multipleProducersKeepTheirOrder() throws InterruptedException {
+        // Small enough for the producers to keep spilling into the overflow
+        final PendingEventQueue queue = new PendingEventQueue(64);
+        final int producerCount = 4;
+        final int eventsPerProducer = 10000;
+        List<Thread> producers = Lists.newArrayList();
+        for (int p = 0; p < producerCount; ++p) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; ++i) {
+                    queue.put(EntityRef.NULL, new TestEvent(producer, i), null);
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+
+        while (received.size() < producerCount * eventsPerProducer) {
+            queue.drainTo(eventSystem, 32);
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+
+        assertEquals(0, queue.size());
+        int[] lastSequence = new int[producerCount];
+        Arrays.fill(lastSequence, -1);
+        for (TestEvent event : received) {
+            assertEquals(lastSequence[event.producer] + 1, event.sequence);
+            lastSequence[event.producer] = event.sequence;
+        }
+    }
+
+    private void assertSequence(int producer, int count) {
+        assertEquals(count, received.size());
+        for (int i = 0; i < count; ++i) {
+            assertEquals(producer, received.get(i).producer);
+            assertEquals(i, received.get(i).sequence);
+        }
+    }
+
+    private static class TestEvent implements Event {
+        private final int producer;
+        private final int sequence;
+
+        TestEvent(int producer, int sequence) {
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.terasology.TerasologyTestingEnvironment;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
@@ -279,6 +280,56 @@ public void positionMaintainedWhenParentDestroyed() {
         TeraAssert.assertEquals(new Vector3f(2, 0, 0), loc.getWorldPosition(), 0.000001f);
     }
 
+    @Test
+    public void cachedWorldPositionFollowsParentChanges() {
+        LocationComponent parent = giveParent();
+        loc.setLocalPosition(pos1);
+        assertEquals(pos1, loc.getWorldPosition());
+
+        parent.setLocalPosition(pos2);
+        assertEquals(pos1plus2, loc.getWorldPosition());
+    }
+
+    @Test
+    public void cachedWorldPositionFollowsGrandparentChanges() {
+        LocationComponent parent = new LocationComponent();
+        EntityRef parentEntity = createFakeEntityWith(parent);
+        LocationComponent grandParent = new LocationComponent();
+        EntityRef grandParentEntity = createFakeEntityWith(grandParent);
+        Location.attachChild(parentEntity, entity);
+        Location.attachChild(grandParentEntity, parentEntity);
+        loc.setLocalPosition(pos1);
+        assertEquals(pos1, loc.getWorldPosition());
+
+        grandParent.setLocalScale(2.0f);
+        assertEquals(new Vector3f(2, 4, 6), loc.getWorldPosition());
+        assertEquals(2.0f, loc.getWorldScale(), 0.00001f);
+    }
+
+    @Test
+    public void cachedWorldPositionFollowsDirectModification() {
+        loc.setLocalPosition(pos1);
+        assertEquals(pos1, loc.getWorldPosition());
+
+        loc.getLocalPosition().set(pos2);
+        assertEquals(pos2, loc.getWorldPosition());
+    }
+
+    @Test
+    public void cachedWorldPositionFollowsReplacedParentComponent() {
+        LocationComponent parent = new LocationComponent();
+        EntityRef parentEntity = createFakeEntityWith(parent);
+        Location.attachChild(parentEntity, entity);
+        loc.setLocalPosition(pos1);
+        assertEquals(pos1, loc.getWorldPosition());
+
+        LocationComponent replacement = new LocationComponent(pos2);
+        replacement.children.add(entity);
+        when(parentEntity.getComponent(LocationComponent.class)).thenReturn(replacement);
+        new Location().onChanged(OnChangedComponent.newInstance(), parentEntity);
+
+        assertEquals(pos1plus2, loc.getWorldPosition());
+    }
 
     private LocationComponent giveParent() {
         LocationComponent parent = new LocationComponent();
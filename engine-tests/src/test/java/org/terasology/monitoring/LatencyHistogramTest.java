@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverTheirLowerBounds() {
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT; ++bucket) {
+            long lowerBound = LatencyHistogram.getBucketLowerBound(bucket);
+            assertEquals(bucket, LatencyHistogram.getBucket(lowerBound));
+            if (bucket > 0) {
+                assertEquals(bucket - 1, LatencyHistogram.getBucket(lowerBound - 1));
+            }
+        }
+    }
+
+    @Test
+    public void bucketsAreAccurateToAQuarter() {
+        for (int bucket = 4; bucket < LatencyHistogram.BUCKET_COUNT - 1; ++bucket) {
+            long lowerBound = LatencyHistogram.getBucketLowerBound(bucket);
+            long upperBound = LatencyHistogram.getBucketLowerBound(bucket + 1);
+            assertTrue(upperBound - lowerBound <= lowerBound / 4);
+        }
+    }
+
+    @Test
+    public void longTimesAreCountedInTheLastBucket() {
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.getBucket(Long.MAX_VALUE));
+        assertEquals(0, LatencyHistogram.getBucket(-5));
+    }
+
+    @Test
+    public void percentiles() {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        long millisecond = TimeUnit.MILLISECONDS.toNanos(1);
+        counts[LatencyHistogram.getBucket(millisecond)] = 90;
+        counts[LatencyHistogram.getBucket(100 * millisecond)] = 10;
+        LatencyHistogram histogram = new LatencyHistogram("Test", "main", counts, 90 * millisecond + 1000 * millisecond, 100 * millisecond);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(10.9, histogram.getMean(), 0.001);
+        assertEquals(100, histogram.getMax(), 0.001);
+        assertEquals(1, histogram.getPercentile(50), 0.25);
+        assertEquals(1, histogram.getPercentile(90), 0.25);
+        assertEquals(100, histogram.getPercentile(99), 0.001);
+    }
+
+    @Test
+    public void mergeAddsCounts() {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        counts[10] = 3;
+        LatencyHistogram first = new LatencyHistogram("Test", "first", counts, 300, 120);
+        LatencyHistogram second = new LatencyHistogram("Test", "second", counts, 200, 100);
+
+        LatencyHistogram merged = first.merge(second, null);
+        assertEquals(6, merged.getCount());
+        assertEquals(6, merged.getCount(10));
+        assertEquals(null, merged.getThread());
+        assertEquals(120 / 1e6, merged.getMax(), 1e-9);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.monitoring.LatencyHistogram;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class HttpTelemetryExporterTest {
+
+    private HttpTelemetryExporter exporter;
+
+    @Before
+    public void setup() throws IOException {
+        exporter = new HttpTelemetryExporter(0);
+    }
+
+    @After
+    public void teardown() {
+        exporter.close();
+    }
+
+    @Test
+    public void servesNothingBeforeFirstExport() throws IOException {
+        HttpURLConnection connection = connect();
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("", read(connection));
+    }
+
+    @Test
+    public void servesLatestSnapshot() throws IOException {
+        exporter.export(snapshot(1000));
+        TelemetrySnapshot latest = snapshot(2000);
+        exporter.export(latest);
+
+        HttpURLConnection connection = connect();
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("text/plain"));
+        assertEquals(TelemetryTextFormat.format(latest), read(connection));
+    }
+
+    @Test
+    public void unknownPathIsNotFound() throws IOException {
+        assertEquals(404, connect("/other").getResponseCode());
+    }
+
+    private HttpURLConnection connect() throws IOException {
+        return connect(HttpTelemetryExporter.PATH);
+    }
+
+    private HttpURLConnection connect(String path) throws IOException {
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), exporter.getPort(), path);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static TelemetrySnapshot snapshot(long timestamp) {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        counts[5] = 1;
+        LatencyHistogram histogram = new LatencyHistogram("Test", "main", counts, 1000, 1000);
+        return new TelemetrySnapshot(timestamp, ImmutableList.of(histogram), ImmutableList.of());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.junit.Test;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.LatencyHistogram;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ */
+public class PerformanceMonitorImplTest {
+    private static final ActivityId ACTIVITY = ActivityId.of("PerformanceMonitorImplTest");
+
+    @Test
+    public void deadThreadIsReportedOnceThenDropped() throws InterruptedException {
+        PerformanceMonitorImpl monitor = new PerformanceMonitorImpl();
+        Thread thread = new Thread(() -> monitor.startActivity(ACTIVITY).close(), "PerformanceMonitorImplTest Worker");
+        thread.start();
+        thread.join();
+
+        assertEquals(1, countHistograms(monitor.getTelemetrySnapshot(), thread.getName()));
+        assertEquals(0, countHistograms(monitor.getTelemetrySnapshot(), thread.getName()));
+    }
+
+    private static int countHistograms(TelemetrySnapshot snapshot, String threadName) {
+        int count = 0;
+        for (LatencyHistogram histogram : snapshot.getThreadHistograms()) {
+            if (threadName.equals(histogram.getThread())) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.monitoring.LatencyHistogram;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class RollingFileTelemetryExporterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void appendsSnapshots() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("logs").resolve("telemetry.txt");
+        RollingFileTelemetryExporter exporter = new RollingFileTelemetryExporter(file, Long.MAX_VALUE, 2);
+        exporter.export(snapshot(1000));
+        exporter.export(snapshot(2000));
+        exporter.close();
+
+        String expected = TelemetryTextFormat.format(snapshot(1000)) + TelemetryTextFormat.format(snapshot(2000));
+        assertEquals(expected, read(file));
+    }
+
+    @Test
+    public void rollsOverFullFiles() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("telemetry.txt");
+        RollingFileTelemetryExporter exporter = new RollingFileTelemetryExporter(file, 1, 2);
+        for (int i = 1; i <= 4; ++i) {
+            exporter.export(snapshot(i * 1000));
+        }
+        exporter.close();
+
+        assertEquals(TelemetryTextFormat.format(snapshot(4000)), read(file));
+        assertEquals(TelemetryTextFormat.format(snapshot(3000)), read(file.resolveSibling("telemetry.txt.1")));
+        assertEquals(TelemetryTextFormat.format(snapshot(2000)), read(file.resolveSibling("telemetry.txt.2")));
+        assertFalse(Files.exists(file.resolveSibling("telemetry.txt.3")));
+    }
+
+    @Test
+    public void replacesFullFileWithoutBackups() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("telemetry.txt");
+        RollingFileTelemetryExporter exporter = new RollingFileTelemetryExporter(file, 1, 0);
+        exporter.export(snapshot(1000));
+        exporter.export(snapshot(2000));
+        exporter.close();
+
+        assertEquals(TelemetryTextFormat.format(snapshot(2000)), read(file));
+        assertFalse(Files.exists(file.resolveSibling("telemetry.txt.1")));
+        assertTrue(Files.exists(file));
+    }
+
+    private static TelemetrySnapshot snapshot(long timestamp) {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        counts[3] = 2;
+        LatencyHistogram histogram = new LatencyHistogram("Test", "main", counts, 4000, 3000);
+        return new TelemetrySnapshot(timestamp, ImmutableList.of(histogram), ImmutableList.of());
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.LatencyHistogram;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ThreadTelemetryTest {
+    private static final ActivityId OUTER = ActivityId.of("ThreadTelemetryTest Outer");
+    private static final ActivityId INNER = ActivityId.of("ThreadTelemetryTest Inner");
+
+    @Test
+    public void recordsNestedActivities() {
+        ThreadTelemetry telemetry = new ThreadTelemetry(Thread.currentThread());
+        for (int i = 0; i < 3; ++i) {
+            try (Activity ignored = telemetry.start(OUTER)) {
+                for (int j = 0; j < 2; ++j) {
+                    try (Activity ignoredInner = telemetry.start(INNER)) {
+                        Thread.yield();
+                    }
+                }
+            }
+        }
+
+        List<LatencyHistogram> histograms = Lists.newArrayList();
+        telemetry.addHistograms(histograms);
+        assertEquals(2, histograms.size());
+        for (LatencyHistogram histogram : histograms) {
+            assertEquals(Thread.currentThread().getName(), histogram.getThread());
+            assertEquals(histogram.getActivity().equals(OUTER.getName()) ? 3 : 6, histogram.getCount());
+        }
+    }
+
+    @Test
+    public void ignoresUnmatchedEnd() {
+        ThreadTelemetry telemetry = new ThreadTelemetry(Thread.currentThread());
+        telemetry.end();
+        telemetry.start(OUTER).close();
+        telemetry.end();
+
+        List<LatencyHistogram> histograms = Lists.newArrayList();
+        telemetry.addHistograms(histograms);
+        assertEquals(1, histograms.get(0).getCount());
+    }
+
+    @Test
+    public void tracksWhetherThreadIsAlive() throws InterruptedException {
+        Thread thread = new Thread(() -> { });
+        ThreadTelemetry telemetry = new ThreadTelemetry(thread);
+        thread.start();
+        thread.join();
+
+        assertFalse(telemetry.isThreadAlive());
+        assertTrue(new ThreadTelemetry(Thread.currentThread()).isThreadAlive());
+    }
+
+    @Test
+    public void supportsDeepNesting() {
+        ThreadTelemetry telemetry = new ThreadTelemetry(Thread.currentThread());
+        for (int i = 0; i < 100; ++i) {
+            telemetry.start(OUTER);
+        }
+        for (int i = 0; i < 100; ++i) {
+            telemetry.end();
+        }
+
+        List<LatencyHistogram> histograms = Lists.newArrayList();
+        telemetry.addHistograms(histograms);
+        assertEquals(100, histograms.get(0).getCount());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkKey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class ChunkSendQueueTest {
+
+    @Test
+    public void nearestChunksComeFirst() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(chunkAt(5, 0, 0));
+        queue.add(chunkAt(1, 0, 0));
+        queue.add(chunkAt(0, 3, 0));
+        queue.add(chunkAt(0, 0, 0));
+
+        assertEquals(new Vector3i(0, 0, 0), queue.poll().getPosition());
+        assertEquals(new Vector3i(1, 0, 0), queue.poll().getPosition());
+        assertEquals(new Vector3i(0, 3, 0), queue.poll().getPosition());
+        assertEquals(new Vector3i(5, 0, 0), queue.poll().getPosition());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void chunksInViewComeBeforeChunksBehind() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(chunkAt(-2, 0, 0));
+        queue.add(chunkAt(3, 0, 0));
+        queue.setViewpoint(new Vector3i(0, 0, 0), new Vector3f(1, 0, 0));
+
+        assertEquals(new Vector3i(3, 0, 0), queue.poll().getPosition());
+        assertEquals(new Vector3i(-2, 0, 0), queue.poll().getPosition());
+    }
+
+    @Test
+    public void movingReordersChunks() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(chunkAt(0, 0, 0));
+        queue.add(chunkAt(10, 0, 0));
+        queue.setViewpoint(new Vector3i(9, 0, 0), new Vector3f());
+
+        assertEquals(new Vector3i(10, 0, 0), queue.poll().getPosition());
+    }
+
+    @Test
+    public void removedChunksAreSkipped() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(chunkAt(0, 0, 0));
+        queue.add(chunkAt(1, 0, 0));
+        queue.remove(ChunkKey.of(0, 0, 0));
+
+        assertEquals(1, queue.size());
+        assertEquals(new Vector3i(1, 0, 0), queue.poll().getPosition());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void readdedChunkIsOnlySentOnce() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        queue.add(chunkAt(0, 0, 0));
+        queue.remove(ChunkKey.of(0, 0, 0));
+        queue.add(chunkAt(0, 0, 0));
+
+        assertEquals(new Vector3i(0, 0, 0), queue.poll().getPosition());
+        assertNull(queue.poll());
+    }
+
+    private static Chunk chunkAt(int x, int y, int z) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getPosition()).thenReturn(new Vector3i(x, y, z));
+        return chunk;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.persistence.serializers.ReplicatedEntityState;
+import org.terasology.registry.CoreRegistry;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class NetClientTest {
+
+    private static final int NET_ID = 7;
+
+    private NetClient client;
+
+    @Before
+    public void setup() {
+        CoreRegistry.setContext(new ContextImpl());
+        Channel channel = mock(Channel.class);
+        when(channel.getPipeline()).thenReturn(mock(ChannelPipeline.class));
+        client = new NetClient(channel, mock(NetworkSystemImpl.class), null);
+    }
+
+    @Test
+    public void replicatedStateIsKeptBetweenUpdates() {
+        ReplicatedEntityState state = client.getReplicatedState(NET_ID);
+        assertSame(state, client.getReplicatedState(NET_ID));
+    }
+
+    @Test
+    public void initialEntityResetsReplicatedState() {
+        ReplicatedEntityState state = client.getReplicatedState(NET_ID);
+        client.setNetInitial(NET_ID);
+        assertNotSame(state, client.getReplicatedState(NET_ID));
+    }
+
+    @Test
+    public void removedEntityResetsReplicatedState() {
+        ReplicatedEntityState state = client.getReplicatedState(NET_ID);
+        client.setNetRemoved(NET_ID);
+        assertNotSame(state, client.getReplicatedState(NET_ID));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.serialization;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3f;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ */
+public class FieldQuantizationTest {
+
+    @Test
+    public void floatsAreRoundedToStep() {
+        assertEquals(1.25f, FieldQuantization.quantize(1.26f, 0.05f), 0.00001f);
+        assertEquals(-1.25f, FieldQuantization.quantize(-1.24f, 0.05f), 0.00001f);
+        assertEquals(1.26f, FieldQuantization.quantize(1.26f, 0), 0.00001f);
+    }
+
+    @Test
+    public void largeValuesDoNotOverflow() {
+        assertEquals(1.0e7f, FieldQuantization.quantize(1.0e7f, 0.001f), 1f);
+    }
+
+    @Test
+    public void vectorsAreRoundedPerComponent() {
+        Vector3f original = new Vector3f(0.1234f, 10.0004f, -3.3336f);
+        Vector3f result = (Vector3f) FieldQuantization.quantize(original, 0.001f);
+        assertEquals(0.123f, result.x(), 0.00001f);
+        assertEquals(10.0f, result.y(), 0.00001f);
+        assertEquals(-3.334f, result.z(), 0.00001f);
+        assertEquals(0.1234f, original.x(), 0.00001f);
+    }
+
+    @Test
+    public void unsupportedValuesAreUnchanged() {
+        String value = "test";
+        assertSame(value, FieldQuantization.quantize(value, 0.1f));
+        assertNull(FieldQuantization.quantize(null, 0.1f));
+    }
+}
@@ -17,14 +17,19 @@
 
 import com.google.common.collect.Lists;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import org.terasology.asset.Assets;
 import org.terasology.assets.AssetFactory;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
 import org.terasology.assets.module.ModuleAwareAssetTypeManager;
+import org.terasology.config.SystemConfig;
 import org.terasology.context.Context;
 import org.terasology.context.internal.ContextImpl;
 import org.terasology.engine.SimpleUri;
@@ -47,6 +52,9 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -54,6 +62,7 @@
 
 /**
  */
+@RunWith(Parameterized.class)
 public class EntitySerializerTest {
 
     private static Context context;
@@ -63,6 +72,16 @@ public class EntitySerializerTest {
     private EntitySerializer entitySerializer;
     private Prefab prefab;
 
+    private final boolean archetypeStore;
+
+    public EntitySerializerTest(boolean archetypeStore) {
+        this.archetypeStore = archetypeStore;
+    }
+
+    @Parameters(name = "archetypeStore={0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{{false}, {true}});
+    }
 
     @BeforeClass
     public static void setupClass() throws Exception {
@@ -80,6 +99,7 @@ public static void setupClass() throws Exception {
 
     @Before
     public void setup() {
+        System.setProperty(SystemConfig.ARCHETYPE_ENTITY_STORE_PROPERTY, Boolean.toString(archetypeStore));
         context.put(NetworkSystem.class, mock(NetworkSystem.class));
 
         EntitySystemSetupUtil.addReflectionBasedLibraries(context);
@@ -96,6 +116,11 @@ public void setup() {
         prefab = Assets.generateAsset(new ResourceUrn("test:Test"), prefabData, Prefab.class);
     }
 
+    @After
+    public void teardown() {
+        System.clearProperty(SystemConfig.ARCHETYPE_ENTITY_STORE_PROPERTY);
+    }
+
     @Test
     public void testDeltaNoUnchangedComponents() throws Exception {
 
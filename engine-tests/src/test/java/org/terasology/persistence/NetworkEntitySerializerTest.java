@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.serializers.FieldSerializeCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.persistence.serializers.ReplicatedEntityState;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.protobuf.EntityData;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.testUtil.ModuleManagerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ */
+public class NetworkEntitySerializerTest {
+
+    private static final int STRING_ID = 1;
+    private static final int INTEGER_ID = 2;
+
+    private static ModuleManager moduleManager;
+    private EngineEntityManager entityManager;
+    private NetworkEntitySerializer entitySerializer;
+    private FieldSerializeCheck<Component> fieldCheck = FieldSerializeCheck.NullCheck.newInstance();
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        moduleManager = ModuleManagerFactory.create();
+    }
+
+    @Before
+    public void setup() {
+        Context context = new ContextImpl();
+        context.put(ModuleManager.class, moduleManager);
+        CoreRegistry.setContext(context);
+        context.put(NetworkSystem.class, mock(NetworkSystem.class));
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        entityManager = context.get(EngineEntityManager.class);
+        entityManager.getComponentLibrary().register(new SimpleUri("test", "string"), StringComponent.class);
+        entityManager.getComponentLibrary().register(new SimpleUri("test", "integer"), IntegerComponent.class);
+        entitySerializer = new NetworkEntitySerializer(entityManager, entityManager.getComponentLibrary(),
+                context.get(TypeSerializationLibrary.class));
+        entitySerializer.setIdMapping(ImmutableMap.<Class<? extends Component>, Integer>of(StringComponent.class, STRING_ID,
+                IntegerComponent.class, INTEGER_ID));
+    }
+
+    @Test
+    public void unchangedFieldsAreSkipped() {
+        EntityRef entity = entityManager.create(new StringComponent("name"), new IntegerComponent(1));
+        ReplicatedEntityState sentState = new ReplicatedEntityState();
+        EntityData.PackedEntity initial = serialize(entity, ImmutableSet.of(StringComponent.class, IntegerComponent.class),
+                none(), none(), sentState);
+        assertEquals(2, initial.getFieldValueCount());
+        assertEquals(0, sentState.pollSavedBytes());
+
+        IntegerComponent integerComponent = entity.getComponent(IntegerComponent.class);
+        integerComponent.value = 2;
+        entity.saveComponent(integerComponent);
+        EntityData.PackedEntity update = serialize(entity, none(), ImmutableSet.of(StringComponent.class, IntegerComponent.class),
+                none(), sentState);
+
+        assertEquals(1, update.getComponentIdCount());
+        assertEquals(INTEGER_ID, update.getComponentId(0));
+        assertEquals(1, update.getFieldValueCount());
+        assertEquals(2, update.getFieldValue(0).getInteger(0));
+        assertTrue(sentState.pollSavedBytes() > 0);
+    }
+
+    @Test
+    public void unchangedEntityIsNotSent() {
+        EntityRef entity = entityManager.create(new StringComponent("name"));
+        ReplicatedEntityState sentState = new ReplicatedEntityState();
+        assertNotNull(serialize(entity, ImmutableSet.of(StringComponent.class), none(), none(), sentState));
+
+        assertNull(serialize(entity, none(), ImmutableSet.of(StringComponent.class), none(), sentState));
+    }
+
+    @Test
+    public void readdedComponentIsSentInFull() {
+        EntityRef entity = entityManager.create(new StringComponent("name"));
+        ReplicatedEntityState sentState = new ReplicatedEntityState();
+        serialize(entity, ImmutableSet.of(StringComponent.class), none(), none(), sentState);
+
+        entity.removeComponent(StringComponent.class);
+        EntityData.PackedEntity removal = serialize(entity, none(), none(), ImmutableSet.of(StringComponent.class), sentState);
+        assertEquals(1, removal.getRemovedComponentCount());
+        assertEquals(STRING_ID, removal.getRemovedComponent(0));
+
+        entity.addComponent(new StringComponent("name"));
+        EntityData.PackedEntity readded = serialize(entity, ImmutableSet.of(StringComponent.class), none(), none(), sentState);
+        assertEquals(1, readded.getComponentIdCount());
+        assertEquals(1, readded.getFieldValueCount());
+        assertEquals("name", readded.getFieldValue(0).getString(0));
+    }
+
+    @Test
+    public void addedComponentIsSentInFullEvenIfUnchanged() {
+        EntityRef entity = entityManager.create(new StringComponent("name"));
+        ReplicatedEntityState sentState = new ReplicatedEntityState();
+        serialize(entity, ImmutableSet.of(StringComponent.class), none(), none(), sentState);
+
+        EntityData.PackedEntity readded = serialize(entity, ImmutableSet.of(StringComponent.class), none(), none(), sentState);
+        assertEquals(1, readded.getFieldValueCount());
+        assertEquals(0, sentState.pollSavedBytes());
+    }
+
+    private EntityData.PackedEntity serialize(EntityRef entity, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                                              Set<Class<? extends Component>> removed, ReplicatedEntityState sentState) {
+        return entitySerializer.serialize(entity, added, changed, removed, fieldCheck, sentState);
+    }
+
+    private static Set<Class<? extends Component>> none() {
+        return Collections.emptySet();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.config.SystemConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ChunkCodecsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void allCodecsRoundTrip() throws IOException {
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        byte[] data = sample(new Random(1));
+        List<ChunkCodec> writeCodecs = Lists.newArrayList(new RawChunkCodec(), new GZipChunkCodec(),
+                new DeflaterChunkCodec(Deflater.BEST_SPEED, dictionaries), new DeflaterChunkCodec(Deflater.BEST_COMPRESSION, dictionaries));
+        for (ChunkCodec codec : writeCodecs) {
+            byte[] encoded = new ChunkCodecs(codec, dictionaries).encode(data);
+            // any instance can decode the data, whatever it writes with
+            assertArrayEquals(codec.toString(), data, new ChunkCodecs(new RawChunkCodec(), dictionaries).decode(encoded));
+        }
+    }
+
+    @Test
+    public void decodesChunksStoredBeforeCodecs() throws IOException {
+        byte[] data = sample(new Random(2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(data);
+        }
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        assertArrayEquals(data, new ChunkCodecs(new DeflaterChunkCodec(6, dictionaries), dictionaries).decode(out.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownFormatFails() throws IOException {
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        new ChunkCodecs(new RawChunkCodec(), dictionaries).decode("not a chunk".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void trainedDictionaryImprovesCompression() throws IOException {
+        Random random = new Random(3);
+        List<byte[]> samples = Lists.newArrayList();
+        for (int i = 0; i < 64; i++) {
+            samples.add(sample(random));
+        }
+        byte[] dictionary = ChunkDictionaryTrainer.train(samples, ChunkDictionaryTrainer.MAX_DICTIONARY_SIZE);
+        assertTrue(dictionary.length > 0);
+        assertTrue(dictionary.length <= ChunkDictionaryTrainer.MAX_DICTIONARY_SIZE);
+
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        dictionaries.add(dictionary);
+        ChunkCodecs plain = new ChunkCodecs(new DeflaterChunkCodec(6, dictionaries), dictionaries);
+        ChunkCodecs withDictionary = new ChunkCodecs(new DeflaterChunkCodec(6, dictionaries, dictionary), dictionaries);
+        byte[] data = sample(random);
+        byte[] encoded = withDictionary.encode(data);
+        assertTrue(encoded.length < plain.encode(data).length);
+        assertArrayEquals(data, plain.decode(encoded));
+    }
+
+    @Test(expected = IOException.class)
+    public void missingDictionaryFails() throws IOException {
+        byte[] dictionary = sample(new Random(4));
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        byte[] encoded = new ChunkCodecs(new DeflaterChunkCodec(6, dictionaries, dictionary), dictionaries).encode(sample(new Random(5)));
+        ChunkDictionaries otherDictionaries = new ChunkDictionaries();
+        new ChunkCodecs(new RawChunkCodec(), otherDictionaries).decode(encoded);
+    }
+
+    @Test
+    public void dictionariesGetReloaded() throws IOException {
+        byte[] dictionary = sample(new Random(6));
+        ChunkDictionaries dictionaries = new ChunkDictionaries(temporaryFolder.getRoot().toPath().resolve("dictionaries"));
+        int id = dictionaries.add(dictionary);
+
+        ChunkDictionaries reloaded = new ChunkDictionaries(temporaryFolder.getRoot().toPath().resolve("dictionaries"));
+        reloaded.load();
+        assertArrayEquals(dictionary, reloaded.get(id));
+        assertArrayEquals(dictionary, reloaded.getCurrent());
+    }
+
+    @Test
+    public void trainsDictionaryFromEncodedChunks() throws IOException {
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        ChunkCodecs codecs = new ChunkCodecs(new DeflaterChunkCodec(6, dictionaries), dictionaries);
+        codecs.trainDictionary(6, 3);
+        Random random = new Random(7);
+        List<byte[]> encoded = Lists.newArrayList();
+        List<byte[]> data = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            data.add(sample(random));
+            encoded.add(codecs.encode(data.get(i)));
+            assertEquals(i < 2, codecs.isTrainingDictionary());
+        }
+        assertEquals(1, dictionaries.size());
+        assertNotNull(dictionaries.getCurrent());
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(data.get(i), codecs.decode(encoded.get(i)));
+        }
+    }
+
+    @Test
+    public void compressionLevelIsClamped() throws IOException {
+        SystemConfig config = new SystemConfig();
+        config.setChunkCompressionLevel(42);
+        assertEquals(Deflater.BEST_COMPRESSION, ChunkCodecs.getCompressionLevel(config));
+        config.setChunkCompressionLevel(-5);
+        assertEquals(Deflater.DEFAULT_COMPRESSION, ChunkCodecs.getCompressionLevel(config));
+        config.setChunkCompressionLevel(Deflater.BEST_SPEED);
+        assertEquals(Deflater.BEST_SPEED, ChunkCodecs.getCompressionLevel(config));
+
+        config.setChunkCompressionCodec(ChunkCodecs.DEFLATE);
+        config.setChunkCompressionLevel(42);
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        ChunkCodecs codecs = ChunkCodecs.create(config, dictionaries, false);
+        byte[] data = sample(new Random(9));
+        assertArrayEquals(data, codecs.decode(codecs.encode(data)));
+    }
+
+    @Test
+    public void trainerCompletesOnce() {
+        Random random = new Random(8);
+        ChunkDictionaryTrainer trainer = new ChunkDictionaryTrainer(2);
+        assertFalse(trainer.addSample(sample(random)));
+        assertTrue(trainer.addSample(sample(random)));
+        assertFalse(trainer.addSample(sample(random)));
+    }
+
+    /**
+     * Creates data that resembles a serialized chunk: runs of a few recurring values with varying lengths.
+     */
+    private static byte[] sample(Random random) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int run = 0; run < 400; run++) {
+            out.write(0x50);
+            out.write(random.nextInt(8));
+            out.write(0x58);
+            out.write(random.nextInt(128) + 1);
+            out.write(0x12);
+            out.write(0x34);
+        }
+        return out.toByteArray();
+    }
+}
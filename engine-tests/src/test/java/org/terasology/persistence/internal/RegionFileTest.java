@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class RegionFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path regionPath;
+
+    @Before
+    public void setup() {
+        regionPath = temporaryFolder.getRoot().toPath().resolve("0.0.0.region");
+    }
+
+    @Test
+    public void writtenChunksCanBeReadAfterReopening() throws IOException {
+        byte[] small = data(10, 1);
+        byte[] large = data(3 * RegionFile.SECTOR_SIZE, 2);
+        try (RegionFile regionFile = RegionFile.openForWriting(regionPath)) {
+            regionFile.write(new Vector3i(0, 0, 0), small);
+            regionFile.write(new Vector3i(31, 5, 7), large);
+            regionFile.commit();
+        }
+        try (RegionFile regionFile = RegionFile.openForReading(regionPath)) {
+            assertArrayEquals(small, regionFile.read(new Vector3i(0, 0, 0)));
+            assertArrayEquals(large, regionFile.read(new Vector3i(31, 5, 7)));
+            assertNull(regionFile.read(new Vector3i(1, 0, 0)));
+        }
+    }
+
+    @Test
+    public void uncommittedWritesAreDiscarded() throws IOException {
+        byte[] committed = data(100, 1);
+        try (RegionFile regionFile = RegionFile.openForWriting(regionPath)) {
+            regionFile.write(new Vector3i(1, 2, 3), committed);
+            regionFile.commit();
+            regionFile.write(new Vector3i(1, 2, 3), data(100, 2));
+            regionFile.write(new Vector3i(4, 5, 6), data(100, 3));
+        }
+        try (RegionFile regionFile = RegionFile.openForReading(regionPath)) {
+            assertArrayEquals(committed, regionFile.read(new Vector3i(1, 2, 3)));
+            assertFalse(regionFile.contains(new Vector3i(4, 5, 6)));
+        }
+    }
+
+    @Test
+    public void rewritingChunksReusesReleasedSectors() throws IOException {
+        try (RegionFile regionFile = RegionFile.openForWriting(regionPath)) {
+            regionFile.write(new Vector3i(0, 0, 0), data(RegionFile.SECTOR_SIZE, 1));
+            regionFile.commit();
+            long size = Files.size(regionPath);
+            for (int i = 0; i < 10; ++i) {
+                regionFile.write(new Vector3i(0, 0, 0), data(RegionFile.SECTOR_SIZE, i));
+                regionFile.commit();
+            }
+            // The chunk alternates between two places, as the committed one must never be overwritten
+            assertTrue(Files.size(regionPath) <= size + 2 * RegionFile.SECTOR_SIZE);
+        }
+    }
+
+    @Test
+    public void negativeChunkPositionsMapIntoTheRegion() {
+        StoragePathProvider storagePathProvider = new StoragePathProvider(temporaryFolder.getRoot().toPath());
+        assertEquals(new Vector3i(-1, 0, -2), storagePathProvider.getChunkRegionPosition(new Vector3i(-1, 31, -33)));
+        assertEquals(RegionFile.getChunkIndex(new Vector3i(31, 0, 0)), RegionFile.getChunkIndex(new Vector3i(-1, 0, 0)));
+    }
+
+    @Test
+    public void journalCanBeAppliedRepeatedly() throws IOException {
+        Path journalPath = temporaryFolder.getRoot().toPath().resolve("0.0.0.region.journal");
+        try (RegionFileJournal journal = new RegionFileJournal(journalPath)) {
+            journal.append(new Vector3i(1, 1, 1), data(50, 1));
+            journal.append(new Vector3i(2, 2, 2), data(5000, 2));
+        }
+        RegionFileJournal.apply(journalPath, regionPath);
+        RegionFileJournal.apply(journalPath, regionPath);
+        try (RegionFile regionFile = RegionFile.openForReading(regionPath)) {
+            assertArrayEquals(data(50, 1), regionFile.read(new Vector3i(1, 1, 1)));
+            assertArrayEquals(data(5000, 2), regionFile.read(new Vector3i(2, 2, 2)));
+        }
+    }
+
+    @Test
+    public void truncatedTrailingJournalRecordIsIgnored() throws IOException {
+        Path journalPath = temporaryFolder.getRoot().toPath().resolve("0.0.0.region.journal");
+        try (RegionFileJournal journal = new RegionFileJournal(journalPath)) {
+            journal.append(new Vector3i(1, 1, 1), data(50, 1));
+            journal.append(new Vector3i(2, 2, 2), data(5000, 2));
+        }
+        long completeSize = Files.size(journalPath);
+        for (long cut : new long[]{completeSize - 1, completeSize - 5000, completeSize - 5010}) {
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                channel.truncate(cut);
+            }
+            RegionFileJournal.apply(journalPath, regionPath);
+            try (RegionFile regionFile = RegionFile.openForReading(regionPath)) {
+                assertArrayEquals(data(50, 1), regionFile.read(new Vector3i(1, 1, 1)));
+                assertFalse(regionFile.contains(new Vector3i(2, 2, 2)));
+            }
+        }
+    }
+
+    @Test(expected = ClosedChannelException.class)
+    public void closedRegionFileRejectsAccess() throws IOException {
+        RegionFile regionFile = RegionFile.openForWriting(regionPath);
+        regionFile.write(new Vector3i(0, 0, 0), data(10, 1));
+        regionFile.commit();
+        regionFile.close();
+        regionFile.close();
+        Files.delete(regionPath);
+        regionFile.read(new Vector3i(0, 0, 0));
+    }
+
+    @Test
+    public void chunkZipsGetConverted() throws IOException {
+        StoragePathProvider storagePathProvider = new StoragePathProvider(temporaryFolder.getRoot().toPath());
+        Files.createDirectories(storagePathProvider.getWorldPath());
+        Vector3i chunkPos = new Vector3i(-3, 1, 40);
+        Path zipPath = storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(chunkPos));
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + zipPath.toUri()), ImmutableMap.of("create", "true"))) {
+            Files.write(zip.getPath(storagePathProvider.getChunkFilename(chunkPos)), data(200, 7));
+        }
+
+        assertEquals(1, new ChunkZipConverter(storagePathProvider).convertChunkZips());
+
+        assertFalse(Files.exists(zipPath));
+        Path converted = storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(chunkPos));
+        try (RegionFile regionFile = RegionFile.openForReading(converted)) {
+            assertArrayEquals(data(200, 7), regionFile.read(chunkPos));
+        }
+    }
+
+    private static byte[] data(int length, int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            data[i] = (byte) (i * 31 + seed);
+        }
+        return data;
+    }
+}
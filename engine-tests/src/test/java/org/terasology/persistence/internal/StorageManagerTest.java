@@ -35,6 +35,7 @@
 import org.terasology.entitySystem.stubs.EntityRefComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
 import org.terasology.game.Game;
+import org.terasology.logic.location.Location;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
@@ -220,6 +221,36 @@ public void globalEntitiesStoredAndRestored() throws Exception {
         assertEquals(entityId, entities.get(0).getId());
     }
 
+    @Test
+    public void globalEntityChangesAreLoggedAndReplayed() throws Exception {
+        EntityRef changedEntity = entityManager.create(new StringComponent("Test"));
+        EntityRef destroyedEntity = entityManager.create(new StringComponent("Destroyed"));
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+
+        StringComponent component = changedEntity.getComponent(StringComponent.class);
+        component.value = "Changed";
+        changedEntity.saveComponent(component);
+        destroyedEntity.destroy();
+        EntityRef createdEntity = entityManager.create(new StringComponent("Created"));
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        assertTrue(Files.isDirectory(esm.getStoragePathProvider().getEntityLogPath()));
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, false);
+        newSM.loadGlobalStore();
+
+        List<EntityRef> entities = Lists.newArrayList(newEntityManager.getEntitiesWith(StringComponent.class));
+        assertEquals(2, entities.size());
+        assertEquals("Changed", newEntityManager.getEntity(changedEntity.getId()).getComponent(StringComponent.class).value);
+        assertEquals("Created", newEntityManager.getEntity(createdEntity.getId()).getComponent(StringComponent.class).value);
+        assertFalse(newEntityManager.getEntity(destroyedEntity.getId()).exists());
+    }
+
 
     @Test
     public void referenceRemainsValidOverStorageRestoral() throws Exception {
@@ -331,6 +362,45 @@ public void entitySurvivesStorageInChunkStore() throws Exception {
     }
 
 
+    @Test
+    public void parentedEntitySurvivesStorageInChunkStore() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+        Vector3f positionInChunk = new Vector3f(chunk.getAABB().getMin());
+        positionInChunk.x += 1;
+        positionInChunk.y += 1;
+        positionInChunk.z += 1;
+        EntityRef parent = entityManager.create(new LocationComponent(positionInChunk));
+        EntityRef child = entityManager.create(new LocationComponent());
+        Location.attachChild(parent, child);
+        long parentId = parent.getId();
+        long childId = child.getId();
+
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, false);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        restored.restoreEntities();
+        EntityRef restoredParent = newEntityManager.getEntity(parentId);
+        EntityRef restoredChild = newEntityManager.getEntity(childId);
+        assertTrue(restoredParent.isActive());
+        assertTrue(restoredChild.isActive());
+        assertEquals(restoredParent, restoredChild.getComponent(LocationComponent.class).getParent());
+        assertEquals(positionInChunk, restoredChild.getComponent(LocationComponent.class).getWorldPosition());
+    }
+
     @Test
     public void canSavePlayerWithoutUnloading() throws Exception {
         esm.waitForCompletionOfPreviousSaveAndStartSaving();
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.ChunkView;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricBlockFamilyFactory;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.BlockTile;
+import org.terasology.world.block.tiles.WorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class ChunkTessellatorTest extends TerasologyTestingEnvironment {
+
+    private static final int MESH_HEIGHT = 8;
+    private static final int LIGHT_OFFSET = 20;
+    private static final int NORMAL_OFFSET = 28;
+
+    /**
+     * The size of a vertex in the previous layout, which stored thirteen 32 bit values per vertex.
+     */
+    private static final int FLOAT_VERTEX_SIZE = 13 * 4;
+
+    private Block airBlock;
+    private Block solidBlock;
+    private BlockManager blockManager;
+    private BiomeManager biomeManager;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        WorldAtlas worldAtlas = Mockito.mock(WorldAtlas.class);
+        when(worldAtlas.getRelativeTileSize()).thenReturn(1f / 16f);
+        when(worldAtlas.getTexCoords(any(BlockTile.class), anyBoolean())).thenReturn(new Vector2f(2f / 16f, 1f / 16f));
+        blockManager = new BlockManagerImpl(worldAtlas, assetManager);
+        CoreRegistry.put(BlockManager.class, blockManager);
+        airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+
+        biomeManager = Mockito.mock(BiomeManager.class);
+
+        BlockFamilyDefinitionData solidData = new BlockFamilyDefinitionData();
+        solidData.getBaseSection().setDisplayName("Stone");
+        solidData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        solidData.getBaseSection().setTranslucent(false);
+        solidData.setFamilyFactory(new SymmetricBlockFamilyFactory());
+        assetManager.loadAsset(new ResourceUrn("engine:stone"), solidData, BlockFamilyDefinition.class);
+        solidBlock = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:stone")));
+    }
+
+    @Test
+    public void greedyMeshingMergesFlatFloor() {
+        ChunkView view = createView(createFloor());
+
+        ChunkMesh.VertexElements plain = generate(view, false);
+        ChunkMesh.VertexElements greedy = generate(view, true);
+
+        // Top, bottom and the four sides of the floor each become a single quad
+        assertEquals(6 * 4, greedy.vertexCount);
+        assertEquals(rasterise(plain), rasterise(greedy));
+    }
+
+    @Test
+    public void greedyMeshingKeepsCoverageAndLightingAroundObstacles() {
+        Chunk chunk = createFloor();
+        chunk.setBlock(new Vector3i(10, 2, 10), solidBlock);
+        chunk.setBlock(new Vector3i(11, 2, 10), solidBlock);
+        chunk.setBlock(new Vector3i(20, 2, 5), solidBlock);
+        chunk.setBlock(new Vector3i(20, 3, 5), solidBlock);
+        ChunkView view = createView(chunk);
+
+        ChunkMesh.VertexElements plain = generate(view, false);
+        ChunkMesh.VertexElements greedy = generate(view, true);
+
+        assertTrue(greedy.vertexCount < plain.vertexCount / 10);
+        assertEquals(rasterise(plain), rasterise(greedy));
+    }
+
+    @Test
+    public void packedVerticesAreSmallerThanFloatVertices() {
+        Chunk chunk = createFloor();
+        chunk.setBlock(new Vector3i(10, 2, 10), solidBlock);
+        chunk.setBlock(new Vector3i(20, 3, 5), solidBlock);
+        ChunkTessellator tessellator = new ChunkTessellator(new GLBufferPool(false), false);
+        ChunkMesh mesh = tessellator.generateMesh(createView(chunk), MESH_HEIGHT, 0);
+
+        int vertexCount = 0;
+        int packedBytes = 0;
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
+            vertexCount += elements.vertexCount;
+            packedBytes += elements.finalVertices.limit();
+        }
+        int floatBytes = vertexCount * FLOAT_VERTEX_SIZE;
+
+        assertTrue(vertexCount > 0);
+        assertEquals(vertexCount * ChunkMesh.STRIDE, packedBytes);
+        assertTrue(packedBytes * 100 <= floatBytes * 62);
+    }
+
+    @Test
+    public void packedVerticesKeepPositionsAndNormals() {
+        Chunk chunk = createFloor();
+        chunk.setBlock(new Vector3i(10, 2, 10), solidBlock);
+        ChunkMesh.VertexElements elements = generate(createView(chunk), false);
+
+        for (int vertex = 0; vertex < elements.vertexCount; ++vertex) {
+            int offset = ChunkMesh.STRIDE * vertex;
+            for (int axis = 0; axis < 3; ++axis) {
+                float position = elements.finalVertices.getShort(offset + 2 * axis) / (float) ChunkMesh.POSITION_SCALE;
+                assertEquals(elements.vertices.get(3 * vertex + axis), position, 1f / ChunkMesh.POSITION_SCALE);
+                float normal = elements.finalVertices.get(offset + NORMAL_OFFSET + axis) / 127f;
+                assertEquals(elements.normals.get(3 * vertex + axis), normal, 0.01f);
+            }
+        }
+    }
+
+    private Chunk createFloor() {
+        Chunk chunk = new ChunkImpl(new Vector3i(0, 0, 0), blockManager, biomeManager);
+        for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                chunk.setBlock(x, 0, z, solidBlock);
+                chunk.setBlock(x, 1, z, solidBlock);
+            }
+        }
+        return chunk;
+    }
+
+    private ChunkView createView(Chunk chunk) {
+        return new ChunkViewCoreImpl(new Chunk[]{chunk}, Region3i.createFromCenterExtents(Vector3i.zero(), Vector3i.zero()), new Vector3i(), airBlock);
+    }
+
+    private ChunkMesh.VertexElements generate(ChunkView view, boolean greedyMeshing) {
+        ChunkTessellator tessellator = new ChunkTessellator(new GLBufferPool(false), greedyMeshing);
+        return tessellator.generateMesh(view, MESH_HEIGHT, 0).getVertexElements(ChunkMesh.RenderType.OPAQUE);
+    }
+
+    /**
+     * Maps each unit square covered by a quad of the mesh to the sorted light values of the corners of that quad.
+     */
+    private Map<String, String> rasterise(ChunkMesh.VertexElements elements) {
+        Map<String, String> coverage = Maps.newHashMap();
+        for (int quad = 0; quad < elements.vertexCount / 4; ++quad) {
+            int firstVertex = quad * 4;
+            int normalAxis = dominantAxis(elements.normals.get(3 * firstVertex), elements.normals.get(3 * firstVertex + 1),
+                    elements.normals.get(3 * firstVertex + 2));
+            int uAxis = (normalAxis + 1) % 3;
+            int vAxis = (normalAxis + 2) % 3;
+
+            float minU = Float.MAX_VALUE;
+            float maxU = -Float.MAX_VALUE;
+            float minV = Float.MAX_VALUE;
+            float maxV = -Float.MAX_VALUE;
+            String[] lights = new String[4];
+            for (int i = 0; i < 4; ++i) {
+                int vertex = firstVertex + i;
+                minU = Math.min(minU, elements.vertices.get(3 * vertex + uAxis));
+                maxU = Math.max(maxU, elements.vertices.get(3 * vertex + uAxis));
+                minV = Math.min(minV, elements.vertices.get(3 * vertex + vAxis));
+                maxV = Math.max(maxV, elements.vertices.get(3 * vertex + vAxis));
+                int offset = ChunkMesh.STRIDE * vertex + LIGHT_OFFSET;
+                lights[i] = (elements.finalVertices.get(offset) & 0xFF) + "/" + (elements.finalVertices.get(offset + 1) & 0xFF)
+                        + "/" + (elements.finalVertices.get(offset + 2) & 0xFF);
+            }
+            Arrays.sort(lights);
+            String plane = normalAxis + ":" + elements.vertices.get(3 * firstVertex + normalAxis);
+            for (int u = Math.round(minU + 0.5f); u <= Math.round(maxU - 0.5f); ++u) {
+                for (int v = Math.round(minV + 0.5f); v <= Math.round(maxV - 0.5f); ++v) {
+                    String previous = coverage.put(plane + ":" + u + "," + v, Arrays.toString(lights));
+                    assertEquals(null, previous);
+                }
+            }
+        }
+        return coverage;
+    }
+
+    private static int dominantAxis(float x, float y, float z) {
+        if (Math.abs(x) > 0.5f) {
+            return 0;
+        }
+        return (Math.abs(y) > 0.5f) ? 1 : 2;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.DiscreteWhiteNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.WhiteNoise;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.utilities.random.Random;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Checks that the grid methods of {@link Noise} implementations return exactly the values of the single point methods.
+ *
+ */
+@RunWith(Parameterized.class)
+public class NoiseGridTest {
+
+    private Noise noiseGen;
+    private Random rng;
+
+    public NoiseGridTest(String name, Noise noiseGen) {
+        this.noiseGen = noiseGen;
+        this.rng = new FastRandom(0xBEEF);
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                {"White", new WhiteNoise(0xCAFE)},
+                {"DiscreteWhite", new DiscreteWhiteNoise(0xCAFE)},
+                {"Simplex", new SimplexNoise(0xCAFE)},
+                {"Perlin", new PerlinNoise(0xCAFE)},
+                {"Brownian White", new BrownianNoise(new WhiteNoise(0xCAFE), 3)},
+                {"Brownian Perlin", new BrownianNoise(new PerlinNoise(0xCAFE), 8)},
+                {"Brownian Simplex", new BrownianNoise(new SimplexNoise(0xCAFE), 8)}
+        });
+    }
+
+    @Test
+    public void gridMatchesSinglePoints2D() {
+        float[] xs = randomPositions(17);
+        float[] ys = randomPositions(13);
+        float[] result = new float[xs.length * ys.length];
+        noiseGen.noise(xs, ys, result);
+
+        for (int j = 0; j < ys.length; j++) {
+            for (int i = 0; i < xs.length; i++) {
+                Assert.assertEquals(noiseGen.noise(xs[i], ys[j]), result[i + xs.length * j], 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void gridMatchesSinglePoints3D() {
+        float[] xs = randomPositions(9);
+        float[] ys = randomPositions(7);
+        float[] zs = randomPositions(5);
+        float[] result = new float[xs.length * ys.length * zs.length];
+        noiseGen.noise(xs, ys, zs, result);
+
+        for (int k = 0; k < zs.length; k++) {
+            for (int j = 0; j < ys.length; j++) {
+                for (int i = 0; i < xs.length; i++) {
+                    Assert.assertEquals(noiseGen.noise(xs[i], ys[j], zs[k]), result[i + xs.length * (j + ys.length * k)], 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void regionMatchesSinglePoints() {
+        Rect2i rect = Rect2i.createFromMinAndSize(-5, 3, 12, 7);
+        float[] rectResult = noiseGen.noise(rect);
+        int index = 0;
+        for (int y = rect.minY(); y <= rect.maxY(); y++) {
+            for (int x = rect.minX(); x <= rect.maxX(); x++) {
+                Assert.assertEquals(noiseGen.noise(x, y), rectResult[index++], 0.0f);
+            }
+        }
+
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-3, -2, 4), new Vector3i(6, 5, 4));
+        float[] regionResult = noiseGen.noise(region);
+        index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    Assert.assertEquals(noiseGen.noise(x, y, z), regionResult[index++], 0.0f);
+                }
+            }
+        }
+    }
+
+    private float[] randomPositions(int count) {
+        float[] result = new float[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = rng.nextFloat() * 200f - 100f;
+        }
+        return result;
+    }
+}
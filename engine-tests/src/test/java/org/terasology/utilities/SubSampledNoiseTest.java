@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities;
+
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.SubSampledNoise;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ */
+public class SubSampledNoiseTest {
+
+    private static final int SAMPLE_RATE = 4;
+
+    private final Noise source = new SimplexNoise(0xCAFE);
+
+    @Test
+    public void gridSamplesOfRectEqualSource() {
+        Vector2f zoom = new Vector2f(0.05f, 0.1f);
+        SubSampledNoise noise = new SubSampledNoise(source, zoom, SAMPLE_RATE);
+        Rect2i rect = Rect2i.createFromMinAndSize(-10, 6, 21, 13);
+        float[] result = noise.noise(rect);
+
+        int samples = 0;
+        for (int y = rect.minY(); y <= rect.maxY(); y++) {
+            for (int x = rect.minX(); x <= rect.maxX(); x++) {
+                if (x % SAMPLE_RATE == 0 && y % SAMPLE_RATE == 0) {
+                    int index = x - rect.minX() + rect.sizeX() * (y - rect.minY());
+                    assertEquals(source.noise(x * zoom.x, y * zoom.y), result[index], 0.0f);
+                    samples++;
+                }
+            }
+        }
+        assertEquals(5 * 3, samples);
+    }
+
+    @Test
+    public void gridSamplesOfRegionEqualSource() {
+        Vector3f zoom = new Vector3f(0.05f, 0.1f, 0.2f);
+        SubSampledNoise noise = new SubSampledNoise(source, zoom, SAMPLE_RATE);
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-10, 6, -3), new Vector3i(21, 13, 9));
+        float[] result = noise.noise(region);
+
+        int samples = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    if (x % SAMPLE_RATE == 0 && y % SAMPLE_RATE == 0 && z % SAMPLE_RATE == 0) {
+                        int index = x - region.minX() + region.sizeX() * (y - region.minY() + region.sizeY() * (z - region.minZ()));
+                        assertEquals(source.noise(x * zoom.x, y * zoom.y, z * zoom.z), result[index], 0.0f);
+                        samples++;
+                    }
+                }
+            }
+        }
+        assertEquals(5 * 3 * 2, samples);
+    }
+
+    @Test
+    public void gridSamplesMatchSinglePoints() {
+        Vector3f zoom = new Vector3f(0.05f, 0.1f, 0.2f);
+        SubSampledNoise noise = new SubSampledNoise(source, zoom, SAMPLE_RATE);
+        for (int x = -8; x <= 8; x += SAMPLE_RATE) {
+            for (int y = -8; y <= 8; y += SAMPLE_RATE) {
+                assertEquals(source.noise(x * zoom.x, y * zoom.y), noise.noise(x, y), 0.0f);
+                assertEquals(source.noise(x * zoom.x, y * zoom.y, 4 * zoom.z), noise.noise(x, y, 4), 0.0f);
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class TaskMasterTest {
+
+    @Test
+    public void runsAllTasksBeforeShutdown() {
+        TaskMaster<Task> taskMaster = TaskMaster.createFIFOTaskMaster("Test", TaskMaster.UNLIMITED_CONCURRENCY);
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 100; ++i) {
+            taskMaster.offer(new TestTask(count::incrementAndGet));
+        }
+        taskMaster.shutdown(new ShutdownTask(), true);
+
+        assertEquals(100, count.get());
+        assertEquals(100 + 1, taskMaster.getStatistics().getCompletedTasks());
+    }
+
+    @Test
+    public void serialTaskMasterRunsTasksInOrder() {
+        TaskMaster<Task> taskMaster = TaskMaster.createFIFOTaskMaster("Test", 1);
+        List<Integer> order = Collections.synchronizedList(Lists.newArrayList());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 50; ++i) {
+            int index = i;
+            taskMaster.offer(new TestTask(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                running.decrementAndGet();
+            }));
+        }
+        taskMaster.shutdown(new ShutdownTask(), true);
+
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 50; ++i) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void taskMastersShareWorkers() throws InterruptedException {
+        TaskMaster<Task> blocked = TaskMaster.createFIFOTaskMaster("Blocked", 1);
+        TaskMaster<Task> other = TaskMaster.createFIFOTaskMaster("Other", TaskMaster.UNLIMITED_CONCURRENCY);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        blocked.offer(new TestTask(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        for (int i = 0; i < 10; ++i) {
+            other.offer(new TestTask(done::countDown));
+        }
+
+        try {
+            if (SharedTaskExecutor.getInstance().getWorkerCount() > 1) {
+                assertTrue(done.await(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            blocked.shutdown(new ShutdownTask(), true);
+            other.shutdown(new ShutdownTask(), true);
+        }
+        assertEquals(0, done.getCount());
+    }
+
+    @Test
+    public void discardsQueuedTasksOnShutdown() {
+        TaskMaster<Task> taskMaster = TaskMaster.createFIFOTaskMaster("Test", 1);
+        taskMaster.shutdown(new ShutdownTask(), true);
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 10; ++i) {
+            taskMaster.offer(new TestTask(count::incrementAndGet));
+        }
+        taskMaster.shutdown(new ShutdownTask(), false);
+
+        assertEquals(0, count.get());
+        assertEquals(0, taskMaster.getStatistics().getQueueDepth());
+    }
+
+    @Test
+    public void busyTaskMastersShareWorkersByWeight() throws InterruptedException {
+        SharedTaskExecutor executor = new SharedTaskExecutor(0);
+        TaskMaster<Task> heavy = new TaskMaster<>(executor, "Heavy", TaskMaster.UNLIMITED_CONCURRENCY, 3, new LinkedBlockingQueue<>());
+        TaskMaster<Task> light = new TaskMaster<>(executor, "Light", TaskMaster.UNLIMITED_CONCURRENCY, 1, new LinkedBlockingQueue<>());
+        for (int i = 0; i < 100; ++i) {
+            heavy.offer(new TestTask(() -> { }));
+            light.offer(new TestTask(() -> { }));
+        }
+
+        int heavyTasks = 0;
+        for (int i = 0; i < 40; ++i) {
+            QueuedTask<?> queuedTask = executor.take();
+            if (queuedTask.getTaskMaster() == heavy) {
+                heavyTasks++;
+            }
+            executor.complete(queuedTask, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        assertEquals(30, heavyTasks, 1);
+    }
+
+    @Test
+    public void concurrencyLimitHoldsBackTaskMaster() throws InterruptedException {
+        SharedTaskExecutor executor = new SharedTaskExecutor(0);
+        TaskMaster<Task> serial = new TaskMaster<>(executor, "Serial", 1, 10, new LinkedBlockingQueue<>());
+        TaskMaster<Task> other = new TaskMaster<>(executor, "Other", TaskMaster.UNLIMITED_CONCURRENCY, 1, new LinkedBlockingQueue<>());
+        for (int i = 0; i < 10; ++i) {
+            serial.offer(new TestTask(() -> { }));
+            other.offer(new TestTask(() -> { }));
+        }
+
+        QueuedTask<?> first = executor.take();
+        assertSame(serial, first.getTaskMaster());
+        List<QueuedTask<?>> otherTasks = Lists.newArrayList();
+        for (int i = 0; i < 5; ++i) {
+            QueuedTask<?> queuedTask = executor.take();
+            assertSame(other, queuedTask.getTaskMaster());
+            otherTasks.add(queuedTask);
+        }
+        for (QueuedTask<?> queuedTask : otherTasks) {
+            executor.complete(queuedTask, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        executor.complete(first, TimeUnit.MILLISECONDS.toNanos(1));
+        assertSame(serial, executor.take().getTaskMaster());
+    }
+
+    @Test
+    public void priorityTaskMasterRunsTasksInPriorityOrder() throws InterruptedException {
+        SharedTaskExecutor executor = new SharedTaskExecutor(0);
+        TaskMaster<TestTask> taskMaster = new TaskMaster<>(executor, "Priority", TaskMaster.UNLIMITED_CONCURRENCY, 1,
+                new PriorityBlockingQueue<QueuedTask<TestTask>>(8, (a, b) -> Integer.compare(a.getTask().priority, b.getTask().priority)));
+        for (int priority : new int[]{5, 1, 4, 2, 3}) {
+            taskMaster.offer(new TestTask(priority, () -> { }));
+        }
+
+        for (int priority = 1; priority <= 5; ++priority) {
+            QueuedTask<?> queuedTask = executor.take();
+            assertEquals(priority, ((TestTask) queuedTask.getTask()).priority);
+            executor.complete(queuedTask, 0);
+        }
+    }
+
+    private static final class TestTask implements Task {
+        private final int priority;
+        private final Runnable runnable;
+
+        TestTask(Runnable runnable) {
+            this(0, runnable);
+        }
+
+        TestTask(int priority, Runnable runnable) {
+            this.priority = priority;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public String getName() {
+            return "Test";
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return false;
+        }
+    }
+}
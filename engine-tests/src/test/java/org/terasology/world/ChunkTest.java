@@ -36,9 +36,13 @@
 import org.terasology.world.block.tiles.NullWorldAtlas;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSnapshot;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 
 public class ChunkTest extends TerasologyTestingEnvironment {
@@ -73,6 +77,124 @@ public void testChangeBlock() {
         assertEquals(solid, chunk.getBlock(new Vector3i(1, 2, 3)));
     }
 
+    @Test
+    public void snapshotIsUnaffectedByLaterChanges() {
+        ChunkSnapshot snapshot = chunk.getSnapshot();
+        chunk.setBlock(new Vector3i(1, 2, 3), solid);
+        chunk.setLight(new Vector3i(1, 2, 3), (byte) 5);
+
+        assertEquals(blockManager.getBlock(BlockManager.AIR_ID), snapshot.getBlock(1, 2, 3));
+        assertEquals(0, snapshot.getLight(1, 2, 3));
+        ChunkSnapshot newSnapshot = chunk.getSnapshot();
+        assertEquals(solid, newSnapshot.getBlock(1, 2, 3));
+        assertEquals(5, newSnapshot.getLight(1, 2, 3));
+        assertEquals(snapshot.getVersion() + 1, newSnapshot.getVersion());
+    }
+
+    @Test
+    public void snapshotIsReusedWhileUnchanged() {
+        ChunkSnapshot snapshot = chunk.getSnapshot();
+        chunk.setBlock(new Vector3i(1, 2, 3), blockManager.getBlock(BlockManager.AIR_ID));
+        assertSame(snapshot, chunk.getSnapshot());
+    }
+
+    @Test
+    public void storeSnapshotIsKeptOnLightChanges() {
+        ChunkSnapshot snapshot = chunk.getStoreSnapshot();
+        chunk.setLight(new Vector3i(1, 2, 3), (byte) 5);
+        chunk.setSunlight(new Vector3i(1, 2, 3), (byte) 5);
+        assertSame(snapshot, chunk.getStoreSnapshot());
+
+        chunk.setBlock(new Vector3i(1, 2, 3), solid);
+        ChunkSnapshot newSnapshot = chunk.getStoreSnapshot();
+        assertEquals(solid, newSnapshot.getBlock(1, 2, 3));
+        assertEquals(0, newSnapshot.getLight(1, 2, 3));
+        assertEquals(snapshot.getVersion() + 1, newSnapshot.getVersion());
+    }
+
+    @Test
+    public void unpublishedChunkIsChangedWithoutLocking() {
+        chunk.readLock();
+        try {
+            assertTrue(chunk.setLight(1, 2, 3, (byte) 5));
+        } finally {
+            chunk.readUnlock();
+        }
+        assertEquals(5, chunk.getLight(1, 2, 3));
+    }
+
+    @Test
+    public void publishedChunkIsChangedUnderWriteLock() throws Exception {
+        chunk.markPublished();
+        Thread writer = new Thread(() -> chunk.setLight(1, 2, 3, (byte) 5));
+        chunk.readLock();
+        try {
+            writer.start();
+            while (writer.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            assertEquals(0, chunk.getLight(1, 2, 3));
+        } finally {
+            chunk.readUnlock();
+        }
+        writer.join();
+        assertEquals(5, chunk.getLight(1, 2, 3));
+    }
+
+    @Test
+    public void snapshotIsUnaffectedByConcurrentLightChanges() throws Exception {
+        chunk.markPublished();
+        Thread writer = new Thread(() -> {
+            for (byte amount = 1; amount <= ChunkConstants.MAX_LIGHT; ++amount) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                    chunk.setLight(x, 0, 0, amount);
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            ChunkSnapshot snapshot = chunk.getSnapshot();
+            byte first = snapshot.getLight(0, 0, 0);
+            byte last = snapshot.getLight(ChunkConstants.SIZE_X - 1, 0, 0);
+            chunk.setLight(0, 1, 0, (byte) 1);
+            assertEquals(first, snapshot.getLight(0, 0, 0));
+            assertEquals(last, snapshot.getLight(ChunkConstants.SIZE_X - 1, 0, 0));
+        }
+        writer.join();
+    }
+
+    @Test
+    public void blockChangeOnlyDirtiesAdjacentMeshSections() {
+        chunk.setDirty(false);
+        chunk.setDirtyAround(new Vector3i(4, ChunkConstants.MESH_SECTION_SIZE_Y + 5, 4));
+
+        assertFalse(chunk.isDirty(0));
+        assertTrue(chunk.isDirty(1));
+        assertFalse(chunk.isDirty(2));
+    }
+
+    @Test
+    public void blockChangeAtSectionBorderDirtiesBothSections() {
+        chunk.setDirty(false);
+        chunk.setDirtyAround(new Vector3i(4, ChunkConstants.MESH_SECTION_SIZE_Y, 4));
+
+        assertTrue(chunk.isDirty(0));
+        assertTrue(chunk.isDirty(1));
+        assertFalse(chunk.isDirty(2));
+    }
+
+    @Test
+    public void blockChangeOutsideChunkDirtiesNearestSection() {
+        chunk.setDirty(false);
+        chunk.setDirtyAround(new Vector3i(4, -1, 4));
+        assertTrue(chunk.isDirty(0));
+        assertFalse(chunk.isDirty(1));
+
+        chunk.setDirty(false);
+        chunk.setDirtyAround(new Vector3i(4, -2, 4));
+        assertFalse(chunk.isDirty());
+    }
+
     @Test
     public void getAABB() {
         assertEquals(new Vector3f(0, 0, 0), chunk.getAABB().getMin());
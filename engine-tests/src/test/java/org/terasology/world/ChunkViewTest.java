@@ -95,6 +95,26 @@ public void offsetWorldView() {
         assertEquals(solidBlock, chunkView.getBlock(0, 0, 0));
     }
 
+    @Test
+    public void snapshotWorldViewIgnoresLaterChanges() {
+        Chunk chunk = createChunk(0, 0, 0);
+        chunk.setBlock(new Vector3i(0, 0, 0), solidBlock);
+
+        ChunkViewCore chunkView = new ChunkViewCoreImpl(new Chunk[]{chunk}, Region3i.createFromCenterExtents(Vector3i.zero(), Vector3i.zero()), new Vector3i(), airBlock);
+        ChunkView snapshotView = chunkView.createSnapshotView();
+        chunk.setBlock(new Vector3i(0, 0, 0), airBlock);
+
+        assertEquals(solidBlock, snapshotView.getBlock(0, 0, 0));
+        assertEquals(airBlock, chunkView.getBlock(0, 0, 0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotWorldViewIsReadOnly() {
+        Chunk chunk = createChunk(0, 0, 0);
+        ChunkViewCore chunkView = new ChunkViewCoreImpl(new Chunk[]{chunk}, Region3i.createFromCenterExtents(Vector3i.zero(), Vector3i.zero()), new Vector3i(), airBlock);
+        chunkView.createSnapshotView().setBlock(0, 0, 0, solidBlock);
+    }
+
     @Test
     public void offsetWorldViewBeforeMainChunk() {
         Chunk chunk = createChunk(0, 0, 0);
@@ -18,6 +18,7 @@
 
 import com.google.common.base.Objects;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.junit.Before;
 import org.junit.Test;
 import org.terasology.TerasologyTestingEnvironment;
@@ -54,10 +55,13 @@
 import org.terasology.world.block.family.SymmetricBlockFamilyFactory;
 import org.terasology.world.block.loader.BlockFamilyDefinition;
 import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.event.BeforeChunkUnload;
 import org.terasology.world.internal.EntityAwareWorldProvider;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -205,6 +209,22 @@ public void testComponentsAddedAndActivatedWhenBlockChanged() {
                 checker.receivedEvents);
     }
 
+    @Test
+    public void testComponentsAddedWhenBlocksChangedInBulk() {
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(0, 0, 0), blockWithString);
+        blocks.put(new Vector3i(1, 0, 0), blockWithString);
+        blocks.put(new Vector3i(0, 0, 40), plainBlock);
+
+        Map<Vector3i, Block> oldBlocks = worldProvider.setBlocks(blocks);
+        assertEquals(3, oldBlocks.size());
+        assertEquals(airBlock, oldBlocks.get(new Vector3i(1, 0, 0)));
+        assertEquals(blockWithString, worldProvider.getBlock(new Vector3i(1, 0, 0)));
+        assertTrue(worldProvider.getBlockEntityAt(new Vector3i(0, 0, 0)).hasComponent(StringComponent.class));
+        assertTrue(worldProvider.getBlockEntityAt(new Vector3i(1, 0, 0)).hasComponent(StringComponent.class));
+        assertFalse(worldProvider.getBlockEntityAt(new Vector3i(0, 0, 40)).hasComponent(StringComponent.class));
+    }
+
     @Test
     public void testComponentsDeactivatedAndRemovedWhenBlockChanged() {
         worldProvider.setBlock(Vector3i.zero(), blockWithString);
@@ -344,6 +364,31 @@ public void allComponentsNotMarkedAsRetainedRemovedOnBlockChange() {
         assertFalse(entity.hasComponent(ForceBlockActiveComponent.class));
     }
 
+    @Test
+    public void onlyStoredBlockEntitiesDroppedWhenChunkUnloads() {
+        Vector3i storedPos = new Vector3i(0, 0, 0);
+        Vector3i ownedPos = new Vector3i(1, 0, 0);
+        Vector3i alwaysRelevantPos = new Vector3i(2, 0, 0);
+        Vector3i otherChunkPos = new Vector3i(0, 0, ChunkConstants.SIZE_Z);
+        for (Vector3i pos : new Vector3i[]{storedPos, ownedPos, alwaysRelevantPos, otherChunkPos}) {
+            worldStub.setBlock(pos, keepActiveBlock);
+        }
+        EntityRef stored = worldProvider.getBlockEntityAt(storedPos);
+        EntityRef owned = worldProvider.getBlockEntityAt(ownedPos);
+        owned.setOwner(entityManager.create());
+        EntityRef alwaysRelevant = worldProvider.getBlockEntityAt(alwaysRelevantPos);
+        alwaysRelevant.setAlwaysRelevant(true);
+        EntityRef otherChunk = worldProvider.getBlockEntityAt(otherChunkPos);
+
+        worldProvider.onChunkUnloaded(new BeforeChunkUnload(Vector3i.zero()), EntityRef.NULL);
+
+        assertTrue(stored.exists());
+        assertEquals(EntityRef.NULL, worldProvider.getExistingBlockEntityAt(storedPos));
+        assertEquals(owned, worldProvider.getExistingBlockEntityAt(ownedPos));
+        assertEquals(alwaysRelevant, worldProvider.getExistingBlockEntityAt(alwaysRelevantPos));
+        assertEquals(otherChunk, worldProvider.getExistingBlockEntityAt(otherChunkPos));
+    }
+
     @Test
     public void retainedComponentsNotAltered() {
         EntityRef entity = worldProvider.getBlockEntityAt(new Vector3i(0, 0, 0));
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ChunkKeyTest {
+
+    @Test
+    public void roundTrip() {
+        int[] values = {0, 1, -1, 17, -4000, ChunkKey.MIN_COORDINATE, ChunkKey.MAX_COORDINATE};
+        for (int x : values) {
+            for (int y : values) {
+                for (int z : values) {
+                    long key = ChunkKey.of(x, y, z);
+                    assertEquals(x, ChunkKey.x(key));
+                    assertEquals(y, ChunkKey.y(key));
+                    assertEquals(z, ChunkKey.z(key));
+                    assertEquals(new Vector3i(x, y, z), ChunkKey.toVector(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void neighbouringKeysAreDistinct() {
+        TLongSet keys = new TLongHashSet();
+        for (Vector3i pos : Region3i.createFromCenterExtents(Vector3i.zero(), 3)) {
+            assertTrue(keys.add(ChunkKey.of(pos)));
+        }
+    }
+
+    @Test
+    public void offset() {
+        long key = ChunkKey.of(-1, 0, 5);
+        assertEquals(ChunkKey.of(0, -1, 4), ChunkKey.offset(key, 1, -1, -1));
+    }
+
+    @Test
+    public void ofBlock() {
+        assertEquals(ChunkKey.of(-1, 0, 1), ChunkKey.ofBlock(new Vector3i(-1, ChunkConstants.SIZE_Y - 1, ChunkConstants.SIZE_Z)));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks;
+
+import gnu.trove.list.TLongList;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class ConcurrentChunkMapTest {
+
+    @Test
+    public void putGetRemove() {
+        ConcurrentChunkMap<String> map = new ConcurrentChunkMap<>();
+        assertNull(map.put(new Vector3i(1, -2, 3), "a"));
+        assertEquals("a", map.get(1, -2, 3));
+        assertEquals("a", map.get(new Vector3i(1, -2, 3)));
+        assertEquals("a", map.put(ChunkKey.of(1, -2, 3), "b"));
+        assertEquals(1, map.size());
+        assertEquals("b", map.remove(new Vector3i(1, -2, 3)));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void snapshots() {
+        ConcurrentChunkMap<Integer> map = new ConcurrentChunkMap<>();
+        for (int i = 0; i < 100; ++i) {
+            map.put(ChunkKey.of(i, -i, i % 7), i);
+        }
+        TLongList keys = map.keys();
+        assertEquals(100, keys.size());
+        for (int i = 0; i < keys.size(); ++i) {
+            map.remove(keys.get(i));
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(100, keys.size());
+    }
+
+    @Test
+    public void concurrentWriters() throws InterruptedException {
+        final ConcurrentChunkMap<Integer> map = new ConcurrentChunkMap<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; ++t) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; ++i) {
+                    map.put(ChunkKey.of(i, thread, 0), i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, map.size());
+        assertEquals(4000, map.values().size());
+        assertEquals(Integer.valueOf(999), map.get(999, 3, 0));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class TeraPaletteArrayTest {
+
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+
+    @Test
+    public void newArrayNeedsNoIndexData() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertEquals(0, array.getBitsPerEntry());
+        assertEquals(1, array.getPaletteSize());
+        assertEquals(0, array.get(5, 6, 7));
+        assertTrue(array.getEstimatedMemoryConsumptionInBytes() < 100);
+    }
+
+    @Test
+    public void indexSizeGrowsWithPalette() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(0, 0, 0, 1);
+        assertEquals(1, array.getBitsPerEntry());
+        array.set(1, 0, 0, 2);
+        assertEquals(2, array.getBitsPerEntry());
+        for (int i = 3; i <= 20; i++) {
+            array.set(i - 1, 0, 0, i);
+        }
+        assertEquals(5, array.getBitsPerEntry());
+        for (int i = 1; i <= 20; i++) {
+            assertEquals(i, array.get(i - 1, 0, 0));
+        }
+        assertEquals(0, array.get(20, 0, 0));
+    }
+
+    @Test
+    public void matchesDenseArray() {
+        TeraArray dense = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        TeraArray palette = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            int x = random.nextInt(SIZE_X);
+            int y = random.nextInt(SIZE_Y);
+            int z = random.nextInt(SIZE_Z);
+            // mostly few values, occasionally enough of them to need a lookup map and wide indices
+            int value = (i % 10 == 0) ? random.nextInt(65536) - 32768 : random.nextInt(30);
+            assertEquals(dense.set(x, y, z, value), palette.set(x, y, z, value));
+        }
+        assertContentEquals(dense, palette);
+        assertEquals(14, ((TeraPaletteArray) palette).getBitsPerEntry());
+    }
+
+    @Test
+    public void compareAndSet() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        assertFalse(array.set(1, 2, 3, 5, 4));
+        assertEquals(0, array.get(1, 2, 3));
+        assertTrue(array.set(1, 2, 3, 5, 0));
+        assertEquals(5, array.get(1, 2, 3));
+    }
+
+    @Test
+    public void constructFromValues() {
+        short[] values = new short[SIZE_X * SIZE_Y * SIZE_Z];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (short) ((i / 1000) % 7 - 3);
+        }
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z, values);
+        assertEquals(7, array.getPaletteSize());
+        assertEquals(3, array.getBitsPerEntry());
+        assertContentEquals(new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, values), array);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        TeraPaletteArray array = createTerrain();
+        TeraArray copy = array.copy();
+        assertContentEquals(array, copy);
+        copy.set(0, 0, 0, 1000);
+        assertEquals(1000, copy.get(0, 0, 0));
+        assertFalse(array.get(0, 0, 0) == 1000);
+    }
+
+    @Test
+    public void deflatingDropsUnusedValues() {
+        TeraPaletteArray array = createTerrain();
+        assertNull(array.compact());
+        for (int i = 0; i < 40; i++) {
+            array.set(0, 0, 0, 100 + i);
+        }
+        assertEquals(7, array.getBitsPerEntry());
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+        assertNotSame(array, deflated);
+        assertEquals(5, ((TeraPaletteArray) deflated).getBitsPerEntry());
+        assertContentEquals(array, deflated);
+    }
+
+    @Test
+    public void serializationRoundTrip() {
+        TeraPaletteArray array = createTerrain();
+        TeraPaletteArray.SerializationHandler handler = new TeraPaletteArray.Factory().createSerializationHandler();
+        ByteBuffer buffer = handler.serialize(array);
+        assertEquals(handler.computeMinimumBufferSize(array), buffer.position());
+        buffer.rewind();
+        TeraPaletteArray result = handler.deserialize(buffer);
+        assertEquals(array.getPaletteSize(), result.getPaletteSize());
+        assertContentEquals(array, result);
+    }
+
+    @Test
+    public void usesLessMemoryThanDenseArray() {
+        TeraPaletteArray array = createTerrain();
+        TeraArray dense = new TeraDenseArray16Bit(array);
+        assertTrue(array.getEstimatedMemoryConsumptionInBytes() * 3 < dense.getEstimatedMemoryConsumptionInBytes());
+    }
+
+    private static TeraPaletteArray createTerrain() {
+        TeraPaletteArray array = new TeraPaletteArray(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    array.set(x, y, z, (y < SIZE_Y / 2) ? 1 + (x * 31 + y * 17 + z * 7) % 24 : 0);
+                }
+            }
+        }
+        return array;
+    }
+
+    private static void assertContentEquals(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    assertEquals(expected.get(x, y, z), actual.get(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.remoteChunkProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.logic.players.LocalPlayer;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class RemoteChunkProviderTest extends TerasologyTestingEnvironment {
+
+    private RemoteChunkProvider chunkProvider;
+    private ChunkReadyListener listener;
+    private BlockManager blockManager;
+    private BiomeManager biomeManager;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        blockManager = context.get(BlockManager.class);
+        biomeManager = context.get(BiomeManager.class);
+        LocalPlayer localPlayer = mock(LocalPlayer.class);
+        when(localPlayer.getPosition()).thenReturn(new Vector3f());
+
+        chunkProvider = new RemoteChunkProvider(blockManager, localPlayer);
+        listener = mock(ChunkReadyListener.class);
+        chunkProvider.subscribe(listener);
+    }
+
+    @After
+    public void teardown() {
+        chunkProvider.dispose();
+    }
+
+    @Test
+    public void chunkBecomesAvailableOnceItsNeighboursArrived() {
+        Chunk chunk = receiveChunkWithNeighbours();
+
+        assertSame(chunk, chunkProvider.getChunk(Vector3i.zero()));
+        assertNull(chunkProvider.getChunk(new Vector3i(1, 0, 0)));
+        verify(listener, times(1)).onChunkReady(Vector3i.zero());
+    }
+
+    @Test
+    public void resentChunkKeepsOldChunkAvailableUntilReady() {
+        Chunk oldChunk = receiveChunkWithNeighbours();
+        Chunk newChunk = new ChunkImpl(Vector3i.zero(), blockManager, biomeManager);
+
+        chunkProvider.onChunkIsReady(newChunk);
+        chunkProvider.beginUpdate();
+        assertSame(oldChunk, chunkProvider.getChunk(Vector3i.zero()));
+        assertFalse(oldChunk.isDisposed());
+
+        chunkProvider.completeUpdate();
+        assertSame(newChunk, chunkProvider.getChunk(Vector3i.zero()));
+        verify(listener, times(2)).onChunkReady(Vector3i.zero());
+    }
+
+    @Test
+    public void chunkResentTwiceBecomesReadyOncePerReceivedChunk() {
+        receiveChunkWithNeighbours();
+        Chunk firstChunk = new ChunkImpl(Vector3i.zero(), blockManager, biomeManager);
+        Chunk secondChunk = new ChunkImpl(Vector3i.zero(), blockManager, biomeManager);
+
+        chunkProvider.onChunkIsReady(firstChunk);
+        chunkProvider.onChunkIsReady(secondChunk);
+        chunkProvider.beginUpdate();
+        chunkProvider.completeUpdate();
+        assertSame(firstChunk, chunkProvider.getChunk(Vector3i.zero()));
+
+        chunkProvider.beginUpdate();
+        chunkProvider.completeUpdate();
+        assertSame(secondChunk, chunkProvider.getChunk(Vector3i.zero()));
+        verify(listener, times(3)).onChunkReady(Vector3i.zero());
+    }
+
+    private Chunk receiveChunkWithNeighbours() {
+        Chunk center = null;
+        for (Vector3i pos : Region3i.createFromCenterExtents(Vector3i.zero(), 1)) {
+            Chunk chunk = new ChunkImpl(pos, blockManager, biomeManager);
+            if (pos.equals(Vector3i.zero())) {
+                center = chunk;
+            }
+            chunkProvider.onChunkIsReady(chunk);
+        }
+        chunkProvider.beginUpdate();
+        chunkProvider.completeUpdate();
+        return center;
+    }
+}
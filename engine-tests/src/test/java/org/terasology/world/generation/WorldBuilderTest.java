@@ -20,11 +20,13 @@
 import org.terasology.context.internal.ContextImpl;
 import org.terasology.math.Region3i;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
 import org.terasology.world.generation.facets.base.BaseFacet3D;
 import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class WorldBuilderTest {
@@ -122,6 +124,52 @@ public void testUpdating() {
         assertTrue(regionData.getFacet(Facet4.class).updated);
     }
 
+    @Test
+    public void columnFacetsSharedBetweenStackedRegions() {
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        ColumnFacetProvider columnProvider = new ColumnFacetProvider();
+        worldBuilder.addProvider(columnProvider);
+        worldBuilder.addProvider(new ColumnFacetUpdater());
+        worldBuilder.addProvider(new StackedFacetProvider());
+
+        World world = worldBuilder.build();
+        ColumnFacet first = null;
+        for (int y = -4; y < 4; ++y) {
+            Region regionData = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, y * 16, 0), new Vector3i(16, 16, 16)));
+            assertNotNull(regionData.getFacet(StackedFacet.class));
+            ColumnFacet columnFacet = regionData.getFacet(ColumnFacet.class);
+            assertEquals(1, columnFacet.updates);
+            if (first == null) {
+                first = columnFacet;
+            }
+            assertSame(first, columnFacet);
+        }
+        assertEquals(1, columnProvider.processed);
+        assertEquals(7, worldBuilder.getFacetCache().getHits());
+
+        world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(16, 0, 0), new Vector3i(16, 16, 16))).getFacet(ColumnFacet.class);
+        assertEquals(2, columnProvider.processed);
+    }
+
+    @Test
+    public void columnFacetsNotSharedWhenUpdatedFrom3D() {
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        ColumnFacetProvider columnProvider = new ColumnFacetProvider();
+        worldBuilder.addProvider(columnProvider);
+        worldBuilder.addProvider(new Facet2Provider());
+        worldBuilder.addProvider(new ColumnFacetUpdaterFrom3D());
+
+        World world = worldBuilder.build();
+        for (int y = 0; y < 4; ++y) {
+            Region regionData = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, y * 16, 0), new Vector3i(16, 16, 16)));
+            assertEquals(1, regionData.getFacet(ColumnFacet.class).updates);
+        }
+        assertEquals(4, columnProvider.processed);
+        assertEquals(0, worldBuilder.getFacetCache().getHits());
+    }
+
     public static class Facet1 extends BaseFacet3D {
         public boolean updated;
         public Facet1(Region3i targetRegion, Border3D border) {
@@ -207,4 +255,57 @@ public void process(GeneratingRegion region) {
             region.setRegionFacet(Facet3.class, facet);
         }
     }
+
+    public static class ColumnFacet extends BaseFacet2D {
+        public int updates;
+        public ColumnFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class StackedFacet extends BaseFacet3D {
+        public StackedFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(ColumnFacet.class)
+    public static class ColumnFacetProvider implements FacetProvider {
+        private int processed;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processed++;
+            region.setRegionFacet(ColumnFacet.class, new ColumnFacet(region.getRegion(), region.getBorderForFacet(ColumnFacet.class)));
+        }
+    }
+
+    @Updates(@Facet(ColumnFacet.class))
+    public static class ColumnFacetUpdater implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(ColumnFacet.class).updates++;
+        }
+    }
+
+    @Requires(@Facet(Facet2.class))
+    @Updates(@Facet(ColumnFacet.class))
+    public static class ColumnFacetUpdaterFrom3D implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(ColumnFacet.class).updates++;
+        }
+    }
+
+    @Produces(StackedFacet.class)
+    @Requires(@Facet(ColumnFacet.class))
+    public static class StackedFacetProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(StackedFacet.class, new StackedFacet(region.getRegion(), region.getBorderForFacet(StackedFacet.class)));
+        }
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ */
+public class BlockEntityIndexTest {
+
+    private BlockEntityIndex index = new BlockEntityIndex();
+
+    @Test
+    public void lookupAfterPut() {
+        EntityRef entity = mock(EntityRef.class);
+        assertNull(index.put(new Vector3i(5, -3, 70), entity));
+        assertSame(entity, index.get(new Vector3i(5, -3, 70)));
+        assertNull(index.get(new Vector3i(5, -3, 71)));
+        assertNull(index.get(new Vector3i(5 + 32, -3, 70)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void putReplacesEntity() {
+        EntityRef first = mock(EntityRef.class);
+        EntityRef second = mock(EntityRef.class);
+        index.put(new Vector3i(1, 2, 3), first);
+        assertSame(first, index.put(new Vector3i(1, 2, 3), second));
+        assertSame(second, index.get(new Vector3i(1, 2, 3)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void removeOnlyMatchingEntity() {
+        EntityRef entity = mock(EntityRef.class);
+        index.put(new Vector3i(-40, 0, 9), entity);
+        assertFalse(index.remove(new Vector3i(-40, 0, 9), mock(EntityRef.class)));
+        assertSame(entity, index.get(new Vector3i(-40, 0, 9)));
+        assertTrue(index.remove(new Vector3i(-40, 0, 9), entity));
+        assertNull(index.get(new Vector3i(-40, 0, 9)));
+        assertEquals(0, index.size());
+        assertEquals(0, index.getChunkCount());
+    }
+
+    @Test
+    public void removeChunkDropsOnlyItsEntities() {
+        for (int x = 0; x < 64; ++x) {
+            index.put(new Vector3i(x, 10, 0), mock(EntityRef.class));
+        }
+        assertEquals(2, index.getChunkCount());
+
+        Collection<EntityRef> removed = index.removeChunk(new Vector3i(1, 0, 0));
+        assertEquals(32, removed.size());
+        assertEquals(32, index.size());
+        assertNull(index.get(new Vector3i(40, 10, 0)));
+        assertTrue(index.get(new Vector3i(20, 10, 0)) != null);
+        assertTrue(index.removeChunk(new Vector3i(1, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void distinguishesAllBlocksOfAChunk() {
+        for (int y = 0; y < 64; ++y) {
+            for (int z = 0; z < 32; ++z) {
+                for (int x = 0; x < 32; ++x) {
+                    index.put(new Vector3i(x, y, z), mock(EntityRef.class));
+                }
+            }
+        }
+        assertEquals(32 * 64 * 32, index.size());
+        assertEquals(1, index.getChunkCount());
+    }
+}
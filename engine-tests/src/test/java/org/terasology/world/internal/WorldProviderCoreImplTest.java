@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.SimpleUri;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.WorldChangeListener;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.family.SymmetricBlockFamilyFactory;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class WorldProviderCoreImplTest extends TerasologyTestingEnvironment {
+
+    private Map<Vector3i, Chunk> chunks = Maps.newHashMap();
+    private WorldProviderCoreImpl worldProvider;
+    private WorldChangeListener listener;
+
+    private Block airBlock;
+    private Block stoneBlock;
+    private Block torchBlock;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = context.get(AssetManager.class);
+        BlockManager blockManager = context.get(BlockManager.class);
+        BiomeManager biomeManager = context.get(BiomeManager.class);
+
+        airBlock = blockManager.getBlock(BlockManager.AIR_ID);
+        stoneBlock = createBlock("test:stone", (byte) 0, assetManager, blockManager);
+        torchBlock = createBlock("test:torch", ChunkConstants.MAX_LIGHT, assetManager, blockManager);
+
+        for (Vector3i pos : new Vector3i[]{new Vector3i(-1, 0, 0), new Vector3i(0, 0, 0), new Vector3i(1, 0, 0)}) {
+            Chunk chunk = new ChunkImpl(pos, blockManager, biomeManager);
+            chunk.setDirty(false);
+            chunks.put(pos, chunk);
+        }
+        GeneratingChunkProvider chunkProvider = mock(GeneratingChunkProvider.class);
+        when(chunkProvider.getChunk(any(Vector3i.class))).thenAnswer(invocation -> chunks.get(invocation.getArguments()[0]));
+        when(chunkProvider.getChunk(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return chunks.get(new Vector3i((Integer) args[0], (Integer) args[1], (Integer) args[2]));
+        });
+
+        worldProvider = new WorldProviderCoreImpl("test", "test", 0, new SimpleUri("test:test"), chunkProvider, airBlock, context);
+        listener = mock(WorldChangeListener.class);
+        worldProvider.registerListener(listener);
+    }
+
+    private Block createBlock(String urn, byte luminance, AssetManager assetManager, BlockManager blockManager) {
+        BlockFamilyDefinitionData data = new BlockFamilyDefinitionData();
+        data.setFamilyFactory(new SymmetricBlockFamilyFactory());
+        data.getBaseSection().setLuminance(luminance);
+        assetManager.loadAsset(new ResourceUrn(urn), data, BlockFamilyDefinition.class);
+        return blockManager.getBlock(urn);
+    }
+
+    @Test
+    public void blocksAreSetAndListenersNotifiedOncePerChunk() {
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(0, 0, 0), stoneBlock);
+        blocks.put(new Vector3i(1, 0, 0), stoneBlock);
+        blocks.put(new Vector3i(ChunkConstants.SIZE_X, 0, 0), stoneBlock);
+
+        Map<Vector3i, Block> oldBlocks = worldProvider.setBlocks(blocks);
+
+        assertEquals(3, oldBlocks.size());
+        assertEquals(airBlock, oldBlocks.get(new Vector3i(ChunkConstants.SIZE_X, 0, 0)));
+        for (Vector3i pos : blocks.keySet()) {
+            assertEquals(stoneBlock, worldProvider.getBlock(pos.x, pos.y, pos.z));
+        }
+        verify(listener, times(1)).onBlocksChanged(eq(new Vector3i(0, 0, 0)), anyMapOf(Vector3i.class, Block.class), anyMapOf(Vector3i.class, Block.class));
+        verify(listener, times(1)).onBlocksChanged(eq(new Vector3i(1, 0, 0)), anyMapOf(Vector3i.class, Block.class), anyMapOf(Vector3i.class, Block.class));
+        verify(listener, never()).onBlockChanged(any(Vector3i.class), any(Block.class), any(Block.class));
+    }
+
+    @Test
+    public void changesInUnloadedChunksAreSkipped() {
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(0, 0, 0), stoneBlock);
+        blocks.put(new Vector3i(5 * ChunkConstants.SIZE_X, 0, 0), stoneBlock);
+
+        Map<Vector3i, Block> oldBlocks = worldProvider.setBlocks(blocks);
+
+        assertEquals(1, oldBlocks.size());
+        assertFalse(oldBlocks.containsKey(new Vector3i(5 * ChunkConstants.SIZE_X, 0, 0)));
+        verify(listener, never()).onBlocksChanged(eq(new Vector3i(5, 0, 0)), anyMapOf(Vector3i.class, Block.class), anyMapOf(Vector3i.class, Block.class));
+    }
+
+    @Test
+    public void unchangedBlocksDoNotNotify() {
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(0, 0, 0), airBlock);
+
+        assertEquals(airBlock, worldProvider.setBlocks(blocks).get(new Vector3i(0, 0, 0)));
+        verify(listener, never()).onBlocksChanged(any(Vector3i.class), anyMapOf(Vector3i.class, Block.class), anyMapOf(Vector3i.class, Block.class));
+        assertFalse(chunks.get(new Vector3i(0, 0, 0)).isDirty());
+    }
+
+    @Test
+    public void changeAtChunkBorderDirtiesNeighbouringChunk() {
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(ChunkConstants.SIZE_X - 1, 5, 5), stoneBlock);
+
+        worldProvider.setBlocks(blocks);
+
+        assertTrue(chunks.get(new Vector3i(0, 0, 0)).isDirty());
+        assertTrue(chunks.get(new Vector3i(1, 0, 0)).isDirty());
+        assertFalse(chunks.get(new Vector3i(-1, 0, 0)).isDirty());
+    }
+
+    @Test
+    public void changesAreRecordedForPropagation() {
+        Map<Vector3i, Block> blocks = Maps.newHashMap();
+        blocks.put(new Vector3i(ChunkConstants.SIZE_X - 1, 5, 5), torchBlock);
+
+        worldProvider.setBlocks(blocks);
+        worldProvider.processPropagation();
+
+        assertEquals(ChunkConstants.MAX_LIGHT - 1, chunks.get(new Vector3i(1, 0, 0)).getLight(0, 5, 5));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkKey;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class PositionQueueTest {
+
+    @Test
+    public void positionsRoundTrip() {
+        List<Vector3i> positions = Lists.newArrayList(new Vector3i(3, 0, -2), new Vector3i(-1, 255, -32),
+                new Vector3i(3 + ChunkKey.MIN_COORDINATE, ChunkKey.MAX_COORDINATE, -7));
+        PositionQueue queue = new PositionQueue();
+        for (Vector3i pos : positions) {
+            assertTrue(queue.add(pos));
+        }
+        assertEquals(positions, contents(queue));
+    }
+
+    @Test
+    public void positionsFarOutInTheWorldRoundTrip() {
+        List<Vector3i> positions = Lists.newArrayList(new Vector3i(Integer.MAX_VALUE, 5, Integer.MIN_VALUE),
+                new Vector3i(Integer.MAX_VALUE - 1, 6, Integer.MIN_VALUE + 1), new Vector3i(Integer.MAX_VALUE, 4, Integer.MIN_VALUE));
+        PositionQueue queue = new PositionQueue();
+        for (Vector3i pos : positions) {
+            assertTrue(queue.add(pos));
+        }
+        assertFalse(queue.add(new Vector3i(Integer.MAX_VALUE, 5, Integer.MIN_VALUE)));
+        assertEquals(positions, contents(queue));
+    }
+
+    @Test
+    public void positionsOutOfRangeOfEachOtherKeepTheirOrder() {
+        Vector3i near = new Vector3i(0, 0, 0);
+        Vector3i far = new Vector3i(Integer.MAX_VALUE, Integer.MIN_VALUE, ChunkKey.MAX_COORDINATE + 1);
+        Vector3i nearAgain = new Vector3i(1, 0, 0);
+        PositionQueue queue = new PositionQueue();
+        assertTrue(queue.add(near));
+        assertTrue(queue.add(far));
+        assertFalse(queue.add(new Vector3i(far)));
+        assertTrue(queue.add(nearAgain));
+        assertTrue(queue.contains(far));
+        assertEquals(Lists.newArrayList(near, far, nearAgain), contents(queue));
+
+        assertTrue(queue.remove(far));
+        assertFalse(queue.contains(far));
+        assertTrue(queue.add(far));
+        assertEquals(Lists.newArrayList(near, nearAgain, far), contents(queue));
+    }
+
+    @Test
+    public void duplicatesKeepTheirPlace() {
+        PositionQueue queue = new PositionQueue();
+        assertTrue(queue.add(new Vector3i(1, 2, 3)));
+        assertTrue(queue.add(new Vector3i(-4, 5, 6)));
+        assertFalse(queue.add(new Vector3i(1, 2, 3)));
+
+        assertEquals(2, queue.size());
+        assertEquals(Lists.newArrayList(new Vector3i(1, 2, 3), new Vector3i(-4, 5, 6)), contents(queue));
+    }
+
+    @Test
+    public void readdedPositionsGoToTheEnd() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(new Vector3i(1, 0, 0));
+        queue.add(new Vector3i(2, 0, 0));
+        queue.add(new Vector3i(3, 0, 0));
+        assertTrue(queue.remove(new Vector3i(1, 0, 0)));
+        assertFalse(queue.remove(new Vector3i(1, 0, 0)));
+        queue.add(new Vector3i(1, 0, 0));
+
+        assertEquals(Lists.newArrayList(new Vector3i(2, 0, 0), new Vector3i(3, 0, 0), new Vector3i(1, 0, 0)), contents(queue));
+    }
+
+    @Test
+    public void clearEmptiesQueue() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(new Vector3i(1, 0, 0));
+        queue.clear();
+
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.contains(new Vector3i(1, 0, 0)));
+        assertTrue(contents(queue).isEmpty());
+    }
+
+    private List<Vector3i> contents(PositionQueue queue) {
+        List<Vector3i> result = Lists.newArrayList();
+        queue.forEach(pos -> {
+            Vector3i vector = new Vector3i();
+            queue.unpack(pos, vector);
+            result.add(vector);
+            return true;
+        });
+        return result;
+    }
+}
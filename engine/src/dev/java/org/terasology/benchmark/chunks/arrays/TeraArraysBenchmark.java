@@ -18,7 +18,10 @@
 import org.terasology.benchmark.Benchmarks;
 import org.terasology.benchmark.Benchmark;
 import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -72,7 +75,32 @@ public static void main(String[] args) {
 //        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraSparseArray8Bit(16, 256, 16, INFLATED_8_BIT, DEFLATED_8_BIT)));
 //        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraSparseArray4Bit(16, 256, 16, INFLATED_4_BIT, DEFLATED_4_BIT)));
 
+        // block data of a 32x64x32 chunk, dense compared to palette compressed
+        benchmarks.add(new BenchmarkTeraArrayRead(createTerrain(new TeraDenseArray16Bit(32, 64, 32))));
+        benchmarks.add(new BenchmarkTeraArrayRead(createTerrain(new TeraPaletteArray(32, 64, 32))));
+        benchmarks.add(new BenchmarkTeraArrayWrite(createTerrain(new TeraDenseArray16Bit(32, 64, 32))));
+        benchmarks.add(new BenchmarkTeraArrayWrite(createTerrain(new TeraPaletteArray(32, 64, 32))));
+        benchmarks.add(new BenchmarkTeraArraySerializeToBuffer(new TeraDenseArray16Bit.SerializationHandler(), createTerrain(new TeraDenseArray16Bit(32, 64, 32))));
+        benchmarks.add(new BenchmarkTeraArraySerializeToBuffer(new TeraPaletteArray.SerializationHandler(), createTerrain(new TeraPaletteArray(32, 64, 32))));
+        benchmarks.add(new BenchmarkTeraArrayDeserializeFromBuffer(new TeraDenseArray16Bit.SerializationHandler(), createTerrain(new TeraDenseArray16Bit(32, 64, 32))));
+        benchmarks.add(new BenchmarkTeraArrayDeserializeFromBuffer(new TeraPaletteArray.SerializationHandler(), createTerrain(new TeraPaletteArray(32, 64, 32))));
+
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
+
+    /**
+     * Fills the array with layers of 24 different values, roughly like generated terrain, and prints its memory consumption.
+     */
+    private static <T extends TeraArray> T createTerrain(T array) {
+        for (int y = 0; y < array.getSizeY(); y++) {
+            for (int z = 0; z < array.getSizeZ(); z++) {
+                for (int x = 0; x < array.getSizeX(); x++) {
+                    int value = (y < array.getSizeY() / 2) ? 1 + (x * 31 + y * 17 + z * 7) % 24 : 0;
+                    array.set(x, y, z, value);
+                }
+            }
+        }
+        return array;
+    }
 }
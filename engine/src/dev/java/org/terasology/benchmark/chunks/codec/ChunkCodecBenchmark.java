@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.codec;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.persistence.internal.ChunkCodecs;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodes or decodes a set of serialized chunks with one codec. The title states how much data each run processes and
+ * how well the codec compresses it, so the run times translate into MB/s.
+ *
+ */
+public class ChunkCodecBenchmark extends AbstractBenchmark {
+
+    private final ChunkCodecs codecs;
+    private final List<byte[]> chunks;
+    private final boolean decoding;
+    private byte[][] encodedChunks;
+    private long checksum;
+
+    public ChunkCodecBenchmark(ChunkCodecs codecs, List<byte[]> chunks, boolean decoding) {
+        super(createTitle(codecs, chunks, decoding), 2, new int[]{5, 10});
+        this.codecs = codecs;
+        this.chunks = chunks;
+        this.decoding = decoding;
+    }
+
+    private static String createTitle(ChunkCodecs codecs, List<byte[]> chunks, boolean decoding) {
+        long rawSize = 0;
+        long encodedSize = 0;
+        for (byte[] chunk : chunks) {
+            rawSize += chunk.length;
+            encodedSize += codecs.encode(chunk).length;
+        }
+        return String.format(Locale.ENGLISH, "%s %d chunks (%.1f MB) with %s, compressed to %.1f%%",
+                decoding ? "Decoding" : "Encoding", chunks.size(), rawSize / (1024.0 * 1024.0), codecs.getWriteCodec(),
+                100.0 * encodedSize / rawSize);
+    }
+
+    @Override
+    public void setup() {
+        encodedChunks = new byte[chunks.size()][];
+        for (int i = 0; i < chunks.size(); i++) {
+            encodedChunks[i] = codecs.encode(chunks.get(i));
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (decoding) {
+                for (byte[] encoded : encodedChunks) {
+                    checksum += codecs.decode(encoded).length;
+                }
+            } else {
+                for (byte[] chunk : chunks) {
+                    checksum += codecs.encode(chunk).length;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+}
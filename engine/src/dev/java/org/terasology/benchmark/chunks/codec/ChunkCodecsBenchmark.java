@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.codec;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.internal.ChunkCodec;
+import org.terasology.persistence.internal.ChunkCodecs;
+import org.terasology.persistence.internal.ChunkDictionaries;
+import org.terasology.persistence.internal.ChunkDictionaryTrainer;
+import org.terasology.persistence.internal.DeflaterChunkCodec;
+import org.terasology.persistence.internal.GZipChunkCodec;
+import org.terasology.persistence.internal.RawChunkCodec;
+import org.terasology.persistence.internal.RegionFile;
+import org.terasology.persistence.internal.StoragePathProvider;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Compares the chunk codecs on the chunks of a save game, which has to be given as argument. Save games that still
+ * store their chunks in chunk zips have to be opened once to convert them into region files.
+ * <br><br>
+ * The first chunks serve as samples for a dictionary, the remaining ones get encoded and decoded by each codec.
+ *
+ */
+public final class ChunkCodecsBenchmark {
+
+    private static final int MAX_CHUNKS = 2000;
+    private static final int DICTIONARY_SAMPLES = 64;
+
+    private ChunkCodecsBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: ChunkCodecsBenchmark <save game directory>");
+            return;
+        }
+        List<byte[]> chunks = loadChunks(Paths.get(args[0]));
+        if (chunks.size() <= DICTIONARY_SAMPLES) {
+            System.err.println("The save game contains only " + chunks.size() + " chunks, it needs more than " + DICTIONARY_SAMPLES);
+            return;
+        }
+        List<byte[]> samples = chunks.subList(0, DICTIONARY_SAMPLES);
+        List<byte[]> testChunks = chunks.subList(DICTIONARY_SAMPLES, chunks.size());
+
+        ChunkDictionaries dictionaries = new ChunkDictionaries();
+        byte[] dictionary = ChunkDictionaryTrainer.train(samples, ChunkDictionaryTrainer.MAX_DICTIONARY_SIZE);
+        dictionaries.add(dictionary);
+
+        List<ChunkCodec> codecs = Lists.newArrayList();
+        codecs.add(new RawChunkCodec());
+        codecs.add(new GZipChunkCodec());
+        for (int level : new int[]{1, 3, 6, 9}) {
+            codecs.add(new DeflaterChunkCodec(level, dictionaries));
+            codecs.add(new DeflaterChunkCodec(level, dictionaries, dictionary));
+        }
+
+        List<Benchmark> benchmarks = Lists.newArrayList();
+        for (ChunkCodec codec : codecs) {
+            benchmarks.add(new ChunkCodecBenchmark(new ChunkCodecs(codec, dictionaries), testChunks, false));
+            benchmarks.add(new ChunkCodecBenchmark(new ChunkCodecs(codec, dictionaries), testChunks, true));
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    /**
+     * @return the uncompressed data of up to {@link #MAX_CHUNKS} chunks of the save game
+     */
+    private static List<byte[]> loadChunks(Path savePath) throws IOException {
+        StoragePathProvider storagePathProvider = new StoragePathProvider(savePath);
+        ChunkDictionaries dictionaries = new ChunkDictionaries(storagePathProvider.getChunkDictionariesPath());
+        dictionaries.load();
+        ChunkCodecs codecs = new ChunkCodecs(new RawChunkCodec(), dictionaries);
+
+        List<byte[]> chunks = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(storagePathProvider.getWorldPath(), "*.region")) {
+            for (Path regionPath : stream) {
+                try (RegionFile regionFile = RegionFile.openForReading(regionPath)) {
+                    // only the position within the region matters for reading
+                    for (int z = 0; z < RegionFile.REGION_DIM; z++) {
+                        for (int y = 0; y < RegionFile.REGION_DIM; y++) {
+                            for (int x = 0; x < RegionFile.REGION_DIM; x++) {
+                                byte[] data = regionFile.read(new Vector3i(x, y, z));
+                                if (data != null) {
+                                    chunks.add(codecs.decode(data));
+                                    if (chunks.size() == MAX_CHUNKS) {
+                                        return chunks;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.locking;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.List;
+
+/**
+ * Compares reading chunks under their read lock with reading their snapshots, while they are being written to either in
+ * bulk under a held write lock or one locked change at a time.
+ *
+ */
+public final class ChunkLockingBenchmark {
+
+    private ChunkLockingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        for (int readers : new int[]{1, 4}) {
+            for (boolean bulkWrites : new boolean[]{false, true}) {
+                benchmarks.add(new ChunkReadContentionBenchmark(false, bulkWrites, readers));
+                benchmarks.add(new ChunkReadContentionBenchmark(true, bulkWrites, readers));
+            }
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.locking;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSnapshot;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scans the light of a chunk from several reader threads while another thread keeps changing it, either holding the
+ * chunk's read lock during each scan or reading a snapshot of the chunk.
+ * <br><br>
+ * The writer either holds the write lock for a batch of changes, which the setters then don't take again, or lets
+ * every setter take the lock itself. With snapshots, the first change after each snapshot also copies the light data.
+ *
+ */
+public class ChunkReadContentionBenchmark extends AbstractBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkReadContentionBenchmark.class);
+
+    private static final int SCANS_PER_READER = 20;
+    private static final int WRITES_PER_LOCK = 16;
+
+    private final boolean snapshots;
+    private final boolean bulkWrites;
+    private final int readers;
+
+    private ChunkImpl chunk;
+    private long writes;
+    private long writeNanos;
+    private long checksum;
+
+    public ChunkReadContentionBenchmark(boolean snapshots, boolean bulkWrites, int readers) {
+        super("Chunk light scans by " + readers + " readers with a concurrent " + (bulkWrites ? "bulk " : "") + "writer, "
+                + (snapshots ? "reading snapshots" : "holding the read lock"), 1, new int[]{5, 10});
+        this.snapshots = snapshots;
+        this.bulkWrites = bulkWrites;
+        this.readers = readers;
+    }
+
+    @Override
+    public void setup() {
+        chunk = new ChunkImpl(new Vector3i(0, 0, 0), null, null);
+        chunk.markPublished();
+    }
+
+    @Override
+    public void run() {
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            Random random = new Random(0);
+            long start = System.nanoTime();
+            while (!done.get()) {
+                if (bulkWrites) {
+                    chunk.writeLock();
+                    try {
+                        writeBatch(random);
+                    } finally {
+                        chunk.writeUnlock();
+                    }
+                } else {
+                    writeBatch(random);
+                }
+                writes += WRITES_PER_LOCK;
+            }
+            writeNanos += System.nanoTime() - start;
+        });
+        writer.start();
+
+        List<Thread> readerThreads = Lists.newArrayList();
+        for (int r = 0; r < readers; ++r) {
+            Thread reader = new Thread(() -> {
+                long sum = 0;
+                for (int scan = 0; scan < SCANS_PER_READER; ++scan) {
+                    sum += snapshots ? scanSnapshot() : scanLocked();
+                }
+                synchronized (this) {
+                    checksum += sum;
+                }
+            });
+            readerThreads.add(reader);
+            reader.start();
+        }
+
+        try {
+            for (Thread reader : readerThreads) {
+                reader.join();
+            }
+            done.set(true);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(Random random) {
+        for (int i = 0; i < WRITES_PER_LOCK; ++i) {
+            chunk.setLight(random.nextInt(ChunkConstants.SIZE_X), random.nextInt(ChunkConstants.SIZE_Y),
+                    random.nextInt(ChunkConstants.SIZE_Z), (byte) random.nextInt(ChunkConstants.MAX_LIGHT + 1));
+        }
+    }
+
+    private long scanLocked() {
+        long sum = 0;
+        chunk.readLock();
+        try {
+            for (int y = 0; y < ChunkConstants.SIZE_Y; ++y) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                    for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                        sum += chunk.getLight(x, y, z);
+                    }
+                }
+            }
+        } finally {
+            chunk.readUnlock();
+        }
+        return sum;
+    }
+
+    private long scanSnapshot() {
+        long sum = 0;
+        ChunkSnapshot snapshot = chunk.getSnapshot();
+        for (int y = 0; y < ChunkConstants.SIZE_Y; ++y) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                    sum += snapshot.getLight(x, y, z);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        logger.info("Writer changed {} light values meanwhile, {} ns per change (checksum {})", writes,
+                (writes > 0) ? writeNanos / writes : 0, checksum);
+    }
+}
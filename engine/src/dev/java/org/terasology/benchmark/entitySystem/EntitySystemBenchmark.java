@@ -40,6 +40,15 @@ public static void main(String[] args) {
         benchmarks.add(new EntityCreateBenchmark());
         benchmarks.add(new IterateSingleComponentBenchmark());
         benchmarks.add(new IterateMultipleComponentBenchmark());
+        benchmarks.add(new IterateMultipleComponentBenchmark(true));
+        for (int components : new int[]{5, 20, 50}) {
+            benchmarks.add(new EventSendBenchmark(components, false));
+            benchmarks.add(new EventSendBenchmark(components, true));
+        }
+        for (int entities : new int[]{10000, 100000, 1000000}) {
+            benchmarks.add(new SpatialQueryBenchmark(entities, false));
+            benchmarks.add(new SpatialQueryBenchmark(entities, true));
+        }
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import com.google.common.collect.Lists;
+import org.reflections.Reflections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.config.Config;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.event.internal.EventReceiver;
+import org.terasology.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.entitySystem.metadata.EntitySystemLibrary;
+import org.terasology.network.NetworkSystem;
+import org.terasology.network.internal.NetworkSystemImpl;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.registry.CoreRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sends an event to entities with a varying number of components, each of which has a handler for the event.
+ * Compares the cached dispatch tables of the event system with selecting the handlers on every send.
+ *
+ */
+public class EventSendBenchmark extends AbstractBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(EventSendBenchmark.class);
+
+    private static final int HANDLED_COMPONENT_TYPES = 50;
+    private static final int ENTITIES = 100;
+
+    private final int componentsPerEntity;
+    private final boolean dispatchCache;
+
+    private EventSystemImpl eventSystem;
+    private List<EntityRef> entities;
+    private BenchmarkEvent event = new BenchmarkEvent();
+
+    private long allocatedBytes;
+    private long sentEvents;
+
+    public EventSendBenchmark(int componentsPerEntity, boolean dispatchCache) {
+        super("Send event to entities with " + componentsPerEntity + " components" + (dispatchCache ? " (dispatch cache)" : ""),
+                1000, new int[]{10000});
+        this.componentsPerEntity = componentsPerEntity;
+        this.dispatchCache = dispatchCache;
+    }
+
+    @Override
+    public void setup() {
+        ContextImpl context = new ContextImpl();
+        CoreRegistry.setContext(context);
+        ReflectFactory reflectFactory = new ReflectionReflectFactory();
+        CopyStrategyLibrary copyStrategies = new CopyStrategyLibrary(reflectFactory);
+        TypeSerializationLibrary serializationLibrary = new TypeSerializationLibrary(reflectFactory, copyStrategies);
+        EntitySystemLibrary entitySystemLibrary = new EntitySystemLibrary(context, serializationLibrary);
+
+        Config config = new Config();
+        config.loadDefaults();
+        context.put(Config.class, config);
+        NetworkSystem networkSystem = new NetworkSystemImpl(null, context);
+        eventSystem = new EventSystemImpl(entitySystemLibrary.getEventLibrary(), networkSystem);
+        eventSystem.setDispatchCacheEnabled(dispatchCache);
+
+        List<Class<? extends Component>> componentTypes = findComponentTypes();
+        EventReceiver<BenchmarkEvent> receiver = (e, entity) -> e.received++;
+        for (Class<? extends Component> componentType : componentTypes) {
+            eventSystem.registerEventReceiver(receiver, BenchmarkEvent.class, componentType);
+        }
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entities = Lists.newArrayList();
+        for (int i = 0; i < ENTITIES; ++i) {
+            List<Component> components = Lists.newArrayList();
+            for (int c = 0; c < componentsPerEntity; ++c) {
+                // Vary the component set a bit so that several signatures are seen
+                components.add(newInstance(componentTypes.get((c + i % 4) % componentTypes.size())));
+            }
+            entities.add(entityManager.create(components));
+        }
+    }
+
+    @Override
+    public void prerun() {
+        allocatedBytes -= currentThreadAllocatedBytes();
+    }
+
+    @Override
+    public void run() {
+        for (EntityRef entity : entities) {
+            eventSystem.send(entity, event);
+        }
+        sentEvents += entities.size();
+    }
+
+    @Override
+    public void postrun() {
+        allocatedBytes += currentThreadAllocatedBytes();
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && allocatedBytes >= 0) {
+            logger.info("{}: {} bytes allocated per event", getTitle(), allocatedBytes / Math.max(1, sentEvents));
+        }
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return Long.MIN_VALUE / 2;
+    }
+
+    private static List<Class<? extends Component>> findComponentTypes() {
+        List<Class<? extends Component>> result = Lists.newArrayList();
+        for (Class<? extends Component> type : new Reflections("org.terasology").getSubTypesOf(Component.class)) {
+            if (!Modifier.isAbstract(type.getModifiers()) && Modifier.isPublic(type.getModifiers()) && hasDefaultConstructor(type)) {
+                result.add(type);
+            }
+        }
+        Collections.sort(result, new Comparator<Class<?>>() {
+            @Override
+            public int compare(Class<?> o1, Class<?> o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        if (result.size() < HANDLED_COMPONENT_TYPES) {
+            throw new IllegalStateException("Not enough component types found: " + result.size());
+        }
+        return result.subList(0, HANDLED_COMPONENT_TYPES);
+    }
+
+    private static boolean hasDefaultConstructor(Class<?> type) {
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Component newInstance(Class<? extends Component> type) {
+        try {
+            return type.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("Failed to create component " + type, e);
+        }
+    }
+
+    public static class BenchmarkEvent implements Event {
+        private int received;
+    }
+}
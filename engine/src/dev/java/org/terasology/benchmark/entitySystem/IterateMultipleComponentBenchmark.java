@@ -20,6 +20,7 @@
 import org.terasology.benchmark.AbstractBenchmark;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.ArchetypeComponentTable;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.logic.inventory.InventoryComponent;
 import org.terasology.logic.location.LocationComponent;
@@ -36,9 +37,15 @@ public class IterateMultipleComponentBenchmark extends AbstractBenchmark {
 
     private List<List<Component>> rawEntityData;
     private PojoEntityManager entityManager;
+    private boolean archetypeStore;
 
     public IterateMultipleComponentBenchmark() {
-        super("Iterate entities by multiple components", 10000, new int[]{10000});
+        this(false);
+    }
+
+    public IterateMultipleComponentBenchmark(boolean archetypeStore) {
+        super("Iterate entities by multiple components" + (archetypeStore ? " (archetype store)" : ""), 10000, new int[]{10000});
+        this.archetypeStore = archetypeStore;
     }
 
     @Override
@@ -62,7 +69,7 @@ public void setup() {
             rawEntityData.add(entityData);
         }
 
-        entityManager = new PojoEntityManager();
+        entityManager = archetypeStore ? new PojoEntityManager(new ArchetypeComponentTable()) : new PojoEntityManager();
         for (List<Component> rawEntity : rawEntityData) {
             entityManager.create(rawEntity);
         }
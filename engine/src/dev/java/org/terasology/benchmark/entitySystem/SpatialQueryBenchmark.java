@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.utilities.random.FastRandom;
+
+/**
+ * Compares finding the entities near a position through the spatial index against scanning all located entities.
+ *
+ */
+public class SpatialQueryBenchmark extends AbstractBenchmark {
+    private static final float WORLD_SIZE = 4096;
+    private static final float WORLD_HEIGHT = 256;
+    private static final float QUERY_RADIUS = 16;
+
+    private final int entityCount;
+    private final boolean useIndex;
+    private PojoEntityManager entityManager;
+    private FastRandom random;
+    private int found;
+
+    public SpatialQueryBenchmark(int entityCount, boolean useIndex) {
+        super("Find Entities Within " + (int) QUERY_RADIUS + " Of " + entityCount + " Entities" + (useIndex ? " (Spatial Index)" : " (Full Scan)"),
+                10, new int[]{100});
+        this.entityCount = entityCount;
+        this.useIndex = useIndex;
+    }
+
+    @Override
+    public void setup() {
+        random = new FastRandom(0L);
+        entityManager = new PojoEntityManager();
+        for (int i = 0; i < entityCount; ++i) {
+            entityManager.create(new LocationComponent(randomPosition()));
+        }
+    }
+
+    @Override
+    public void run() {
+        Vector3f center = randomPosition();
+        if (useIndex) {
+            for (EntityRef entity : entityManager.getEntitiesWithin(center, QUERY_RADIUS)) {
+                found++;
+            }
+        } else {
+            float radiusSquared = QUERY_RADIUS * QUERY_RADIUS;
+            for (EntityRef entity : entityManager.getEntitiesWith(LocationComponent.class)) {
+                Vector3f position = entity.getComponent(LocationComponent.class).getWorldPosition();
+                float dx = position.x - center.x;
+                float dy = position.y - center.y;
+                float dz = position.z - center.z;
+                if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                    found++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        entityManager = null;
+    }
+
+    private Vector3f randomPosition() {
+        return new Vector3f(random.nextFloat() * WORLD_SIZE, random.nextFloat() * WORLD_HEIGHT, random.nextFloat() * WORLD_SIZE);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.monitoring;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.PerformanceMonitor;
+
+/**
+ * Measures the cost of starting and ending activities through the {@link PerformanceMonitor}.
+ *
+ */
+public class ActivityBenchmark extends AbstractBenchmark {
+    private static final int ACTIVITIES = 1_000_000;
+    private static final String NAME = "Benchmark";
+    private static final ActivityId ID = ActivityId.of(NAME);
+
+    private final boolean usingId;
+
+    public ActivityBenchmark(boolean usingId) {
+        super(ACTIVITIES + " Activities, Performance Monitor Disabled" + (usingId ? " (Id)" : " (Name)"), 10, new int[]{100});
+        this.usingId = usingId;
+    }
+
+    @Override
+    public void setup() {
+        PerformanceMonitor.setEnabled(false);
+    }
+
+    @Override
+    public void run() {
+        if (usingId) {
+            for (int i = 0; i < ACTIVITIES; ++i) {
+                try (Activity ignored = PerformanceMonitor.startActivity(ID)) {
+                    // measure the monitor only
+                }
+            }
+        } else {
+            for (int i = 0; i < ACTIVITIES; ++i) {
+                try (Activity ignored = PerformanceMonitor.startActivity(NAME)) {
+                    // measure the monitor only
+                }
+            }
+        }
+    }
+}
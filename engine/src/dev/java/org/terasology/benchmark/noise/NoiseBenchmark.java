@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+
+import java.util.List;
+
+/**
+ * Runs the noise benchmarks. The points per second follow from the number of points in the title and the run times.
+ *
+ */
+public final class NoiseBenchmark {
+
+    private NoiseBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+
+        for (boolean threeDimensional : new boolean[]{false, true}) {
+            for (boolean useGrid : new boolean[]{false, true}) {
+                benchmarks.add(new NoiseGridBenchmark("Perlin", new PerlinNoise(0xCAFE), threeDimensional, useGrid));
+                benchmarks.add(new NoiseGridBenchmark("Simplex", new SimplexNoise(0xCAFE), threeDimensional, useGrid));
+                benchmarks.add(new NoiseGridBenchmark("Brownian Perlin", new BrownianNoise(new PerlinNoise(0xCAFE), 8), threeDimensional, useGrid));
+                benchmarks.add(new NoiseGridBenchmark("Brownian Simplex", new BrownianNoise(new SimplexNoise(0xCAFE), 8), threeDimensional, useGrid));
+            }
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.procedural.Noise;
+
+/**
+ * Compares computing the noise of a chunk sized grid through the grid method against computing each point on its own.
+ *
+ */
+public class NoiseGridBenchmark extends AbstractBenchmark {
+    private static final int SIZE_X = 32;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 32;
+
+    private final Noise noise;
+    private final boolean threeDimensional;
+    private final boolean useGrid;
+
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private float[] result;
+
+    public NoiseGridBenchmark(String name, Noise noise, boolean threeDimensional, boolean useGrid) {
+        super(name + (threeDimensional ? " 3D " + SIZE_X * SIZE_Y * SIZE_Z : " 2D " + SIZE_X * SIZE_Z) + " Points"
+                + (useGrid ? " (Grid)" : " (Single Points)"), 100, new int[]{500});
+        this.noise = noise;
+        this.threeDimensional = threeDimensional;
+        this.useGrid = useGrid;
+    }
+
+    @Override
+    public void setup() {
+        xs = new float[SIZE_X];
+        ys = new float[SIZE_Y];
+        zs = new float[SIZE_Z];
+        result = new float[SIZE_X * SIZE_Y * SIZE_Z];
+        for (int i = 0; i < SIZE_X; ++i) {
+            xs[i] = i * 0.01f;
+        }
+        for (int i = 0; i < SIZE_Y; ++i) {
+            ys[i] = i * 0.01f;
+        }
+        for (int i = 0; i < SIZE_Z; ++i) {
+            zs[i] = i * 0.01f;
+        }
+    }
+
+    @Override
+    public void run() {
+        if (threeDimensional) {
+            if (useGrid) {
+                noise.noise(xs, ys, zs, result);
+            } else {
+                int index = 0;
+                for (float z : zs) {
+                    for (float y : ys) {
+                        for (float x : xs) {
+                            result[index++] = noise.noise(x, y, z);
+                        }
+                    }
+                }
+            }
+        } else {
+            if (useGrid) {
+                noise.noise(xs, zs, result);
+            } else {
+                int index = 0;
+                for (float z : zs) {
+                    for (float x : xs) {
+                        result[index++] = noise.noise(x, z);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        result = null;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.List;
+
+/**
+ * Runs the block entity index benchmarks.
+ *
+ */
+public final class BlockEntitiesBenchmark {
+
+    private BlockEntitiesBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+
+        for (int entities : new int[]{5000, 50000}) {
+            benchmarks.add(new BlockEntityLookupBenchmark(entities, false));
+            benchmarks.add(new BlockEntityLookupBenchmark(entities, true));
+            benchmarks.add(new BlockEntityUnloadBenchmark(entities, false));
+            benchmarks.add(new BlockEntityUnloadBenchmark(entities, true));
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.Maps;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.internal.BlockEntityIndex;
+
+import java.util.Map;
+
+/**
+ * Compares looking up block entities in the per chunk {@link BlockEntityIndex} against a world wide hash map.
+ * Half of the looked up positions have an entity.
+ * <br><br>
+ * The positions are only kept as coordinates and written into one reused vector for each lookup, as neither lookup
+ * keeps the key. This way the run measures lookups that don't allocate, instead of reading prebuilt vectors.
+ *
+ */
+public class BlockEntityLookupBenchmark extends AbstractBenchmark {
+    static final int WORLD_SIZE_XZ = 1024;
+    static final int WORLD_SIZE_Y = 256;
+
+    private static final int LOOKUPS = 10000;
+
+    private final int entityCount;
+    private final boolean useIndex;
+    private PojoEntityManager entityManager;
+    private Map<Vector3i, EntityRef> lookup;
+    private BlockEntityIndex index;
+    private int[] queries;
+    private final Vector3i query = new Vector3i();
+    private int found;
+
+    public BlockEntityLookupBenchmark(int entityCount, boolean useIndex) {
+        super("Look Up " + LOOKUPS + " Of " + entityCount + " Block Entities" + (useIndex ? " (Chunk Index)" : " (Hash Map)"),
+                100, new int[]{1000});
+        this.entityCount = entityCount;
+        this.useIndex = useIndex;
+    }
+
+    @Override
+    public void setup() {
+        FastRandom random = new FastRandom(0L);
+        entityManager = new PojoEntityManager();
+        lookup = Maps.newHashMap();
+        index = new BlockEntityIndex();
+        Vector3i[] positions = new Vector3i[entityCount];
+        for (int i = 0; i < entityCount; ++i) {
+            positions[i] = randomPosition(random);
+            EntityRef entity = entityManager.create();
+            lookup.put(positions[i], entity);
+            index.put(positions[i], entity);
+        }
+        queries = new int[LOOKUPS * 3];
+        for (int i = 0; i < LOOKUPS; ++i) {
+            Vector3i pos = (i % 2 == 0) ? positions[random.nextInt(entityCount)] : randomPosition(random);
+            queries[i * 3] = pos.x;
+            queries[i * 3 + 1] = pos.y;
+            queries[i * 3 + 2] = pos.z;
+        }
+    }
+
+    @Override
+    public void run() {
+        if (useIndex) {
+            for (int i = 0; i < queries.length; i += 3) {
+                query.set(queries[i], queries[i + 1], queries[i + 2]);
+                if (index.get(query) != null) {
+                    found++;
+                }
+            }
+        } else {
+            for (int i = 0; i < queries.length; i += 3) {
+                query.set(queries[i], queries[i + 1], queries[i + 2]);
+                if (lookup.get(query) != null) {
+                    found++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        entityManager = null;
+        lookup = null;
+        index = null;
+        queries = null;
+    }
+
+    static Vector3i randomPosition(FastRandom random) {
+        return new Vector3i(random.nextInt(WORLD_SIZE_XZ), random.nextInt(WORLD_SIZE_Y), random.nextInt(WORLD_SIZE_XZ));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.internal.BlockEntityIndex;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares dropping the block entities of an unloaded chunk from the per chunk {@link BlockEntityIndex} against
+ * scanning a world wide hash map for them. Each run unloads one chunk and loads it again.
+ *
+ */
+public class BlockEntityUnloadBenchmark extends AbstractBenchmark {
+
+    private final int entityCount;
+    private final boolean useIndex;
+    private PojoEntityManager entityManager;
+    private Map<Vector3i, EntityRef> lookup;
+    private BlockEntityIndex index;
+    private List<Vector3i> chunks;
+    private Map<Vector3i, Map<Vector3i, EntityRef>> entitiesByChunk;
+    private int nextChunk;
+
+    public BlockEntityUnloadBenchmark(int entityCount, boolean useIndex) {
+        super("Unload Chunk With " + entityCount + " Block Entities Loaded" + (useIndex ? " (Chunk Index)" : " (Hash Map)"),
+                10, new int[]{200});
+        this.entityCount = entityCount;
+        this.useIndex = useIndex;
+    }
+
+    @Override
+    public void setup() {
+        FastRandom random = new FastRandom(0L);
+        entityManager = new PojoEntityManager();
+        lookup = Maps.newHashMap();
+        index = new BlockEntityIndex();
+        entitiesByChunk = Maps.newHashMap();
+        for (int i = 0; i < entityCount; ++i) {
+            Vector3i pos = BlockEntityLookupBenchmark.randomPosition(random);
+            EntityRef entity = entityManager.create();
+            lookup.put(pos, entity);
+            index.put(pos, entity);
+            Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
+            Map<Vector3i, EntityRef> chunkEntities = entitiesByChunk.get(chunkPos);
+            if (chunkEntities == null) {
+                chunkEntities = Maps.newHashMap();
+                entitiesByChunk.put(chunkPos, chunkEntities);
+            }
+            chunkEntities.put(pos, entity);
+        }
+        chunks = Lists.newArrayList(entitiesByChunk.keySet());
+    }
+
+    @Override
+    public void run() {
+        Vector3i chunkPos = chunks.get(nextChunk);
+        nextChunk = (nextChunk + 1) % chunks.size();
+        Map<Vector3i, EntityRef> chunkEntities = entitiesByChunk.get(chunkPos);
+        if (useIndex) {
+            index.removeChunk(chunkPos);
+            for (Map.Entry<Vector3i, EntityRef> entry : chunkEntities.entrySet()) {
+                index.put(entry.getKey(), entry.getValue());
+            }
+        } else {
+            Iterator<Vector3i> iterator = lookup.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (ChunkMath.calcChunkPos(iterator.next()).equals(chunkPos)) {
+                    iterator.remove();
+                }
+            }
+            lookup.putAll(chunkEntities);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        entityManager = null;
+        lookup = null;
+        index = null;
+        entitiesByChunk = null;
+    }
+}
@@ -23,8 +23,11 @@
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.ComponentAccess;
 import org.terasology.entitySystem.systems.RegisterSystem;
 import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.logic.characters.CharacterComponent;
+import org.terasology.logic.characters.CharacterMovementComponent;
 import org.terasology.logic.console.commandSystem.annotations.Command;
 import org.terasology.logic.console.commandSystem.annotations.CommandParam;
 import org.terasology.logic.console.commandSystem.annotations.Sender;
@@ -39,6 +42,7 @@
 /**
  */
 @RegisterSystem
+@ComponentAccess(reads = {ClientComponent.class, LocationComponent.class, CharacterComponent.class, CharacterMovementComponent.class})
 public class AudioSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
 
     @In
@@ -70,6 +70,7 @@ public class RenderingConfig {
     private boolean localReflections;
     private boolean vSync;
     private boolean clampLighting;
+    private boolean greedyMeshing;
     private int fboScale;
     private boolean dumpShaders;
     private ScreenshotSize screenshotSize;
@@ -431,6 +432,18 @@ public void setClampLighting(boolean clampLighting) {
         this.clampLighting = clampLighting;
     }
 
+    /**
+     * @return whether neighbouring block faces that look the same are merged into larger faces when chunk meshes are
+     * generated
+     */
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        this.greedyMeshing = greedyMeshing;
+    }
+
     public ScreenshotSize getScreenshotSize() {
         return screenshotSize;
     }
@@ -23,6 +23,7 @@
  */
 public class SystemConfig {
     public static final String SAVED_GAMES_ENABLED_PROPERTY = "org.terasology.savedGamesEnabled";
+    public static final String ARCHETYPE_ENTITY_STORE_PROPERTY = "org.terasology.archetypeEntityStore";
 
     private long dayNightLengthInMs;
     private int maxThreads;
@@ -32,6 +33,13 @@ public class SystemConfig {
     private boolean monitoringEnabled;
     private boolean writeSaveGamesEnabled;
     private String locale;
+    private boolean archetypeEntityStoreEnabled;
+    private int telemetryExportInterval;
+    private boolean telemetryFileEnabled;
+    private int telemetryHttpPort;
+    private String chunkCompressionCodec;
+    private int chunkCompressionLevel;
+    private boolean chunkDictionaryEnabled;
 
     public long getDayNightLengthInMs() {
         return dayNightLengthInMs;
@@ -103,4 +111,86 @@ public Locale getLocale() {
     public void setLocale(Locale locale) {
         this.locale = locale.toLanguageTag();
     }
+
+    /**
+     * @return whether the entity manager should group the components of its entities by archetype. This speeds up
+     * queries for several components, at the cost of slower adding and removing of components.
+     */
+    public boolean isArchetypeEntityStoreEnabled() {
+        String property = System.getProperty(ARCHETYPE_ENTITY_STORE_PROPERTY);
+        if (property != null) {
+            return Boolean.parseBoolean(property);
+        }
+        return archetypeEntityStoreEnabled;
+    }
+
+    public void setArchetypeEntityStoreEnabled(boolean archetypeEntityStoreEnabled) {
+        this.archetypeEntityStoreEnabled = archetypeEntityStoreEnabled;
+    }
+
+    /**
+     * @return the number of seconds between two exports of the performance telemetry
+     */
+    public int getTelemetryExportInterval() {
+        return telemetryExportInterval;
+    }
+
+    public void setTelemetryExportInterval(int telemetryExportInterval) {
+        this.telemetryExportInterval = telemetryExportInterval;
+    }
+
+    /**
+     * @return whether the performance telemetry is written to a rolling file in the log directory
+     */
+    public boolean isTelemetryFileEnabled() {
+        return telemetryFileEnabled;
+    }
+
+    public void setTelemetryFileEnabled(boolean telemetryFileEnabled) {
+        this.telemetryFileEnabled = telemetryFileEnabled;
+    }
+
+    /**
+     * @return the local port the performance telemetry is served on over HTTP, or 0 if it is not served
+     */
+    public int getTelemetryHttpPort() {
+        return telemetryHttpPort;
+    }
+
+    public void setTelemetryHttpPort(int telemetryHttpPort) {
+        this.telemetryHttpPort = telemetryHttpPort;
+    }
+
+    /**
+     * @return the codec chunks get stored with: "deflate", "gzip" or "raw"
+     */
+    public String getChunkCompressionCodec() {
+        return chunkCompressionCodec;
+    }
+
+    public void setChunkCompressionCodec(String chunkCompressionCodec) {
+        this.chunkCompressionCodec = chunkCompressionCodec;
+    }
+
+    /**
+     * @return the compression level of the deflate codec, from 0 (fastest) to 9 (smallest)
+     */
+    public int getChunkCompressionLevel() {
+        return chunkCompressionLevel;
+    }
+
+    public void setChunkCompressionLevel(int chunkCompressionLevel) {
+        this.chunkCompressionLevel = chunkCompressionLevel;
+    }
+
+    /**
+     * @return whether the deflate codec uses a preset dictionary trained from the chunks of the world
+     */
+    public boolean isChunkDictionaryEnabled() {
+        return chunkDictionaryEnabled;
+    }
+
+    public void setChunkDictionaryEnabled(boolean chunkDictionaryEnabled) {
+        this.chunkDictionaryEnabled = chunkDictionaryEnabled;
+    }
 }
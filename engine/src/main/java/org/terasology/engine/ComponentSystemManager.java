@@ -59,6 +59,7 @@ public class ComponentSystemManager {
 
     private Map<String, ComponentSystem> namedLookup = Maps.newHashMap();
     private List<UpdateSubscriberSystem> updateSubscribers = Lists.newArrayList();
+    private UpdateSubscriberScheduler updateScheduler = new UpdateSubscriberScheduler();
     private List<RenderSystem> renderSubscribers = Lists.newArrayList();
     private List<ComponentSystem> store = Lists.newArrayList();
 
@@ -109,6 +110,7 @@ public void register(ComponentSystem object) {
         store.add(object);
         if (object instanceof UpdateSubscriberSystem) {
             updateSubscribers.add((UpdateSubscriberSystem) object);
+            updateScheduler.add((UpdateSubscriberSystem) object);
         }
         if (object instanceof RenderSystem) {
             renderSubscribers.add((RenderSystem) object);
@@ -167,13 +169,25 @@ public Iterable<UpdateSubscriberSystem> iterateUpdateSubscribers() {
         return updateSubscribers;
     }
 
+    /**
+     * Updates all update subscribers. Systems that declare their {@link org.terasology.entitySystem.systems.ComponentAccess}
+     * may be updated in parallel, see {@link UpdateSubscriberScheduler}.
+     *
+     * @param delta The time (in seconds) since the last engine update.
+     */
+    public void updateSubscribers(float delta) {
+        updateScheduler.update(delta);
+    }
+
     public Iterable<RenderSystem> iterateRenderSubscribers() {
         return renderSubscribers;
     }
 
     public void shutdown() {
+        updateScheduler.shutdown();
         for (ComponentSystem system : iterateAll()) {
             system.shutdown();
         }
+        updateScheduler.clear();
     }
 }
@@ -16,12 +16,15 @@
 
 package org.terasology.engine.bootstrap;
 
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.context.Context;
 import org.terasology.engine.SimpleUri;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.ArchetypeComponentTable;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.event.Event;
@@ -93,7 +96,7 @@ public static void addEntityManagementRelatedClasses(Context context) {
         NetworkSystem networkSystem = context.get(NetworkSystem.class);
 
         // Entity Manager
-        PojoEntityManager entityManager = new PojoEntityManager();
+        PojoEntityManager entityManager = createEntityManager(context.get(Config.class));
         context.put(EntityManager.class, entityManager);
         context.put(EngineEntityManager.class, entityManager);
 
@@ -127,6 +130,19 @@ public static void addEntityManagementRelatedClasses(Context context) {
         registerEvents(entityManager.getEventSystem(), environment);
     }
 
+    private static PojoEntityManager createEntityManager(Config config) {
+        boolean archetypeStore;
+        if (config != null) {
+            archetypeStore = config.getSystem().isArchetypeEntityStoreEnabled();
+        } else {
+            archetypeStore = Boolean.getBoolean(SystemConfig.ARCHETYPE_ENTITY_STORE_PROPERTY);
+        }
+        if (archetypeStore) {
+            return new PojoEntityManager(new ArchetypeComponentTable());
+        }
+        return new PojoEntityManager();
+    }
+
     private static void registerComponents(ComponentLibrary library, ModuleEnvironment environment) {
         for (Class<? extends Component> componentType : environment.getSubtypesOf(Component.class)) {
             if (componentType.getAnnotation(DoNotAutoRegister.class) == null) {
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.modes;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.utilities.concurrency.ShutdownTask;
+import org.terasology.utilities.concurrency.Task;
+import org.terasology.utilities.concurrency.TaskMaster;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link LoadProcess}es in the order of their declared dependencies.
+ * <br><br>
+ * Each process that doesn't declare its dependencies waits for all processes before it, and all processes after it
+ * wait for it. A process declaring its dependencies waits for the last earlier process producing each of them.
+ * Processes requiring the main thread are stepped by {@link #step()}, one at a time in their original order, while the
+ * others run on worker threads as soon as their dependencies have completed.
+ * <br><br>
+ * Once all processes have completed, the time taken by each of them and the critical path are logged.
+ *
+ */
+final class LoadPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(LoadPipeline.class);
+
+    private static final int TASK_WEIGHT = 4;
+
+    private final List<Node> nodes = Lists.newArrayList();
+    private final TaskMaster<Task> taskMaster = TaskMaster.createFIFOTaskMaster("Loading", TaskMaster.UNLIMITED_CONCURRENCY, TASK_WEIGHT);
+    private final long startTime = System.nanoTime();
+    private final int totalCost;
+
+    private Node current;
+    private int completedCost;
+    private boolean finished;
+
+    LoadPipeline(List<LoadProcess> processes) {
+        Map<Class<?>, Node> producers = Maps.newHashMap();
+        Node barrier = null;
+        int cost = 0;
+        for (LoadProcess process : processes) {
+            Node node = new Node(process);
+            if (process.getDependencies() == null) {
+                node.dependencies.addAll(nodes);
+                barrier = node;
+            } else {
+                if (barrier != null) {
+                    node.dependencies.add(barrier);
+                }
+                for (Class<?> dependency : process.getDependencies()) {
+                    Node producer = producers.get(dependency);
+                    if (producer != null && !node.dependencies.contains(producer)) {
+                        node.dependencies.add(producer);
+                    }
+                }
+            }
+            for (Class<?> product : process.getProducts()) {
+                producers.put(product, node);
+            }
+            nodes.add(node);
+            cost += process.getExpectedCost();
+        }
+        totalCost = Math.max(1, cost);
+    }
+
+    /**
+     * Starts the processes whose dependencies have completed and runs a single step of the current main thread
+     * process.
+     *
+     * @return Whether a step was run. If not, the pipeline is waiting for worker threads or has finished.
+     */
+    boolean step() {
+        if (finished) {
+            return false;
+        }
+        startReadyProcesses();
+        if (current == null) {
+            if (isComplete()) {
+                finish();
+            }
+            return false;
+        }
+        if (current.process.step()) {
+            complete(current);
+            current = null;
+        }
+        return true;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return A message describing the state of the main thread process, or of a running worker thread process
+     */
+    String getMessage() {
+        if (current != null) {
+            return current.process.getMessage();
+        }
+        for (Node node : nodes) {
+            if (node.state == State.RUNNING) {
+                return node.process.getMessage();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * @return The overall progress, between 0f and 1f inclusive
+     */
+    float getProgress() {
+        float progress = completedCost;
+        for (Node node : nodes) {
+            if (node.state == State.RUNNING) {
+                progress += node.process.getExpectedCost() * node.process.getProgress();
+            }
+        }
+        return Math.min(1f, progress / totalCost);
+    }
+
+    /**
+     * Stops running processes on worker threads, waiting for those already running.
+     */
+    void dispose() {
+        taskMaster.shutdown(new ShutdownTask(), false);
+    }
+
+    private void startReadyProcesses() {
+        for (Node node : nodes) {
+            if (node.state == State.RUNNING && node.task != null && node.task.done) {
+                node.task.rethrowFailure();
+                complete(node);
+            }
+        }
+        for (Node node : nodes) {
+            if (node.state == State.PENDING && node.isReady()) {
+                if (!node.process.isMainThreadRequired()) {
+                    node.start();
+                    node.task = new LoadTask(node);
+                    taskMaster.offer(node.task);
+                } else if (current == null) {
+                    node.start();
+                    node.process.begin();
+                    current = node;
+                }
+            }
+        }
+    }
+
+    private void complete(Node node) {
+        if (node.task != null) {
+            node.startTime = node.task.startTime;
+            node.endTime = node.task.endTime;
+        } else {
+            node.endTime = System.nanoTime();
+        }
+        node.state = State.COMPLETE;
+        completedCost += node.process.getExpectedCost();
+    }
+
+    private boolean isComplete() {
+        for (Node node : nodes) {
+            if (node.state != State.COMPLETE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void finish() {
+        finished = true;
+        dispose();
+        long totalTime = System.nanoTime() - startTime;
+        long processTime = 0;
+        for (Node node : nodes) {
+            processTime += node.getTime();
+            logger.info("{} took {} ms{}", node.getName(), toMillis(node.getTime()),
+                    node.process.isMainThreadRequired() ? "" : " on a worker thread");
+        }
+        logger.info("Loading took {} ms, the load processes took {} ms in total", toMillis(totalTime), toMillis(processTime));
+        logger.info("Critical path: {}", getCriticalPath());
+    }
+
+    /**
+     * @return The chain of processes that ends with the last process to complete, where each process is preceded by
+     * the dependency that completed last
+     */
+    private String getCriticalPath() {
+        Node last = null;
+        for (Node node : nodes) {
+            if (last == null || node.endTime > last.endTime) {
+                last = node;
+            }
+        }
+        List<Node> path = Lists.newArrayList();
+        while (last != null) {
+            path.add(0, last);
+            Node latestDependency = null;
+            for (Node dependency : last.dependencies) {
+                if (latestDependency == null || dependency.endTime > latestDependency.endTime) {
+                    latestDependency = dependency;
+                }
+            }
+            last = latestDependency;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Node node : path) {
+            if (builder.length() > 0) {
+                builder.append(" -> ");
+            }
+            builder.append(node.getName()).append(" (").append(toMillis(node.getTime())).append(" ms)");
+        }
+        return builder.toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private enum State {
+        PENDING,
+        RUNNING,
+        COMPLETE
+    }
+
+    private static final class Node {
+        private final LoadProcess process;
+        private final List<Node> dependencies = Lists.newArrayList();
+        private State state = State.PENDING;
+        private LoadTask task;
+        private long startTime;
+        private long endTime;
+
+        private Node(LoadProcess process) {
+            this.process = process;
+        }
+
+        private boolean isReady() {
+            for (Node dependency : dependencies) {
+                if (dependency.state != State.COMPLETE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void start() {
+            logger.debug(process.getMessage());
+            state = State.RUNNING;
+            startTime = System.nanoTime();
+        }
+
+        private long getTime() {
+            return endTime - startTime;
+        }
+
+        private String getName() {
+            return process.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Runs a process that doesn't require the main thread to completion on a worker thread.
+     */
+    private static final class LoadTask implements Task {
+        private final LoadProcess process;
+        private volatile boolean done;
+        private volatile Throwable failure;
+        private volatile long startTime;
+        private volatile long endTime;
+
+        private LoadTask(Node node) {
+            this.process = node.process;
+        }
+
+        @Override
+        public String getName() {
+            return process.getMessage();
+        }
+
+        @Override
+        public void run() {
+            startTime = System.nanoTime();
+            try {
+                process.begin();
+                while (!process.step()) {
+                    // continue until the process has completed
+                }
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                endTime = System.nanoTime();
+                done = true;
+            }
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return false;
+        }
+
+        private void rethrowFailure() {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+}
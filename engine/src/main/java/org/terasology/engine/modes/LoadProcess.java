@@ -16,7 +16,15 @@
 
 package org.terasology.engine.modes;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
+ * A step of loading a game, run by {@link StateLoading}.
+ * <br><br>
+ * By default a load process runs on the main thread, after all the processes before it have completed. A process
+ * that declares its dependencies only waits for the earlier processes producing them, and may run concurrently with
+ * others. If it also doesn't require the main thread, it is run on a worker thread.
  */
 public interface LoadProcess {
 
@@ -46,4 +54,28 @@ public interface LoadProcess {
      * @return A relative cost for this process. A small process would have a cost of 1, a large process a bigger cost.
      */
     int getExpectedCost();
+
+    /**
+     * @return The types this process needs earlier processes to have produced, usually types they put into the context,
+     * or null if this process needs all earlier processes to have completed
+     */
+    default Set<Class<?>> getDependencies() {
+        return null;
+    }
+
+    /**
+     * @return The types this process produces for later processes
+     */
+    default Set<Class<?>> getProducts() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return Whether {@link #begin()} and {@link #step()} must be called on the main thread. Processes that don't
+     * need it are run on a worker thread, and must only wait for the main thread through
+     * {@link org.terasology.engine.GameThread}.
+     */
+    default boolean isMainThreadRequired() {
+        return true;
+    }
 }
@@ -29,7 +29,6 @@
 import org.terasology.engine.subsystem.DisplayDevice;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.event.internal.EventSystem;
-import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.game.GameManifest;
 import org.terasology.input.InputSystem;
 import org.terasology.input.cameraTarget.CameraTargetSystem;
@@ -130,7 +129,7 @@ public void dispose() {
 
         networkSystem.shutdown();
         // TODO: Shutdown background threads
-        eventSystem.process();
+        eventSystem.processAll();
         GameThread.processWaitingProcesses();
         nuiManager.clear();
 
@@ -171,11 +170,7 @@ public void update(float delta) {
 
         eventSystem.process();
 
-        for (UpdateSubscriberSystem system : componentSystemManager.iterateUpdateSubscribers()) {
-            PerformanceMonitor.startActivity(system.getClass().getSimpleName());
-            system.update(delta);
-            PerformanceMonitor.endActivity();
-        }
+        componentSystemManager.updateSubscribers(delta);
 
         if (worldRenderer != null && shouldUpdateWorld()) {
             worldRenderer.update(delta);
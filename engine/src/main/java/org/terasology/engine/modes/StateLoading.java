@@ -17,9 +17,7 @@
 package org.terasology.engine.modes;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Queues;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.google.common.collect.Lists;
 import org.terasology.context.Context;
 import org.terasology.engine.EngineTime;
 import org.terasology.engine.GameEngine;
@@ -65,28 +63,23 @@
 import org.terasology.rendering.nui.internal.NUIManagerInternal;
 import org.terasology.rendering.nui.layers.mainMenu.loadingScreen.LoadingScreen;
 
-import java.util.Queue;
+import java.util.List;
 
 /**
  */
 public class StateLoading implements GameState {
 
-    private static final Logger logger = LoggerFactory.getLogger(StateLoading.class);
-
     private Context context;
     private GameManifest gameManifest;
     private NetworkMode netMode;
-    private Queue<LoadProcess> loadProcesses = Queues.newArrayDeque();
-    private LoadProcess current;
+    private List<LoadProcess> loadProcesses = Lists.newArrayList();
+    private LoadPipeline pipeline;
     private JoinStatus joinStatus;
 
     private NUIManager nuiManager;
 
     private LoadingScreen loadingScreen;
 
-    private int progress;
-    private int maxProgress;
-
     /**
      * Constructor for server or single player games
      *
@@ -133,15 +126,9 @@ public void init(GameEngine engine) {
                 break;
         }
 
-        progress = 0;
-        maxProgress = 0;
-        for (LoadProcess process : loadProcesses) {
-            maxProgress += process.getExpectedCost();
-        }
-
-        popStep();
+        pipeline = new LoadPipeline(loadProcesses);
         loadingScreen = nuiManager.pushScreen("engine:loadingScreen", LoadingScreen.class);
-        loadingScreen.updateStatus(current.getMessage(), current.getProgress());
+        loadingScreen.updateStatus(loadProcesses.get(0).getMessage(), 0);
     }
 
     private void initClient() {
@@ -211,20 +198,9 @@ private void initHost() {
         loadProcesses.add(new PrepareWorld(context));
     }
 
-    private void popStep() {
-        if (current != null) {
-            progress += current.getExpectedCost();
-        }
-        current = null;
-        if (!loadProcesses.isEmpty()) {
-            current = loadProcesses.remove();
-            logger.debug(current.getMessage());
-            current.begin();
-        }
-    }
-
     @Override
     public void dispose() {
+        pipeline.dispose();
         EngineTime time = (EngineTime) context.get(Time.class);
         time.setPaused(false);
     }
@@ -238,18 +214,18 @@ public void update(float delta) {
         GameEngine gameEngine = context.get(GameEngine.class);
         EngineTime time = (EngineTime) context.get(Time.class);
         long startTime = time.getRealTimeInMs();
-        while (current != null && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
-            if (current.step()) {
-                popStep();
+        while (!pipeline.isFinished() && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
+            if (!pipeline.step()) {
+                // waiting for processes running on worker threads
+                break;
             }
         }
-        if (current == null) {
+        if (pipeline.isFinished()) {
             nuiManager.closeScreen(loadingScreen);
             nuiManager.setHUDVisible(true);
             context.get(GameEngine.class).changeState(new StateIngame(gameManifest, context));
         } else {
-            float progressValue = (progress + current.getExpectedCost() * current.getProgress()) / maxProgress;
-            loadingScreen.updateStatus(current.getMessage(), progressValue);
+            loadingScreen.updateStatus(pipeline.getMessage(), pipeline.getProgress());
             nuiManager.update(delta);
         }
     }
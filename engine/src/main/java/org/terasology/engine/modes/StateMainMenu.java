@@ -116,7 +116,7 @@ public void init(GameEngine gameEngine) {
 
     @Override
     public void dispose() {
-        eventSystem.process();
+        eventSystem.processAll();
 
         componentSystemManager.shutdown();
         stopBackgroundMusic();
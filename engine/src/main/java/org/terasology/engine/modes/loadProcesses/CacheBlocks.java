@@ -16,11 +16,13 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.context.Context;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.family.BlockFamily;
 
 import java.util.Iterator;
+import java.util.Set;
 
 /**
  */
@@ -55,6 +57,16 @@ public void begin() {
         setTotalSteps(blockManager.getBlockFamilyCount());
     }
 
+    @Override
+    public Set<Class<?>> getDependencies() {
+        return ImmutableSet.of(BlockManager.class);
+    }
+
+    @Override
+    public boolean isMainThreadRequired() {
+        return false;
+    }
+
     @Override
     public int getExpectedCost() {
         return 1;
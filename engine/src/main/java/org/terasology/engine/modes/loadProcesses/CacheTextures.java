@@ -16,6 +16,7 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.asset.Assets;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.rendering.assets.texture.Texture;
@@ -42,12 +43,24 @@ public void begin() {
 
     @Override
     public boolean step() {
-        ResourceUrn textureUrn = urns.next();
-        Assets.get(textureUrn, Texture.class);
-        stepDone();
+        if (urns.hasNext()) {
+            ResourceUrn textureUrn = urns.next();
+            Assets.get(textureUrn, Texture.class);
+            stepDone();
+        }
         return !urns.hasNext();
     }
 
+    @Override
+    public Set<Class<?>> getDependencies() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public boolean isMainThreadRequired() {
+        return false;
+    }
+
     @Override
     public int getExpectedCost() {
         return 1;
@@ -16,8 +16,13 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.context.Context;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+
+import java.util.Set;
 
 /**
  */
@@ -40,6 +45,16 @@ public boolean step() {
         return true;
     }
 
+    @Override
+    public Set<Class<?>> getDependencies() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public Set<Class<?>> getProducts() {
+        return ImmutableSet.of(EntityManager.class, TypeSerializationLibrary.class);
+    }
+
     @Override
     public int getExpectedCost() {
         return 1;
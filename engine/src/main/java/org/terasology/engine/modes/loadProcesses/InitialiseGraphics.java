@@ -16,6 +16,7 @@
 package org.terasology.engine.modes.loadProcesses;
 
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.context.Context;
 import org.terasology.engine.TerasologyConstants;
@@ -26,6 +27,8 @@
 import org.terasology.rendering.primitives.Tessellator;
 import org.terasology.rendering.primitives.TessellatorHelper;
 
+import java.util.Set;
+
 /**
  */
 public class InitialiseGraphics extends SingleStepLoadProcess {
@@ -56,6 +59,11 @@ public boolean step() {
         return true;
     }
 
+    @Override
+    public Set<Class<?>> getDependencies() {
+        return ImmutableSet.of();
+    }
+
     @Override
     public int getExpectedCost() {
         return 1;
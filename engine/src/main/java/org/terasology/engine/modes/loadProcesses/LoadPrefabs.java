@@ -16,12 +16,16 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
 import org.terasology.context.Context;
+import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.world.block.BlockManager;
 
 import java.util.Iterator;
+import java.util.Set;
 
 /**
  */
@@ -53,6 +57,22 @@ public void begin() {
         setTotalSteps(assetManager.getAvailableAssets(Prefab.class).size());
     }
 
+    @Override
+    public Set<Class<?>> getDependencies() {
+        // Prefabs with block fields can only be deserialized once the block type handlers are registered
+        return ImmutableSet.of(EntityManager.class, BlockManager.class);
+    }
+
+    @Override
+    public Set<Class<?>> getProducts() {
+        return ImmutableSet.of(Prefab.class);
+    }
+
+    @Override
+    public boolean isMainThreadRequired() {
+        return false;
+    }
+
     @Override
     public int getExpectedCost() {
         return 1;
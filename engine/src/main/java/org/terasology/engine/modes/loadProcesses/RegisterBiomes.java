@@ -16,6 +16,7 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.context.Context;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.game.GameManifest;
@@ -24,6 +25,8 @@
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.biomes.BiomeRegistry;
 
+import java.util.Set;
+
 /**
  */
 public class RegisterBiomes extends SingleStepLoadProcess {
@@ -60,6 +63,16 @@ public boolean step() {
         return true;
     }
 
+    @Override
+    public Set<Class<?>> getDependencies() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public Set<Class<?>> getProducts() {
+        return ImmutableSet.of(BiomeManager.class, BiomeRegistry.class);
+    }
+
     @Override
     public int getExpectedCost() {
         return 1;
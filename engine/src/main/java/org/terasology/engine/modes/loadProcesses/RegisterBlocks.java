@@ -16,6 +16,7 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.assets.management.AssetManager;
 import org.terasology.config.Config;
 import org.terasology.context.Context;
@@ -31,6 +32,8 @@
 import org.terasology.world.block.tiles.WorldAtlas;
 import org.terasology.world.block.tiles.WorldAtlasImpl;
 
+import java.util.Set;
+
 /**
  */
 public class RegisterBlocks extends SingleStepLoadProcess {
@@ -69,6 +72,16 @@ public boolean step() {
         return true;
     }
 
+    @Override
+    public Set<Class<?>> getDependencies() {
+        return ImmutableSet.of(TypeSerializationLibrary.class);
+    }
+
+    @Override
+    public Set<Class<?>> getProducts() {
+        return ImmutableSet.of(WorldAtlas.class, BlockManager.class);
+    }
+
     @Override
     public int getExpectedCost() {
         return 1;
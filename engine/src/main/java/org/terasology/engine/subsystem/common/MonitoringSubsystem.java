@@ -15,18 +15,37 @@
  */
 package org.terasology.engine.subsystem.common;
 
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.context.Context;
 import org.terasology.engine.GameEngine;
+import org.terasology.engine.paths.PathManager;
 import org.terasology.engine.subsystem.EngineSubsystem;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.TelemetryExporter;
 import org.terasology.monitoring.gui.AdvancedMonitor;
+import org.terasology.monitoring.impl.HttpTelemetryExporter;
+import org.terasology.monitoring.impl.RollingFileTelemetryExporter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
  */
 public class MonitoringSubsystem implements EngineSubsystem {
+    private static final Logger logger = LoggerFactory.getLogger(MonitoringSubsystem.class);
+
+    private static final String TELEMETRY_FILE = "telemetry.log";
+    private static final long TELEMETRY_FILE_SIZE = 10 * 1024 * 1024;
+    private static final int TELEMETRY_FILE_BACKUPS = 5;
 
     private AdvancedMonitor advancedMonitor;
+    private final List<TelemetryExporter> telemetryExporters = Lists.newArrayList();
 
     @Override
     public String getName() {
@@ -39,6 +58,27 @@ public void initialise(GameEngine engine, Context rootContext) {
             advancedMonitor = new AdvancedMonitor();
             advancedMonitor.setVisible(true);
         }
+        initialiseTelemetry(rootContext.get(Config.class).getSystem());
+    }
+
+    private void initialiseTelemetry(SystemConfig config) {
+        if (config.getTelemetryExportInterval() <= 0) {
+            return;
+        }
+        if (config.isTelemetryFileEnabled()) {
+            telemetryExporters.add(new RollingFileTelemetryExporter(PathManager.getInstance().getLogPath().resolve(TELEMETRY_FILE),
+                    TELEMETRY_FILE_SIZE, TELEMETRY_FILE_BACKUPS));
+        }
+        if (config.getTelemetryHttpPort() > 0) {
+            try {
+                telemetryExporters.add(new HttpTelemetryExporter(config.getTelemetryHttpPort()));
+            } catch (IOException e) {
+                logger.error("Failed to serve telemetry on port {}", config.getTelemetryHttpPort(), e);
+            }
+        }
+        for (TelemetryExporter exporter : telemetryExporters) {
+            PerformanceMonitor.addExporter(exporter, config.getTelemetryExportInterval(), TimeUnit.SECONDS);
+        }
     }
 
     @Override
@@ -46,5 +86,9 @@ public void shutdown() {
         if (advancedMonitor != null) {
             advancedMonitor.setVisible(false);
         }
+        for (TelemetryExporter exporter : telemetryExporters) {
+            PerformanceMonitor.removeExporter(exporter);
+        }
+        telemetryExporters.clear();
     }
 }
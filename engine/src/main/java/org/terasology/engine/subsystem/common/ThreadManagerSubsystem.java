@@ -48,7 +48,6 @@ public String getName() {
                 @Override
                 public void run() {
                     Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
-                    Thread.currentThread().setName("Engine-Task-Pool");
                     try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getClass().getSimpleName())) {
                         task.run();
                     } catch (RejectedExecutionException e) {
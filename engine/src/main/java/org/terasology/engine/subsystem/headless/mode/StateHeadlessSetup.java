@@ -146,7 +146,7 @@ private GameManifest createGameManifest() {
 
     @Override
     public void dispose() {
-        eventSystem.process();
+        eventSystem.processAll();
 
         componentSystemManager.shutdown();
 
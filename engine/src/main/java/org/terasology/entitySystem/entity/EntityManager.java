@@ -20,8 +20,10 @@
 import org.terasology.entitySystem.metadata.ComponentLibrary;
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.prefab.PrefabManager;
+import org.terasology.math.AABB;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 
 import java.util.Map;
 
@@ -141,6 +143,25 @@ public interface EntityManager {
      */
     int getCountOfEntitiesWith(Class<? extends Component>... componentClasses);
 
+    /**
+     * @param position
+     * @param radius
+     * @return An iterable over all entities with a LocationComponent whose world position is within radius of the given position
+     */
+    Iterable<EntityRef> getEntitiesWithin(Vector3f position, float radius);
+
+    /**
+     * @param region
+     * @return An iterable over all entities with a LocationComponent whose world position is within the given region
+     */
+    Iterable<EntityRef> getEntitiesWithin(AABB region);
+
+    /**
+     * @param chunkPos
+     * @return An iterable over all entities with a LocationComponent whose world position is within the given chunk
+     */
+    Iterable<EntityRef> getEntitiesInChunk(Vector3i chunkPos);
+
     /**
      * @return The event system being used by the entity manager
      */
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A component store that groups entities by archetype - the exact set of component classes they have. Each archetype
+ * keeps its entities and their components in dense arrays, one column per component class.
+ * <br><br>
+ * Queries for several components only visit the archetypes that contain all of them, instead of probing a map per
+ * component for every entity. The price is that adding or removing a component moves the entity to another archetype.
+ *
+ */
+public class ArchetypeComponentTable implements ComponentStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Set<Class<? extends Component>>, Archetype> archetypes = Maps.newHashMap();
+    private final Map<Class<? extends Component>, List<Archetype>> archetypesByComponent = Maps.newHashMap();
+
+    private final TLongObjectMap<Archetype> entityArchetypes = new TLongObjectHashMap<>();
+    private final TLongIntMap entityRows = new TLongIntHashMap();
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype != null) {
+            return componentClass.cast(archetype.get(entityRows.get(entityId), componentClass));
+        }
+        return null;
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        Class<? extends Component> componentClass = component.getClass();
+        Archetype current = entityArchetypes.get(entityId);
+        if (current == null) {
+            Archetype target = getArchetypeWith(Collections.<Class<? extends Component>>emptySet(), componentClass);
+            int row = target.addRow(entityId);
+            target.set(row, componentClass, component);
+            entityArchetypes.put(entityId, target);
+            entityRows.put(entityId, row);
+            return null;
+        }
+
+        int row = entityRows.get(entityId);
+        int column = current.columnOf(componentClass);
+        if (column != -1) {
+            Component old = current.columns[column][row];
+            current.columns[column][row] = component;
+            return old;
+        }
+
+        Archetype target = current.addEdges.get(componentClass);
+        if (target == null) {
+            target = getArchetypeWith(current.componentTypes, componentClass);
+            current.addEdges.put(componentClass, target);
+        }
+        int newRow = moveEntity(entityId, current, row, target);
+        target.set(newRow, componentClass, component);
+        return null;
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        Archetype current = entityArchetypes.get(entityId);
+        if (current == null) {
+            return null;
+        }
+        int column = current.columnOf(componentClass);
+        if (column == -1) {
+            return null;
+        }
+        int row = entityRows.get(entityId);
+        Component removed = current.columns[column][row];
+        if (current.componentTypes.size() == 1) {
+            removeRow(current, row);
+            entityArchetypes.remove(entityId);
+            entityRows.remove(entityId);
+            return removed;
+        }
+
+        Archetype target = current.removeEdges.get(componentClass);
+        if (target == null) {
+            target = getArchetypeWithout(current.componentTypes, componentClass);
+            current.removeEdges.put(componentClass, target);
+        }
+        moveEntity(entityId, current, row, target);
+        return removed;
+    }
+
+    @Override
+    public List<Component> removeAndReturnComponentsOf(long entityId) {
+        List<Component> components = getComponentsInNewList(entityId);
+        remove(entityId);
+        return components;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        Archetype archetype = entityArchetypes.remove(entityId);
+        if (archetype != null) {
+            removeRow(archetype, entityRows.remove(entityId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        archetypes.clear();
+        archetypesByComponent.clear();
+        entityArchetypes.clear();
+        entityRows.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        int count = 0;
+        for (Archetype archetype : getArchetypesContaining(componentClass)) {
+            count += archetype.size;
+        }
+        return count;
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents(long entityId) {
+        return getComponentsInNewList(entityId);
+    }
+
+    @Override
+    public List<Component> getComponentsInNewList(long entityId) {
+        Archetype archetype = entityArchetypes.get(entityId);
+        if (archetype == null) {
+            return Lists.newArrayList();
+        }
+        int row = entityRows.get(entityId);
+        List<Component> components = Lists.newArrayListWithCapacity(archetype.columns.length);
+        for (Component[] column : archetype.columns) {
+            components.add(column[row]);
+        }
+        return components;
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        List<Archetype> matching = archetypesByComponent.get(componentClass);
+        if (matching == null) {
+            return null;
+        }
+        return new ArchetypeComponentIterator<>(componentClass, matching);
+    }
+
+    @Override
+    public TLongList getEntityIdsWith(Class<? extends Component>... componentClasses) {
+        TLongList idList = new TLongArrayList();
+        for (Archetype archetype : getArchetypesContaining(componentClasses[0])) {
+            if (archetype.containsAll(componentClasses)) {
+                idList.add(archetype.entityIds, 0, archetype.size);
+            }
+        }
+        return idList;
+    }
+
+    /**
+     * The returned iterator works on a copy of the ids, so entities can be created and destroyed while iterating.
+     */
+    @Override
+    public TLongIterator entityIdIterator() {
+        return new TLongArrayList(entityArchetypes.keys()).iterator();
+    }
+
+    @Override
+    public int numEntities() {
+        return entityArchetypes.size();
+    }
+
+    /**
+     * @return the number of distinct archetypes that have been created so far.
+     */
+    public int getArchetypeCount() {
+        return archetypes.size();
+    }
+
+    private List<Archetype> getArchetypesContaining(Class<? extends Component> componentClass) {
+        List<Archetype> matching = archetypesByComponent.get(componentClass);
+        return (matching == null) ? Collections.<Archetype>emptyList() : matching;
+    }
+
+    private Archetype getArchetypeWith(Set<Class<? extends Component>> types, Class<? extends Component> added) {
+        return getArchetype(ImmutableSet.<Class<? extends Component>>builder().addAll(types).add(added).build());
+    }
+
+    private Archetype getArchetypeWithout(Set<Class<? extends Component>> types, Class<? extends Component> removed) {
+        ImmutableSet.Builder<Class<? extends Component>> builder = ImmutableSet.builder();
+        for (Class<? extends Component> type : types) {
+            if (type != removed) {
+                builder.add(type);
+            }
+        }
+        return getArchetype(builder.build());
+    }
+
+    private Archetype getArchetype(Set<Class<? extends Component>> types) {
+        Archetype archetype = archetypes.get(types);
+        if (archetype == null) {
+            archetype = new Archetype(types);
+            archetypes.put(types, archetype);
+            for (Class<? extends Component> type : types) {
+                List<Archetype> list = archetypesByComponent.get(type);
+                if (list == null) {
+                    list = Lists.newArrayList();
+                    archetypesByComponent.put(type, list);
+                }
+                list.add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    /**
+     * Copies all components the source and target archetypes have in common into a new row of the target, and
+     * removes the entity from the source.
+     *
+     * @return the row of the entity in the target archetype
+     */
+    private int moveEntity(long entityId, Archetype source, int sourceRow, Archetype target) {
+        int targetRow = target.addRow(entityId);
+        for (int i = 0; i < source.types.length; ++i) {
+            int targetColumn = target.columnOf(source.types[i]);
+            if (targetColumn != -1) {
+                target.columns[targetColumn][targetRow] = source.columns[i][sourceRow];
+            }
+        }
+        removeRow(source, sourceRow);
+        entityArchetypes.put(entityId, target);
+        entityRows.put(entityId, targetRow);
+        return targetRow;
+    }
+
+    private void removeRow(Archetype archetype, int row) {
+        long movedEntity = archetype.removeRow(row);
+        if (movedEntity != PojoEntityManager.NULL_ID) {
+            entityRows.put(movedEntity, row);
+        }
+    }
+
+    /**
+     * Dense storage of all entities sharing one set of component classes.
+     */
+    private static final class Archetype {
+        private final Set<Class<? extends Component>> componentTypes;
+        private final Class<?>[] types;
+        private final Map<Class<? extends Component>, Archetype> addEdges = Maps.newHashMap();
+        private final Map<Class<? extends Component>, Archetype> removeEdges = Maps.newHashMap();
+
+        private long[] entityIds = new long[INITIAL_CAPACITY];
+        private Component[][] columns;
+        private int size;
+
+        Archetype(Set<Class<? extends Component>> componentTypes) {
+            this.componentTypes = componentTypes;
+            this.types = componentTypes.toArray(new Class<?>[componentTypes.size()]);
+            this.columns = new Component[types.length][INITIAL_CAPACITY];
+        }
+
+        int columnOf(Class<?> componentClass) {
+            for (int i = 0; i < types.length; ++i) {
+                if (types[i] == componentClass) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        boolean containsAll(Class<?>[] componentClasses) {
+            for (Class<?> componentClass : componentClasses) {
+                if (columnOf(componentClass) == -1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Component get(int row, Class<?> componentClass) {
+            int column = columnOf(componentClass);
+            return (column == -1) ? null : columns[column][row];
+        }
+
+        void set(int row, Class<?> componentClass, Component component) {
+            columns[columnOf(componentClass)][row] = component;
+        }
+
+        int addRow(long entityId) {
+            if (size == entityIds.length) {
+                int newCapacity = size * 2;
+                entityIds = Arrays.copyOf(entityIds, newCapacity);
+                for (int i = 0; i < columns.length; ++i) {
+                    columns[i] = Arrays.copyOf(columns[i], newCapacity);
+                }
+            }
+            entityIds[size] = entityId;
+            return size++;
+        }
+
+        /**
+         * Removes a row by moving the last row into its place.
+         *
+         * @return the id of the entity that was moved into the freed row, or NULL_ID if no entity was moved.
+         */
+        long removeRow(int row) {
+            int last = --size;
+            long movedEntity = PojoEntityManager.NULL_ID;
+            if (row != last) {
+                movedEntity = entityIds[last];
+                entityIds[row] = movedEntity;
+                for (Component[] column : columns) {
+                    column[row] = column[last];
+                }
+            }
+            for (Component[] column : columns) {
+                column[last] = null;
+            }
+            return movedEntity;
+        }
+    }
+
+    /**
+     * Iterates over one component column of several archetypes. Like the iterators of {@link ComponentTable} it must
+     * not be used after components have been added or removed.
+     */
+    private static final class ArchetypeComponentIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final Class<T> componentClass;
+        private final List<Archetype> archetypes;
+        private int archetypeIndex = -1;
+        private Archetype current;
+        private int column;
+        private int row;
+
+        ArchetypeComponentIterator(Class<T> componentClass, List<Archetype> archetypes) {
+            this.componentClass = componentClass;
+            this.archetypes = archetypes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current != null && row + 1 < current.size) {
+                return true;
+            }
+            for (int i = archetypeIndex + 1; i < archetypes.size(); ++i) {
+                if (archetypes.get(i).size > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void advance() {
+            if (current != null && row + 1 < current.size) {
+                row++;
+                return;
+            }
+            while (++archetypeIndex < archetypes.size()) {
+                Archetype next = archetypes.get(archetypeIndex);
+                if (next.size > 0) {
+                    current = next;
+                    column = next.columnOf(componentClass);
+                    row = 0;
+                    return;
+                }
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public long key() {
+            return current.entityIds[row];
+        }
+
+        @Override
+        public T value() {
+            return componentClass.cast(current.columns[column][row]);
+        }
+
+        @Override
+        public T setValue(T val) {
+            T old = value();
+            current.columns[column][row] = val;
+            return old;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
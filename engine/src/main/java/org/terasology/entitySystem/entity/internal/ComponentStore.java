@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import org.terasology.entitySystem.Component;
+
+import java.util.List;
+
+/**
+ * The backing storage of a {@link PojoEntityManager}: holds the components of every active entity, keyed by entity id.
+ * <br><br>
+ * An entity only exists in the store as long as it has at least one component.
+ *
+ */
+public interface ComponentStore {
+
+    <T extends Component> T get(long entityId, Class<T> componentClass);
+
+    /**
+     * @return the component of the same class that got replaced or null if the entity didn't have one.
+     */
+    Component put(long entityId, Component component);
+
+    /**
+     * @return removes the component with the specified class from the entity and returns it.
+     *         Returns null if no component could be removed.
+     */
+    <T extends Component> Component remove(long entityId, Class<T> componentClass);
+
+    List<Component> removeAndReturnComponentsOf(long entityId);
+
+    void remove(long entityId);
+
+    void clear();
+
+    int getComponentCount(Class<? extends Component> componentClass);
+
+    /**
+     * @return an iterable that should be only used for iteration over the components. It can't be used to remove
+     *         components. It should not be used after components have been added or removed from the entity.
+     */
+    Iterable<Component> iterateComponents(long entityId);
+
+    /**
+     * @return a new modifable list instance that contains all the components the entity had at the
+     *         time this method got called.
+     */
+    List<Component> getComponentsInNewList(long entityId);
+
+    /**
+     * @return an iterator over all components of the given class, or null if the class has never been stored.
+     */
+    <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass);
+
+    /**
+     * @return a new list with the ids of all entities that have every one of the given components. At least one
+     *         component class must be specified.
+     */
+    TLongList getEntityIdsWith(Class<? extends Component>... componentClasses);
+
+    /**
+     * Produces an iterator for iterating over all entities
+     *
+     * @return An iterator over all entity ids.
+     */
+    TLongIterator entityIdIterator();
+
+    int numEntities();
+}
@@ -19,6 +19,8 @@
 import com.google.common.collect.Maps;
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
 import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.TLongSet;
@@ -32,9 +34,10 @@
  * A table for storing entities and components. Focused on allowing iteration across a components of a given type
  *
  */
-class ComponentTable {
+class ComponentTable implements ComponentStore {
     private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
 
+    @Override
     public <T extends Component> T get(long entityId, Class<T> componentClass) {
         TLongObjectMap<Component> entityMap = store.get(componentClass);
         if (entityMap != null) {
@@ -43,6 +46,7 @@ public <T extends Component> T get(long entityId, Class<T> componentClass) {
         return null;
     }
 
+    @Override
     public Component put(long entityId, Component component) {
         TLongObjectMap<Component> entityMap = store.get(component.getClass());
         if (entityMap == null) {
@@ -57,6 +61,7 @@ public Component put(long entityId, Component component) {
      * @return removes the component with the specified class from the entity and returns it.
      *         Returns null if no component could be removed.
      */
+    @Override
     public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
         TLongObjectMap<Component> entityMap = store.get(componentClass);
         if (entityMap != null) {
@@ -66,6 +71,7 @@ public <T extends Component> Component remove(long entityId, Class<T> componentC
     }
 
 
+    @Override
     public List<Component> removeAndReturnComponentsOf(long entityId) {
         List<Component> componentList = Lists.newArrayList();
         for (TLongObjectMap<Component> entityMap : store.values()) {
@@ -77,16 +83,19 @@ public List<Component> removeAndReturnComponentsOf(long entityId) {
         return componentList;
     }
 
+    @Override
     public void remove(long entityId) {
         for (TLongObjectMap<Component> entityMap : store.values()) {
             entityMap.remove(entityId);
         }
     }
 
+    @Override
     public void clear() {
         store.clear();
     }
 
+    @Override
     public int getComponentCount(Class<? extends Component> componentClass) {
         TLongObjectMap<Component> map = store.get(componentClass);
         return (map == null) ? 0 : map.size();
@@ -98,6 +107,7 @@ public int getComponentCount(Class<? extends Component> componentClass) {
      *         components. It should not be used after components have been added or removed from the entity.
      *
      */
+    @Override
     public Iterable<Component> iterateComponents(long entityId) {
         return getComponentsInNewList(entityId);
     }
@@ -107,6 +117,7 @@ public Iterable<Component> iterateComponents(long entityId) {
      * @return a new modifable list instance that contains all the components the entity had at the
      *         time this method got called.
      */
+    @Override
     public List<Component> getComponentsInNewList(long entityId) {
         List<Component> components = Lists.newArrayList();
         for (TLongObjectMap<Component> componentMap : store.values()) {
@@ -118,6 +129,7 @@ public List<Component> getComponentsInNewList(long entityId) {
         return components;
     }
 
+    @Override
     public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
         TLongObjectMap<T> entityMap = (TLongObjectMap<T>) store.get(componentClass);
         if (entityMap != null) {
@@ -126,6 +138,31 @@ public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> c
         return null;
     }
 
+    @Override
+    public TLongList getEntityIdsWith(Class<? extends Component>... componentClasses) {
+        TLongList idList = new TLongArrayList();
+        TLongObjectIterator<? extends Component> primeIterator = componentIterator(componentClasses[0]);
+        if (primeIterator == null) {
+            return idList;
+        }
+
+        while (primeIterator.hasNext()) {
+            primeIterator.advance();
+            long id = primeIterator.key();
+            boolean discard = false;
+            for (int i = 1; i < componentClasses.length; ++i) {
+                if (get(id, componentClasses[i]) == null) {
+                    discard = true;
+                    break;
+                }
+            }
+            if (!discard) {
+                idList.add(id);
+            }
+        }
+        return idList;
+    }
+
     /**
      * Produces an iterator for iterating over all entities
      * <br><br>
@@ -133,6 +170,7 @@ public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> c
      *
      * @return An iterator over all entity ids.
      */
+    @Override
     public TLongIterator entityIdIterator() {
         TLongSet idSet = new TLongHashSet();
         for (TLongObjectMap<Component> componentMap : store.values()) {
@@ -141,6 +179,7 @@ public TLongIterator entityIdIterator() {
         return idSet.iterator();
     }
 
+    @Override
     public int numEntities() {
         TLongSet idSet = new TLongHashSet();
         for (TLongObjectMap<Component> componentMap : store.values()) {
@@ -103,6 +103,16 @@ public interface EngineEntityManager extends LowLevelEntityManager {
      */
     void deactivateForStorage(EntityRef entity);
 
+    /**
+     * Defers indexing the entities whose location changes for the location based queries. While deferred, those
+     * entities are remembered and the queries check them one by one. Ending the deferral indexes just them.
+     * <br><br>
+     * This is used by the storage manager while it adds entities whose entity refs are not bound yet.
+     *
+     * @param deferred
+     */
+    void setSpatialIndexDeferred(boolean deferred);
+
     /**
      * Subscribes to all changes related to entities. Used by engine systems.
      *
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.AABB;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkKey;
+
+import java.util.Collection;
+
+/**
+ * Buckets the entities with a {@link LocationComponent} by the chunk their world position lies in, so that location
+ * based queries only need to look at the entities of the chunks they overlap.
+ * <br><br>
+ * The index is kept up to date through the entity change notifications. When the location of an entity changes, the
+ * world positions of its children are updated as well.
+ * <br><br>
+ * Indexing can be deferred, in which case entities whose location changes are only remembered, and indexed when the
+ * deferral ends. Queries made in the meantime check the remembered entities one by one.
+ *
+ */
+class EntitySpatialIndex implements EntityChangeSubscriber {
+    private final TLongObjectMap<TLongSet> entitiesByChunk = new TLongObjectHashMap<>();
+    private final TLongLongMap chunkByEntity = new TLongLongHashMap();
+    private final TLongObjectMap<Vector3f> positionByEntity = new TLongObjectHashMap<>();
+
+    private boolean deferred;
+    private final TLongObjectMap<EntityRef> deferredEntities = new TLongObjectHashMap<>();
+
+    @Override
+    public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
+        onEntityComponentChange(entity, component);
+    }
+
+    @Override
+    public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            update(entity);
+        }
+    }
+
+    @Override
+    public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
+        if (component == LocationComponent.class) {
+            remove(entity.getId());
+            LocationComponent location = entity.getComponent(LocationComponent.class);
+            if (location != null) {
+                updateChildren(location);
+            }
+        }
+    }
+
+    @Override
+    public void onReactivation(EntityRef entity, Collection<Component> components) {
+        for (Component component : components) {
+            if (component instanceof LocationComponent) {
+                update(entity);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onBeforeDeactivation(EntityRef entity, Collection<Component> components) {
+        remove(entity.getId());
+    }
+
+    public void remove(long entityId) {
+        deferredEntities.remove(entityId);
+        removeFromIndex(entityId);
+    }
+
+    private void removeFromIndex(long entityId) {
+        if (chunkByEntity.containsKey(entityId)) {
+            long chunk = chunkByEntity.remove(entityId);
+            TLongSet chunkEntities = entitiesByChunk.get(chunk);
+            chunkEntities.remove(entityId);
+            if (chunkEntities.isEmpty()) {
+                entitiesByChunk.remove(chunk);
+            }
+            positionByEntity.remove(entityId);
+        }
+    }
+
+    public void clear() {
+        deferredEntities.clear();
+        entitiesByChunk.clear();
+        chunkByEntity.clear();
+        positionByEntity.clear();
+    }
+
+    /**
+     * Replaces the content of the index with the given entities.
+     */
+    public void rebuild(Iterable<EntityRef> entities) {
+        clear();
+        for (EntityRef entity : entities) {
+            LocationComponent location = entity.getComponent(LocationComponent.class);
+            if (location != null) {
+                index(entity.getId(), location);
+            }
+        }
+    }
+
+    /**
+     * Starts or ends deferring the indexing of entities whose location changes. Ending it indexes just the entities
+     * that changed in the meantime.
+     */
+    public void setDeferred(boolean deferred) {
+        if (deferred == this.deferred) {
+            return;
+        }
+        this.deferred = deferred;
+        if (!deferred) {
+            for (EntityRef entity : deferredEntities.valueCollection()) {
+                if (entity.exists()) {
+                    update(entity);
+                }
+            }
+            deferredEntities.clear();
+        }
+    }
+
+    public int size() {
+        return chunkByEntity.size() + deferredEntities.size();
+    }
+
+    /**
+     * @return The ids of the entities whose world position lies within the given chunk
+     */
+    public TLongList getEntitiesInChunk(Vector3i chunkPos) {
+        final long chunk = ChunkKey.of(chunkPos);
+        TLongSet chunkEntities = entitiesByChunk.get(chunk);
+        TLongList result = (chunkEntities == null) ? new TLongArrayList() : new TLongArrayList(chunkEntities);
+        if (!deferredEntities.isEmpty()) {
+            addDeferredMatching(new PositionFilter() {
+                @Override
+                public boolean accept(Vector3f position) {
+                    return ChunkKey.of(chunkPosOf(position)) == chunk;
+                }
+            }, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return The ids of the entities whose world position lies within the given distance of the given position
+     */
+    public TLongList getEntitiesWithin(Vector3f center, float radius) {
+        final float radiusSquared = radius * radius;
+        final float centerX = center.x;
+        final float centerY = center.y;
+        final float centerZ = center.z;
+        Vector3f min = new Vector3f(centerX - radius, centerY - radius, centerZ - radius);
+        Vector3f max = new Vector3f(centerX + radius, centerY + radius, centerZ + radius);
+        return getEntitiesMatching(min, max, new PositionFilter() {
+            @Override
+            public boolean accept(Vector3f position) {
+                float dx = position.x - centerX;
+                float dy = position.y - centerY;
+                float dz = position.z - centerZ;
+                return dx * dx + dy * dy + dz * dz <= radiusSquared;
+            }
+        });
+    }
+
+    /**
+     * @return The ids of the entities whose world position lies within the given region
+     */
+    public TLongList getEntitiesWithin(final AABB region) {
+        return getEntitiesMatching(region.getMin(), region.getMax(), new PositionFilter() {
+            @Override
+            public boolean accept(Vector3f position) {
+                return region.contains(position);
+            }
+        });
+    }
+
+    private TLongList getEntitiesMatching(Vector3f min, Vector3f max, PositionFilter filter) {
+        TLongList result = new TLongArrayList();
+        addDeferredMatching(filter, result);
+        if (entitiesByChunk.isEmpty()) {
+            return result;
+        }
+        Vector3i minChunk = chunkPosOf(min);
+        Vector3i maxChunk = chunkPosOf(max);
+        long chunkCount = (long) (maxChunk.x - minChunk.x + 1) * (maxChunk.y - minChunk.y + 1) * (maxChunk.z - minChunk.z + 1);
+        if (chunkCount > entitiesByChunk.size()) {
+            // Checking every occupied chunk is cheaper than looking up all the chunks in range
+            for (TLongSet chunkEntities : entitiesByChunk.valueCollection()) {
+                addMatching(chunkEntities, filter, result);
+            }
+        } else {
+            for (int x = minChunk.x; x <= maxChunk.x; ++x) {
+                for (int y = minChunk.y; y <= maxChunk.y; ++y) {
+                    for (int z = minChunk.z; z <= maxChunk.z; ++z) {
+                        TLongSet chunkEntities = entitiesByChunk.get(ChunkKey.of(x, y, z));
+                        if (chunkEntities != null) {
+                            addMatching(chunkEntities, filter, result);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void addMatching(TLongSet chunkEntities, PositionFilter filter, TLongList result) {
+        TLongIterator iterator = chunkEntities.iterator();
+        while (iterator.hasNext()) {
+            long entityId = iterator.next();
+            if (filter.accept(positionByEntity.get(entityId))) {
+                result.add(entityId);
+            }
+        }
+    }
+
+    /**
+     * Checks the entities whose indexing is deferred, which are not in the chunk buckets.
+     */
+    private void addDeferredMatching(PositionFilter filter, TLongList result) {
+        deferredEntities.forEachEntry((entityId, entity) -> {
+            LocationComponent location = entity.getComponent(LocationComponent.class);
+            if (location != null) {
+                Vector3f position = location.getWorldPosition();
+                if (isFinite(position) && filter.accept(position)) {
+                    result.add(entityId);
+                }
+            }
+            return true;
+        });
+    }
+
+    private void update(EntityRef entity) {
+        if (deferred) {
+            removeFromIndex(entity.getId());
+            deferredEntities.put(entity.getId(), entity);
+            return;
+        }
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null) {
+            return;
+        }
+        index(entity.getId(), location);
+        updateChildren(location);
+    }
+
+    private void index(long entityId, LocationComponent location) {
+        Vector3f position = location.getWorldPosition();
+        if (isFinite(position)) {
+            long chunk = ChunkKey.of(chunkPosOf(position));
+            if (!chunkByEntity.containsKey(entityId) || chunkByEntity.get(entityId) != chunk) {
+                removeFromIndex(entityId);
+                TLongSet chunkEntities = entitiesByChunk.get(chunk);
+                if (chunkEntities == null) {
+                    chunkEntities = new TLongHashSet();
+                    entitiesByChunk.put(chunk, chunkEntities);
+                }
+                chunkEntities.add(entityId);
+                chunkByEntity.put(entityId, chunk);
+            }
+            positionByEntity.put(entityId, position);
+        } else {
+            removeFromIndex(entityId);
+        }
+    }
+
+    private static boolean isFinite(Vector3f position) {
+        return Float.isFinite(position.x) && Float.isFinite(position.y) && Float.isFinite(position.z);
+    }
+
+    private void updateChildren(LocationComponent location) {
+        for (EntityRef child : location.getChildren()) {
+            if (child.exists()) {
+                update(child);
+            }
+        }
+    }
+
+    /**
+     * @return The position of the chunk whose region contains the given world position, matching {@link Chunk#getAABB()}
+     */
+    private static Vector3i chunkPosOf(Vector3f position) {
+        return new Vector3i(ChunkMath.calcChunkPosX((int) Math.floor(position.x), ChunkConstants.POWER_X),
+                ChunkMath.calcChunkPosY((int) Math.floor(position.y), ChunkConstants.POWER_Y),
+                ChunkMath.calcChunkPosZ((int) Math.floor(position.z), ChunkConstants.POWER_Z));
+    }
+
+    private interface PositionFilter {
+        boolean accept(Vector3f position);
+    }
+}
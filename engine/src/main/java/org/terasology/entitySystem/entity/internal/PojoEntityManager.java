@@ -44,8 +44,10 @@
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.prefab.PrefabManager;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.AABB;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
 
 import java.util.ArrayList;
@@ -69,10 +71,11 @@ public class PojoEntityManager implements EngineEntityManager {
     private long nextEntityId = 1;
     private TLongSet loadedIds = new TLongHashSet();
     private Map<Long, BaseEntityRef> entityCache = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable store = new ComponentTable();
+    private final ComponentStore store;
 
     private Set<EntityChangeSubscriber> subscribers = Sets.newLinkedHashSet();
     private Set<EntityDestroySubscriber> destroySubscribers = Sets.newLinkedHashSet();
+    private final EntitySpatialIndex spatialIndex = new EntitySpatialIndex();
     private EventSystem eventSystem;
     private PrefabManager prefabManager;
     private ComponentLibrary componentLibrary;
@@ -82,6 +85,15 @@ public class PojoEntityManager implements EngineEntityManager {
     private TypeSerializationLibrary typeSerializerLibrary;
 
     public PojoEntityManager() {
+        this(new ComponentTable());
+    }
+
+    /**
+     * @param store the storage backend for the components of the entities
+     */
+    public PojoEntityManager(ComponentStore store) {
+        this.store = store;
+        subscribers.add(spatialIndex);
     }
 
     public void setTypeSerializerLibrary(TypeSerializationLibrary serializerLibrary) {
@@ -102,6 +114,7 @@ public void clear() {
             entityRef.invalidate();
         }
         store.clear();
+        spatialIndex.clear();
         nextEntityId = 1;
         loadedIds.clear();
         entityCache.clear();
@@ -316,26 +329,10 @@ public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... c
         if (componentClasses.length == 1) {
             return iterateEntities(componentClasses[0]);
         }
-        TLongList idList = new TLongArrayList();
-        TLongObjectIterator<? extends Component> primeIterator = store.componentIterator(componentClasses[0]);
-        if (primeIterator == null) {
+        TLongList idList = store.getEntityIdsWith(componentClasses);
+        if (idList.isEmpty()) {
             return Collections.emptyList();
         }
-
-        while (primeIterator.hasNext()) {
-            primeIterator.advance();
-            long id = primeIterator.key();
-            boolean discard = false;
-            for (int i = 1; i < componentClasses.length; ++i) {
-                if (store.get(id, componentClasses[i]) == null) {
-                    discard = true;
-                    break;
-                }
-            }
-            if (!discard) {
-                idList.add(primeIterator.key());
-            }
-        }
         return new EntityIterable(idList);
     }
 
@@ -354,6 +351,26 @@ private Iterable<EntityRef> iterateEntities(Class<? extends Component> component
         return new EntityIterable(idList);
     }
 
+    @Override
+    public Iterable<EntityRef> getEntitiesWithin(Vector3f position, float radius) {
+        return new EntityIterable(spatialIndex.getEntitiesWithin(position, radius));
+    }
+
+    @Override
+    public Iterable<EntityRef> getEntitiesWithin(AABB region) {
+        return new EntityIterable(spatialIndex.getEntitiesWithin(region));
+    }
+
+    @Override
+    public Iterable<EntityRef> getEntitiesInChunk(Vector3i chunkPos) {
+        return new EntityIterable(spatialIndex.getEntitiesInChunk(chunkPos));
+    }
+
+    @Override
+    public void setSpatialIndexDeferred(boolean deferred) {
+        spatialIndex.setDeferred(deferred);
+    }
+
     @Override
     public int getActiveEntityCount() {
         return entityCache.size();
@@ -559,6 +576,7 @@ private void destroy(EntityRef ref) {
         long entityId = ref.getId();
         entityCache.remove(entityId);
         loadedIds.remove(entityId);
+        spatialIndex.remove(entityId);
         if (ref instanceof PojoEntityRef) {
             ((PojoEntityRef) ref).invalidate();
         }
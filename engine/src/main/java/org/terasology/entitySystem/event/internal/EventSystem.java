@@ -28,10 +28,20 @@
 public interface EventSystem {
 
     /**
-     * Process all pending events
+     * Process pending events, which were sent from threads other than the main thread
      */
     void process();
 
+    /**
+     * Process all pending events, regardless of how long it takes. Used before shutting down, so no events are lost.
+     */
+    void processAll();
+
+    /**
+     * @return the number of events sent from other threads that are still waiting to be processed.
+     */
+    int getPendingEventCount();
+
     /**
      * Registers an event
      *
@@ -22,9 +22,10 @@
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import org.reflections.ReflectionUtils;
@@ -55,6 +56,7 @@
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -62,7 +64,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An implementation of the EventSystem.
@@ -71,17 +73,27 @@
 public class EventSystemImpl implements EventSystem {
 
     private static final Logger logger = LoggerFactory.getLogger(EventSystemImpl.class);
+    private static final int MAX_CACHED_SIGNATURES = 4096;
+    private static final int PENDING_EVENT_CAPACITY = 1 << 16;
+    private static final int PENDING_EVENT_BATCH_SIZE = 256;
+    private static final long DEFAULT_PROCESS_TIME_BUDGET = TimeUnit.MILLISECONDS.toNanos(10);
 
     private Map<Class<? extends Event>, SetMultimap<Class<? extends Component>, EventHandlerInfo>> componentSpecificHandlers = Maps.newHashMap();
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
 
+    // Dispatch cache, cleared whenever handlers are added or removed
+    private boolean dispatchCacheEnabled = true;
+    private Map<Class<? extends Event>, EventDispatchTable> dispatchTables = Maps.newHashMap();
+    private Map<Class<? extends Event>, Map<Class<? extends Component>, EventHandlerInfo[]>> componentDispatchTables = Maps.newHashMap();
+
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
 
     private Thread mainThread;
-    private BlockingQueue<PendingEvent> pendingEvents = Queues.newLinkedBlockingQueue();
+    private PendingEventQueue pendingEvents = new PendingEventQueue(PENDING_EVENT_CAPACITY);
+    private long processTimeBudget = DEFAULT_PROCESS_TIME_BUDGET;
 
     private EventLibrary eventLibrary;
     private NetworkSystem networkSystem;
@@ -92,17 +104,39 @@ public EventSystemImpl(EventLibrary eventLibrary, NetworkSystem networkSystem) {
         this.networkSystem = networkSystem;
     }
 
+    /**
+     * Sends the events that were sent from other threads, in batches, until none are left or the time budget for a
+     * call is used up. Events left over are sent in the next call.
+     */
     @Override
     public void process() {
-        for (PendingEvent event = pendingEvents.poll(); event != null; event = pendingEvents.poll()) {
-            if (event.getComponent() != null) {
-                send(event.getEntity(), event.getEvent(), event.getComponent());
-            } else {
-                send(event.getEntity(), event.getEvent());
+        long start = System.nanoTime();
+        while (pendingEvents.drainTo(this, PENDING_EVENT_BATCH_SIZE) == PENDING_EVENT_BATCH_SIZE) {
+            if (System.nanoTime() - start >= processTimeBudget) {
+                break;
             }
         }
     }
 
+    @Override
+    public void processAll() {
+        while (pendingEvents.drainTo(this, PENDING_EVENT_BATCH_SIZE) > 0) {
+            // Keep draining, including events sent by the handlers of drained events
+        }
+    }
+
+    @Override
+    public int getPendingEventCount() {
+        return pendingEvents.size();
+    }
+
+    /**
+     * @param budget the maximum time (in nanoseconds) a call to {@link #process()} spends on pending events.
+     */
+    public void setProcessTimeBudget(long budget) {
+        this.processTimeBudget = budget;
+    }
+
     @Override
     public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
         eventIdMap.put(uri, eventType);
@@ -115,6 +149,7 @@ public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
         if (shouldAddToLibrary(eventType)) {
             eventLibrary.register(uri, eventType);
         }
+        invalidateDispatchCache();
     }
 
     /**
@@ -191,9 +226,11 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        invalidateDispatchCache();
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
+        invalidateDispatchCache();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -241,18 +278,38 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        invalidateDispatchCache();
+    }
+
+    /**
+     * The dispatch cache stores the pre-sorted handlers per event type and set of relevant components of the receiving
+     * entity. It is enabled by default, disabling it is only useful for comparing against the uncached selection.
+     */
+    public void setDispatchCacheEnabled(boolean enabled) {
+        this.dispatchCacheEnabled = enabled;
+        invalidateDispatchCache();
+    }
+
+    private void invalidateDispatchCache() {
+        dispatchTables.clear();
+        componentDispatchTables.clear();
     }
 
     @Override
     public void send(EntityRef entity, Event event) {
         if (Thread.currentThread() != mainThread) {
-            pendingEvents.offer(new PendingEvent(entity, event));
+            pendingEvents.put(entity, event, null);
         } else {
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            Collections.sort(selectedHandlers, priorityComparator);
+            EventHandlerInfo[] selectedHandlers;
+            if (dispatchCacheEnabled) {
+                selectedHandlers = getDispatchTable(event.getClass()).select(entity);
+            } else {
+                List<EventHandlerInfo> handlers = Lists.newArrayList(selectEventHandlers(event.getClass(), entity));
+                Collections.sort(handlers, priorityComparator);
+                selectedHandlers = handlers.toArray(new EventHandlerInfo[handlers.size()]);
+            }
 
             if (event instanceof ConsumableEvent) {
                 sendConsumableEvent(entity, event, selectedHandlers);
@@ -262,7 +319,7 @@ public void send(EntityRef entity, Event event) {
         }
     }
 
-    private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendStandardEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
             if (handler.isValidFor(entity)) {
@@ -271,7 +328,7 @@ private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerI
         }
     }
 
-    private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendConsumableEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         ConsumableEvent consumableEvent = (ConsumableEvent) event;
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
@@ -346,21 +403,56 @@ private void broadcastEvent(EntityRef entity, Event event, EventMetadata metadat
     @Override
     public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
-            pendingEvents.offer(new PendingEvent(entity, event, component));
+            pendingEvents.put(entity, event, component);
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                Collections.sort(eventHandlers, priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            for (EventHandlerInfo eventHandler : getComponentHandlers(event.getClass(), component.getClass())) {
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
+    private EventHandlerInfo[] getComponentHandlers(Class<? extends Event> eventType, Class<? extends Component> componentType) {
+        Map<Class<? extends Component>, EventHandlerInfo[]> handlersByComponent = componentDispatchTables.get(eventType);
+        if (handlersByComponent == null) {
+            handlersByComponent = Maps.newHashMap();
+            if (dispatchCacheEnabled) {
+                componentDispatchTables.put(eventType, handlersByComponent);
+            }
+        }
+        EventHandlerInfo[] result = handlersByComponent.get(componentType);
+        if (result == null) {
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers != null) {
+                result = sortByPriority(handlers.get(componentType));
+            } else {
+                result = new EventHandlerInfo[0];
+            }
+            handlersByComponent.put(componentType, result);
+        }
+        return result;
+    }
+
+    private EventDispatchTable getDispatchTable(Class<? extends Event> eventType) {
+        EventDispatchTable table = dispatchTables.get(eventType);
+        if (table == null) {
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers == null) {
+                handlers = ImmutableSetMultimap.of();
+            }
+            table = new EventDispatchTable(generalHandlers.get(eventType), handlers);
+            dispatchTables.put(eventType, table);
+        }
+        return table;
+    }
+
+    private EventHandlerInfo[] sortByPriority(Collection<EventHandlerInfo> handlers) {
+        EventHandlerInfo[] result = handlers.toArray(new EventHandlerInfo[handlers.size()]);
+        Arrays.sort(result, priorityComparator);
+        return result;
+    }
+
     private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
         Set<EventHandlerInfo> result = Sets.newHashSet();
         result.addAll(generalHandlers.get(eventType));
@@ -381,6 +473,69 @@ private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventTy
         return result;
     }
 
+    /**
+     * The handlers of a single event type. The handlers that apply to an entity only depend on which of the components
+     * with handlers for this event type the entity has, so the pre-sorted handler array is cached per such signature.
+     */
+    private final class EventDispatchTable {
+        private final Set<EventHandlerInfo> generalHandlers;
+        private final SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers;
+        private final Class<? extends Component>[] componentTypes;
+        private final Map<Class<? extends Component>, Integer> componentIndices = Maps.newHashMap();
+        private final Map<BitSet, EventHandlerInfo[]> handlersBySignature = Maps.newHashMap();
+        // Reused for lookups, only the main thread dispatches events
+        private final BitSet signature = new BitSet();
+
+        EventDispatchTable(Set<EventHandlerInfo> generalHandlers, SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers) {
+            this.generalHandlers = ImmutableSet.copyOf(generalHandlers);
+            this.handlers = handlers;
+            this.componentTypes = handlers.keySet().toArray(new Class[handlers.keySet().size()]);
+            for (int i = 0; i < componentTypes.length; ++i) {
+                componentIndices.put(componentTypes[i], i);
+            }
+        }
+
+        EventHandlerInfo[] select(EntityRef entity) {
+            signature.clear();
+            for (int i = 0; i < componentTypes.length; ++i) {
+                if (entity.hasComponent(componentTypes[i])) {
+                    signature.set(i);
+                }
+            }
+            EventHandlerInfo[] result = handlersBySignature.get(signature);
+            if (result == null) {
+                result = build(signature);
+                if (handlersBySignature.size() >= MAX_CACHED_SIGNATURES) {
+                    handlersBySignature.clear();
+                }
+                handlersBySignature.put((BitSet) signature.clone(), result);
+            }
+            return result;
+        }
+
+        private EventHandlerInfo[] build(BitSet components) {
+            Set<EventHandlerInfo> result = Sets.newHashSet(generalHandlers);
+            for (int i = components.nextSetBit(0); i >= 0; i = components.nextSetBit(i + 1)) {
+                for (EventHandlerInfo eventHandler : handlers.get(componentTypes[i])) {
+                    if (hasAll(components, eventHandler.getFilterComponents())) {
+                        result.add(eventHandler);
+                    }
+                }
+            }
+            return sortByPriority(result);
+        }
+
+        private boolean hasAll(BitSet components, Collection<Class<? extends Component>> required) {
+            for (Class<? extends Component> componentType : required) {
+                Integer index = componentIndices.get(componentType);
+                if (index == null || !components.get(index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
 
         @Override
@@ -397,6 +552,8 @@ private interface EventHandlerInfo {
         int getPriority();
 
         Object getHandler();
+
+        Collection<Class<? extends Component>> getFilterComponents();
     }
 
     private static class ReflectedEventHandlerInfo implements EventHandlerInfo {
@@ -452,6 +609,11 @@ public int getPriority() {
         public ComponentSystem getHandler() {
             return handler;
         }
+
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
     }
 
     private static class ByteCodeEventHandlerInfo implements EventHandlerInfo {
@@ -523,6 +685,11 @@ public int getPriority() {
         public ComponentSystem getHandler() {
             return handler;
         }
+
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
     }
 
     private static class ReceiverEventHandlerInfo<T extends Event> implements EventHandlerInfo {
@@ -579,5 +746,10 @@ public int hashCode() {
         public Object getHandler() {
             return receiver;
         }
+
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return Arrays.asList(components);
+        }
     }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.event.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.Event;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An unbounded multi-producer, single-consumer queue for events sent from threads other than the main thread.
+ * <br><br>
+ * Events are stored in the preallocated slots of a ring buffer, so neither adding nor draining allocates as long as it
+ * doesn't fill up. Each slot has a sequence number that tells producers whether it is free and the consumer whether it
+ * has been published. Producers claim slots in increasing order.
+ * <br><br>
+ * When the ring is full, events spill into an overflow list instead, so no event is ever dropped or blocks its sender.
+ * While the overflow holds events, all producers add to it, and the consumer only sends a batch of overflow events after
+ * every ring slot claimed before that batch was taken. Events sent by the same thread are therefore always drained in
+ * the order they were sent.
+ *
+ */
+class PendingEventQueue {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final EntityRef[] entities;
+    private final Event[] events;
+    private final Component[] components;
+
+    private final AtomicLong producerPosition = new AtomicLong();
+    // Only accessed by the consumer, but read by other threads for size()
+    private volatile long consumerPosition;
+
+    // Guarded by overflowLock; overflowing stays set from the first spilled event until the consumer finds it empty
+    private final Object overflowLock = new Object();
+    private List<PendingEvent> overflow = Lists.newArrayList();
+    private volatile boolean overflowing;
+    private final AtomicInteger overflowSize = new AtomicInteger();
+
+    // Only accessed by the consumer: overflow events taken out of the list, and the ring position to drain up to first
+    private List<PendingEvent> takenOverflow;
+    private int takenOverflowIndex;
+    private long takenOverflowLimit;
+
+    /**
+     * @param capacity the number of ring slots, must be a power of two of at least 2 (a published slot of a single slot
+     *                 ring would look free to the next producer)
+     */
+    PendingEventQueue(int capacity) {
+        Preconditions.checkArgument(capacity > 1 && Integer.bitCount(capacity) == 1, "Capacity must be a power of two of at least 2");
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; ++i) {
+            sequences.set(i, i);
+        }
+        this.entities = new EntityRef[capacity];
+        this.events = new Event[capacity];
+        this.components = new Component[capacity];
+    }
+
+    /**
+     * Adds an event. Never blocks; if the ring is full the event goes to the overflow list.
+     *
+     * @param component the component the event is targeted at, or null to send it to the whole entity
+     */
+    void put(EntityRef entity, Event event, Component component) {
+        if (overflowing || !offer(entity, event, component)) {
+            synchronized (overflowLock) {
+                overflow.add(new PendingEvent(entity, event, component));
+                overflowing = true;
+            }
+            overflowSize.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return false if the ring is full
+     */
+    private boolean offer(EntityRef entity, Event event, Component component) {
+        long position = producerPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    entities[index] = entity;
+                    events[index] = event;
+                    components[index] = component;
+                    // Publishes the slot to the consumer
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Sends up to maxEvents of the oldest events through the given event system. Must only be called by a single thread.
+     *
+     * @return the number of events that were sent
+     */
+    int drainTo(EventSystem eventSystem, int maxEvents) {
+        int drained = drainRing(eventSystem, maxEvents, Long.MAX_VALUE);
+        while (drained < maxEvents) {
+            if (takenOverflow == null && !takeOverflow()) {
+                break;
+            }
+            drained += drainRing(eventSystem, maxEvents - drained, takenOverflowLimit);
+            if (consumerPosition < takenOverflowLimit) {
+                // A slot claimed before the overflow events were taken is not published yet
+                break;
+            }
+            drained += drainTakenOverflow(eventSystem, maxEvents - drained);
+        }
+        return drained;
+    }
+
+    private int drainRing(EventSystem eventSystem, int maxEvents, long limit) {
+        int drained = 0;
+        long position = consumerPosition;
+        while (drained < maxEvents && position < limit) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            EntityRef entity = entities[index];
+            Event event = events[index];
+            Component component = components[index];
+            entities[index] = null;
+            events[index] = null;
+            components[index] = null;
+            // Frees the slot for the producers
+            sequences.lazySet(index, position + mask + 1);
+            position++;
+            consumerPosition = position;
+            drained++;
+
+            send(eventSystem, entity, event, component);
+        }
+        return drained;
+    }
+
+    /**
+     * Takes the events out of the overflow list, or marks the queue as no longer overflowing if there are none.
+     *
+     * @return whether there were events to take
+     */
+    private boolean takeOverflow() {
+        synchronized (overflowLock) {
+            if (overflow.isEmpty()) {
+                overflowing = false;
+                return false;
+            }
+            takenOverflow = overflow;
+            takenOverflowIndex = 0;
+            // Every ring event sent before one of the taken events was claimed before this point
+            takenOverflowLimit = producerPosition.get();
+            overflow = Lists.newArrayList();
+            return true;
+        }
+    }
+
+    private int drainTakenOverflow(EventSystem eventSystem, int maxEvents) {
+        int drained = 0;
+        while (drained < maxEvents && takenOverflowIndex < takenOverflow.size()) {
+            PendingEvent pendingEvent = takenOverflow.get(takenOverflowIndex);
+            takenOverflow.set(takenOverflowIndex, null);
+            takenOverflowIndex++;
+            overflowSize.decrementAndGet();
+            drained++;
+            send(eventSystem, pendingEvent.entity, pendingEvent.event, pendingEvent.component);
+        }
+        if (takenOverflowIndex == takenOverflow.size()) {
+            takenOverflow = null;
+        }
+        return drained;
+    }
+
+    private static void send(EventSystem eventSystem, EntityRef entity, Event event, Component component) {
+        if (component != null) {
+            eventSystem.send(entity, event, component);
+        } else {
+            eventSystem.send(entity, event);
+        }
+    }
+
+    /**
+     * @return the number of events that have been added but not yet drained.
+     */
+    int size() {
+        return (int) Math.max(0, producerPosition.get() - consumerPosition) + overflowSize.get();
+    }
+
+    private static final class PendingEvent {
+        private final EntityRef entity;
+        private final Event event;
+        private final Component component;
+
+        private PendingEvent(EntityRef entity, Event event, Component component) {
+            this.entity = entity;
+            this.event = event;
+            this.component = component;
+        }
+    }
+}
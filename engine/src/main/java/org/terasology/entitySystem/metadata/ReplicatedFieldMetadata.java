@@ -60,4 +60,11 @@ public boolean isReplicated() {
     public Replicate getReplicationInfo() {
         return replicationInfo;
     }
+
+    /**
+     * @return The step the value of this field is rounded to when replicated, or 0 if it isn't quantized
+     */
+    public float getQuantization() {
+        return (replicationInfo != null) ? replicationInfo.quantization() : 0;
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.systems;
+
+import org.terasology.entitySystem.Component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which components the {@link UpdateSubscriberSystem#update(float)} method of a system reads and writes.
+ * <br><br>
+ * Systems with this annotation may be updated in parallel with other annotated systems, as long as neither writes
+ * a component the other reads or writes. Systems without it are always updated on the main thread.
+ * <br><br>
+ * While updating, an annotated system may only change the fields of the components it declares as written. It must
+ * not create or destroy entities, add, remove or save components, or touch anything else that isn't thread safe.
+ * Events sent during the update are queued and processed on the main thread.
+ * <pre>
+ * &#64;RegisterSystem
+ * &#64;ComponentAccess(reads = LocationComponent.class, writes = MeshComponent.class)
+ * public class MySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ComponentAccess {
+    /**
+     * The components that are read, but not changed, during the update
+     */
+    Class<? extends Component>[] reads() default {};
+
+    /**
+     * The components that are changed during the update
+     */
+    Class<? extends Component>[] writes() default {};
+}
@@ -18,6 +18,7 @@
 
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
@@ -114,4 +115,19 @@ public void onDestroyed(BeforeRemoveComponent event, EntityRef entity, LocationC
             childIterator.remove();
         }
     }
+
+    /**
+     * Children cache their world transform through the parent's location component, so they need to recalculate it if
+     * the parent's location component is replaced.
+     */
+    @ReceiveEvent(components = LocationComponent.class)
+    public void onChanged(OnChangedComponent event, EntityRef entity) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        for (EntityRef child : location.getChildren()) {
+            LocationComponent childLoc = child.getComponent(LocationComponent.class);
+            if (childLoc != null) {
+                childLoc.markWorldTransformDirty();
+            }
+        }
+    }
 }
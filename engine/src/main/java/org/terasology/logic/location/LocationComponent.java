@@ -46,7 +46,7 @@ public final class LocationComponent implements Component, ReplicationCheck {
     List<EntityRef> children = Lists.newArrayList();
 
     // Standard position/rotation
-    @Replicate
+    @Replicate(quantization = 0.001f)
     @TextField
     Vector3f position = new Vector3f();
     @Replicate
@@ -54,6 +54,10 @@ public final class LocationComponent implements Component, ReplicationCheck {
     @Replicate
     float scale = 1.0f;
 
+    // The world transform, cached together with the local values and parent it was derived from. Transient, so it
+    // is not copied, persisted or replicated. Readers on other threads only ever see a complete, immutable transform.
+    private transient volatile WorldTransform worldTransform;
+
     public LocationComponent() {
     }
 
@@ -96,14 +100,7 @@ public Vector3f getWorldPosition() {
     }
 
     public Vector3f getWorldPosition(Vector3f output) {
-        output.set(position);
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            output.scale(parentLoc.scale);
-            parentLoc.getLocalRotation().rotate(output, output);
-            output.add(parentLoc.position);
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
+        output.set(getWorldTransform().position);
         return output;
     }
 
@@ -112,23 +109,12 @@ public Quat4f getWorldRotation() {
     }
 
     public Quat4f getWorldRotation(Quat4f output) {
-        output.set(rotation);
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            output.mul(parentLoc.rotation, output);
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
+        output.set(getWorldTransform().rotation);
         return output;
     }
 
     public float getWorldScale() {
-        float result = scale;
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            result *= parentLoc.getLocalScale();
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
-        return result;
+        return getWorldTransform().scale;
     }
 
     public void setWorldPosition(Vector3f value) {
@@ -169,6 +155,34 @@ public Collection<EntityRef> getChildren() {
         return children;
     }
 
+    /**
+     * Forces the world transform to be recalculated on next access. Needed when the location component of the parent
+     * entity is replaced by a different instance, which is handled by {@link Location}.
+     */
+    public void markWorldTransformDirty() {
+        worldTransform = null;
+    }
+
+    /**
+     * @return The cached world transform if it is still valid, otherwise a newly calculated one. Concurrent readers may
+     * calculate it at the same time, in which case either result gets cached.
+     */
+    private WorldTransform getWorldTransform() {
+        WorldTransform current = worldTransform;
+        if (current != null && current.isValidFor(this)) {
+            return current;
+        }
+        WorldTransform result;
+        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
+        if (parentLoc != null && parentLoc != this) {
+            result = new WorldTransform(this, parentLoc, parentLoc.getWorldTransform());
+        } else {
+            result = new WorldTransform(this, null, null);
+        }
+        worldTransform = result;
+        return result;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -190,4 +204,60 @@ public int hashCode() {
     public boolean shouldReplicate(FieldMetadata<?, ?> field, boolean initial, boolean toOwner) {
         return initial || replicateChanges;
     }
+
+    /**
+     * A world transform together with the local values, parent and parent transform it was derived from. Never
+     * modified once created.
+     */
+    private static final class WorldTransform {
+        private final EntityRef parent;
+        private final LocationComponent parentLocation;
+        private final WorldTransform parentTransform;
+        private final Vector3f localPosition;
+        private final Quat4f localRotation;
+        private final float localScale;
+        private final Vector3f position;
+        private final Quat4f rotation;
+        private final float scale;
+
+        private WorldTransform(LocationComponent location, LocationComponent parentLocation, WorldTransform parentTransform) {
+            this.parent = location.parent;
+            this.parentLocation = parentLocation;
+            this.parentTransform = parentTransform;
+            this.localPosition = new Vector3f(location.position);
+            this.localRotation = new Quat4f(location.rotation);
+            this.localScale = location.scale;
+            if (parentTransform != null) {
+                this.scale = parentTransform.scale * localScale;
+                this.rotation = new Quat4f(0, 0, 0, 1);
+                this.rotation.mul(parentTransform.rotation, localRotation);
+                this.position = new Vector3f(localPosition);
+                this.position.scale(parentTransform.scale);
+                parentTransform.rotation.rotate(this.position, this.position);
+                this.position.add(parentTransform.position);
+            } else {
+                this.scale = localScale;
+                this.rotation = new Quat4f(localRotation);
+                this.position = new Vector3f(localPosition);
+            }
+        }
+
+        /**
+         * The transform is valid if neither the component's local values and parent nor any ancestor's world transform
+         * changed since it was calculated. Ancestors are reached through their cached components, so this needs no
+         * entity lookups.
+         */
+        private boolean isValidFor(LocationComponent location) {
+            if (parent != location.parent || localScale != location.scale
+                    || !localPosition.equals(location.position) || !localRotation.equals(location.rotation)) {
+                return false;
+            }
+            if (parentLocation == null) {
+                // The parent might have gained a location since
+                return !parent.exists();
+            }
+            WorldTransform currentParentTransform = parentLocation.worldTransform;
+            return currentParentTransform == parentTransform && parentTransform.isValidFor(parentLocation);
+        }
+    }
 }
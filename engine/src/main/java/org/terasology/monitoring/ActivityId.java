@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A preallocated identifier of an activity tracked by the {@link PerformanceMonitor}.
+ * <br><br>
+ * Starting an activity by its id avoids looking up or building the activity name every time, so code that starts an
+ * activity often should keep its id in a constant:
+ * <pre>
+ * private static final ActivityId UPDATE_ACTIVITY = ActivityId.of("Update");
+ * ...
+ * try (Activity ignored = PerformanceMonitor.startActivity(UPDATE_ACTIVITY)) {
+ *     update();
+ * }
+ * </pre>
+ * Ids are never released, so they should only be created for a bounded set of names.
+ *
+ */
+public final class ActivityId {
+    private static final ConcurrentMap<String, ActivityId> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private final String name;
+    private final int index;
+
+    private ActivityId(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * @return the id of the activity with the given name. Repeated calls with the same name return the same id.
+     */
+    public static ActivityId of(String name) {
+        ActivityId id = IDS.get(name);
+        if (id == null) {
+            synchronized (IDS) {
+                id = IDS.get(name);
+                if (id == null) {
+                    id = new ActivityId(name, NEXT_INDEX.getAndIncrement());
+                    IDS.put(name, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * @return the number of ids created so far. Each index is smaller than this.
+     */
+    public static int getCount() {
+        return NEXT_INDEX.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a small number unique to this id, suitable as an index into arrays of per activity data
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
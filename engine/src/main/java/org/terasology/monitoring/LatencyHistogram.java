@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable histogram of the execution times of an activity.
+ * <br><br>
+ * The times are counted in buckets whose width grows with the time, so that each bucket covers a range of about 25%
+ * of its lower bound. Percentiles are therefore accurate to about 25%, from one nanosecond up to several minutes.
+ *
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+
+    /**
+     * The number of buckets of each histogram. The last bucket also counts all longer times.
+     */
+    public static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String activity;
+    private final String thread;
+    private final long[] counts;
+    private final long count;
+    private final long totalTime;
+    private final long maxTime;
+
+    /**
+     * @param activity  the name of the activity
+     * @param thread    the name of the thread the activity ran on, or null if the histogram covers all threads
+     * @param counts    the number of executions in each bucket, see {@link #getBucket(long)}
+     * @param totalTime the sum of the execution times, in nanoseconds
+     * @param maxTime   the longest execution time, in nanoseconds
+     */
+    public LatencyHistogram(String activity, String thread, long[] counts, long totalTime, long maxTime) {
+        if (counts.length != BUCKET_COUNT) {
+            throw new IllegalArgumentException("Expected " + BUCKET_COUNT + " buckets, got " + counts.length);
+        }
+        this.activity = activity;
+        this.thread = thread;
+        this.counts = Arrays.copyOf(counts, counts.length);
+        this.totalTime = totalTime;
+        this.maxTime = maxTime;
+        long sum = 0;
+        for (long bucketCount : counts) {
+            sum += bucketCount;
+        }
+        this.count = sum;
+    }
+
+    /**
+     * @return the index of the bucket counting the given execution time, in nanoseconds
+     */
+    public static int getBucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the smallest execution time counted by the given bucket, in nanoseconds
+     */
+    public static long getBucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public String getActivity() {
+        return activity;
+    }
+
+    /**
+     * @return the name of the thread the activity ran on, or null if the histogram covers all threads
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * @return the number of executions
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of executions with a time counted by the given bucket
+     */
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * @return the mean execution time, in milliseconds
+     */
+    public double getMean() {
+        return (count > 0) ? totalTime / NANOS_PER_MS / count : 0;
+    }
+
+    /**
+     * @return the longest execution time, in milliseconds
+     */
+    public double getMax() {
+        return maxTime / NANOS_PER_MS;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return an upper bound of the given percentile of the execution times, in milliseconds
+     */
+    public double getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; ++bucket) {
+            seen += counts[bucket];
+            if (seen >= rank && seen > 0) {
+                long upperBound = (bucket + 1 < BUCKET_COUNT) ? getBucketLowerBound(bucket + 1) : maxTime;
+                return Math.min(upperBound, maxTime) / NANOS_PER_MS;
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return a histogram of the executions of both histograms, attributed to the given thread
+     */
+    public LatencyHistogram merge(LatencyHistogram other, String mergedThread) {
+        long[] merged = new long[BUCKET_COUNT];
+        for (int bucket = 0; bucket < BUCKET_COUNT; ++bucket) {
+            merged[bucket] = counts[bucket] + other.counts[bucket];
+        }
+        return new LatencyHistogram(activity, mergedThread, merged, totalTime + other.totalTime, Math.max(maxTime, other.maxTime));
+    }
+}
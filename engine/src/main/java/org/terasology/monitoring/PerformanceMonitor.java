@@ -15,11 +15,22 @@
  */
 package org.terasology.monitoring;
 
+import com.google.common.collect.Maps;
 import gnu.trove.map.TObjectDoubleMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.monitoring.impl.NullPerformanceMonitor;
 import org.terasology.monitoring.impl.PerformanceMonitorImpl;
 import org.terasology.monitoring.impl.PerformanceMonitorInternal;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Maintains a running average of execution times and memory allocated by different activities.
  * Activities call to denote when they start and stop.
@@ -27,11 +38,20 @@
  * Activities may be nested, and while a nested activity is running the collection of data from outer activities
  * is paused: time passing and allocated memory are not assigned to them.
  * <br><br>
- * Performance monitor is intended only for use by the main thread of Terasology, and does not handle
- * activities being started and ended on other threads at this time.
+ * The running means, spikes and allocations only cover the main thread of Terasology. Activities started and ended
+ * on other threads are recorded in the execution time histograms of the telemetry only, which can be exported
+ * periodically through {@link TelemetryExporter}s.
+ * <br><br>
+ * While the monitor is disabled, starting an activity costs no more than a call returning a constant.
  */
 public final class PerformanceMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceMonitor.class);
+
     private static PerformanceMonitorInternal instance;
+    private static boolean enabled;
+
+    private static final Map<TelemetryExporter, ScheduledFuture<?>> exporters = Maps.newHashMap();
+    private static ScheduledExecutorService exportExecutor;
 
     static {
         instance = new NullPerformanceMonitor();
@@ -82,6 +102,16 @@ public static Activity startActivity(String activityName) {
         return instance.startActivity(activityName);
     }
 
+    /**
+     * Indicates the start of an activity, identified by a preallocated id. This works just like
+     * {@link #startActivity(String)}, but avoids looking up the activity by its name.
+     *
+     * @param activity the id of the activity starting.
+     */
+    public static Activity startActivity(ActivityId activity) {
+        return instance.startActivity(activity);
+    }
+
     /**
      * Indicates the end of the last started activity.
      */
@@ -140,17 +170,100 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Returns the queue depth, mean wait time and mean run time of the task masters served by the shared worker
+     * threads, such as the chunk generation and chunk meshing tasks.
+     * <br><br>
+     * Unlike activities, the tasks are measured on the worker threads that run them.
+     *
+     * @return the statistics of each running task master.
+     */
+    public static List<TaskQueueStatistics> getTaskQueueStatistics() {
+        return instance.getTaskQueueStatistics();
+    }
+
+    /**
+     * Returns the execution time histograms of the activities of all threads, recorded since the Performance
+     * Monitoring system was last enabled, together with the state of the task queues.
+     *
+     * @return a snapshot of the telemetry, empty if the system is disabled.
+     */
+    public static TelemetrySnapshot getTelemetrySnapshot() {
+        return instance.getTelemetrySnapshot();
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
      * When disabled all data is purged and calls to startActivity()/endActivity() and rollCycle() are ignored.
+     * The system stays enabled while telemetry exporters are registered.
      *
      * @param enabled True turns the Performance Monitoring system ON. False turns it OFF.
      */
-    public static void setEnabled(boolean enabled) {
-        if (enabled && !(instance instanceof PerformanceMonitorImpl)) {
+    public static synchronized void setEnabled(boolean enabled) {
+        PerformanceMonitor.enabled = enabled;
+        updateInstance();
+    }
+
+    /**
+     * Starts exporting the telemetry through the given exporter, at a fixed rate. This enables the Performance
+     * Monitoring system until the exporter is removed.
+     *
+     * @param exporter the exporter to pass the snapshots to.
+     * @param period   the time between two exports.
+     * @param unit     the unit of the period.
+     */
+    public static synchronized void addExporter(TelemetryExporter exporter, long period, TimeUnit unit) {
+        if (exporters.containsKey(exporter)) {
+            return;
+        }
+        if (exportExecutor == null) {
+            exportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Telemetry-Exporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        exporters.put(exporter, exportExecutor.scheduleAtFixedRate(() -> export(exporter), period, period, unit));
+        updateInstance();
+    }
+
+    /**
+     * Stops exporting the telemetry through the given exporter, and closes it.
+     *
+     * @param exporter the exporter to remove.
+     */
+    public static synchronized void removeExporter(TelemetryExporter exporter) {
+        ScheduledFuture<?> future = exporters.remove(exporter);
+        if (future == null) {
+            return;
+        }
+        future.cancel(false);
+        if (exporters.isEmpty()) {
+            exportExecutor.shutdown();
+            exportExecutor = null;
+        }
+        try {
+            exporter.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close telemetry exporter", e);
+        }
+        updateInstance();
+    }
+
+    private static void export(TelemetryExporter exporter) {
+        try {
+            exporter.export(instance.getTelemetrySnapshot());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to export telemetry", e);
+        }
+    }
+
+    private static void updateInstance() {
+        boolean active = enabled || !exporters.isEmpty();
+        if (active && !(instance instanceof PerformanceMonitorImpl)) {
             instance = new PerformanceMonitorImpl();
-        } else if (!enabled && !(instance instanceof NullPerformanceMonitor)) {
+        } else if (!active && !(instance instanceof NullPerformanceMonitor)) {
             instance = new NullPerformanceMonitor();
         }
     }
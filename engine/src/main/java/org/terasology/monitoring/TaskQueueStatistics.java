@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+/**
+ * A snapshot of the state of the task queue of a {@link org.terasology.utilities.concurrency.TaskMaster}, as served
+ * by the shared worker threads.
+ *
+ */
+public final class TaskQueueStatistics {
+    private final String name;
+    private final int weight;
+    private final int queueDepth;
+    private final int runningTasks;
+    private final long completedTasks;
+    private final double meanWaitTime;
+    private final double meanRunTime;
+
+    public TaskQueueStatistics(String name, int weight, int queueDepth, int runningTasks, long completedTasks,
+                               double meanWaitTime, double meanRunTime) {
+        this.name = name;
+        this.weight = weight;
+        this.queueDepth = queueDepth;
+        this.runningTasks = runningTasks;
+        this.completedTasks = completedTasks;
+        this.meanWaitTime = meanWaitTime;
+        this.meanRunTime = meanRunTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of tasks waiting to be run
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getRunningTasks() {
+        return runningTasks;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    /**
+     * @return the moving average of the time tasks spent in the queue before being run, in milliseconds
+     */
+    public double getMeanWaitTime() {
+        return meanWaitTime;
+    }
+
+    /**
+     * @return the moving average of the time tasks took to run, in milliseconds
+     */
+    public double getMeanRunTime() {
+        return meanRunTime;
+    }
+}
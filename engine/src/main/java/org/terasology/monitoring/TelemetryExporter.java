@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Publishes telemetry outside of the game, for instance to monitor a headless server.
+ * <br><br>
+ * Exporters are registered through {@link PerformanceMonitor#addExporter(TelemetryExporter, long, java.util.concurrent.TimeUnit)},
+ * which periodically passes them a new snapshot on a background thread.
+ *
+ */
+public interface TelemetryExporter extends Closeable {
+
+    /**
+     * Publishes the given snapshot. Called from a single background thread.
+     */
+    void export(TelemetrySnapshot snapshot) throws IOException;
+
+    /**
+     * Releases the resources of the exporter, once it has been removed from the performance monitor.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The execution time histograms of the activities of all threads, and the state of the task queues, at one point in
+ * time. The histograms cover all executions since the performance monitor was enabled.
+ *
+ */
+public final class TelemetrySnapshot {
+    private final long timestamp;
+    private final List<LatencyHistogram> threadHistograms;
+    private final List<TaskQueueStatistics> taskQueueStatistics;
+
+    /**
+     * @param timestamp           the time the snapshot was taken, in milliseconds since the epoch
+     * @param threadHistograms    the histograms of each activity on each thread
+     * @param taskQueueStatistics the statistics of each task queue
+     */
+    public TelemetrySnapshot(long timestamp, List<LatencyHistogram> threadHistograms, List<TaskQueueStatistics> taskQueueStatistics) {
+        this.timestamp = timestamp;
+        this.threadHistograms = ImmutableList.copyOf(threadHistograms);
+        this.taskQueueStatistics = ImmutableList.copyOf(taskQueueStatistics);
+    }
+
+    public static TelemetrySnapshot empty() {
+        return new TelemetrySnapshot(System.currentTimeMillis(), ImmutableList.of(), ImmutableList.of());
+    }
+
+    /**
+     * @return the time the snapshot was taken, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the histograms of each activity on each thread the activity ran on
+     */
+    public List<LatencyHistogram> getThreadHistograms() {
+        return threadHistograms;
+    }
+
+    /**
+     * @return the histograms of each activity over all threads
+     */
+    public List<LatencyHistogram> getActivityHistograms() {
+        Map<String, LatencyHistogram> merged = Maps.newLinkedHashMap();
+        for (LatencyHistogram histogram : threadHistograms) {
+            LatencyHistogram existing = merged.get(histogram.getActivity());
+            if (existing == null) {
+                existing = new LatencyHistogram(histogram.getActivity(), null, new long[LatencyHistogram.BUCKET_COUNT], 0, 0);
+            }
+            merged.put(histogram.getActivity(), existing.merge(histogram, null));
+        }
+        return ImmutableList.copyOf(merged.values());
+    }
+
+    public List<TaskQueueStatistics> getTaskQueueStatistics() {
+        return taskQueueStatistics;
+    }
+}
@@ -674,7 +674,7 @@ private Color calcChunkColor(ChunkMonitorEntry entry) {
                 return COLOR_DEAD;
             }
 
-            if (chunk.getMesh() != null) {
+            if (chunk.hasMesh()) {
                 return COLOR_HIGHLIGHT_TESSELLATION;
             }
 
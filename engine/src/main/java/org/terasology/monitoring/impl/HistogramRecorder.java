@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the execution times of one activity on one thread.
+ * <br><br>
+ * Only the owning thread records, so the counters are updated with lazy sets instead of atomic increments. Other
+ * threads may take snapshots at any time, which may miss the latest few executions.
+ *
+ */
+final class HistogramRecorder {
+    private static final int TOTAL_TIME = LatencyHistogram.BUCKET_COUNT;
+    private static final int MAX_TIME = TOTAL_TIME + 1;
+
+    private final ActivityId activity;
+    private final AtomicLongArray data = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT + 2);
+
+    HistogramRecorder(ActivityId activity) {
+        this.activity = activity;
+    }
+
+    /**
+     * Must only be called by the owning thread.
+     */
+    void record(long nanos) {
+        int bucket = LatencyHistogram.getBucket(nanos);
+        data.lazySet(bucket, data.get(bucket) + 1);
+        data.lazySet(TOTAL_TIME, data.get(TOTAL_TIME) + nanos);
+        if (nanos > data.get(MAX_TIME)) {
+            data.lazySet(MAX_TIME, nanos);
+        }
+    }
+
+    LatencyHistogram snapshot(String thread) {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        for (int bucket = 0; bucket < counts.length; ++bucket) {
+            counts[bucket] = data.get(bucket);
+        }
+        return new LatencyHistogram(activity.getName(), thread, counts, data.get(TOTAL_TIME), data.get(MAX_TIME));
+    }
+}
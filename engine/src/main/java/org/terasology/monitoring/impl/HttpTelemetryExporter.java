@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.terasology.monitoring.TelemetryExporter;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the latest snapshot as plain text at "/telemetry" on a local HTTP port. Only the loopback address is bound,
+ * so the telemetry is not reachable from other machines.
+ *
+ */
+public class HttpTelemetryExporter implements TelemetryExporter {
+    public static final String PATH = "/telemetry";
+
+    private final HttpServer server;
+    private volatile byte[] latest = new byte[0];
+
+    /**
+     * Starts serving on the given port, or on any free port if it is 0.
+     */
+    public HttpTelemetryExporter(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the port the telemetry is served on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void export(TelemetrySnapshot snapshot) {
+        latest = TelemetryTextFormat.format(snapshot).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] response = latest;
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        // a length of -1 tells the server there is no body, as 0 would mean chunked encoding
+        exchange.sendResponseHeaders(200, (response.length > 0) ? response.length : -1);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+}
@@ -18,6 +18,12 @@
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.TaskQueueStatistics;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import java.util.Collections;
+import java.util.List;
 
 /**
  */
@@ -34,6 +40,11 @@ public Activity startActivity(String activity) {
         return NULL_ACTIVITY;
     }
 
+    @Override
+    public Activity startActivity(ActivityId activity) {
+        return NULL_ACTIVITY;
+    }
+
     @Override
     public void endActivity() {
     }
@@ -53,4 +64,14 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return metrics;
     }
 
+    @Override
+    public List<TaskQueueStatistics> getTaskQueueStatistics() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public TelemetrySnapshot getTelemetrySnapshot() {
+        return TelemetrySnapshot.empty();
+    }
+
 }
@@ -26,27 +26,40 @@
 import org.terasology.engine.EngineTime;
 import org.terasology.engine.Time;
 import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.LatencyHistogram;
+import org.terasology.monitoring.TaskQueueStatistics;
+import org.terasology.monitoring.TelemetrySnapshot;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.utilities.concurrency.SharedTaskExecutor;
 
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Active implementation of Performance Monitor
+ * <br><br>
+ * The running means, spikes and allocations are only tracked for the main thread. The execution time histograms are
+ * recorded for every thread, each by its own {@link ThreadTelemetry}.
  */
 // TODO: Check to ensure activities are being started and stopped correctly
 // TODO: Remove activities with 0 time
 public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private static final int RETAINED_CYCLES = 60;
     private static final double DECAY_RATE = 0.98;
-    private static final Activity OFF_THREAD_ACTIVITY = new NullActivity();
-    // NullActivity instances are used by the NullPerformanceMonitor and for processes NOT running
-    // on the main thread. Not strictly necessary (these processes are ignored by the PerformanceMonitor
-    // anyway) an instance of this class offers a slight performance improvement over standard Activity
-    // implementations as it doesn't call the PerformanceMonitor.endActivity() method.
+    /**
+     * The number of tracked threads above which the telemetry of dead threads gets dropped even though it has not been
+     * included in a snapshot yet, so it doesn't pile up when telemetry is not exported.
+     */
+    private static final int MAX_THREAD_TELEMETRIES = 64;
 
     private final Activity activityInstance = new ActivityInstance();
 
+    private final List<ThreadTelemetry> threadTelemetries = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadTelemetry> threadTelemetry = ThreadLocal.withInitial(this::createThreadTelemetry);
+    private final ThreadTelemetry mainThreadTelemetry;
+
     private final Deque<ActivityInfo> activityStack;
 
     private final List<TObjectLongMap<String>> executionData;
@@ -91,6 +104,7 @@ public PerformanceMonitorImpl() {
 
         timer = (EngineTime) CoreRegistry.get(Time.class);
         mainThread = Thread.currentThread();
+        mainThreadTelemetry = createThreadTelemetry();
     }
 
     @Override
@@ -118,11 +132,17 @@ public void rollCycle() {
 
     @Override
     public Activity startActivity(String activityName) {
+        return startActivity(ActivityId.of(activityName));
+    }
+
+    @Override
+    public Activity startActivity(ActivityId activity) {
         if (Thread.currentThread() != mainThread) {
-            return OFF_THREAD_ACTIVITY;
+            return threadTelemetry.get().start(activity);
         }
 
-        ActivityInfo newActivity = new ActivityInfo(activityName).initialize();
+        mainThreadTelemetry.start(activity);
+        ActivityInfo newActivity = new ActivityInfo(activity.getName()).initialize();
 
         if (!activityStack.isEmpty()) {
             ActivityInfo currentActivity = activityStack.peek();
@@ -136,10 +156,15 @@ public Activity startActivity(String activityName) {
 
     @Override
     public void endActivity() {
-        if (Thread.currentThread() != mainThread || activityStack.isEmpty()) {
+        if (Thread.currentThread() != mainThread) {
+            threadTelemetry.get().end();
+            return;
+        }
+        if (activityStack.isEmpty()) {
             return;
         }
 
+        mainThreadTelemetry.end();
         ActivityInfo oldActivity = activityStack.pop();
 
         long endTime = timer.getRealTimeInMs();
@@ -184,6 +209,34 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return activityToMeanMap;
     }
 
+    @Override
+    public List<TaskQueueStatistics> getTaskQueueStatistics() {
+        return SharedTaskExecutor.getInstance().getStatistics();
+    }
+
+    @Override
+    public TelemetrySnapshot getTelemetrySnapshot() {
+        List<LatencyHistogram> histograms = Lists.newArrayList();
+        for (ThreadTelemetry telemetry : threadTelemetries) {
+            // Checked before the histograms are added, so the last activities of a thread are part of one snapshot
+            boolean alive = telemetry.isThreadAlive();
+            telemetry.addHistograms(histograms);
+            if (!alive) {
+                threadTelemetries.remove(telemetry);
+            }
+        }
+        return new TelemetrySnapshot(System.currentTimeMillis(), histograms, getTaskQueueStatistics());
+    }
+
+    private ThreadTelemetry createThreadTelemetry() {
+        if (threadTelemetries.size() >= MAX_THREAD_TELEMETRIES) {
+            threadTelemetries.removeIf(telemetry -> !telemetry.isThreadAlive());
+        }
+        ThreadTelemetry telemetry = new ThreadTelemetry(Thread.currentThread());
+        threadTelemetries.add(telemetry);
+        return telemetry;
+    }
+
     private class ActivityInfo {
         public String name;
         public long startTime;
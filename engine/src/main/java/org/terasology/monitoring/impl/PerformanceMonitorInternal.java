@@ -17,6 +17,11 @@
 
 import gnu.trove.map.TObjectDoubleMap;
 import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.TaskQueueStatistics;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import java.util.List;
 
 /**
  * Base interface for performance monitor implementations.
@@ -27,6 +32,8 @@ public interface PerformanceMonitorInternal {
 
     Activity startActivity(String activity);
 
+    Activity startActivity(ActivityId activity);
+
     void endActivity();
 
     TObjectDoubleMap<String> getRunningMean();
@@ -34,4 +41,8 @@ public interface PerformanceMonitorInternal {
     TObjectDoubleMap<String> getDecayingSpikes();
 
     TObjectDoubleMap<String> getAllocationMean();
+
+    List<TaskQueueStatistics> getTaskQueueStatistics();
+
+    TelemetrySnapshot getTelemetrySnapshot();
 }
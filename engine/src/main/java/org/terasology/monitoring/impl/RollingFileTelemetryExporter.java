@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.terasology.monitoring.TelemetryExporter;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends each snapshot to a text file. Once the file exceeds its maximum size it is rolled over: it is renamed with
+ * the suffix ".1", the previous ".1" file becomes ".2" and so on, and the oldest file is deleted.
+ *
+ */
+public class RollingFileTelemetryExporter implements TelemetryExporter {
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxBackups;
+
+    /**
+     * @param file        the file to write to
+     * @param maxFileSize the size in bytes after which the file is rolled over
+     * @param maxBackups  the number of rolled over files to keep
+     */
+    public RollingFileTelemetryExporter(Path file, long maxFileSize, int maxBackups) {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxBackups = maxBackups;
+    }
+
+    @Override
+    public synchronized void export(TelemetrySnapshot snapshot) throws IOException {
+        if (Files.exists(file) && Files.size(file) >= maxFileSize) {
+            rollOver();
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(TelemetryTextFormat.format(snapshot));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+    }
+
+    private void rollOver() throws IOException {
+        if (maxBackups <= 0) {
+            Files.delete(file);
+            return;
+        }
+        Files.deleteIfExists(backup(maxBackups));
+        for (int i = maxBackups - 1; i >= 1; --i) {
+            Path backup = backup(i);
+            if (Files.exists(backup)) {
+                Files.move(backup, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path backup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.terasology.monitoring.LatencyHistogram;
+import org.terasology.monitoring.TaskQueueStatistics;
+import org.terasology.monitoring.TelemetrySnapshot;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Formats telemetry snapshots as plain text, one line of key=value pairs per histogram or task queue, so that the
+ * output is both readable and easy to parse. Times are in milliseconds.
+ *
+ */
+public final class TelemetryTextFormat {
+
+    private TelemetryTextFormat() {
+    }
+
+    public static String format(TelemetrySnapshot snapshot) {
+        StringBuilder builder = new StringBuilder();
+        String time = Instant.ofEpochMilli(snapshot.getTimestamp()).toString();
+        builder.append("# telemetry ").append(time).append('\n');
+        for (LatencyHistogram histogram : snapshot.getThreadHistograms()) {
+            appendHistogram(builder, histogram);
+        }
+        for (LatencyHistogram histogram : snapshot.getActivityHistograms()) {
+            appendHistogram(builder, histogram);
+        }
+        for (TaskQueueStatistics statistics : snapshot.getTaskQueueStatistics()) {
+            builder.append(String.format(Locale.ROOT,
+                    "queue=\"%s\" weight=%d queued=%d running=%d completed=%d wait=%.3f run=%.3f%n",
+                    statistics.getName(), statistics.getWeight(), statistics.getQueueDepth(), statistics.getRunningTasks(),
+                    statistics.getCompletedTasks(), statistics.getMeanWaitTime(), statistics.getMeanRunTime()));
+        }
+        return builder.toString();
+    }
+
+    private static void appendHistogram(StringBuilder builder, LatencyHistogram histogram) {
+        String thread = (histogram.getThread() != null) ? histogram.getThread() : "*";
+        builder.append(String.format(Locale.ROOT,
+                "activity=\"%s\" thread=\"%s\" count=%d mean=%.3f p50=%.3f p90=%.3f p99=%.3f max=%.3f%n",
+                histogram.getActivity(), thread, histogram.getCount(), histogram.getMean(),
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99), histogram.getMax()));
+    }
+}
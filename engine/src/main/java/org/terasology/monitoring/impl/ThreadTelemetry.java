@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.LatencyHistogram;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks the activities of a single thread and records their execution times.
+ * <br><br>
+ * Starting and ending activities doesn't allocate once the thread has run each activity once, and needs no locking.
+ * The thread is only weakly referenced, so the recorded data outlives it without keeping it alive.
+ *
+ */
+final class ThreadTelemetry implements Activity {
+    private static final int INITIAL_DEPTH = 16;
+
+    private final WeakReference<Thread> thread;
+    private volatile String threadName;
+
+    private int[] activityStack = new int[INITIAL_DEPTH];
+    private long[] startTimes = new long[INITIAL_DEPTH];
+    private int depth;
+
+    private volatile HistogramRecorder[] recorders = new HistogramRecorder[ActivityId.getCount()];
+
+    ThreadTelemetry(Thread thread) {
+        this.thread = new WeakReference<>(thread);
+        this.threadName = thread.getName();
+    }
+
+    /**
+     * Must only be called by the tracked thread.
+     *
+     * @return this, which ends the activity when closed
+     */
+    Activity start(ActivityId activity) {
+        if (depth == activityStack.length) {
+            activityStack = Arrays.copyOf(activityStack, depth * 2);
+            startTimes = Arrays.copyOf(startTimes, depth * 2);
+        }
+        HistogramRecorder[] current = recorders;
+        int index = activity.getIndex();
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.max(ActivityId.getCount(), index + 1));
+            recorders = current;
+        }
+        if (current[index] == null) {
+            current[index] = new HistogramRecorder(activity);
+            // republish the array, so the new recorder is visible to snapshots
+            recorders = current;
+        }
+        activityStack[depth] = index;
+        startTimes[depth] = System.nanoTime();
+        depth++;
+        return this;
+    }
+
+    /**
+     * Ends the last started activity. Must only be called by the tracked thread.
+     */
+    void end() {
+        if (depth == 0) {
+            return;
+        }
+        depth--;
+        recorders[activityStack[depth]].record(System.nanoTime() - startTimes[depth]);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    /**
+     * @return whether the tracked thread may still record activities
+     */
+    boolean isThreadAlive() {
+        Thread trackedThread = thread.get();
+        return trackedThread != null && trackedThread.isAlive();
+    }
+
+    /**
+     * Adds the histograms of the activities run by the thread so far to the given list. May be called from any thread.
+     */
+    void addHistograms(List<LatencyHistogram> histograms) {
+        Thread trackedThread = thread.get();
+        if (trackedThread != null) {
+            threadName = trackedThread.getName();
+        }
+        for (HistogramRecorder recorder : recorders) {
+            if (recorder != null) {
+                histograms.add(recorder.snapshot(threadName));
+            }
+        }
+    }
+}
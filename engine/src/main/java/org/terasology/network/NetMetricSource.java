@@ -42,4 +42,10 @@ public interface NetMetricSource {
      * @return The amount of bytes sent since last time this method was called
      */
     int getSentBytesSinceLastCall();
+
+    /**
+     * @return The estimated amount of bytes that were not sent since last time this method was called, because
+     * replicated entity fields were unchanged
+     */
+    int getSavedBytesSinceLastCall();
 }
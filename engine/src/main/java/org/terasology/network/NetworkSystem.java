@@ -64,5 +64,7 @@ public interface NetworkSystem extends BlockRegistrationListener {
 
     int getOutgoingBytesDelta();
 
+    int getOutgoingBytesSavedDelta();
+
     void forceDisconnect(Client client);
 }
@@ -37,4 +37,10 @@
      * @return Whether the field should only be replicated when the entity initially becomes relevant to a client
      */
     boolean initialOnly() default false;
+
+    /**
+     * @return The step float and vector fields are rounded to when sent to clients, or 0 to send them unchanged.
+     * Changes smaller than the step are not sent at all.
+     */
+    float quantization() default 0;
 }
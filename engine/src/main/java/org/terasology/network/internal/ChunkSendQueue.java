@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkKey;
+
+import java.util.Arrays;
+
+/**
+ * The chunks that are waiting to be sent to a client, ordered so that the nearest chunks in front of the client's
+ * character come first.
+ * <br><br>
+ * The queue is a binary heap of chunk keys. Removed chunks are only dropped from the heap when they reach its top, and
+ * the heap gets rebuilt when the viewpoint of the client changes enough to reorder the chunks.
+ *
+ */
+class ChunkSendQueue {
+    /**
+     * Chunks behind the character are sent as if they were this many times as far away.
+     */
+    private static final int BEHIND_VIEW_PENALTY = 4;
+    /**
+     * The cosine of the angle the view direction has to change by before the chunks get reordered.
+     */
+    private static final float VIEW_CHANGE_THRESHOLD = 0.7f;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final TLongObjectMap<Chunk> chunks = new TLongObjectHashMap<>();
+    private long[] heapKeys = new long[INITIAL_CAPACITY];
+    private int[] heapPriorities = new int[INITIAL_CAPACITY];
+    private int heapSize;
+
+    private final Vector3i center = new Vector3i();
+    private final Vector3f viewDirection = new Vector3f();
+
+    public void add(Chunk chunk) {
+        long key = ChunkKey.of(chunk.getPosition());
+        if (chunks.put(key, chunk) == null) {
+            push(key, priorityOf(key));
+        }
+    }
+
+    public void remove(long key) {
+        chunks.remove(key);
+        if (heapSize > 2 * chunks.size() + INITIAL_CAPACITY) {
+            rebuild();
+        }
+    }
+
+    public boolean contains(long key) {
+        return chunks.containsKey(key);
+    }
+
+    public boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Updates the position and view direction the chunks are ordered by.
+     *
+     * @param centerChunk the position of the chunk the client's character is in
+     * @param direction   the normalized view direction of the client's character, or a zero vector if unknown
+     */
+    public void setViewpoint(Vector3i centerChunk, Vector3f direction) {
+        boolean moved = !center.equals(centerChunk);
+        boolean turned = viewDirection.dot(direction) < VIEW_CHANGE_THRESHOLD
+                && (direction.lengthSquared() > 0 || viewDirection.lengthSquared() > 0);
+        if (moved || turned) {
+            center.set(centerChunk);
+            viewDirection.set(direction);
+            rebuild();
+        }
+    }
+
+    /**
+     * @return the chunk with the highest priority, which gets removed from the queue, or null if the queue is empty
+     */
+    public Chunk poll() {
+        while (heapSize > 0) {
+            long key = heapKeys[0];
+            heapSize--;
+            if (heapSize > 0) {
+                heapKeys[0] = heapKeys[heapSize];
+                heapPriorities[0] = heapPriorities[heapSize];
+                siftDown(0);
+            }
+            Chunk chunk = chunks.remove(key);
+            if (chunk != null) {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    private int priorityOf(long key) {
+        int dx = ChunkKey.x(key) - center.x;
+        int dy = ChunkKey.y(key) - center.y;
+        int dz = ChunkKey.z(key) - center.z;
+        int distanceSquared = dx * dx + dy * dy + dz * dz;
+        if (dx * viewDirection.x + dy * viewDirection.y + dz * viewDirection.z < 0) {
+            return distanceSquared * BEHIND_VIEW_PENALTY;
+        }
+        return distanceSquared;
+    }
+
+    private void rebuild() {
+        heapSize = 0;
+        ensureCapacity(chunks.size());
+        for (long key : chunks.keys()) {
+            heapKeys[heapSize] = key;
+            heapPriorities[heapSize] = priorityOf(key);
+            heapSize++;
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; --i) {
+            siftDown(i);
+        }
+    }
+
+    private void push(long key, int priority) {
+        ensureCapacity(heapSize + 1);
+        heapKeys[heapSize] = key;
+        heapPriorities[heapSize] = priority;
+        siftUp(heapSize);
+        heapSize++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > heapKeys.length) {
+            int newCapacity = Math.max(capacity, heapKeys.length * 2);
+            heapKeys = Arrays.copyOf(heapKeys, newCapacity);
+            heapPriorities = Arrays.copyOf(heapPriorities, newCapacity);
+        }
+    }
+
+    private void siftUp(int index) {
+        int i = index;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heapPriorities[parent] <= heapPriorities[i]) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        int i = index;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && heapPriorities[left] < heapPriorities[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && heapPriorities[right] < heapPriorities[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = heapKeys[a];
+        heapKeys[a] = heapKeys[b];
+        heapKeys[b] = key;
+        int priority = heapPriorities[a];
+        heapPriorities[a] = heapPriorities[b];
+        heapPriorities[b] = priority;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkKey;
+import org.terasology.world.chunks.ChunkSnapshot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the encoded form of the chunks that get sent to clients, so that a chunk that is relevant to several clients
+ * only gets encoded once.
+ * <br><br>
+ * Entries are tied to the store {@link ChunkSnapshot} they were encoded from. As chunks hand out the same snapshot for
+ * as long as their blocks, liquids and biomes don't change, a changed or reloaded chunk gets encoded again. The least
+ * recently used entries get dropped once the cache is full.
+ *
+ */
+public class EncodedChunkCache {
+    private static final int DEFAULT_CAPACITY = 512;
+
+    private final Map<Long, Entry> entries;
+
+    public EncodedChunkCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EncodedChunkCache(final int capacity) {
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized EntityData.ChunkStore get(Chunk chunk) {
+        ChunkSnapshot snapshot = chunk.getStoreSnapshot();
+        long key = ChunkKey.of(chunk.getPosition());
+        Entry entry = entries.get(key);
+        if (entry == null || entry.snapshot != snapshot) {
+            entry = new Entry(snapshot, snapshot.encode().build());
+            entries.put(key, entry);
+        }
+        return entry.encodedChunk;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+        private final ChunkSnapshot snapshot;
+        private final EntityData.ChunkStore encodedChunk;
+
+        private Entry(ChunkSnapshot snapshot, EntityData.ChunkStore encodedChunk) {
+            this.snapshot = snapshot;
+            this.encodedChunk = encodedChunk;
+        }
+    }
+}
@@ -36,6 +36,7 @@ public class MetricRecordingHandler extends SimpleChannelHandler implements NetM
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
+    private AtomicInteger savedBytes = new AtomicInteger();
 
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
@@ -53,6 +54,13 @@ public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) throws Exc
         ctx.sendDownstream(e);
     }
 
+    /**
+     * Records bytes that did not need to be sent, because they were left out of an entity update.
+     */
+    public void recordSavedBytes(int bytes) {
+        savedBytes.addAndGet(bytes);
+    }
+
     @Override
     public int getReceivedMessagesSinceLastCall() {
         return receivedMessages.getAndSet(0);
@@ -72,4 +80,9 @@ public int getSentMessagesSinceLastCall() {
     public int getSentBytesSinceLastCall() {
         return sentBytes.getAndSet(0);
     }
+
+    @Override
+    public int getSavedBytesSinceLastCall() {
+        return savedBytes.getAndSet(0);
+    }
 }
@@ -19,14 +19,17 @@
 import com.google.common.base.Objects;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
-import com.google.common.collect.Sets;
 
 import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.set.TIntSet;
+import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.set.hash.TLongHashSet;
 
 import org.jboss.netty.channel.Channel;
 import org.slf4j.Logger;
@@ -44,6 +47,8 @@
 import org.terasology.logic.common.DisplayNameComponent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
+import org.terasology.math.Direction;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
@@ -53,6 +58,7 @@
 import org.terasology.network.serialization.ServerComponentFieldCheck;
 import org.terasology.persistence.serializers.EventSerializer;
 import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.persistence.serializers.ReplicatedEntityState;
 import org.terasology.persistence.typeHandling.DeserializationException;
 import org.terasology.persistence.typeHandling.SerializationException;
 import org.terasology.protobuf.EntityData;
@@ -68,13 +74,13 @@
 import org.terasology.world.block.BlockComponent;
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkKey;
+import org.terasology.world.chunks.ChunkProvider;
 
 import java.math.RoundingMode;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -85,6 +91,15 @@
 public class NetClient extends AbstractClient implements WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(NetClient.class);
     private static final float NET_TICK_RATE = 0.05f;
+    /**
+     * Unused chunk bandwidth can be saved up for this many net ticks.
+     */
+    private static final int MAX_CHUNK_BURST_TICKS = 4;
+    /**
+     * A bulk change of at least this many blocks of one chunk is sent by resending the whole chunk, which is smaller
+     * than the individual block change messages.
+     */
+    private static final int CHUNK_RESEND_THRESHOLD = 512;
 
     private Time time;
     private NetworkSystemImpl networkSystem;
@@ -92,11 +107,11 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private NetworkEntitySerializer entitySerializer;
     private EventSerializer eventSerializer;
     private EventLibrary eventLibrary;
-    private NetMetricSource metricSource;
+    private MetricRecordingHandler metricSource;
     private BiomeManager biomeManager;
 
     // Relevance
-    private Set<Vector3i> relevantChunks = Sets.newHashSet();
+    private TLongSet relevantChunks = new TLongHashSet();
     private TIntSet netRelevant = new TIntHashSet();
 
     // Entity replication data
@@ -106,13 +121,14 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private SetMultimap<Integer, Class<? extends Component>> dirtyComponents = LinkedHashMultimap.create();
     private SetMultimap<Integer, Class<? extends Component>> addedComponents = LinkedHashMultimap.create();
     private SetMultimap<Integer, Class<? extends Component>> removedComponents = LinkedHashMultimap.create();
+    private TIntObjectMap<ReplicatedEntityState> replicatedStates = new TIntObjectHashMap<>();
+    private final ServerComponentFieldCheck ownedFieldCheck = new ServerComponentFieldCheck(true, false);
+    private final ServerComponentFieldCheck unownedFieldCheck = new ServerComponentFieldCheck(false, false);
 
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
+    private int chunkByteBudget;
 
     private PublicIdentityCertificate identity;
 
@@ -122,8 +138,8 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
 
-    private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
-    private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
+    private ChunkSendQueue readyChunks = new ChunkSendQueue();
+    private TLongSet invalidatedChunks = new TLongHashSet();
 
 
     // Incoming messages
@@ -138,7 +154,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
 
     public NetClient(Channel channel, NetworkSystemImpl networkSystem, PublicIdentityCertificate identity) {
         this.channel = channel;
-        metricSource = (NetMetricSource) channel.getPipeline().get(MetricRecordingHandler.NAME);
+        metricSource = (MetricRecordingHandler) channel.getPipeline().get(MetricRecordingHandler.NAME);
         this.networkSystem = networkSystem;
         this.time = CoreRegistry.get(Time.class);
         this.identity = identity;
@@ -245,46 +261,47 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
     }
 
     private void sendNewChunks(NetData.NetMessage.Builder message) {
-        if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
-                }
-                Vector3i pos = null;
-                int distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    int chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
-                }
-                Chunk chunk = readyChunks.remove(pos);
-                relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
-            }
-        } else {
-            chunkSendCounter = 1.0f;
+        if (readyChunks.isEmpty()) {
+            chunkByteBudget = 0;
+            return;
+        }
+        // Upstream bandwidth is configured in kilobits per second
+        int bytesPerTick = (int) (networkSystem.getBandwidthPerClient() * 125 * NET_TICK_RATE);
+        chunkByteBudget = Math.min(chunkByteBudget + bytesPerTick, bytesPerTick * MAX_CHUNK_BURST_TICKS);
+
+        Vector3i center = new Vector3i();
+        Vector3f viewDirection = new Vector3f();
+        LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+        if (loc != null) {
+            center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
+            loc.getWorldRotation().rotate(Direction.FORWARD.getVector3f(), viewDirection);
+        }
+        readyChunks.setViewpoint(center, viewDirection);
+
+        EncodedChunkCache encodedChunkCache = networkSystem.getEncodedChunkCache();
+        while (chunkByteBudget > 0 && !readyChunks.isEmpty()) {
+            Chunk chunk = readyChunks.poll();
+            relevantChunks.add(ChunkKey.of(chunk.getPosition()));
+            EntityData.ChunkStore encodedChunk = encodedChunkCache.get(chunk);
+            message.addChunkInfo(encodedChunk);
+            chunkByteBudget -= encodedChunk.getSerializedSize();
         }
     }
 
     private void sendChunkInvalidations(NetData.NetMessage.Builder message) {
-        Iterator<Vector3i> i = invalidatedChunks.iterator();
+        TLongIterator i = invalidatedChunks.iterator();
         while (i.hasNext()) {
-            Vector3i pos = i.next();
+            long pos = i.next();
             i.remove();
             relevantChunks.remove(pos);
-            message.addInvalidateChunk(NetData.InvalidateChunkMessage.newBuilder().setPos(NetMessageUtil.convert(pos)));
+            message.addInvalidateChunk(NetData.InvalidateChunkMessage.newBuilder().setPos(NetMessageUtil.convert(ChunkKey.toVector(pos))));
         }
         invalidatedChunks.clear();
     }
 
     public void setNetInitial(int netId) {
         netInitial.add(netId);
+        replicatedStates.remove(netId);
     }
 
     public void setNetRemoved(int netId) {
@@ -296,6 +313,7 @@ public void setNetRemoved(int netId) {
         removedComponents.keySet().remove(netId);
         netDirty.remove(netId);
         netRelevant.remove(netId);
+        replicatedStates.remove(netId);
     }
 
     public void setComponentAdded(int networkId, Class<? extends Component> component) {
@@ -341,7 +359,7 @@ public void send(Event event, EntityRef target) {
         try {
             BlockComponent blockComp = target.getComponent(BlockComponent.class);
             if (blockComp != null) {
-                if (relevantChunks.contains(ChunkMath.calcChunkPos(blockComp.getPosition()))) {
+                if (relevantChunks.contains(ChunkKey.ofBlock(blockComp.getPosition()))) {
                     queuedOutgoingEvents.add(NetData.EventMessage.newBuilder()
                             .setTargetBlockPos(NetMessageUtil.convert(blockComp.getPosition()))
                             .setEvent(eventSerializer.serialize(event)).build());
@@ -380,20 +398,21 @@ void send(NetData.NetMessage data) {
 
     @Override
     public void onChunkRelevant(Vector3i pos, Chunk chunk) {
-        invalidatedChunks.remove(pos);
-        readyChunks.put(pos, chunk);
+        long key = ChunkKey.of(pos);
+        invalidatedChunks.remove(key);
+        readyChunks.add(chunk);
     }
 
     @Override
     public void onChunkIrrelevant(Vector3i pos) {
-        readyChunks.remove(pos);
-        invalidatedChunks.add(pos);
+        long key = ChunkKey.of(pos);
+        readyChunks.remove(key);
+        invalidatedChunks.add(key);
     }
 
     @Override
     public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
-        if (relevantChunks.contains(chunkPos)) {
+        if (relevantChunks.contains(ChunkKey.ofBlock(pos))) {
             queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
                     .setPos(NetMessageUtil.convert(pos))
                     .setNewBlock(newBlock.getId())
@@ -401,10 +420,34 @@ public void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock) {
         }
     }
 
+    @Override
+    public void onBlocksChanged(Vector3i chunkPos, Map<Vector3i, Block> newBlocks, Map<Vector3i, Block> originalBlocks) {
+        if (!relevantChunks.contains(ChunkKey.of(chunkPos))) {
+            return;
+        }
+        if (newBlocks.size() >= CHUNK_RESEND_THRESHOLD) {
+            ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
+            Chunk chunk = (chunkProvider != null) ? chunkProvider.getChunk(chunkPos) : null;
+            if (chunk != null) {
+                // Encoded from the chunk's current snapshot when sent, replacing the client's copy. Queued changes
+                // to the chunk are older than that snapshot and would undo parts of it when applied after it
+                long key = ChunkKey.of(chunkPos);
+                queuedOutgoingBlockChanges.removeIf(change -> ChunkKey.ofBlock(NetMessageUtil.convert(change.getPos())) == key);
+                readyChunks.add(chunk);
+                return;
+            }
+        }
+        for (Map.Entry<Vector3i, Block> entry : newBlocks.entrySet()) {
+            queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
+                    .setPos(NetMessageUtil.convert(entry.getKey()))
+                    .setNewBlock(entry.getValue().getId())
+                    .build());
+        }
+    }
+
     @Override
     public void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(pos);
-        if (relevantChunks.contains(chunkPos)) {
+        if (relevantChunks.contains(ChunkKey.ofBlock(pos))) {
             queuedOutgoingBiomeChanges.add(NetData.BiomeChangeMessage.newBuilder()
                     .setPos(NetMessageUtil.convert(pos))
                     .setNewBiome(biomeManager.getBiomeShortId(newBiome))
@@ -457,8 +500,12 @@ private void sendDirtyEntities(NetData.NetMessage.Builder message) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
+            ReplicatedEntityState sentState = getReplicatedState(netId);
             EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+                    isOwner ? ownedFieldCheck : unownedFieldCheck, sentState);
+            if (metricSource != null) {
+                metricSource.recordSavedBytes(sentState.pollSavedBytes());
+            }
             if (entityData != null) {
                 message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
             }
@@ -469,6 +516,18 @@ private void sendDirtyEntities(NetData.NetMessage.Builder message) {
         dirtyComponents.clear();
     }
 
+    /**
+     * @return the values last sent for the entity, which starts out empty when the entity is (re)sent in full
+     */
+    ReplicatedEntityState getReplicatedState(int netId) {
+        ReplicatedEntityState sentState = replicatedStates.get(netId);
+        if (sentState == null) {
+            sentState = new ReplicatedEntityState();
+            replicatedStates.put(netId, sentState);
+        }
+        return sentState;
+    }
+
     private void sendRemovedEntities(NetData.NetMessage.Builder message) {
         TIntIterator initialIterator = netRemoved.iterator();
         while (initialIterator.hasNext()) {
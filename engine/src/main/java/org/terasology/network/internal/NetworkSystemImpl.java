@@ -40,6 +40,7 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.config.NetworkConfig;
+import org.terasology.config.SystemConfig;
 import org.terasology.context.Context;
 import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.SimpleUri;
@@ -74,6 +75,7 @@
 import org.terasology.network.serialization.NetEntityRefTypeHandler;
 import org.terasology.persistence.PlayerStore;
 import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.ChunkCodecs;
 import org.terasology.persistence.serializers.EventSerializer;
 import org.terasology.persistence.serializers.NetworkEntitySerializer;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
@@ -106,6 +108,7 @@
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
 
 /**
  * Implementation of the Network System using Netty and TCP/IP
@@ -116,10 +119,12 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private static final int OWNER_DEPTH_LIMIT = 50;
     private static final int NET_TICK_RATE = 50;
     private static final int NULL_NET_ID = 0;
+    private static final int DEFAULT_STREAM_COMPRESSION_LEVEL = 6;
 
     // Shared
     private Optional<HibernationManager> hibernationSettings = Optional.empty();
     private NetworkConfig config;
+    private SystemConfig systemConfig;
     private NetworkMode mode = NetworkMode.NONE;
     private EngineEntityManager entityManager;
     private ComponentLibrary componentLibrary;
@@ -144,6 +149,7 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private int nextNetId = 1;
     private final Set<Client> clientList = Sets.newLinkedHashSet();
     private final Set<NetClient> netClientList = Sets.newLinkedHashSet();
+    private final EncodedChunkCache encodedChunkCache = new EncodedChunkCache();
     private Map<EntityRef, Client> clientPlayerLookup = Maps.newHashMap();
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
@@ -155,6 +161,7 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     public NetworkSystemImpl(Time time, Context context) {
         this.time = time;
         this.config = context.get(Config.class).getNetwork();
+        this.systemConfig = context.get(Config.class).getSystem();
         this.hibernationSettings = Optional.ofNullable(context.get(HibernationManager.class));
     }
 
@@ -173,7 +180,7 @@ public void host(int port, boolean dedicatedServer) throws HostingFailedExceptio
 
                 factory = new NioServerSocketChannelFactory(Executors.newCachedThreadPool(), Executors.newCachedThreadPool());
                 ServerBootstrap bootstrap = new ServerBootstrap(factory);
-                bootstrap.setPipelineFactory(new TerasologyServerPipelineFactory(this));
+                bootstrap.setPipelineFactory(new TerasologyServerPipelineFactory(this, getStreamCompressionLevel()));
                 bootstrap.setOption("child.tcpNoDelay", true);
                 bootstrap.setOption("child.keepAlive", true);
                 Channel listenChannel = bootstrap.bind(new InetSocketAddress(port));
@@ -281,6 +288,7 @@ public void shutdown() {
         entitySerializer = null;
         clientList.clear();
         netClientList.clear();
+        encodedChunkCache.clear();
         blockManager = null;
         biomeManager = null;
         ownerLookup.clear();
@@ -372,6 +380,23 @@ NetClient getNetOwner(EntityRef entity) {
         return null;
     }
 
+    /**
+     * @return the cache of encoded chunks that is shared by all clients
+     */
+    public EncodedChunkCache getEncodedChunkCache() {
+        return encodedChunkCache;
+    }
+
+    /**
+     * Chunks make up most of the traffic to clients and are sent as part of the compressed message stream, so the
+     * stream gets compressed at the level configured for stored chunks. Preset dictionaries are not used, as clients
+     * don't have them.
+     */
+    private int getStreamCompressionLevel() {
+        int level = ChunkCodecs.getCompressionLevel(systemConfig);
+        return (level == Deflater.DEFAULT_COMPRESSION) ? DEFAULT_STREAM_COMPRESSION_LEVEL : level;
+    }
+
     public int getBandwidthPerClient() {
         if (netClientList.size() > 0) {
             return config.getUpstreamBandwidth() / netClientList.size();
@@ -729,6 +754,26 @@ public int getOutgoingBytesDelta() {
         }
     }
 
+    @Override
+    public int getOutgoingBytesSavedDelta() {
+        switch (mode) {
+            case LISTEN_SERVER:
+            case DEDICATED_SERVER:
+                int total = 0;
+                for (NetClient client : netClientList) {
+                    total += client.getMetrics().getSavedBytesSinceLastCall();
+                }
+                return total;
+            case CLIENT:
+                if (server != null) {
+                    return server.getMetrics().getSavedBytesSinceLastCall();
+                }
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
     long getEntityId(int netId) {
         return netIdToEntityId.get(netId);
     }
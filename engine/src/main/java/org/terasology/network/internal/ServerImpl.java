@@ -18,9 +18,11 @@
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import gnu.trove.iterator.TIntIterator;
@@ -98,6 +100,11 @@ public class ServerImpl implements Server {
     private SetMultimap<Integer, Class<? extends Component>> changedComponents = HashMultimap.create();
     private ListMultimap<Vector3i, NetData.BlockChangeMessage> awaitingChunkReadyBlockUpdates = ArrayListMultimap.create();
     private ListMultimap<Vector3i, NetData.BiomeChangeMessage> awaitingChunkReadyBiomeUpdates = ArrayListMultimap.create();
+    /**
+     * Received chunks that are not ready yet, by position. Changes to these positions are held back until the chunk is
+     * ready, as a resent chunk would otherwise overwrite changes made to the chunk it replaces.
+     */
+    private Multiset<Vector3i> awaitingChunks = HashMultiset.create();
 
     private EngineTime time;
 
@@ -294,7 +301,7 @@ private void processBlockChanges(NetData.NetMessage message) {
             // TODO: Store changes to blocks that aren't ready to be modified (the surrounding chunks aren't available)
             WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
             Vector3i pos = NetMessageUtil.convert(blockChange.getPos());
-            if (worldProvider.isBlockRelevant(pos)) {
+            if (worldProvider.isBlockRelevant(pos) && !awaitingChunks.contains(ChunkMath.calcChunkPos(pos))) {
                 worldProvider.setBlock(pos, newBlock);
             } else {
                 awaitingChunkReadyBlockUpdates.put(ChunkMath.calcChunkPos(pos), blockChange);
@@ -308,7 +315,7 @@ private void processBiomeChanges(NetData.NetMessage message) {
             // TODO: Store changes to blocks that aren't ready to be modified (the surrounding chunks aren't available)
             WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
             Vector3i pos = NetMessageUtil.convert(biomeChange.getPos());
-            if (worldProvider.isBlockRelevant(pos)) {
+            if (worldProvider.isBlockRelevant(pos) && !awaitingChunks.contains(ChunkMath.calcChunkPos(pos))) {
                 Biome newBiome = biomeManager.getBiomeByShortId((short) biomeChange.getNewBiome());
                 worldProvider.setBiome(pos, newBiome);
             } else {
@@ -321,6 +328,7 @@ private void processInvalidatedChunks(NetData.NetMessage message) {
         for (NetData.InvalidateChunkMessage chunk : message.getInvalidateChunkList()) {
             Vector3i chunkPos = NetMessageUtil.convert(chunk.getPos());
             remoteWorldProvider.invalidateChunks(chunkPos);
+            awaitingChunks.setCount(chunkPos, 0);
             awaitingChunkReadyBlockUpdates.removeAll(chunkPos);
             awaitingChunkReadyBiomeUpdates.removeAll(chunkPos);
         }
@@ -329,6 +337,7 @@ private void processInvalidatedChunks(NetData.NetMessage message) {
     private void processReceivedChunks(NetData.NetMessage message) {
         for (EntityData.ChunkStore chunkInfo : message.getChunkInfoList()) {
             Chunk chunk = ChunkSerializer.decode(chunkInfo, blockManager, biomeManager);
+            awaitingChunks.add(chunk.getPosition());
             chunkQueue.offer(chunk);
         }
     }
@@ -403,6 +412,10 @@ public NetMetricSource getMetrics() {
 
     @Override
     public void onChunkReady(Vector3i chunkPos) {
+        awaitingChunks.remove(chunkPos);
+        if (awaitingChunks.contains(chunkPos)) {
+            return;
+        }
         WorldProvider worldProvider = CoreRegistry.get(WorldProvider.class);
 
         List<NetData.BlockChangeMessage> updateBlockMessages = awaitingChunkReadyBlockUpdates.removeAll(chunkPos);
@@ -40,9 +40,14 @@
 public class TerasologyServerPipelineFactory implements ChannelPipelineFactory {
 
     private NetworkSystemImpl networkSystem;
+    private int compressionLevel;
 
-    public TerasologyServerPipelineFactory(NetworkSystemImpl networkSystem) {
+    /**
+     * @param compressionLevel the zlib level the messages to clients get compressed with, from 0 to 9
+     */
+    public TerasologyServerPipelineFactory(NetworkSystemImpl networkSystem, int compressionLevel) {
         this.networkSystem = networkSystem;
+        this.compressionLevel = compressionLevel;
     }
 
     @Override
@@ -54,7 +59,7 @@ public ChannelPipeline getPipeline() throws Exception {
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
 
         p.addLast("frameLengthEncoder", new LengthFieldPrepender(3));
-        p.addLast("deflateEncoder", new ZlibEncoder());
+        p.addLast("deflateEncoder", new ZlibEncoder(compressionLevel));
         p.addLast("frameEncoder", new ProtobufVarint32LengthFieldPrepender());
         p.addLast("protobufEncoder", new ProtobufEncoder());
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.serialization;
+
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+
+/**
+ * Rounds replicated float and vector values to a fixed step, so small changes to them don't need to be sent.
+ *
+ */
+public final class FieldQuantization {
+
+    private FieldQuantization() {
+    }
+
+    /**
+     * @param value The value to quantize, which is not changed
+     * @param step  The step to round to. A step of 0 or less leaves values unchanged.
+     * @return A quantized copy of the value if it is a Float, Double, Vector2f, Vector3f or Quat4f, otherwise the value itself
+     */
+    public static Object quantize(Object value, float step) {
+        if (step <= 0 || value == null) {
+            return value;
+        }
+        if (value instanceof Float) {
+            return quantize((Float) value, step);
+        } else if (value instanceof Double) {
+            double doubleStep = step;
+            return Math.round((Double) value / doubleStep) * doubleStep;
+        } else if (value instanceof Vector3f) {
+            Vector3f vector = (Vector3f) value;
+            return new Vector3f(quantize(vector.x(), step), quantize(vector.y(), step), quantize(vector.z(), step));
+        } else if (value instanceof Vector2f) {
+            Vector2f vector = (Vector2f) value;
+            return new Vector2f(quantize(vector.x(), step), quantize(vector.y(), step));
+        } else if (value instanceof Quat4f) {
+            Quat4f quat = (Quat4f) value;
+            return new Quat4f(quantize(quat.x, step), quantize(quat.y, step), quantize(quat.z, step), quantize(quat.w, step));
+        }
+        return value;
+    }
+
+    public static float quantize(float value, float step) {
+        if (step <= 0) {
+            return value;
+        }
+        return (float) (Math.round((double) value / step) * (double) step);
+    }
+}
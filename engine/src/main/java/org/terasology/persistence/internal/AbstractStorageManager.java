@@ -19,11 +19,10 @@
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.OwnershipHelper;
-import org.terasology.logic.location.LocationComponent;
-import org.terasology.math.AABB;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.network.ClientComponent;
@@ -32,12 +31,12 @@
 import org.terasology.persistence.StorageManager;
 import org.terasology.persistence.serializers.PrefabSerializer;
 import org.terasology.protobuf.EntityData;
+import org.terasology.registry.CoreRegistry;
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystem;
@@ -46,7 +45,6 @@
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -67,6 +65,8 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final OwnershipHelper helper;
 
     private boolean storeChunksInZips = true;
+    private final ChunkDictionaries chunkDictionaries;
+    private ChunkCodecs chunkCodecs;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
@@ -79,18 +79,31 @@ public AbstractStorageManager(Path savePath, ModuleEnvironment environment, Engi
 
         this.storagePathProvider = new StoragePathProvider(savePath);
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
+
+        this.chunkDictionaries = new ChunkDictionaries(storagePathProvider.getChunkDictionariesPath());
+        try {
+            chunkDictionaries.load();
+        } catch (IOException e) {
+            logger.error("Failed to load chunk dictionaries", e);
+        }
+        Config config = CoreRegistry.get(Config.class);
+        this.chunkCodecs = ChunkCodecs.create((config != null) ? config.getSystem() : null, chunkDictionaries, false);
     }
 
     @Override
     public void loadGlobalStore() throws IOException {
         Path globalDataFile = storagePathProvider.getGlobalEntityStorePath();
+        EntityData.GlobalStore store = null;
         if (Files.isRegularFile(globalDataFile)) {
             try (InputStream in = new BufferedInputStream(Files.newInputStream(globalDataFile))) {
-                EntityData.GlobalStore store = EntityData.GlobalStore.parseFrom(in);
-                GlobalStoreLoader loader = new GlobalStoreLoader(environment, entityManager, prefabSerializer);
-                loader.load(store);
+                store = EntityData.GlobalStore.parseFrom(in);
             }
         }
+        List<EntityChangeLog.Segment> logSegments = EntityChangeLog.readSegments(storagePathProvider);
+        if (store != null || !logSegments.isEmpty()) {
+            GlobalStoreLoader loader = new GlobalStoreLoader(environment, entityManager, prefabSerializer);
+            loader.load(store, logSegments);
+        }
     }
 
     @Override
@@ -107,17 +120,30 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
+            try {
+                EntityData.ChunkStore storeData = chunkCodecs.decodeChunkStore(chunkData);
                 store = new ChunkStoreInternal(storeData, entityManager, blockManager, biomeManager);
             } catch (IOException e) {
-                logger.error("Failed to read existing saved chunk {}", chunkPos);
+                logger.error("Failed to read existing saved chunk {}", chunkPos, e);
             }
         }
         return store;
     }
 
+    protected byte[] loadChunkRegion(Vector3i chunkPos) {
+        Path regionPath = storagePathProvider.getChunkRegionPath(storagePathProvider.getChunkRegionPosition(chunkPos));
+        if (Files.isRegularFile(regionPath)) {
+            try (RegionFile regionFile = RegionFile.openForReading(regionPath)) {
+                return regionFile.read(chunkPos);
+            } catch (IOException e) {
+                logger.error("Failed to load chunk region {}", regionPath, e);
+            }
+            return null;
+        }
+        // Save games that have not been converted yet, e.g. when opened read only
+        return loadChunkZip(chunkPos);
+    }
+
     protected byte[] loadChunkZip(Vector3i chunkPos) {
         byte[] chunkData = null;
         Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
@@ -139,6 +165,9 @@ protected byte[] loadChunkZip(Vector3i chunkPos) {
     public void update() {
     }
 
+    /**
+     * @return true if chunks get grouped into {@link RegionFile}s instead of being stored in a file each.
+     */
     public boolean isStoreChunksInZips() {
         return storeChunksInZips;
     }
@@ -150,9 +179,21 @@ void setStoreChunksInZips(boolean storeChunksInZips) {
         this.storeChunksInZips = storeChunksInZips;
     }
 
+    protected ChunkDictionaries getChunkDictionaries() {
+        return chunkDictionaries;
+    }
+
+    protected ChunkCodecs getChunkCodecs() {
+        return chunkCodecs;
+    }
+
+    protected void setChunkCodecs(ChunkCodecs chunkCodecs) {
+        this.chunkCodecs = chunkCodecs;
+    }
+
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
         if (isStoreChunksInZips()) {
-            return loadChunkZip(chunkPos);
+            return loadChunkRegion(chunkPos);
         } else {
             Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
             if (Files.isRegularFile(chunkPath)) {
@@ -183,20 +224,22 @@ protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
     protected Collection<EntityRef> getEntitiesOfChunk(Chunk chunk) {
         List<EntityRef> entitiesToStore = Lists.newArrayList();
 
-        AABB aabb = chunk.getAABB();
-        for (EntityRef entity : getEntityManager().getEntitiesWith(LocationComponent.class)) {
-            if (!entity.getOwner().exists() && !entity.isAlwaysRelevant() && !entity.hasComponent(ClientComponent.class)) {
-                LocationComponent loc = entity.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    if (aabb.contains(loc.getWorldPosition())) {
-                        entitiesToStore.add(entity);
-                    }
-                }
+        for (EntityRef entity : getEntityManager().getEntitiesInChunk(chunk.getPosition())) {
+            if (isStoredWithChunk(entity)) {
+                entitiesToStore.add(entity);
             }
         }
         return entitiesToStore;
     }
 
+    /**
+     * @return whether the entity gets stored and deactivated along with the chunk it is in. Owned, always relevant and
+     * client entities stay active when their chunk unloads.
+     */
+    public static boolean isStoredWithChunk(EntityRef entity) {
+        return !entity.getOwner().exists() && !entity.isAlwaysRelevant() && !entity.hasComponent(ClientComponent.class);
+    }
+
     protected void deactivateOrDestroyEntityRecursive(EntityRef entity) {
         if (entity.isActive()) {
             for (EntityRef ownedEntity : helper.listOwnedEntities(entity)) {
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Compresses the serialized form of chunks for storage or transfer.
+ * <br><br>
+ * The id of the codec gets stored in front of the data it encodes, see {@link ChunkCodecs}, so the id of a codec must
+ * never change once data encoded with it may have been stored. Codecs have to be thread safe.
+ *
+ */
+public interface ChunkCodec {
+
+    /**
+     * @return the id stored with the encoded data, in the range [0, 255]
+     */
+    int getId();
+
+    void encode(byte[] data, OutputStream out) throws IOException;
+
+    byte[] decode(byte[] data, int offset, int length) throws IOException;
+}
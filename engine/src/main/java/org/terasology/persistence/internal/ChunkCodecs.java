@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.config.SystemConfig;
+import org.terasology.protobuf.EntityData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes chunks with a configurable {@link ChunkCodec} and decodes chunks encoded with any known codec.
+ * <br><br>
+ * Encoded chunks start with a two byte magic number followed by the id of the codec. Chunks stored before there were
+ * codecs are plain gzip data, which is recognized by the gzip magic number instead.
+ * <br><br>
+ * If dictionary training is enabled, the first chunks that get encoded serve as samples for a preset dictionary.
+ * Once the dictionary has been stored, all further chunks get compressed with it.
+ *
+ */
+public class ChunkCodecs {
+    public static final String RAW = "raw";
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkCodecs.class);
+
+    private static final byte MAGIC_0 = 'T';
+    private static final byte MAGIC_1 = 'C';
+    private static final int HEADER_SIZE = 3;
+    private static final byte GZIP_MAGIC_0 = (byte) 0x1f;
+    private static final byte GZIP_MAGIC_1 = (byte) 0x8b;
+    private static final int DICTIONARY_SAMPLE_COUNT = 64;
+
+    private final ChunkDictionaries dictionaries;
+    private final ChunkCodec[] codecs = new ChunkCodec[256];
+    private volatile ChunkCodec writeCodec;
+    private volatile ChunkDictionaryTrainer trainer;
+    private int trainedLevel;
+
+    public ChunkCodecs(ChunkCodec writeCodec, ChunkDictionaries dictionaries) {
+        this.dictionaries = dictionaries;
+        register(new RawChunkCodec());
+        register(new GZipChunkCodec());
+        register(new DeflaterChunkCodec(Deflater.DEFAULT_COMPRESSION, dictionaries));
+        setWriteCodec(writeCodec);
+    }
+
+    /**
+     * Creates the codecs as configured. Without a configuration chunks get compressed with deflate at the default
+     * level.
+     *
+     * @param config   the configuration, may be null
+     * @param writable whether chunks get stored, which is required to train a dictionary
+     */
+    public static ChunkCodecs create(SystemConfig config, ChunkDictionaries dictionaries, boolean writable) {
+        if (config == null) {
+            return new ChunkCodecs(new DeflaterChunkCodec(Deflater.DEFAULT_COMPRESSION, dictionaries), dictionaries);
+        }
+        int level = getCompressionLevel(config);
+        String name = config.getChunkCompressionCodec();
+        if (RAW.equals(name)) {
+            return new ChunkCodecs(new RawChunkCodec(), dictionaries);
+        } else if (GZIP.equals(name)) {
+            return new ChunkCodecs(new GZipChunkCodec(), dictionaries);
+        } else if (name != null && !DEFLATE.equals(name)) {
+            logger.warn("Unknown chunk compression codec '{}', using {} instead", name, DEFLATE);
+        }
+        if (!config.isChunkDictionaryEnabled()) {
+            return new ChunkCodecs(new DeflaterChunkCodec(level, dictionaries), dictionaries);
+        }
+        byte[] dictionary = dictionaries.getCurrent();
+        ChunkCodecs result = new ChunkCodecs(new DeflaterChunkCodec(level, dictionaries, dictionary), dictionaries);
+        if (dictionary == null && writable) {
+            result.trainDictionary(level, DICTIONARY_SAMPLE_COUNT);
+        }
+        return result;
+    }
+
+    /**
+     * @param config the configuration, may be null
+     * @return the configured deflate level, clamped to the range {@link Deflater} accepts
+     */
+    public static int getCompressionLevel(SystemConfig config) {
+        if (config == null) {
+            return Deflater.DEFAULT_COMPRESSION;
+        }
+        int level = config.getChunkCompressionLevel();
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            int clamped = Math.max(Deflater.DEFAULT_COMPRESSION, Math.min(Deflater.BEST_COMPRESSION, level));
+            logger.warn("Chunk compression level {} is out of range, using {} instead", level, clamped);
+            return clamped;
+        }
+        return level;
+    }
+
+    public void register(ChunkCodec codec) {
+        codecs[codec.getId()] = codec;
+    }
+
+    public ChunkCodec getWriteCodec() {
+        return writeCodec;
+    }
+
+    public void setWriteCodec(ChunkCodec codec) {
+        register(codec);
+        this.writeCodec = codec;
+    }
+
+    /**
+     * Trains a dictionary from the next chunks that get encoded. Once it is done, chunks get compressed with deflate at
+     * the given level and the new dictionary.
+     */
+    public synchronized void trainDictionary(int level, int sampleCount) {
+        this.trainedLevel = level;
+        this.trainer = new ChunkDictionaryTrainer(sampleCount);
+    }
+
+    public boolean isTrainingDictionary() {
+        return trainer != null;
+    }
+
+    public byte[] encode(EntityData.ChunkStore store) {
+        return encode(store.toByteArray());
+    }
+
+    /**
+     * @return the data with the header and compressed by the current write codec
+     */
+    public byte[] encode(byte[] data) {
+        ChunkDictionaryTrainer currentTrainer = trainer;
+        if (currentTrainer != null && currentTrainer.addSample(data)) {
+            finishTraining(currentTrainer);
+        }
+        ChunkCodec codec = writeCodec;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + HEADER_SIZE);
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(codec.getId());
+        try {
+            codec.encode(data, out);
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public EntityData.ChunkStore decodeChunkStore(byte[] encoded) throws IOException {
+        return EntityData.ChunkStore.parseFrom(decode(encoded));
+    }
+
+    /**
+     * @return the uncompressed data of chunks encoded by any known codec, or by gzip without a header
+     */
+    public byte[] decode(byte[] encoded) throws IOException {
+        if (encoded.length >= 2 && encoded[0] == GZIP_MAGIC_0 && encoded[1] == GZIP_MAGIC_1) {
+            return codecs[GZipChunkCodec.ID].decode(encoded, 0, encoded.length);
+        }
+        if (encoded.length < HEADER_SIZE || encoded[0] != MAGIC_0 || encoded[1] != MAGIC_1) {
+            throw new IOException("Unknown chunk data format");
+        }
+        ChunkCodec codec = codecs[encoded[2] & 0xFF];
+        if (codec == null) {
+            throw new IOException("Unknown chunk codec " + (encoded[2] & 0xFF));
+        }
+        return codec.decode(encoded, HEADER_SIZE, encoded.length - HEADER_SIZE);
+    }
+
+    private void finishTraining(ChunkDictionaryTrainer finishedTrainer) {
+        byte[] dictionary = finishedTrainer.train();
+        int level;
+        synchronized (this) {
+            if (trainer != finishedTrainer) {
+                return;
+            }
+            trainer = null;
+            level = trainedLevel;
+        }
+        try {
+            int id = dictionaries.add(dictionary);
+            setWriteCodec(new DeflaterChunkCodec(level, dictionaries, dictionary));
+            logger.info("Trained chunk dictionary {} of {} bytes", ChunkDictionaries.getName(id), dictionary.length);
+        } catch (IOException e) {
+            logger.error("Failed to store chunk dictionary, continuing without one", e);
+        }
+    }
+}
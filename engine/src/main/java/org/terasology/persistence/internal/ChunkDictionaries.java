@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.Adler32;
+
+/**
+ * The preset dictionaries chunks of a save game have been compressed with, see {@link DeflaterChunkCodec}.
+ * <br><br>
+ * Dictionaries are identified by their Adler-32 checksum and get stored in a file each, named after that id.
+ * A dictionary must be kept as long as any chunk compressed with it exists, so dictionaries never get removed.
+ *
+ */
+public class ChunkDictionaries {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkDictionaries.class);
+    private static final String EXTENSION = ".dict";
+
+    private final Path directory;
+    private final TIntObjectMap<byte[]> dictionaries = new TIntObjectHashMap<>();
+    private byte[] current;
+
+    /**
+     * Creates dictionaries that only exist in memory.
+     */
+    public ChunkDictionaries() {
+        this(null);
+    }
+
+    /**
+     * @param directory the directory the dictionaries get stored in, or null to keep them in memory only
+     */
+    public ChunkDictionaries(Path directory) {
+        this.directory = directory;
+    }
+
+    public static int getId(byte[] dictionary) {
+        Adler32 checksum = new Adler32();
+        checksum.update(dictionary);
+        return (int) checksum.getValue();
+    }
+
+    public static String getName(int id) {
+        return String.format("%08x", id);
+    }
+
+    /**
+     * Reads all dictionaries of the directory. The most recently written one becomes the current dictionary.
+     */
+    public synchronized void load() throws IOException {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        FileTime newest = null;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path path : stream) {
+                byte[] dictionary = Files.readAllBytes(path);
+                dictionaries.put(getId(dictionary), dictionary);
+                FileTime modified = Files.getLastModifiedTime(path);
+                if (newest == null || modified.compareTo(newest) > 0) {
+                    newest = modified;
+                    current = dictionary;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the dictionary and makes it the current one. It gets written and synced to disk before this method returns, so
+     * that chunks compressed with it can't be stored without it.
+     *
+     * @return the id of the dictionary
+     */
+    public synchronized int add(byte[] dictionary) throws IOException {
+        int id = getId(dictionary);
+        if (directory != null) {
+            Files.createDirectories(directory);
+            Path path = directory.resolve(getName(id) + EXTENSION);
+            Path tempPath = directory.resolve(getName(id) + EXTENSION + ".tmp");
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(dictionary);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+        }
+        dictionaries.put(id, dictionary);
+        current = dictionary;
+        return id;
+    }
+
+    /**
+     * Makes the renaming of a dictionary file durable. Not every platform can open directories, in which case the
+     * rename is left to the file system.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Could not force chunk dictionary directory {}", directory, e);
+        }
+    }
+
+    /**
+     * @return the dictionary with the given id, or null if there is none
+     */
+    public synchronized byte[] get(int id) {
+        return dictionaries.get(id);
+    }
+
+    /**
+     * @return the dictionary new chunks should be compressed with, or null if there is none yet
+     */
+    public synchronized byte[] getCurrent() {
+        return current;
+    }
+
+    public synchronized int size() {
+        return dictionaries.size();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds a preset dictionary for {@link DeflaterChunkCodec} out of sample chunks.
+ * <br><br>
+ * The dictionary consists of the byte sequences that occur in the most samples. Each sequence is taken from its first
+ * occurrence and only once, and the most common ones are placed at the end, as deflate encodes short distances into
+ * the dictionary most efficiently.
+ *
+ */
+public class ChunkDictionaryTrainer {
+    /**
+     * Deflate can't refer back further than 32 KB, so a larger dictionary would not help.
+     */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int GRAM_SIZE = Long.BYTES;
+    private static final int SEGMENT_SIZE = 48;
+
+    private final int sampleCount;
+    private final List<byte[]> samples = Lists.newArrayList();
+
+    /**
+     * @param sampleCount the number of samples to collect before training
+     */
+    public ChunkDictionaryTrainer(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    /**
+     * Adds the serialized form of a chunk to the samples. Samples beyond the sample count get ignored.
+     *
+     * @return true if this sample completed the samples, which happens exactly once
+     */
+    public synchronized boolean addSample(byte[] sample) {
+        if (samples.size() >= sampleCount) {
+            return false;
+        }
+        samples.add(sample);
+        return samples.size() == sampleCount;
+    }
+
+    public synchronized byte[] train() {
+        return train(samples, MAX_DICTIONARY_SIZE);
+    }
+
+    public static byte[] train(List<byte[]> samples, int maxSize) {
+        // the number of samples each sequence of GRAM_SIZE bytes occurs in, and where it occurs first
+        TLongIntMap frequencies = new TLongIntHashMap();
+        TLongLongMap locations = new TLongLongHashMap();
+        for (int sampleIndex = 0; sampleIndex < samples.size(); sampleIndex++) {
+            byte[] sample = samples.get(sampleIndex);
+            TLongSet seen = new TLongHashSet();
+            for (int offset = 0; offset + GRAM_SIZE <= sample.length; offset++) {
+                long gram = readGram(sample, offset);
+                if (seen.add(gram)) {
+                    if (frequencies.adjustOrPutValue(gram, 1, 1) == 1) {
+                        locations.put(gram, ((long) sampleIndex << Integer.SIZE) | offset);
+                    }
+                }
+            }
+        }
+
+        // sorts by frequency, descending, while keeping track of the grams
+        long[] grams = frequencies.keys();
+        long[] order = new long[grams.length];
+        int candidates = 0;
+        for (int i = 0; i < grams.length; i++) {
+            int frequency = frequencies.get(grams[i]);
+            if (frequency > 1) {
+                order[candidates++] = ((long) frequency << Integer.SIZE) | i;
+            }
+        }
+        order = Arrays.copyOf(order, candidates);
+        Arrays.sort(order);
+
+        List<byte[]> segments = Lists.newArrayList();
+        TLongSet covered = new TLongHashSet();
+        int size = 0;
+        for (int i = order.length - 1; i >= 0 && size < maxSize; i--) {
+            long gram = grams[(int) order[i]];
+            if (covered.contains(gram)) {
+                continue;
+            }
+            long location = locations.get(gram);
+            byte[] sample = samples.get((int) (location >>> Integer.SIZE));
+            int start = (int) location;
+            int end = Math.min(Math.min(start + SEGMENT_SIZE, sample.length), start + maxSize - size);
+            byte[] segment = Arrays.copyOfRange(sample, start, end);
+            for (int offset = 0; offset + GRAM_SIZE <= segment.length; offset++) {
+                covered.add(readGram(segment, offset));
+            }
+            segments.add(segment);
+            size += segment.length;
+        }
+
+        byte[] dictionary = new byte[size];
+        int position = size;
+        for (byte[] segment : segments) {
+            position -= segment.length;
+            System.arraycopy(segment, 0, dictionary, position, segment.length);
+        }
+        return dictionary;
+    }
+
+    private static long readGram(byte[] data, int offset) {
+        long result = 0;
+        for (int i = 0; i < GRAM_SIZE; i++) {
+            result = (result << Byte.SIZE) | (data[offset + i] & 0xFF);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the chunk zips of older save games into {@link RegionFile}s.
+ * <br><br>
+ * A chunk zip only gets deleted after all of its chunks have been committed to region files. If the conversion gets
+ * interrupted it just gets repeated, which rewrites the same data.
+ *
+ */
+public class ChunkZipConverter {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkZipConverter.class);
+
+    private final StoragePathProvider storagePathProvider;
+
+    public ChunkZipConverter(StoragePathProvider storagePathProvider) {
+        this.storagePathProvider = storagePathProvider;
+    }
+
+    /**
+     * @return the number of chunk zips that got converted
+     */
+    public int convertChunkZips() throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return 0;
+        }
+        List<Path> chunkZips = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldPath)) {
+            for (Path path : stream) {
+                if (storagePathProvider.getChunkZipPositionOfFilename(path.getFileName().toString()) != null) {
+                    chunkZips.add(path);
+                }
+            }
+        }
+        for (Path chunkZip : chunkZips) {
+            convertChunkZip(chunkZip);
+        }
+        if (!chunkZips.isEmpty()) {
+            logger.info("Converted {} chunk zips into region files", chunkZips.size());
+        }
+        return chunkZips.size();
+    }
+
+    private void convertChunkZip(Path chunkZipPath) throws IOException {
+        final Map<Vector3i, RegionFile> regionFiles = Maps.newHashMap();
+        try (FileSystem chunkZip = FileSystems.newFileSystem(chunkZipPath, (ClassLoader) null)) {
+            for (Path root : chunkZip.getRootDirectories()) {
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        Vector3i chunkPos = storagePathProvider.getChunkPositionOfFilename(file.getFileName().toString());
+                        if (chunkPos == null) {
+                            logger.warn("Skipping unexpected entry {} in chunk zip {}", file, chunkZipPath);
+                            return FileVisitResult.CONTINUE;
+                        }
+                        Vector3i regionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+                        RegionFile regionFile = regionFiles.get(regionPos);
+                        if (regionFile == null) {
+                            regionFile = RegionFile.openForWriting(storagePathProvider.getChunkRegionPath(regionPos));
+                            regionFiles.put(regionPos, regionFile);
+                        }
+                        regionFile.write(chunkPos, Files.readAllBytes(file));
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+            for (RegionFile regionFile : regionFiles.values()) {
+                regionFile.commit();
+            }
+        } finally {
+            for (RegionFile regionFile : regionFiles.values()) {
+                regionFile.close();
+            }
+        }
+        Files.delete(chunkZipPath);
+    }
+}
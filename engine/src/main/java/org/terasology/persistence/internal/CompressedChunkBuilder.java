@@ -18,13 +18,11 @@
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.ChunkSnapshot;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Provides an easy to get a compressed version of a chunk. Either the chunk most have a snapshot of it's state
@@ -34,7 +32,8 @@
 public class CompressedChunkBuilder {
     private EntityData.EntityStore entityStore;
     private ChunkImpl chunk;
-    private boolean viaSnapshot;
+    private ChunkSnapshot snapshot;
+    private final ChunkCodecs codecs;
     private byte[] result;
     private Set<EntityRef> storedEntities;
 
@@ -44,10 +43,11 @@ public class CompressedChunkBuilder {
      * @param chunkUnloaded if true the chunk data will be used directly.  If deactivate is false then the chunk will be
      *                      but in snapshot mode so that concurrent modifications (and possibly future unload) is
      *                      possible.
+     * @param codecs        the codecs to compress the chunk with
      */
     public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
                                   Collection<EntityRef> entitiesToSave,
-                                  boolean chunkUnloaded) {
+                                  boolean chunkUnloaded, ChunkCodecs codecs) {
         EntityStorer storer = new EntityStorer(entityManager);
         for (EntityRef entityRef : entitiesToSave) {
             if (entityRef.isPersistent()) {
@@ -58,51 +58,47 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
         this.entityStore = storer.finaliseStore();
 
         this.chunk = chunk;
-        this.viaSnapshot = !chunkUnloaded;
-        if (viaSnapshot) {
-            this.chunk.createSnapshot();
+        this.codecs = codecs;
+        if (!chunkUnloaded) {
+            this.snapshot = chunk.getStoreSnapshot();
         }
     }
 
     /**
      *
      * @param entityStore encoded entities to be stored.
-     * @param chunk       chunk for which {@link ChunkImpl#createSnapshot()} has been called.
-     * @param viaSnapshot specifies if the previously taken snapshot will be encoded or if
+     * @param chunk       chunk to encode.
+     * @param viaSnapshot specifies if the current snapshot of the chunk will be encoded or if the chunk is no longer
+     *                    changing and can be encoded directly.
+     * @param codecs      the codecs to compress the chunk with
      */
-    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot) {
+    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot,
+                                  ChunkCodecs codecs) {
         this.entityStore = entityStore;
         this.chunk = chunk;
-        this.viaSnapshot = viaSnapshot;
+        this.codecs = codecs;
+        if (viaSnapshot) {
+            this.snapshot = chunk.getStoreSnapshot();
+        }
     }
 
     public synchronized byte[] buildEncodedChunk() {
         if (result == null) {
 
             EntityData.ChunkStore.Builder encoded;
-            if (viaSnapshot) {
-                encoded = chunk.encodeAndReleaseSnapshot();
+            if (snapshot != null) {
+                encoded = snapshot.encode();
+                snapshot = null;
             } else {
                 encoded = chunk.encode();
             }
             encoded.setStore(entityStore);
             EntityData.ChunkStore store = encoded.build();
-            result = compressChunkStore(store);
+            result = codecs.encode(store);
         }
         return result;
     }
 
-    private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
-    }
-
     public Set<EntityRef> getStoredEntities() {
         return storedEntities;
     }
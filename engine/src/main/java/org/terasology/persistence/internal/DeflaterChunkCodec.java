@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses chunks into zlib streams at a configurable level, optionally with a preset dictionary.
+ * <br><br>
+ * Zlib records the Adler-32 checksum of the preset dictionary in the stream, which is what the dictionary gets looked
+ * up by in the {@link ChunkDictionaries} when decoding. Data encoded with any level or dictionary can therefore be
+ * decoded by any instance that knows the dictionary.
+ *
+ */
+public class DeflaterChunkCodec implements ChunkCodec {
+    public static final int ID = 2;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int level;
+    private final ChunkDictionaries dictionaries;
+    private final byte[] dictionary;
+
+    public DeflaterChunkCodec(int level, ChunkDictionaries dictionaries) {
+        this(level, dictionaries, null);
+    }
+
+    /**
+     * @param level      the compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}
+     *                   or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param dictionary the preset dictionary used for encoding, or null to encode without one
+     */
+    public DeflaterChunkCodec(int level, ChunkDictionaries dictionaries, byte[] dictionary) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        }
+        this.level = level;
+        this.dictionaries = dictionaries;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public void encode(byte[] data, OutputStream out) throws IOException {
+        Deflater deflater = new Deflater(level);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decode(byte[] data, int offset, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(getDictionary(inflater.getAdler()));
+                    } else if (inflater.needsInput()) {
+                        throw new EOFException("Unexpected end of compressed chunk data");
+                    }
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed chunk data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private byte[] getDictionary(int id) throws IOException {
+        byte[] result = (dictionaries != null) ? dictionaries.get(id) : null;
+        if (result == null) {
+            throw new IOException("Missing chunk dictionary " + ChunkDictionaries.getName(id));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "deflate level " + level + ((dictionary != null) ? " with dictionary " + ChunkDictionaries.getName(ChunkDictionaries.getId(dictionary)) : "");
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.protobuf.EntityData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Append only log of the changes made to the entities of the global store.
+ * <br><br>
+ * Instead of rewriting the whole global store on every save, a save only writes a log segment with the entities that
+ * changed, got added to, or got removed from the global store since the previous save. Every so often a save
+ * compacts the log by writing a complete global store again. A marker file records which segments are already
+ * contained in the global store, so that segments that got compacted are skipped when loading.
+ * <br><br>
+ * Segments and the compaction marker are written as part of the save transaction and only become visible when the
+ * transaction gets merged, so they share its crash safety.
+ *
+ */
+final class EntityChangeLog {
+    private static final Logger logger = LoggerFactory.getLogger(EntityChangeLog.class);
+
+    /**
+     * The log gets compacted once it grows larger than this fraction of the compacted global store.
+     */
+    private static final double COMPACTION_RATIO = 0.5;
+
+    private final StoragePathProvider storagePathProvider;
+
+    /**
+     * The ids of the entities that are stored in the global store and log, or null if they are unknown. The first
+     * save of a session always compacts, so that this does not need to be determined while loading.
+     */
+    private TLongSet persistedEntityIds;
+    private Set<String> persistedPrefabs = Sets.newHashSet();
+    private long nextSegment = -1;
+    private long storeSize;
+    private long logSize;
+
+    EntityChangeLog(StoragePathProvider storagePathProvider) {
+        this.storagePathProvider = storagePathProvider;
+    }
+
+    /**
+     * Determines what needs to be written to store the given entities in the global store. Must be called from the
+     * save thread, with no other save transaction in progress.
+     *
+     * @param globalEntities  the entities that belong into the global store.
+     * @param changedEntityIds the ids of all entities that changed since the last save.
+     */
+    synchronized Update prepareUpdate(EngineEntityManager entityManager, GlobalStoreBuilder globalStoreBuilder,
+                                      Collection<EntityRef> globalEntities, TLongSet changedEntityIds)
+            throws IOException {
+        if (nextSegment < 0) {
+            nextSegment = findNextSegment();
+        }
+        TLongSet globalEntityIds = new TLongHashSet();
+        for (EntityRef entity : globalEntities) {
+            if (entity.isPersistent()) {
+                globalEntityIds.add(entity.getId());
+            }
+        }
+
+        if (isCompactionDue()) {
+            EntityData.GlobalStore store = globalStoreBuilder.build(entityManager, globalEntities);
+            return new Update(true, nextSegment, store, new TLongHashSet(), globalEntityIds,
+                    prefabNamesOf(store));
+        }
+
+        List<EntityRef> changedEntities = Lists.newArrayList();
+        for (EntityRef entity : globalEntities) {
+            long id = entity.getId();
+            if (entity.isPersistent() && (changedEntityIds.contains(id) || !persistedEntityIds.contains(id))) {
+                changedEntities.add(entity);
+            }
+        }
+        TLongSet removedEntityIds = new TLongHashSet();
+        TLongIterator iterator = persistedEntityIds.iterator();
+        while (iterator.hasNext()) {
+            long id = iterator.next();
+            if (!globalEntityIds.contains(id)) {
+                removedEntityIds.add(id);
+            }
+        }
+        EntityData.GlobalStore changes = globalStoreBuilder.buildChanges(entityManager, changedEntities, persistedPrefabs);
+        return new Update(false, nextSegment, changes, removedEntityIds, globalEntityIds, prefabNamesOf(changes));
+    }
+
+    /**
+     * Writes the update into the directory of the unfinished save transaction.
+     */
+    void write(Update update) throws IOException {
+        if (update.compaction) {
+            Path storePath = storagePathProvider.getGlobalEntityStoreTempPath();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(storePath))) {
+                update.store.writeTo(out);
+            }
+            Files.createDirectories(storagePathProvider.getEntityLogTempPath());
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(
+                    storagePathProvider.getEntityLogCompactionMarkerTempPath()))) {
+                out.writeLong(update.segment);
+            }
+            update.bytesWritten = Files.size(storePath);
+        } else {
+            Files.createDirectories(storagePathProvider.getEntityLogTempPath());
+            Path segmentPath = storagePathProvider.getEntityLogSegmentTempPath(update.segment);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segmentPath)))) {
+                out.writeInt(update.removedEntityIds.size());
+                TLongIterator iterator = update.removedEntityIds.iterator();
+                while (iterator.hasNext()) {
+                    out.writeLong(iterator.next());
+                }
+                update.store.writeTo(out);
+            }
+            update.bytesWritten = Files.size(segmentPath);
+        }
+    }
+
+    /**
+     * To be called once the save transaction that wrote the update got merged.
+     */
+    synchronized void commit(Update update) {
+        persistedEntityIds = update.globalEntityIds;
+        if (update.compaction) {
+            persistedPrefabs = Sets.newHashSet(update.prefabs);
+            storeSize = update.bytesWritten;
+            logSize = 0;
+            nextSegment = update.segment;
+            deleteSegmentsBefore(update.segment);
+        } else {
+            persistedPrefabs.addAll(update.prefabs);
+            logSize += update.bytesWritten;
+            nextSegment = update.segment + 1;
+        }
+    }
+
+    /**
+     * To be called when a save failed. The state of the log on disk is unknown then, so the next save compacts it.
+     */
+    synchronized void reset() {
+        persistedEntityIds = null;
+        persistedPrefabs = Sets.newHashSet();
+        nextSegment = -1;
+    }
+
+    private boolean isCompactionDue() {
+        return persistedEntityIds == null || logSize > storeSize * COMPACTION_RATIO;
+    }
+
+    private long findNextSegment() throws IOException {
+        long result = readCompactionMarker(storagePathProvider);
+        for (long segment : listSegments(storagePathProvider)) {
+            result = Math.max(result, segment + 1);
+        }
+        return result;
+    }
+
+    private void deleteSegmentsBefore(long firstValidSegment) {
+        try {
+            for (long segment : listSegments(storagePathProvider)) {
+                if (segment < firstValidSegment) {
+                    Files.deleteIfExists(storagePathProvider.getEntityLogSegmentPath(segment));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete compacted entity log segments", e);
+        }
+    }
+
+    /**
+     * @return the segments that need to be applied on top of the global store, in the order they got written.
+     */
+    static List<Segment> readSegments(StoragePathProvider storagePathProvider) throws IOException {
+        long firstValidSegment = readCompactionMarker(storagePathProvider);
+        List<Segment> result = Lists.newArrayList();
+        for (long segment : listSegments(storagePathProvider)) {
+            if (segment >= firstValidSegment) {
+                Path path = storagePathProvider.getEntityLogSegmentPath(segment);
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                    TLongSet removedEntityIds = new TLongHashSet();
+                    int removedCount = in.readInt();
+                    for (int i = 0; i < removedCount; ++i) {
+                        removedEntityIds.add(in.readLong());
+                    }
+                    result.add(new Segment(EntityData.GlobalStore.parseFrom(in), removedEntityIds));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long readCompactionMarker(StoragePathProvider storagePathProvider) throws IOException {
+        Path markerPath = storagePathProvider.getEntityLogCompactionMarkerPath();
+        if (!Files.isRegularFile(markerPath)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(markerPath))) {
+            return in.readLong();
+        }
+    }
+
+    private static List<Long> listSegments(StoragePathProvider storagePathProvider) throws IOException {
+        Path logPath = storagePathProvider.getEntityLogPath();
+        if (!Files.isDirectory(logPath)) {
+            return Collections.emptyList();
+        }
+        List<Long> segments = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(logPath)) {
+            for (Path path : stream) {
+                Long segment = storagePathProvider.getEntityLogSegmentOfFilename(path.getFileName().toString());
+                if (segment != null) {
+                    segments.add(segment);
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static Set<String> prefabNamesOf(EntityData.GlobalStore store) {
+        Set<String> result = Sets.newHashSet();
+        for (EntityData.Prefab prefab : store.getPrefabList()) {
+            result.add(prefab.getName());
+        }
+        return result;
+    }
+
+    /**
+     * The changes a single save makes to the global store and log.
+     */
+    static final class Update {
+        private final boolean compaction;
+        private final long segment;
+        private final EntityData.GlobalStore store;
+        private final TLongSet removedEntityIds;
+        private final TLongSet globalEntityIds;
+        private final Set<String> prefabs;
+        private long bytesWritten;
+
+        private Update(boolean compaction, long segment, EntityData.GlobalStore store, TLongSet removedEntityIds,
+                       TLongSet globalEntityIds, Set<String> prefabs) {
+            this.compaction = compaction;
+            this.segment = segment;
+            this.store = store;
+            this.removedEntityIds = removedEntityIds;
+            this.globalEntityIds = globalEntityIds;
+            this.prefabs = prefabs;
+        }
+
+        boolean isCompaction() {
+            return compaction;
+        }
+    }
+
+    /**
+     * A log segment as it got read from disk.
+     */
+    static final class Segment {
+        private final EntityData.GlobalStore changes;
+        private final TLongSet removedEntityIds;
+
+        Segment(EntityData.GlobalStore changes, TLongSet removedEntityIds) {
+            this.changes = changes;
+            this.removedEntityIds = removedEntityIds;
+        }
+
+        /**
+         * @return the entities that got added or changed, together with the component and prefab tables they need.
+         */
+        EntityData.GlobalStore getChanges() {
+            return changes;
+        }
+
+        TLongSet getRemovedEntityIds() {
+            return removedEntityIds;
+        }
+    }
+}
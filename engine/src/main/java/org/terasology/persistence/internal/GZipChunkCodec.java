@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses chunks with gzip, which is how chunks got stored before there were codecs.
+ *
+ */
+public class GZipChunkCodec implements ChunkCodec {
+    public static final int ID = 1;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public void encode(byte[] data, OutputStream out) throws IOException {
+        GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+        gzipOut.write(data);
+        gzipOut.finish();
+    }
+
+    @Override
+    public byte[] decode(byte[] data, int offset, int length) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "gzip";
+    }
+}
@@ -25,6 +25,7 @@
 import org.terasology.persistence.serializers.PrefabSerializer;
 import org.terasology.protobuf.EntityData;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -42,6 +43,22 @@ public GlobalStoreBuilder(EngineEntityManager entityManager, PrefabSerializer pr
     }
     
     public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<EntityRef> entities) {
+        return build(entityManager, entities, Collections.<String>emptySet());
+    }
+
+    /**
+     * Builds a store that only contains the given entities and the prefabs that are not contained in the already
+     * stored prefabs yet. The component table is always complete.
+     *
+     * @param storedPrefabs the names of the prefabs that have already been stored.
+     */
+    public EntityData.GlobalStore buildChanges(EngineEntityManager entityManager, Iterable<EntityRef> changedEntities,
+                                               Set<String> storedPrefabs) {
+        return build(entityManager, changedEntities, storedPrefabs);
+    }
+
+    private EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<EntityRef> entities,
+                                         Set<String> storedPrefabs) {
         EntityData.GlobalStore.Builder store = EntityData.GlobalStore.newBuilder();
 
         Map<Class<? extends Component>, Integer> componentIdTable = Maps.newHashMap();
@@ -57,7 +74,7 @@ public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<
         Set<Prefab> prefabsRequiredForEntityStorage = new HashSet<>();
         for (EntityRef entityRef : entityManager.getAllEntities()) {
             Prefab prefab = entityRef.getParentPrefab();
-            if (prefab != null) {
+            if (prefab != null && !storedPrefabs.contains(prefab.getName())) {
                 prefabsRequiredForEntityStorage.add(prefab);
             }
         }
@@ -75,6 +92,4 @@ public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<
         store.setNextEntityId(nextEntityId);
         return store.build();
     }
-
-
 }
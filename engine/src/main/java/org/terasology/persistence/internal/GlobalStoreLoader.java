@@ -15,7 +15,11 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.asset.Assets;
@@ -35,6 +39,8 @@
 import org.terasology.persistence.serializers.PrefabSerializer;
 import org.terasology.protobuf.EntityData;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -61,14 +67,56 @@ public GlobalStoreLoader(ModuleEnvironment environment, EngineEntityManager enti
     }
 
     public void load(EntityData.GlobalStore globalStore) {
+        load(globalStore, Collections.<EntityChangeLog.Segment>emptyList());
+    }
+
+    /**
+     * Loads the global store with the changes of the entity log segments applied on top of it.
+     *
+     * @param globalStore the compacted global store, or null if there is none.
+     */
+    public void load(EntityData.GlobalStore globalStore, List<EntityChangeLog.Segment> segments) {
+        List<EntityData.GlobalStore> stores = Lists.newArrayList();
+        if (globalStore != null) {
+            stores.add(globalStore);
+        }
+        // Determine which store contains the latest version of each entity
+        TLongIntMap latestStoreOfEntity = new TLongIntHashMap();
+        if (globalStore != null) {
+            addEntitiesOfStore(globalStore, stores.size() - 1, latestStoreOfEntity);
+        }
+        for (EntityChangeLog.Segment segment : segments) {
+            TLongIterator removedIterator = segment.getRemovedEntityIds().iterator();
+            while (removedIterator.hasNext()) {
+                latestStoreOfEntity.remove(removedIterator.next());
+            }
+            stores.add(segment.getChanges());
+            addEntitiesOfStore(segment.getChanges(), stores.size() - 1, latestStoreOfEntity);
+        }
+
         entityManager.clear();
-        entityManager.setNextId(globalStore.getNextEntityId());
+        if (stores.isEmpty()) {
+            return;
+        }
+        entityManager.setNextId(stores.get(stores.size() - 1).getNextEntityId());
+
+        for (int storeIndex = 0; storeIndex < stores.size(); ++storeIndex) {
+            EntityData.GlobalStore store = stores.get(storeIndex);
+            loadComponentMapping(store);
+            loadMissingPrefabs(store);
 
-        loadComponentMapping(globalStore);
-        loadMissingPrefabs(globalStore);
+            for (EntityData.Entity entityData : store.getEntityList()) {
+                if (latestStoreOfEntity.containsKey(entityData.getId())
+                        && latestStoreOfEntity.get(entityData.getId()) == storeIndex) {
+                    entitySerializer.deserialize(entityData);
+                }
+            }
+        }
+    }
 
-        for (EntityData.Entity entityData : globalStore.getEntityList()) {
-            entitySerializer.deserialize(entityData);
+    private static void addEntitiesOfStore(EntityData.GlobalStore store, int storeIndex, TLongIntMap latestStoreOfEntity) {
+        for (EntityData.Entity entityData : store.getEntityList()) {
+            latestStoreOfEntity.put(entityData.getId(), storeIndex);
         }
     }
 
@@ -17,6 +17,7 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
@@ -55,7 +56,9 @@
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkKey;
 import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.ConcurrentChunkMap;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import java.io.IOException;
@@ -99,14 +102,15 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
      */
     private Long nextAutoSave;
     private boolean saveRequested;
-    private ConcurrentMap<Vector3i, CompressedChunkBuilder> unloadedAndUnsavedChunkMap = Maps.newConcurrentMap();
-    private ConcurrentMap<Vector3i, CompressedChunkBuilder> unloadedAndSavingChunkMap = Maps.newConcurrentMap();
+    private ConcurrentChunkMap<CompressedChunkBuilder> unloadedAndUnsavedChunkMap = new ConcurrentChunkMap<>();
+    private ConcurrentChunkMap<CompressedChunkBuilder> unloadedAndSavingChunkMap = new ConcurrentChunkMap<>();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndUnsavedPlayerMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndSavingPlayerMap = Maps.newConcurrentMap();
 
 
     private EngineEntityManager privateEntityManager;
     private EntitySetDeltaRecorder entitySetDeltaRecorder;
+    private final EntityChangeLog entityChangeLog;
     /**
      * A component library that provides a copy() method that replaces {@link EntityRef}s which {@link EntityRef}s
      * that will use the privateEntityManager.
@@ -128,8 +132,10 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
         this.privateEntityManager = createPrivateEntityManager(entityManager.getComponentLibrary());
         Files.createDirectories(getStoragePathProvider().getStoragePathDirectory());
         this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
+        this.entityChangeLog = new EntityChangeLog(getStoragePathProvider());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
+        setChunkCodecs(ChunkCodecs.create((config != null) ? config.getSystem() : null, getChunkDictionaries(), true));
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
                 .createCopyUsingCopyStrategy(EntityRef.class, new DelayedEntityRefCopyStrategy(this));
         this.entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
@@ -204,11 +210,13 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
          * ones added in between putAll and clear. Bz iterating we can make sure that all entires removed
          * from unloadedAndUnsavedChunkMap get added to unloadedAndSavingChunkMap.
          */
-        Iterator<Map.Entry<Vector3i, CompressedChunkBuilder>> unsavedEntryIterator = unloadedAndUnsavedChunkMap.entrySet().iterator();
-        while (unsavedEntryIterator.hasNext()) {
-            Map.Entry<Vector3i, CompressedChunkBuilder> entry = unsavedEntryIterator.next();
-            unloadedAndSavingChunkMap.put(entry.getKey(), entry.getValue());
-            unsavedEntryIterator.remove();
+        TLongIterator unsavedKeyIterator = unloadedAndUnsavedChunkMap.keys().iterator();
+        while (unsavedKeyIterator.hasNext()) {
+            long key = unsavedKeyIterator.next();
+            CompressedChunkBuilder unsavedChunk = unloadedAndUnsavedChunkMap.remove(key);
+            if (unsavedChunk != null) {
+                unloadedAndSavingChunkMap.put(key, unsavedChunk);
+            }
         }
 
 
@@ -221,8 +229,13 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
             }
         }
 
-        for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : unloadedAndSavingChunkMap.entrySet()) {
-            saveTransactionBuilder.addUnloadedChunk(entry.getKey(), entry.getValue());
+        TLongIterator savingKeyIterator = unloadedAndSavingChunkMap.keys().iterator();
+        while (savingKeyIterator.hasNext()) {
+            long key = savingKeyIterator.next();
+            CompressedChunkBuilder savingChunk = unloadedAndSavingChunkMap.get(key);
+            if (savingChunk != null) {
+                saveTransactionBuilder.addUnloadedChunk(ChunkKey.toVector(key), savingChunk);
+            }
         }
     }
 
@@ -247,7 +260,8 @@ private void waitForCompletionOfPreviousSave() {
 
     private SaveTransaction createSaveTransaction() {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock);
+                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), entityChangeLog,
+                getChunkCodecs(), worldDirectoryWriteLock);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
@@ -310,7 +324,7 @@ public void deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
         unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+                entitiesOfChunk, true, getChunkCodecs()));
 
         for (EntityRef entity : entitiesOfChunk) {
             deactivateOrDestroyEntityRecursive(entity);
@@ -447,6 +461,9 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
             saveTransactionHelper.mergeChanges();
         }
+        if (isStoreChunksInZips()) {
+            new ChunkZipConverter(getStoragePathProvider()).convertChunkZips();
+        }
     }
 
 
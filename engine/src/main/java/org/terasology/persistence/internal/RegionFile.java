@@ -0,0 +1,339 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Stores the chunks of a cubic region of {@link #REGION_DIM}^3 chunks in a single file.
+ * <br><br>
+ * The file starts with a fixed size header that contains for every chunk of the region the sector at which its data
+ * starts and the number of sectors it occupies. The header gets memory mapped, so that single chunks can be
+ * replaced in place without rewriting the rest of the file.
+ * <br><br>
+ * Written chunks are never placed in sectors that are referenced by the committed header. On {@link #commit()} the
+ * chunk data gets forced to the disk before the header is updated, so an interrupted write leaves the last committed
+ * state intact.
+ *
+ */
+public class RegionFile implements Closeable {
+    public static final int REGION_DIM = 32;
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionFile.class);
+
+    static final int SECTOR_SIZE = 4096;
+    static final int CHUNKS_PER_REGION = REGION_DIM * REGION_DIM * REGION_DIM;
+
+    private static final int MAGIC = 0x54524731;
+    private static final int FORMAT_VERSION = 1;
+    private static final int PREAMBLE_SIZE = 8;
+    private static final int ENTRY_SIZE = 4;
+    private static final int HEADER_SECTORS = (PREAMBLE_SIZE + CHUNKS_PER_REGION * ENTRY_SIZE + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    private static final int LENGTH_PREFIX_SIZE = 4;
+    private static final int MAX_SECTORS_PER_CHUNK = 0xFF;
+
+    private final Path path;
+    private final FileChannel channel;
+    /**
+     * Null when the file got opened read only.
+     */
+    private final MappedByteBuffer header;
+    private final BitSet usedSectors = new BitSet();
+    private final BitSet sectorsToRelease = new BitSet();
+    private final TIntIntMap uncommittedEntries = new TIntIntHashMap();
+    private boolean closed;
+
+    private RegionFile(Path path, FileChannel channel, MappedByteBuffer header) {
+        this.path = path;
+        this.channel = channel;
+        this.header = header;
+    }
+
+    /**
+     * Opens the region file for reading. The file must exist.
+     */
+    public static RegionFile openForReading(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        RegionFile regionFile = new RegionFile(path, channel, null);
+        try {
+            regionFile.verifyPreamble();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return regionFile;
+    }
+
+    /**
+     * Opens the region file for reading and writing. The file gets created if it does not exist yet.
+     */
+    public static RegionFile openForWriting(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        try {
+            boolean created = channel.size() == 0;
+            if (created) {
+                ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_SIZE);
+                preamble.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+                writeFully(channel, preamble, 0);
+                writeFully(channel, ByteBuffer.allocate(1), (long) HEADER_SECTORS * SECTOR_SIZE - 1);
+                channel.force(false);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_SECTORS * SECTOR_SIZE);
+            RegionFile regionFile = new RegionFile(path, channel, header);
+            regionFile.verifyPreamble();
+            regionFile.markUsedSectors();
+            return regionFile;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static int getChunkIndex(Vector3i chunkPos) {
+        int x = Math.floorMod(chunkPos.x, REGION_DIM);
+        int y = Math.floorMod(chunkPos.y, REGION_DIM);
+        int z = Math.floorMod(chunkPos.z, REGION_DIM);
+        return x + REGION_DIM * (y + REGION_DIM * z);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the data last written for the given chunk, or null if the region contains no data for it.
+     */
+    public byte[] read(Vector3i chunkPos) throws IOException {
+        ensureOpen();
+        int entry = getEntry(getChunkIndex(chunkPos));
+        if (entry == 0) {
+            return null;
+        }
+        long position = (long) sectorOf(entry) * SECTOR_SIZE;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(LENGTH_PREFIX_SIZE);
+        readFully(lengthBuffer, position);
+        int length = lengthBuffer.getInt(0);
+        if (length < 0 || length > sectorCountOf(entry) * SECTOR_SIZE - LENGTH_PREFIX_SIZE) {
+            throw new IOException("Corrupt chunk entry for " + chunkPos + " in " + path);
+        }
+        ByteBuffer data = ByteBuffer.allocate(length);
+        readFully(data, position + LENGTH_PREFIX_SIZE);
+        return data.array();
+    }
+
+    public boolean contains(Vector3i chunkPos) throws IOException {
+        ensureOpen();
+        return getEntry(getChunkIndex(chunkPos)) != 0;
+    }
+
+    /**
+     * Writes the data of a chunk into free sectors of the file. The new data becomes visible to {@link #read(Vector3i)}
+     * right away, but only becomes durable with the next {@link #commit()}.
+     */
+    public void write(Vector3i chunkPos, byte[] data) throws IOException {
+        ensureOpen();
+        if (header == null) {
+            throw new IOException("Region file " + path + " was opened read only");
+        }
+        int sectorCount = (data.length + LENGTH_PREFIX_SIZE + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        if (sectorCount > MAX_SECTORS_PER_CHUNK) {
+            throw new IOException("Data of chunk " + chunkPos + " is too large for a region file: " + data.length + " bytes");
+        }
+        int index = getChunkIndex(chunkPos);
+        int sector = allocateSectors(sectorCount);
+        ByteBuffer buffer = ByteBuffer.allocate(sectorCount * SECTOR_SIZE);
+        buffer.putInt(data.length);
+        buffer.put(data);
+        buffer.rewind();
+        writeFully(channel, buffer, (long) sector * SECTOR_SIZE);
+
+        if (uncommittedEntries.containsKey(index)) {
+            // Never referenced by the header on disk, so it can be reused right away
+            int replaced = uncommittedEntries.get(index);
+            usedSectors.clear(sectorOf(replaced), sectorOf(replaced) + sectorCountOf(replaced));
+        } else {
+            int committed = header.getInt(entryPosition(index));
+            if (committed != 0) {
+                sectorsToRelease.set(sectorOf(committed), sectorOf(committed) + sectorCountOf(committed));
+            }
+        }
+        uncommittedEntries.put(index, (sector << 8) | sectorCount);
+    }
+
+    /**
+     * Makes all writes since the last commit durable: The chunk data gets forced to the disk first, then the header
+     * gets updated to reference it and is forced as well.
+     */
+    public void commit() throws IOException {
+        ensureOpen();
+        if (uncommittedEntries.isEmpty()) {
+            return;
+        }
+        channel.force(false);
+        TIntIntIterator iterator = uncommittedEntries.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            header.putInt(entryPosition(iterator.key()), iterator.value());
+        }
+        header.force();
+        uncommittedEntries.clear();
+        usedSectors.andNot(sectorsToRelease);
+        sectorsToRelease.clear();
+    }
+
+    /**
+     * Closes the file and unmaps its header. Writes that have not been committed get discarded.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } finally {
+            if (header != null) {
+                unmap(header);
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Releases the mapping right away instead of when the buffer gets garbage collected, so the file can be deleted or
+     * replaced after closing it (which fails on Windows while it is mapped). The buffer must not be used afterwards.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (NoSuchMethodException e) {
+            // Java 8 has no Unsafe.invokeCleaner, but exposes the cleaner of direct buffers
+            try {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            } catch (ReflectiveOperationException | RuntimeException e2) {
+                logger.debug("Failed to unmap region file header, it gets unmapped when garbage collected", e2);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Failed to unmap region file header, it gets unmapped when garbage collected", e);
+        }
+    }
+
+    private void verifyPreamble() throws IOException {
+        if (channel.size() < (long) HEADER_SECTORS * SECTOR_SIZE) {
+            throw new IOException("Region file " + path + " is truncated");
+        }
+        ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_SIZE);
+        readFully(preamble, 0);
+        if (preamble.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a region file");
+        }
+        if (preamble.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported region file version " + preamble.getInt(4) + " in " + path);
+        }
+    }
+
+    private void markUsedSectors() {
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int index = 0; index < CHUNKS_PER_REGION; ++index) {
+            int entry = header.getInt(entryPosition(index));
+            if (entry != 0) {
+                usedSectors.set(sectorOf(entry), sectorOf(entry) + sectorCountOf(entry));
+            }
+        }
+    }
+
+    private int allocateSectors(int count) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int end = usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= count) {
+                usedSectors.set(start, start + count);
+                return start;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+    }
+
+    private int getEntry(int index) throws IOException {
+        if (uncommittedEntries.containsKey(index)) {
+            return uncommittedEntries.get(index);
+        }
+        if (header != null) {
+            return header.getInt(entryPosition(index));
+        }
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        readFully(entry, entryPosition(index));
+        return entry.getInt(0);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of region file " + path);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static int entryPosition(int index) {
+        return PREAMBLE_SIZE + index * ENTRY_SIZE;
+    }
+
+    private static int sectorOf(int entry) {
+        return entry >>> 8;
+    }
+
+    private static int sectorCountOf(int entry) {
+        return entry & 0xFF;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A list of chunks that should be written into a {@link RegionFile}.
+ * <br><br>
+ * Save transactions write the changed chunks of a region into a journal instead of the region file itself. The journal
+ * gets applied to the region file when the changes get merged. Applying a journal a second time has the same result,
+ * so a merge that got interrupted can simply be repeated.
+ * <br><br>
+ * Closing a journal forces it to the disk, so it is complete before the save transaction that wrote it gets committed.
+ * A journal that got cut off anyway ends with its last complete record.
+ *
+ */
+public class RegionFileJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileJournal.class);
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    private final FileChannel channel;
+    private final DataOutputStream out;
+
+    public RegionFileJournal(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    public void append(Vector3i chunkPos, byte[] data) throws IOException {
+        out.writeInt(chunkPos.x);
+        out.writeInt(chunkPos.y);
+        out.writeInt(chunkPos.z);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    /**
+     * Writes the buffered records and forces the journal to the disk before closing it.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.flush();
+            channel.force(true);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes all complete chunk records of the journal into the region file and commits them. A truncated record at the
+     * end of the journal is treated as its end.
+     */
+    public static void apply(Path journalPath, Path regionPath) throws IOException {
+        long remaining = Files.size(journalPath);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalPath)));
+             RegionFile regionFile = RegionFile.openForWriting(regionPath)) {
+            Vector3i chunkPos = new Vector3i();
+            while (remaining > 0) {
+                if (remaining < RECORD_HEADER_SIZE) {
+                    logger.warn("Ignoring truncated record at the end of {}", journalPath);
+                    break;
+                }
+                chunkPos.x = in.readInt();
+                chunkPos.y = in.readInt();
+                chunkPos.z = in.readInt();
+                int length = in.readInt();
+                remaining -= RECORD_HEADER_SIZE;
+                if (length < 0 || length > remaining) {
+                    logger.warn("Ignoring truncated record for chunk {} at the end of {}", chunkPos, journalPath);
+                    break;
+                }
+                byte[] data = new byte[length];
+                in.readFully(data);
+                remaining -= length;
+                regionFile.write(chunkPos, data);
+            }
+            regionFile.commit();
+        }
+    }
+}
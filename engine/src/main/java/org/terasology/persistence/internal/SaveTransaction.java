@@ -15,21 +15,18 @@
  */
 package org.terasology.persistence.internal;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.sun.nio.zipfs.ZipFileSystemProvider;
 import gnu.trove.procedure.TLongObjectProcedure;
 import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.game.GameManifest;
-import org.terasology.logic.location.LocationComponent;
-import org.terasology.math.ChunkMath;
-import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.network.ClientComponent;
 import org.terasology.protobuf.EntityData;
@@ -41,15 +38,9 @@
 import java.io.OutputStream;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.AtomicMoveNotSupportedException;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.nio.file.spi.FileSystemProvider;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -67,7 +58,6 @@
 public class SaveTransaction extends AbstractTask {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransaction.class);
 
-    private static final ImmutableMap<String, String> CREATE_ZIP_OPTIONS = ImmutableMap.of("create", "true", "encoding", "UTF-8");
     private final GameManifest gameManifest;
     private final Lock worldDirectoryWriteLock;
     private final EngineEntityManager privateEntityManager;
@@ -82,7 +72,7 @@ public class SaveTransaction extends AbstractTask {
     private final GlobalStoreBuilder globalStoreBuilder;
 
     // processed data:
-    private EntityData.GlobalStore globalStore;
+    private EntityChangeLog.Update entityLogUpdate;
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
 
@@ -93,6 +83,8 @@ public class SaveTransaction extends AbstractTask {
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
     private final SaveTransactionHelper saveTransactionHelper;
+    private final EntityChangeLog entityChangeLog;
+    private final ChunkCodecs chunkCodecs;
 
 
     public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
@@ -100,7 +92,8 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
                            Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
                            GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock) {
+                           StoragePathProvider storagePathProvider, EntityChangeLog entityChangeLog,
+                           ChunkCodecs chunkCodecs, Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.unloadedPlayers = unloadedPlayers;
@@ -112,6 +105,8 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
         this.storeChunksInZips = storeChunksInZips;
         this.storagePathProvider = storagePathProvider;
         this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.entityChangeLog = entityChangeLog;
+        this.chunkCodecs = chunkCodecs;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -129,8 +124,9 @@ public void run() {
                 throw new IOException("Save rand while there were unmerged changes");
             }
             saveTransactionHelper.cleanupSaveTransactionDirectory();
+            TLongSet changedEntityIds = getChangedEntityIds();
             applyDeltaToPrivateEntityManager();
-            prepareChunksPlayersAndGlobalStore();
+            prepareChunksPlayersAndGlobalStore(changedEntityIds);
             createSaveTransactionDirectory();
             writePlayerStores();
             writeGlobalStore();
@@ -138,15 +134,27 @@ public void run() {
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
+            entityChangeLog.commit(entityLogUpdate);
             result = SaveTransactionResult.createSuccessResult();
             logger.info("Save game finished");
         } catch (IOException | RuntimeException t) {
             logger.error("Save game creation failed", t);
+            entityChangeLog.reset();
             result = SaveTransactionResult.createFailureResult(t);
         }
     }
 
-    private void prepareChunksPlayersAndGlobalStore() {
+    private TLongSet getChangedEntityIds() {
+        TLongSet changedEntityIds = new TLongHashSet(deltaToSave.getEntityDeltas().keySet());
+        changedEntityIds.addAll(deltaToSave.getDestroyedEntities());
+        changedEntityIds.addAll(deltaToSave.getDeactivatedEntities());
+        return changedEntityIds;
+    }
+
+    /**
+     * @param changedEntityIds the ids of the entities that changed since the last save
+     */
+    private void prepareChunksPlayersAndGlobalStore(TLongSet changedEntityIds) throws IOException {
         /**
          * Currently loaded persistent entities without owner that have not been saved yet.
          */
@@ -158,7 +166,8 @@ private void prepareChunksPlayersAndGlobalStore() {
         }
         preparePlayerStores(unsavedEntities);
         prepareCompressedChunkBuilders(unsavedEntities);
-        this.globalStore = globalStoreBuilder.build(privateEntityManager, unsavedEntities);
+        this.entityLogUpdate = entityChangeLog.prepareUpdate(privateEntityManager, globalStoreBuilder, unsavedEntities,
+                changedEntityIds);
     }
 
 
@@ -167,19 +176,14 @@ private void prepareChunksPlayersAndGlobalStore() {
      *                        This method removes entities it saves.
      */
     private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
-        Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = createChunkPosToUnsavedOwnerLessEntitiesMap();
-
         allChunks = Maps.newHashMap();
         allChunks.putAll(unloadedChunks);
         for (Map.Entry<Vector3i, ChunkImpl> chunkEntry : loadedChunks.entrySet()) {
-            Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.get(chunkEntry.getKey());
-            if (entitiesToStore == null) {
-                entitiesToStore = Collections.emptySet();
-            }
+            Collection<EntityRef> entitiesToStore = getUnsavedOwnerLessEntitiesOfChunk(chunkEntry.getKey());
             ChunkImpl chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, false, chunkCodecs);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
         }
@@ -205,33 +209,25 @@ private void preparePlayerStores(Set<EntityRef> unsavedEntities) {
         }
     }
 
-    private Map<Vector3i, Collection<EntityRef>> createChunkPosToUnsavedOwnerLessEntitiesMap() {
-        Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = Maps.newHashMap();
-        for (EntityRef entity : privateEntityManager.getEntitiesWith(LocationComponent.class)) {
+    private Collection<EntityRef> getUnsavedOwnerLessEntitiesOfChunk(Vector3i chunkPos) {
+        List<EntityRef> result = Lists.newArrayList();
+        for (EntityRef entity : privateEntityManager.getEntitiesInChunk(chunkPos)) {
             /*
              * Note: Entities with owners get saved with the owner. Entities that are always relevant don't get stored
              * in chunk as the chunk is not always loaded
              */
             if (entity.isPersistent() && !entity.getOwner().exists() && !entity.hasComponent(ClientComponent.class)
                     && !entity.isAlwaysRelevant()) {
-                LocationComponent locationComponent = entity.getComponent(LocationComponent.class);
-                if (locationComponent != null) {
-                    Vector3f loc = locationComponent.getWorldPosition();
-                    Vector3i chunkPos = ChunkMath.calcChunkPos((int) loc.x, (int) loc.y, (int) loc.z);
-                    Collection<EntityRef> collection = chunkPosToEntitiesMap.get(chunkPos);
-                    if (collection == null) {
-                        collection = Lists.newArrayList();
-                        chunkPosToEntitiesMap.put(chunkPos, collection);
-                    }
-                    collection.add(entity);
-                }
+                result.add(entity);
             }
         }
-        return chunkPosToEntitiesMap;
+        return result;
     }
 
 
     private void applyDeltaToPrivateEntityManager() {
+        // The spatial index would read the locations of the changed entities before their entity refs are bound
+        privateEntityManager.setSpatialIndexDeferred(true);
         deltaToSave.getEntityDeltas().forEachEntry(new TLongObjectProcedure<EntityDelta>() {
             @Override
             public boolean execute(long entityId, EntityDelta delta) {
@@ -299,6 +295,7 @@ public boolean execute(long entityId) {
          * unloaded ones.
          */
         deltaToSave.bindAllDelayedEntityRefsTo(privateEntityManager);
+        privateEntityManager.setSpatialIndexDeferred(false);
 
         for (EntityRef entityRef : entitiesToDestroy) {
             entityRef.destroy();
@@ -361,58 +358,31 @@ private void writePlayerStores() throws IOException {
     }
 
     private void writeGlobalStore() throws IOException {
-        Path path = storagePathProvider.getGlobalEntityStoreTempPath();
-        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
-            globalStore.writeTo(out);
-        }
+        entityChangeLog.write(entityLogUpdate);
     }
 
     private void writeChunkStores() throws IOException {
-        FileSystemProvider zipProvider = new ZipFileSystemProvider();
-
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
         if (storeChunksInZips) {
-            Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
-                FileSystem zip = newChunkZips.get(chunkZipPos);
-                if (zip == null) {
-                    Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
-                    Files.deleteIfExists(targetPath);
-                    zip = zipProvider.newFileSystem(targetPath, CREATE_ZIP_OPTIONS);
-                    newChunkZips.put(chunkZipPos, zip);
-                }
-                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    bos.write(compressedChunk);
+            Map<Vector3i, List<Vector3i>> chunksByRegion = Maps.newHashMap();
+            for (Vector3i chunkPos : allChunks.keySet()) {
+                Vector3i regionPos = storagePathProvider.getChunkRegionPosition(chunkPos);
+                List<Vector3i> chunksOfRegion = chunksByRegion.get(regionPos);
+                if (chunksOfRegion == null) {
+                    chunksOfRegion = Lists.newArrayList();
+                    chunksByRegion.put(regionPos, chunksOfRegion);
                 }
+                chunksOfRegion.add(chunkPos);
             }
-            // Copy existing, unmodified content into the zips and close them
-            for (Map.Entry<Vector3i, FileSystem> chunkZipEntry : newChunkZips.entrySet()) {
-                Vector3i chunkZipPos = chunkZipEntry.getKey();
-                Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
-                final FileSystem zip = chunkZipEntry.getValue();
-                if (Files.isRegularFile(oldChunkZipPath)) {
-                    try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
-                        for (Path root : oldZip.getRootDirectories()) {
-                            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
-                                @Override
-                                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
-                                        throws IOException {
-                                    if (!Files.isRegularFile(zip.getPath(file.toString()))) {
-                                        Files.copy(file, zip.getPath(file.toString()));
-                                    }
-                                    return FileVisitResult.CONTINUE;
-                                }
-                            });
-                        }
+            // Only the changed chunks get journaled, the region files get updated in place when merging
+            for (Map.Entry<Vector3i, List<Vector3i>> regionEntry : chunksByRegion.entrySet()) {
+                Path journalPath = storagePathProvider.getChunkRegionJournalTempPath(regionEntry.getKey());
+                try (RegionFileJournal journal = new RegionFileJournal(journalPath)) {
+                    for (Vector3i chunkPos : regionEntry.getValue()) {
+                        journal.append(chunkPos, allChunks.get(chunkPos).buildEncodedChunk());
                     }
                 }
-                zip.close();
             }
         } else {
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
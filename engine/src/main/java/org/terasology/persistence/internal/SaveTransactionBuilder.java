@@ -40,15 +40,19 @@ class SaveTransactionBuilder {
     private GlobalStoreBuilder globalStoreBuilder;
     private final boolean storeChunksInZips;
     private final StoragePathProvider storagePathProvider;
+    private final EntityChangeLog entityChangeLog;
+    private final ChunkCodecs chunkCodecs;
     private GameManifest gameManifest;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
                            boolean storeChunksInZips, StoragePathProvider storagePathProvider,
-                           Lock worldDirectoryWriteLock) {
+                           EntityChangeLog entityChangeLog, ChunkCodecs chunkCodecs, Lock worldDirectoryWriteLock) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.storeChunksInZips = storeChunksInZips;
         this.storagePathProvider = storagePathProvider;
+        this.entityChangeLog = entityChangeLog;
+        this.chunkCodecs = chunkCodecs;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -76,7 +80,7 @@ public void addLoadedChunk(final Vector3i chunkPosition, final ChunkImpl chunk)
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
                 unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock);
+                entityChangeLog, chunkCodecs, worldDirectoryWriteLock);
 
     }
 
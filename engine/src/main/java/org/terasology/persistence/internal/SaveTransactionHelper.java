@@ -61,7 +61,8 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
 
     /**
      * Merges all outstanding changes into the save game. If this operation gets interrupted it can be started again
-     * without any file corruption when the file system supports atomic moves.
+     * without any file corruption when the file system supports atomic moves. Region file journals get applied to
+     * their region files instead of being moved.
      * <br><br>
      * The write lock for the save directory should be acquired before this method gets called.
      */
@@ -84,6 +85,12 @@ public FileVisitResult preVisitDirectory(Path sourceSubDir, BasicFileAttributes
             @Override
             public FileVisitResult visitFile(Path sourcePath, BasicFileAttributes attrs) throws IOException {
                 Path targetPath = targetDirectory.resolve(sourceDirectory.relativize(sourcePath));
+                if (storagePathProvider.isChunkRegionJournal(sourcePath)) {
+                    // Region files get updated in place, applying a journal again after a crash is harmless
+                    RegionFileJournal.apply(sourcePath, storagePathProvider.getChunkRegionPathOfJournal(targetPath));
+                    Files.delete(sourcePath);
+                    return FileVisitResult.CONTINUE;
+                }
                 try {
                     // Delete file, as behavior of atomic move is undefined if target file exists:
                     Files.deleteIfExists(targetPath);
@@ -20,6 +20,8 @@
 import org.terasology.math.geom.Vector3i;
 
 import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  */
@@ -28,9 +30,19 @@ public class StoragePathProvider {
     private static final String WORLDS_PATH = "worlds";
     private static final String PLAYER_STORE_EXTENSION = ".player";
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
+    private static final String ENTITY_LOG_PATH = "entity-log";
+    private static final String CHUNK_DICTIONARIES_PATH = "chunk-dictionaries";
+    private static final String ENTITY_LOG_COMPACTION_MARKER = "compacted";
+    private static final String ENTITY_LOG_SEGMENT_EXTENSION = ".log";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
     private static final int CHUNK_ZIP_DIM = 32;
+    private static final String CHUNK_ZIP_EXTENSION = ".chunks.zip";
+    private static final String CHUNK_REGION_EXTENSION = ".region";
+    private static final String REGION_JOURNAL_EXTENSION = ".journal";
+    private static final Pattern CHUNK_ZIP_FILENAME = Pattern.compile("(-?\\d+)\\.(-?\\d+)\\.(-?\\d+)\\.chunks\\.zip");
+    private static final Pattern ENTITY_LOG_SEGMENT_FILENAME = Pattern.compile("(\\d+)\\.log");
+    private static final Pattern CHUNK_FILENAME = Pattern.compile("(-?\\d+)\\.(-?\\d+)\\.(-?\\d+)\\.chunk");
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -98,13 +110,118 @@ public Path getGlobalEntityStoreTempPath() {
         return unfinishedSaveTransactionPath.resolve(GLOBAL_ENTITY_STORE);
     }
 
+    /**
+     * Chunk dictionaries live outside of the world directory, as they must never be removed while any chunk still
+     * refers to them.
+     */
+    public Path getChunkDictionariesPath() {
+        return storagePathDirectory.resolve(CHUNK_DICTIONARIES_PATH);
+    }
+
+    public Path getEntityLogPath() {
+        return storagePathDirectory.resolve(ENTITY_LOG_PATH);
+    }
+
+    public Path getEntityLogTempPath() {
+        return unfinishedSaveTransactionPath.resolve(ENTITY_LOG_PATH);
+    }
+
+    public Path getEntityLogSegmentPath(long segment) {
+        return getEntityLogPath().resolve(segment + ENTITY_LOG_SEGMENT_EXTENSION);
+    }
+
+    public Path getEntityLogSegmentTempPath(long segment) {
+        return getEntityLogTempPath().resolve(segment + ENTITY_LOG_SEGMENT_EXTENSION);
+    }
+
+    /**
+     * @return the segment number encoded in the given file name, or null if it is not the name of a log segment.
+     */
+    public Long getEntityLogSegmentOfFilename(String filename) {
+        Matcher matcher = ENTITY_LOG_SEGMENT_FILENAME.matcher(filename);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * @return the path of the file that contains the number of the first log segment that is not part of the
+     * global entity store yet.
+     */
+    public Path getEntityLogCompactionMarkerPath() {
+        return getEntityLogPath().resolve(ENTITY_LOG_COMPACTION_MARKER);
+    }
+
+    public Path getEntityLogCompactionMarkerTempPath() {
+        return getEntityLogTempPath().resolve(ENTITY_LOG_COMPACTION_MARKER);
+    }
+
     public String getChunkFilename(Vector3i pos) {
         return String.format("%d.%d.%d.chunk", pos.x, pos.y, pos.z);
     }
 
 
     private String getChunkZipFilename(Vector3i pos) {
-        return String.format("%d.%d.%d.chunks.zip", pos.x, pos.y, pos.z);
+        return String.format("%d.%d.%d" + CHUNK_ZIP_EXTENSION, pos.x, pos.y, pos.z);
+    }
+
+    /**
+     * @return the position of the chunk whose data is stored under the given file name, or null if it is not the
+     * name of a chunk file.
+     */
+    public Vector3i getChunkPositionOfFilename(String filename) {
+        return parsePosition(CHUNK_FILENAME, filename);
+    }
+
+    /**
+     * @return the chunk zip position that is encoded in the given file name, or null if it is not the name of a
+     * chunk zip.
+     */
+    public Vector3i getChunkZipPositionOfFilename(String filename) {
+        return parsePosition(CHUNK_ZIP_FILENAME, filename);
+    }
+
+    public Path getChunkRegionPath(Vector3i regionPos) {
+        return worldPath.resolve(getChunkRegionFilename(regionPos));
+    }
+
+    /**
+     * @return the path at which a save transaction stores the journal with the changes for a region file.
+     */
+    public Path getChunkRegionJournalTempPath(Vector3i regionPos) {
+        return getWorldTempPath().resolve(getChunkRegionFilename(regionPos) + REGION_JOURNAL_EXTENSION);
+    }
+
+    public boolean isChunkRegionJournal(Path path) {
+        return path.getFileName().toString().endsWith(CHUNK_REGION_EXTENSION + REGION_JOURNAL_EXTENSION);
+    }
+
+    /**
+     * @return the path of the region file the given journal belongs to, when both are in the same directory.
+     */
+    public Path getChunkRegionPathOfJournal(Path journalPath) {
+        String journalName = journalPath.getFileName().toString();
+        return journalPath.resolveSibling(journalName.substring(0, journalName.length() - REGION_JOURNAL_EXTENSION.length()));
+    }
+
+    public Vector3i getChunkRegionPosition(Vector3i chunkPos) {
+        return new Vector3i(Math.floorDiv(chunkPos.x, RegionFile.REGION_DIM),
+                Math.floorDiv(chunkPos.y, RegionFile.REGION_DIM),
+                Math.floorDiv(chunkPos.z, RegionFile.REGION_DIM));
+    }
+
+    private String getChunkRegionFilename(Vector3i regionPos) {
+        return String.format("%d.%d.%d" + CHUNK_REGION_EXTENSION, regionPos.x, regionPos.y, regionPos.z);
+    }
+
+    private static Vector3i parsePosition(Pattern pattern, String filename) {
+        Matcher matcher = pattern.matcher(filename);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new Vector3i(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)));
     }
 
     public Vector3i getChunkZipPosition(Vector3i chunkPos) {
@@ -23,6 +23,7 @@
 import com.google.common.collect.Sets;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
@@ -34,6 +35,7 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
 import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.network.serialization.FieldQuantization;
 import org.terasology.persistence.typeHandling.PersistedData;
 import org.terasology.persistence.typeHandling.Serializer;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
@@ -303,4 +305,87 @@ public EntityData.PackedEntity serialize(EntityRef entityRef, Set<Class<? extend
             return entity.build();
         }
     }
+
+    /**
+     * Serializes the changes to an entity like {@link #serialize(EntityRef, Set, Set, Set, FieldSerializeCheck)}, but
+     * leaves out the fields of changed components whose (quantized) value is the same as the one last sent, according
+     * to the given state. The state is updated with the values that are sent.
+     */
+    public EntityData.PackedEntity serialize(EntityRef entityRef, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                                             Set<Class<? extends Component>> removed, FieldSerializeCheck<Component> fieldCheck,
+                                             ReplicatedEntityState sentState) {
+        EntityData.PackedEntity.Builder entity = EntityData.PackedEntity.newBuilder();
+
+        ByteString.Output fieldIds = ByteString.newOutput();
+        ByteString.Output componentFieldCounts = ByteString.newOutput();
+        for (Class<? extends Component> componentType : added) {
+            Component component = entityRef.getComponent(componentType);
+            if (component != null) {
+                sentState.removeComponent(componentType);
+                serializeComponentChanges(component, false, fieldCheck, sentState, entity, fieldIds, componentFieldCounts, true);
+            } else {
+                logger.error("Non-existent component marked as added: {}", componentType);
+            }
+        }
+        for (Class<? extends Component> componentType : changed) {
+            Component comp = entityRef.getComponent(componentType);
+            if (comp != null) {
+                serializeComponentChanges(comp, true, fieldCheck, sentState, entity, fieldIds, componentFieldCounts, false);
+            } else {
+                logger.error("Non-existent component marked as changed: {}", componentType);
+            }
+        }
+        for (Class<? extends Component> componentType : removed) {
+            sentState.removeComponent(componentType);
+            entity.addRemovedComponent(idTable.get(componentType));
+        }
+        entity.setFieldIds(fieldIds.toByteString());
+        entity.setComponentFieldCounts(componentFieldCounts.toByteString());
+        if (entity.getFieldIds().isEmpty() && entity.getRemovedComponentCount() == 0) {
+            return null;
+        } else {
+            return entity.build();
+        }
+    }
+
+    private void serializeComponentChanges(Component component, boolean ignoreIfNoFields, FieldSerializeCheck<Component> fieldCheck,
+                                           ReplicatedEntityState sentState, EntityData.PackedEntity.Builder entityData,
+                                           ByteString.Output entityFieldIds, ByteString.Output componentFieldCounts, boolean componentInitial) {
+        ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(component.getClass());
+        if (componentMetadata == null) {
+            logger.error("Unregistered component type: {}", component.getClass());
+            return;
+        }
+
+        ReplicatedEntityState.SentComponent sentComponent = sentState.getComponent(componentMetadata.getType(), componentMetadata.getFieldCount());
+        Serializer serializer = typeSerializationLibrary.getSerializerFor(componentMetadata);
+        byte fieldCount = 0;
+        int fieldIndex = 0;
+        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
+            if (fieldCheck.shouldSerializeField(field, component, componentInitial)) {
+                Object rawValue = field.getValue(component);
+                Object value = FieldQuantization.quantize(rawValue, field.getQuantization());
+                if (!componentInitial && sentComponent.isSent(fieldIndex) && Objects.equal(sentComponent.getValue(fieldIndex), value)) {
+                    sentState.addSavedBytes(sentComponent.getSize(fieldIndex));
+                } else {
+                    PersistedData data = (value == rawValue) ? serializer.serialize(field, component, serializationContext)
+                            : serializer.serializeValue(field, value, serializationContext);
+                    EntityData.Value fieldValue = ((ProtobufPersistedData) data).getValue();
+                    entityFieldIds.write(field.getId());
+                    entityData.addFieldValue(fieldValue);
+                    fieldCount++;
+                    // The field id, the field value's tag and the field value itself
+                    int size = 2 + CodedOutputStream.computeMessageSizeNoTag(fieldValue);
+                    Object sentValue = (value == rawValue) ? field.getCopyOfValue(component) : value;
+                    sentComponent.setSent(fieldIndex, sentValue, size);
+                }
+            }
+            fieldIndex++;
+        }
+
+        if (fieldCount != 0 || !ignoreIfNoFields) {
+            entityData.addComponentId(idTable.get(component.getClass()));
+            componentFieldCounts.write(fieldCount);
+        }
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.serializers;
+
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The component field values last sent to one client for one entity, so that later updates only need to contain the
+ * fields that changed since.
+ * <br><br>
+ * Updates are sent over a reliable, ordered connection, so values are treated as received once they have been sent.
+ *
+ */
+public class ReplicatedEntityState {
+    private final Map<Class<? extends Component>, SentComponent> components = Maps.newHashMap();
+    private int savedBytes;
+
+    /**
+     * @return The estimated number of bytes that were not sent because fields were unchanged, since the last call
+     */
+    public int pollSavedBytes() {
+        int result = savedBytes;
+        savedBytes = 0;
+        return result;
+    }
+
+    void addSavedBytes(int bytes) {
+        savedBytes += bytes;
+    }
+
+    /**
+     * @return The sent state of the given component type, which is created empty if it has not been sent yet
+     */
+    SentComponent getComponent(Class<? extends Component> type, int fieldCount) {
+        SentComponent result = components.get(type);
+        if (result == null) {
+            result = new SentComponent(fieldCount);
+            components.put(type, result);
+        }
+        return result;
+    }
+
+    void removeComponent(Class<? extends Component> type) {
+        components.remove(type);
+    }
+
+    static final class SentComponent {
+        private static final int NOT_SENT = -1;
+
+        private final Object[] values;
+        private final int[] sizes;
+
+        private SentComponent(int fieldCount) {
+            values = new Object[fieldCount];
+            sizes = new int[fieldCount];
+            Arrays.fill(sizes, NOT_SENT);
+        }
+
+        boolean isSent(int fieldIndex) {
+            return sizes[fieldIndex] != NOT_SENT;
+        }
+
+        Object getValue(int fieldIndex) {
+            return values[fieldIndex];
+        }
+
+        int getSize(int fieldIndex) {
+            return sizes[fieldIndex];
+        }
+
+        void setSent(int fieldIndex, Object value, int size) {
+            values[fieldIndex] = value;
+            sizes[fieldIndex] = size;
+        }
+    }
+}
@@ -175,6 +175,8 @@ private void renderAlphaBlend(Iterable<EntityRef> entityRefs) {
         FloatBuffer tempMatrixBuffer44 = BufferUtils.createFloatBuffer(16);
         FloatBuffer tempMatrixBuffer33 = BufferUtils.createFloatBuffer(12);
 
+        Quat4f worldRot = new Quat4f();
+        Vector3f worldPos = new Vector3f();
         for (EntityRef entity : entityRefs) {
             MeshComponent meshComp = entity.getComponent(MeshComponent.class);
             if (meshComp.material.isRenderable()) {
@@ -187,8 +189,8 @@ private void renderAlphaBlend(Iterable<EntityRef> entityRefs) {
                     continue;
                 }
 
-                Quat4f worldRot = location.getWorldRotation();
-                Vector3f worldPos = location.getWorldPosition();
+                location.getWorldRotation(worldRot);
+                location.getWorldPosition(worldPos);
                 float worldScale = location.getWorldScale();
                 AABB aabb = meshComp.mesh.getAABB().transform(worldRot, worldPos, worldScale);
                 if (worldRenderer.getActiveCamera().hasInSight(aabb)) {
@@ -257,7 +259,7 @@ private void renderOpaque(SetMultimap<Material, EntityRef> meshByMaterial) {
                     LocationComponent location = entity.getComponent(LocationComponent.class);
 
                     if (isHidden(entity, meshComp) || location == null || meshComp.mesh == null
-                            || !worldProvider.isBlockRelevant(location.getWorldPosition())) {
+                            || !worldProvider.isBlockRelevant(location.getWorldPosition(worldPos))) {
                         continue;
                     }
                     if (meshComp.mesh.isDisposed()) {
@@ -266,7 +268,6 @@ private void renderOpaque(SetMultimap<Material, EntityRef> meshByMaterial) {
                     }
 
                     location.getWorldRotation(worldRot);
-                    location.getWorldPosition(worldPos);
                     float worldScale = location.getWorldScale();
 
                     javax.vecmath.Matrix4f matrixWorldSpace = new javax.vecmath.Matrix4f(VecMath.to(worldRot), VecMath.to(worldPos), worldScale);
@@ -215,6 +215,7 @@ public void renderOpaque() {
         Quat4f worldRot = new Quat4f();
         Vector3f worldPos = new Vector3f();
         Quat4f inverseWorldRot = new Quat4f();
+        Quat4f boneWorldRot = new Quat4f();
 
         FloatBuffer tempMatrixBuffer44 = BufferUtils.createFloatBuffer(16);
         FloatBuffer tempMatrixBuffer33 = BufferUtils.createFloatBuffer(12);
@@ -271,7 +272,7 @@ public void renderOpaque() {
                     inverseWorldRot.rotate(pos, pos);
                     bonePositions.add(pos);
                     Quat4f rot = new Quat4f(inverseWorldRot);
-                    rot.mul(boneLocation.getWorldRotation());
+                    rot.mul(boneLocation.getWorldRotation(boneWorldRot));
                     boneRotations.add(rot);
                 } else {
                     logger.warn("Unable to resolve bone \"{}\"", bone.getName());
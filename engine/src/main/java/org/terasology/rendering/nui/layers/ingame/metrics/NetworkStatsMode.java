@@ -51,6 +51,7 @@ public String getMetrics() {
             builder.append(String.format("In Bytes: %d%n", networkSystem.getIncomingBytesDelta()));
             builder.append(String.format("Out Msg: %d%n", networkSystem.getOutgoingMessagesDelta()));
             builder.append(String.format("Out Bytes: %d%n", networkSystem.getOutgoingBytesDelta()));
+            builder.append(String.format("Out Bytes Saved: %d%n", networkSystem.getOutgoingBytesSavedDelta()));
             if (lastTime != 0) {
                 // ignore the first update as it will not have useful data
                 lastMetric = builder.toString();
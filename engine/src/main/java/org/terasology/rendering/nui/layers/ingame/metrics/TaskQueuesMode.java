@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.nui.layers.ingame.metrics;
+
+import org.terasology.entitySystem.event.internal.EventSystem;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.TaskQueueStatistics;
+import org.terasology.registry.CoreRegistry;
+
+import java.text.NumberFormat;
+
+/**
+ */
+final class TaskQueuesMode extends MetricsMode {
+
+    private NumberFormat format;
+
+    public TaskQueuesMode() {
+        super("Task Queues");
+        format = NumberFormat.getInstance();
+        format.setMaximumFractionDigits(2);
+    }
+
+    @Override
+    public String getMetrics() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(getName());
+        builder.append("\n");
+        for (TaskQueueStatistics statistics : PerformanceMonitor.getTaskQueueStatistics()) {
+            builder.append(statistics.getName());
+            builder.append(" (weight ").append(statistics.getWeight()).append("): ");
+            builder.append(statistics.getQueueDepth()).append(" queued, ");
+            builder.append(statistics.getRunningTasks()).append(" running, wait ");
+            builder.append(format.format(statistics.getMeanWaitTime())).append("ms, run ");
+            builder.append(format.format(statistics.getMeanRunTime())).append("ms");
+            builder.append("\n");
+        }
+        EventSystem eventSystem = CoreRegistry.get(EventSystem.class);
+        if (eventSystem != null) {
+            builder.append("Pending events: ").append(eventSystem.getPendingEventCount()).append("\n");
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isPerformanceManagerMode() {
+        return true;
+    }
+}
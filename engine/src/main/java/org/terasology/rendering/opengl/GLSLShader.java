@@ -39,9 +39,11 @@
 import org.terasology.rendering.assets.shader.ShaderData;
 import org.terasology.rendering.assets.shader.ShaderParameterMetadata;
 import org.terasology.rendering.assets.shader.ShaderProgramFeature;
+import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkVertexFlag;
 import org.terasology.rendering.shader.ShaderParametersSSAO;
 import org.terasology.rendering.world.WorldRenderer;
+import org.terasology.world.block.shapes.BlockMeshPart;
 import org.terasology.world.block.tiles.WorldAtlas;
 
 import java.io.BufferedWriter;
@@ -143,6 +145,8 @@ private StringBuilder createShaderBuilder() {
         } else {
             preProcessorPreamble += "#define TEXTURE_OFFSET 0.06125\n";
         }
+        preProcessorPreamble += "#define TEXTURE_BORDER " + BlockMeshPart.BORDER + "\n";
+        preProcessorPreamble += "#define CHUNK_POSITION_SCALE " + (float) ChunkMesh.POSITION_SCALE + "\n";
         RenderingConfig renderConfig = config.getRendering();
 
         preProcessorPreamble += "#define BLOCK_LIGHT_POW " + WorldRenderer.BLOCK_LIGHT_POW + "\n";
@@ -221,6 +225,7 @@ private StringBuilder createShaderBuilder() {
         for (ChunkVertexFlag vertexFlag : ChunkVertexFlag.values()) {
             builder.append("#define ").append(vertexFlag.getDefineName()).append(" int(").append(vertexFlag.getValue()).append(") \n");
         }
+        builder.append("#define BLOCK_HINT_TILE_STRIDE ").append((float) ChunkVertexFlag.TILE_STRIDE).append(" \n");
 
         return builder;
     }
@@ -44,6 +44,14 @@ public BlockMeshGeneratorSingleShape(Block block) {
 
     @Override
     public void generateChunkMesh(ChunkView view, ChunkMesh chunkMesh, int x, int y, int z) {
+        generateChunkMesh(view, chunkMesh, x, y, z, null);
+    }
+
+    /**
+     * Generates the block mesh, but hands the side faces to the given greedy mesher first, which may merge them with
+     * the faces of neighbouring blocks.
+     */
+    void generateChunkMesh(ChunkView view, ChunkMesh chunkMesh, int x, int y, int z, GreedyMesher greedyMesher) {
         Biome selfBiome = view.getBiome(x, y, z);
         Block selfBlock = view.getBlock(x, y, z);
 
@@ -135,7 +143,8 @@ public void generateChunkMesh(ChunkView view, ChunkMesh chunkMesh, int x, int y,
                 Vector4f colorOffset = selfBlock.calcColorOffsetFor(BlockPart.fromSide(dir), selfBiome);
                 // TODO: Needs review since the new per-vertex flags introduce a lot of special scenarios - probably a per-side setting?
                 if (selfBlock.isGrass() && dir != Side.TOP && dir != Side.BOTTOM) {
-                    blockAppearance.getPart(BlockPart.fromSide(dir)).appendTo(chunkMesh, x, y, z, colorOffset, renderType, ChunkVertexFlag.COLOR_MASK);
+                    appendFace(chunkMesh, greedyMesher, selfBlock, dir, blockAppearance.getPart(BlockPart.fromSide(dir)), x, y, z, colorOffset, renderType,
+                            ChunkVertexFlag.COLOR_MASK);
                 } else {
                     //if(dir == Side.TOP) logger.info("Generating: " + (new Vector3i(x, y, z)).toString() + " " + view.getChunkRegion().toString() + " " + dir.toString());
 
@@ -146,13 +155,21 @@ public void generateChunkMesh(ChunkView view, ChunkMesh chunkMesh, int x, int y,
                         // But with that handling you don't get water blocks occluding tops underwater... and there's no TOP to retrieve below -> NPE
                         logger.debug("Cannot render side '{}' for a block - no stored block appearance for it. renderType {}, vertexFlag {}", dir, renderType, vertexFlag);
                     } else {
-                        blockAppearance.getPart(BlockPart.fromSide(dir)).appendTo(chunkMesh, x, y, z, colorOffset, renderType, vertexFlag);
+                        appendFace(chunkMesh, greedyMesher, selfBlock, dir, blockAppearance.getPart(BlockPart.fromSide(dir)), x, y, z, colorOffset, renderType,
+                                vertexFlag);
                     }
                 }
             }
         }
     }
 
+    private void appendFace(ChunkMesh chunkMesh, GreedyMesher greedyMesher, Block selfBlock, Side side, BlockMeshPart part, int x, int y, int z,
+                            Vector4f colorOffset, ChunkMesh.RenderType renderType, ChunkVertexFlag vertexFlag) {
+        if (greedyMesher == null || !greedyMesher.addFace(selfBlock, side, part, x, y, z, colorOffset, renderType, vertexFlag)) {
+            part.appendTo(chunkMesh, x, y, z, colorOffset, renderType, vertexFlag);
+        }
+    }
+
     /**
      * Returns true if the side should be rendered adjacent to the second side provided.
      *
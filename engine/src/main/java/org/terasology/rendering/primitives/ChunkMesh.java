@@ -22,10 +22,12 @@
 import gnu.trove.list.array.TIntArrayList;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL14;
 import org.lwjgl.opengl.GL15;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
 import org.terasology.rendering.VertexBufferObjectUtil;
 
+import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
@@ -80,16 +82,30 @@ public enum RenderPhase {
     /* CONST */
     public static final int SIZE_VERTEX = 3;
     public static final int SIZE_TEX0 = 3;
-    public static final int SIZE_TEX1 = 3;
-    public static final int SIZE_COLOR = 1;
+    public static final int SIZE_LIGHT = 3;
+    public static final int SIZE_COLOR = 4;
     public static final int SIZE_NORMAL = 3;
 
+    /**
+     * Vertex positions are stored as shorts in fixed point, with this many steps per block.
+     */
+    public static final int POSITION_SCALE = 256;
+
+    /*
+     * Each vertex is packed into 32 bytes: the chunk relative position as three shorts, the texture coordinates and
+     * vertex flag as three floats, and the light values, colour and normal as bytes. Positions, light values and
+     * normals are padded to keep the attributes 4 byte aligned.
+     */
     private static final int OFFSET_VERTEX = 0;
-    private static final int OFFSET_TEX_0 = OFFSET_VERTEX + SIZE_VERTEX * 4;
-    private static final int OFFSET_TEX_1 = OFFSET_TEX_0 + SIZE_TEX0 * 4;
-    private static final int OFFSET_COLOR = OFFSET_TEX_1 + SIZE_TEX1 * 4;
-    private static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR * 4;
-    private static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL * 4;
+    private static final int OFFSET_TEX_0 = OFFSET_VERTEX + (SIZE_VERTEX + 1) * 2;
+    private static final int OFFSET_LIGHT = OFFSET_TEX_0 + SIZE_TEX0 * 4;
+    private static final int OFFSET_COLOR = OFFSET_LIGHT + SIZE_LIGHT + 1;
+    private static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR;
+
+    /**
+     * The size of a single vertex in bytes.
+     */
+    public static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL + 1;
 
     /* VERTEX DATA */
     private final int[] vertexBuffers = new int[4];
@@ -184,25 +200,21 @@ private void renderVbo(int id) {
                     return;
                 }
 
+                GL13.glClientActiveTexture(GL13.GL_TEXTURE0);
                 glEnableClientState(GL_VERTEX_ARRAY);
                 glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+                glEnableClientState(GL14.GL_SECONDARY_COLOR_ARRAY);
                 glEnableClientState(GL_COLOR_ARRAY);
                 glEnableClientState(GL_NORMAL_ARRAY);
 
                 GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, idxBuffers[id]);
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vertexBuffers[id]);
 
-                glVertexPointer(SIZE_VERTEX, GL11.GL_FLOAT, STRIDE, OFFSET_VERTEX);
-
-                GL13.glClientActiveTexture(GL13.GL_TEXTURE0);
+                glVertexPointer(SIZE_VERTEX, GL11.GL_SHORT, STRIDE, OFFSET_VERTEX);
                 glTexCoordPointer(SIZE_TEX0, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_0);
-
-                GL13.glClientActiveTexture(GL13.GL_TEXTURE1);
-                glTexCoordPointer(SIZE_TEX1, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_1);
-
-                glColorPointer(SIZE_COLOR * 4, GL11.GL_UNSIGNED_BYTE, STRIDE, OFFSET_COLOR);
-
-                glNormalPointer(GL11.GL_FLOAT, STRIDE, OFFSET_NORMAL);
+                GL14.glSecondaryColorPointer(SIZE_LIGHT, GL11.GL_UNSIGNED_BYTE, STRIDE, OFFSET_LIGHT);
+                glColorPointer(SIZE_COLOR, GL11.GL_UNSIGNED_BYTE, STRIDE, OFFSET_COLOR);
+                glNormalPointer(GL11.GL_BYTE, STRIDE, OFFSET_NORMAL);
 
                 GL11.glDrawElements(GL11.GL_TRIANGLES, vertexCount[id], GL11.GL_UNSIGNED_INT, 0);
 
@@ -212,6 +224,7 @@ private void renderVbo(int id) {
 
                 glDisableClientState(GL_NORMAL_ARRAY);
                 glDisableClientState(GL_COLOR_ARRAY);
+                glDisableClientState(GL14.GL_SECONDARY_COLOR_ARRAY);
                 glDisableClientState(GL_TEXTURE_COORD_ARRAY);
                 glDisableClientState(GL_VERTEX_ARRAY);
 
@@ -317,7 +330,7 @@ public static class VertexElements {
         public final TIntList flags;
         public int vertexCount;
 
-        public IntBuffer finalVertices;
+        public ByteBuffer finalVertices;
         public IntBuffer finalIndices;
 
         public VertexElements() {
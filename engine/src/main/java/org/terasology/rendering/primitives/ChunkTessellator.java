@@ -39,9 +39,19 @@ public final class ChunkTessellator {
     private static int statVertexArrayUpdateCount;
 
     private GLBufferPool bufferPool;
+    private boolean greedyMeshing;
 
     public ChunkTessellator(GLBufferPool bufferPool) {
+        this(bufferPool, false);
+    }
+
+    /**
+     * @param bufferPool    The pool to take the vertex buffers of the generated meshes from
+     * @param greedyMeshing Whether the faces of full cubes are merged into larger quads where they look the same
+     */
+    public ChunkTessellator(GLBufferPool bufferPool, boolean greedyMeshing) {
         this.bufferPool = bufferPool;
+        this.greedyMeshing = greedyMeshing;
     }
 
     public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
@@ -50,16 +60,25 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
 
         final Stopwatch watch = Stopwatch.createStarted();
 
+        GreedyMesher greedyMesher = greedyMeshing ? new GreedyMesher(chunkView, meshHeight, verticalOffset) : null;
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
                     Block block = chunkView.getBlock(x, y, z);
                     if (block != null && block.getMeshGenerator() != null) {
-                        block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
+                        BlockMeshGenerator generator = block.getMeshGenerator();
+                        if (greedyMesher != null && generator instanceof BlockMeshGeneratorSingleShape) {
+                            ((BlockMeshGeneratorSingleShape) generator).generateChunkMesh(chunkView, mesh, x, y, z, greedyMesher);
+                        } else {
+                            generator.generateChunkMesh(chunkView, mesh, x, y, z);
+                        }
                     }
                 }
             }
         }
+        if (greedyMesher != null) {
+            greedyMesher.appendTo(mesh);
+        }
         watch.stop();
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
@@ -79,15 +98,7 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
 
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
             ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
-            // Vertices double to account for light info
-            elements.finalVertices = BufferUtils.createIntBuffer(
-                    elements.vertices.size() + /* POSITION */
-                            elements.tex.size() + /* TEX0 (UV0 and flags) */
-                            elements.tex.size() + /* TEX1 (lighting data) */
-                            elements.flags.size() + /* FLAGS */
-                            elements.color.size() + /* COLOR */
-                            elements.normals.size()  /* NORMALS */
-            );
+            elements.finalVertices = BufferUtils.createByteBuffer(elements.vertices.size() / 3 * ChunkMesh.STRIDE);
 
             int cTex = 0;
             int cColor = 0;
@@ -99,25 +110,27 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
                         elements.vertices.get(i + 2));
 
                 /* POSITION */
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.x));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.y));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.z));
+                elements.finalVertices.putShort(packPosition(vertexPos.x));
+                elements.finalVertices.putShort(packPosition(vertexPos.y));
+                elements.finalVertices.putShort(packPosition(vertexPos.z));
+                elements.finalVertices.putShort((short) 0);
 
                 /* UV0 - TEX DATA 0 */
-                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(cTex)));
-                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(cTex + 1)));
+                elements.finalVertices.putFloat(elements.tex.get(cTex));
+                elements.finalVertices.putFloat(elements.tex.get(cTex + 1));
 
                 /* FLAGS */
-                elements.finalVertices.put(Float.floatToIntBits(elements.flags.get(cFlags)));
+                elements.finalVertices.putFloat(elements.flags.get(cFlags));
 
                 float[] result = new float[3];
                 Vector3f normal = new Vector3f(elements.normals.get(i), elements.normals.get(i + 1), elements.normals.get(i + 2));
                 calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
 
-                /* LIGHTING DATA / TEX DATA 1 */
-                elements.finalVertices.put(Float.floatToIntBits(result[0]));
-                elements.finalVertices.put(Float.floatToIntBits(result[1]));
-                elements.finalVertices.put(Float.floatToIntBits(result[2]));
+                /* LIGHTING DATA */
+                elements.finalVertices.put(packUnsigned(result[0]));
+                elements.finalVertices.put(packUnsigned(result[1]));
+                elements.finalVertices.put(packUnsigned(result[2]));
+                elements.finalVertices.put((byte) 0);
 
                 /* PACKED COLOR */
                 final int packedColor = RenderMath.packColor(
@@ -125,12 +138,16 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
                         elements.color.get(cColor + 1),
                         elements.color.get(cColor + 2),
                         elements.color.get(cColor + 3));
-                elements.finalVertices.put(packedColor);
+                elements.finalVertices.put((byte) packedColor);
+                elements.finalVertices.put((byte) (packedColor >> 8));
+                elements.finalVertices.put((byte) (packedColor >> 16));
+                elements.finalVertices.put((byte) (packedColor >> 24));
 
                 /* NORMALS */
-                elements.finalVertices.put(Float.floatToIntBits(normal.x));
-                elements.finalVertices.put(Float.floatToIntBits(normal.y));
-                elements.finalVertices.put(Float.floatToIntBits(normal.z));
+                elements.finalVertices.put(packSigned(normal.x));
+                elements.finalVertices.put(packSigned(normal.y));
+                elements.finalVertices.put(packSigned(normal.z));
+                elements.finalVertices.put((byte) 0);
             }
 
             elements.finalIndices = BufferUtils.createIntBuffer(elements.indices.size());
@@ -145,7 +162,19 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.endActivity();
     }
 
-    private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
+    private static short packPosition(float value) {
+        return (short) Math.round(value * ChunkMesh.POSITION_SCALE);
+    }
+
+    private static byte packUnsigned(float value) {
+        return (byte) Math.round(TeraMath.clamp(value, 0.0f, 1.0f) * 255.0f);
+    }
+
+    private static byte packSigned(float value) {
+        return (byte) Math.round(TeraMath.clamp(value, -1.0f, 1.0f) * 127.0f);
+    }
+
+    static void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
         PerformanceMonitor.startActivity("calcLighting");
         float[] lights = new float[8];
         float[] blockLights = new float[8];
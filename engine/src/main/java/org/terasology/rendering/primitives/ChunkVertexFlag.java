@@ -26,6 +26,12 @@ public enum ChunkVertexFlag {
     WAVING(5, "BLOCK_HINT_WAVING"),
     WAVING_BLOCK(6, "BLOCK_HINT_WAVING_BLOCK");
 
+    /**
+     * Faces that span several blocks add (index of their atlas tile + 1) times this stride to their flag value, so the
+     * chunk shader can repeat the tile across the face. Must exceed the value of every flag.
+     */
+    public static final int TILE_STRIDE = 8;
+
     private int value;
     private String defineName;
 
@@ -38,6 +44,14 @@ public int getValue() {
         return value;
     }
 
+    /**
+     * @param tileIndex the index of the atlas tile repeated over the face
+     * @return the flag value of a face spanning several blocks
+     */
+    public int getValueForRepeatedTile(int tileIndex) {
+        return value + TILE_STRIDE * (tileIndex + 1);
+    }
+
     public String getDefineName() {
         return defineName;
     }
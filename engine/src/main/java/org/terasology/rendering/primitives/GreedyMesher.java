@@ -0,0 +1,424 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.math.geom.Vector4f;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Merges coplanar faces of full cubes into larger quads while a chunk mesh is generated.
+ * <br><br>
+ * Faces are only merged with faces of the same block part, color and vertex flag, and only if all their corners are
+ * lit the same. The merged quads repeat the atlas tile of their faces, and since the lighting of the chunk mesh is
+ * calculated per vertex, they are lit exactly like the faces they replace.
+ *
+ */
+final class GreedyMesher {
+    private static final float EPSILON = 0.001f;
+    private static final int NO_FACE = 0;
+    private static final Side[] SIDES = Side.values();
+
+    private final ChunkView chunkView;
+    private final int verticalOffset;
+    private final int[] size;
+
+    /**
+     * For each side, the id + 1 of the face of each block in the mesh, or NO_FACE
+     */
+    private final int[][] faceGrids = new int[SIDES.length][];
+    private final Map<Face, Integer> faceIds = Maps.newHashMap();
+    private final List<Face> faces = Lists.newArrayList();
+    private final Map<BlockMeshPart, FaceLayout> layouts = Maps.newIdentityHashMap();
+
+    private final Vector3f vertexPos = new Vector3f();
+    private final float[] cornerLight = new float[3];
+
+    GreedyMesher(ChunkView chunkView, int meshHeight, int verticalOffset) {
+        this.chunkView = chunkView;
+        this.verticalOffset = verticalOffset;
+        this.size = new int[]{ChunkConstants.SIZE_X, meshHeight, ChunkConstants.SIZE_Z};
+    }
+
+    /**
+     * Offers a face of a block to be merged with the faces of its neighbours.
+     *
+     * @return whether the face was taken. Faces that weren't taken have to be added to the mesh directly.
+     */
+    boolean addFace(Block block, Side side, BlockMeshPart part, int x, int y, int z, Vector4f colorOffset, ChunkMesh.RenderType renderType,
+                    ChunkVertexFlag vertexFlag) {
+        if (renderType != ChunkMesh.RenderType.OPAQUE || (vertexFlag != ChunkVertexFlag.NORMAL && vertexFlag != ChunkVertexFlag.COLOR_MASK)
+                || !isFullCube(block) || y < verticalOffset || y >= verticalOffset + size[1]) {
+            return false;
+        }
+        FaceLayout layout = getLayout(part, side);
+        if (layout == null) {
+            return false;
+        }
+        float[] light = calcUniformLight(part, x, y, z);
+        if (light == null) {
+            return false;
+        }
+
+        Face face = new Face(part, layout, new Vector4f(colorOffset), vertexFlag, light);
+        Integer id = faceIds.get(face);
+        if (id == null) {
+            id = faces.size();
+            faces.add(face);
+            faceIds.put(face, id);
+        }
+        int[] grid = faceGrids[side.ordinal()];
+        if (grid == null) {
+            grid = new int[size[0] * size[1] * size[2]];
+            faceGrids[side.ordinal()] = grid;
+        }
+        grid[index(x, y - verticalOffset, z)] = id + 1;
+        return true;
+    }
+
+    /**
+     * Merges the taken faces and adds the resulting quads to the mesh.
+     */
+    void appendTo(ChunkMesh mesh) {
+        int[] pos = new int[3];
+        for (Side side : SIDES) {
+            int[] grid = faceGrids[side.ordinal()];
+            if (grid == null) {
+                continue;
+            }
+            int normalAxis = axisOf(side);
+            int uAxis = (normalAxis + 1) % 3;
+            int vAxis = (normalAxis + 2) % 3;
+            for (int n = 0; n < size[normalAxis]; ++n) {
+                pos[normalAxis] = n;
+                for (int v = 0; v < size[vAxis]; ++v) {
+                    for (int u = 0; u < size[uAxis]; ++u) {
+                        pos[uAxis] = u;
+                        pos[vAxis] = v;
+                        int faceId = grid[index(pos[0], pos[1], pos[2])];
+                        if (faceId == NO_FACE) {
+                            continue;
+                        }
+
+                        int width = 1;
+                        pos[uAxis] = u + width;
+                        while (u + width < size[uAxis] && grid[index(pos[0], pos[1], pos[2])] == faceId) {
+                            width++;
+                            pos[uAxis] = u + width;
+                        }
+
+                        int height = 1;
+                        rows:
+                        while (v + height < size[vAxis]) {
+                            pos[vAxis] = v + height;
+                            for (int i = 0; i < width; ++i) {
+                                pos[uAxis] = u + i;
+                                if (grid[index(pos[0], pos[1], pos[2])] != faceId) {
+                                    break rows;
+                                }
+                            }
+                            height++;
+                        }
+
+                        for (int j = 0; j < height; ++j) {
+                            pos[vAxis] = v + j;
+                            for (int i = 0; i < width; ++i) {
+                                pos[uAxis] = u + i;
+                                grid[index(pos[0], pos[1], pos[2])] = NO_FACE;
+                            }
+                        }
+
+                        pos[uAxis] = u;
+                        pos[vAxis] = v;
+                        pos[1] += verticalOffset;
+                        appendQuad(mesh, faces.get(faceId - 1), pos, width, height);
+                        pos[1] -= verticalOffset;
+                    }
+                }
+            }
+        }
+    }
+
+    private void appendQuad(ChunkMesh mesh, Face face, int[] min, int width, int height) {
+        FaceLayout layout = face.layout;
+        BlockMeshPart part = face.part;
+        int[] extent = new int[3];
+        extent[layout.normalAxis] = 1;
+        extent[layout.uAxis] = width;
+        extent[layout.vAxis] = height;
+
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        int flag = face.vertexFlag.getValueForRepeatedTile(layout.tileIndex);
+        int nextIndex = elements.vertexCount;
+        for (int i = 0; i < part.size(); ++i) {
+            Vector3f vertex = part.getVertex(i);
+            for (int axis = 0; axis < 3; ++axis) {
+                int blockPos = layout.high[i][axis] ? min[axis] + extent[axis] - 1 : min[axis];
+                elements.vertices.add(component(vertex, axis) + blockPos);
+            }
+            elements.tex.add(layout.texS[i] * extent[layout.texAxisS]);
+            elements.tex.add(layout.texT[i] * extent[layout.texAxisT]);
+
+            Vector3f normal = part.getNormal(i);
+            elements.normals.add(normal.x);
+            elements.normals.add(normal.y);
+            elements.normals.add(normal.z);
+            elements.color.add(face.colorOffset.x);
+            elements.color.add(face.colorOffset.y);
+            elements.color.add(face.colorOffset.z);
+            elements.color.add(face.colorOffset.w);
+            elements.flags.add(flag);
+        }
+        elements.vertexCount += part.size();
+
+        for (int i = 0; i < part.indicesSize(); ++i) {
+            elements.indices.add(part.getIndex(i) + nextIndex);
+        }
+    }
+
+    /**
+     * @return the light of the face if all its corners are lit the same, otherwise null
+     */
+    private float[] calcUniformLight(BlockMeshPart part, int x, int y, int z) {
+        float[] light = null;
+        for (int i = 0; i < part.size(); ++i) {
+            Vector3f vertex = part.getVertex(i);
+            // Same arithmetic as for the vertices of the mesh, so the light of the merged quads matches exactly
+            vertexPos.set(vertex.x + x, vertex.y + y, vertex.z + z);
+            ChunkTessellator.calcLightingValuesForVertexPos(chunkView, vertexPos, cornerLight, part.getNormal(i));
+            if (light == null) {
+                light = Arrays.copyOf(cornerLight, cornerLight.length);
+            } else if (!Arrays.equals(light, cornerLight)) {
+                return null;
+            }
+        }
+        return light;
+    }
+
+    private FaceLayout getLayout(BlockMeshPart part, Side side) {
+        if (layouts.containsKey(part)) {
+            return layouts.get(part);
+        }
+        FaceLayout layout = FaceLayout.create(part, side);
+        layouts.put(part, layout);
+        return layout;
+    }
+
+    private int index(int x, int y, int z) {
+        return x + size[0] * (z + size[2] * y);
+    }
+
+    private static boolean isFullCube(Block block) {
+        for (Side side : SIDES) {
+            if (!block.isFullSide(side)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int axisOf(Side side) {
+        Vector3i direction = side.getVector3i();
+        if (direction.x != 0) {
+            return 0;
+        }
+        return (direction.y != 0) ? 1 : 2;
+    }
+
+    private static float component(Vector3f vector, int axis) {
+        switch (axis) {
+            case 0:
+                return vector.x;
+            case 1:
+                return vector.y;
+            default:
+                return vector.z;
+        }
+    }
+
+    /**
+     * Describes how a block part covering a whole side of a block can be stretched over several blocks.
+     */
+    private static final class FaceLayout {
+        private final int normalAxis;
+        private final int uAxis;
+        private final int vAxis;
+        /**
+         * For each vertex and axis, whether the vertex lies on the upper end of the block along the axis
+         */
+        private final boolean[][] high;
+        /**
+         * For each vertex, the texture coordinates of the vertex in tiles
+         */
+        private final int[] texS;
+        private final int[] texT;
+        /**
+         * The axes along which the texture coordinates change
+         */
+        private final int texAxisS;
+        private final int texAxisT;
+        private final int tileIndex;
+
+        private FaceLayout(int normalAxis, boolean[][] high, int[] texS, int[] texT, int texAxisS, int texAxisT, int tileIndex) {
+            this.normalAxis = normalAxis;
+            this.uAxis = (normalAxis + 1) % 3;
+            this.vAxis = (normalAxis + 2) % 3;
+            this.high = high;
+            this.texS = texS;
+            this.texT = texT;
+            this.texAxisS = texAxisS;
+            this.texAxisT = texAxisT;
+            this.tileIndex = tileIndex;
+        }
+
+        /**
+         * @return the layout of the part, or null if it isn't a quad covering the whole side with a whole atlas tile
+         */
+        static FaceLayout create(BlockMeshPart part, Side side) {
+            if (part.size() != 4 || part.indicesSize() != 6) {
+                return null;
+            }
+            int normalAxis = axisOf(side);
+            Vector3i direction = side.getVector3i();
+            float sidePos = 0.5f * (direction.x + direction.y + direction.z);
+
+            boolean[][] high = new boolean[4][3];
+            int corners = 0;
+            float minS = Float.MAX_VALUE;
+            float maxS = -Float.MAX_VALUE;
+            float minT = Float.MAX_VALUE;
+            float maxT = -Float.MAX_VALUE;
+            for (int i = 0; i < 4; ++i) {
+                Vector3f vertex = part.getVertex(i);
+                for (int axis = 0; axis < 3; ++axis) {
+                    float value = component(vertex, axis);
+                    if (axis == normalAxis) {
+                        if (Math.abs(value - sidePos) > EPSILON) {
+                            return null;
+                        }
+                        high[i][axis] = true;
+                    } else if (Math.abs(Math.abs(value) - 0.5f) > EPSILON) {
+                        return null;
+                    } else {
+                        high[i][axis] = value > 0;
+                    }
+                }
+                corners |= 1 << ((high[i][(normalAxis + 1) % 3] ? 1 : 0) + (high[i][(normalAxis + 2) % 3] ? 2 : 0));
+                minS = Math.min(minS, part.getTexCoord(i).x);
+                maxS = Math.max(maxS, part.getTexCoord(i).x);
+                minT = Math.min(minT, part.getTexCoord(i).y);
+                maxT = Math.max(maxT, part.getTexCoord(i).y);
+            }
+            if (corners != 0xF) {
+                return null;
+            }
+
+            float texExtent = maxS - minS;
+            if (texExtent < EPSILON || Math.abs(texExtent - (maxT - minT)) > EPSILON * texExtent) {
+                return null;
+            }
+            int[] texS = new int[4];
+            int[] texT = new int[4];
+            for (int i = 0; i < 4; ++i) {
+                texS[i] = (part.getTexCoord(i).x - minS > texExtent / 2) ? 1 : 0;
+                texT[i] = (part.getTexCoord(i).y - minT > texExtent / 2) ? 1 : 0;
+            }
+            int texAxisS = findTexAxis(high, texS, normalAxis);
+            int texAxisT = findTexAxis(high, texT, normalAxis);
+            if (texAxisS < 0 || texAxisT < 0 || texAxisS == texAxisT) {
+                return null;
+            }
+
+            float tileSize = texExtent / (1 - 2 * BlockMeshPart.BORDER);
+            float tileX = (minS / tileSize) - BlockMeshPart.BORDER;
+            float tileY = (minT / tileSize) - BlockMeshPart.BORDER;
+            int tilesPerRow = Math.round(1 / tileSize);
+            if (Math.abs(tileX - Math.round(tileX)) > EPSILON || Math.abs(tileY - Math.round(tileY)) > EPSILON
+                    || Math.abs(tilesPerRow * tileSize - 1) > EPSILON) {
+                return null;
+            }
+            int tileIndex = Math.round(tileX) + tilesPerRow * Math.round(tileY);
+            return new FaceLayout(normalAxis, high, texS, texT, texAxisS, texAxisT, tileIndex);
+        }
+
+        /**
+         * @return the in-plane axis along which the given texture coordinates change, or -1 if there is none
+         */
+        private static int findTexAxis(boolean[][] high, int[] tex, int normalAxis) {
+            for (int axis = 0; axis < 3; ++axis) {
+                if (axis == normalAxis) {
+                    continue;
+                }
+                boolean increasing = true;
+                boolean decreasing = true;
+                for (int i = 0; i < tex.length; ++i) {
+                    increasing &= tex[i] == (high[i][axis] ? 1 : 0);
+                    decreasing &= tex[i] == (high[i][axis] ? 0 : 1);
+                }
+                if (increasing || decreasing) {
+                    return axis;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Face {
+        private final BlockMeshPart part;
+        private final FaceLayout layout;
+        private final Vector4f colorOffset;
+        private final ChunkVertexFlag vertexFlag;
+        private final float[] light;
+
+        private Face(BlockMeshPart part, FaceLayout layout, Vector4f colorOffset, ChunkVertexFlag vertexFlag, float[] light) {
+            this.part = part;
+            this.layout = layout;
+            this.colorOffset = colorOffset;
+            this.vertexFlag = vertexFlag;
+            this.light = light;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Face) {
+                Face other = (Face) obj;
+                return part == other.part && vertexFlag == other.vertexFlag && Objects.equals(colorOffset, other.colorOffset)
+                        && Arrays.equals(light, other.light);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(part), vertexFlag, colorOffset, Arrays.hashCode(light));
+        }
+    }
+}
@@ -33,6 +33,7 @@
 import org.terasology.world.chunks.RenderableChunk;
 import org.terasology.world.chunks.pipeline.ChunkTask;
 import org.terasology.world.chunks.pipeline.ShutdownChunkTask;
+import org.terasology.world.internal.ChunkViewCore;
 
 import java.util.Comparator;
 import java.util.List;
@@ -45,7 +46,7 @@
  *
  */
 public final class ChunkMeshUpdateManager {
-    private static final int NUM_TASK_THREADS = 8;
+    private static final int TASK_WEIGHT = 4;
 
     private static final Logger logger = LoggerFactory.getLogger(ChunkMeshUpdateManager.class);
 
@@ -70,7 +71,8 @@ public ChunkMeshUpdateManager(ChunkTessellator tessellator, WorldProvider worldP
         this.tessellator = tessellator;
         this.worldProvider = worldProvider;
 
-        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterComparator());
+        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", TaskMaster.UNLIMITED_CONCURRENCY, TASK_WEIGHT,
+                new ChunkUpdaterComparator());
     }
 
     /**
@@ -161,22 +163,29 @@ public boolean isTerminateSignal() {
 
         @Override
         public void run() {
-            ChunkMesh newMesh;
-            ChunkView chunkView = worldProvider.getLocalView(c.getPosition());
-            if (chunkView != null) {
-                c.setDirty(false);
-                chunkView.readLock();
-                try {
-                    if (chunkView.isValidView()) {
-                        newMesh = tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
-
-                        c.setPendingMesh(newMesh);
-                        ChunkMonitor.fireChunkTessellated(c.getPosition(), newMesh);
+            ChunkViewCore localView = worldProvider.getLocalView(c.getPosition());
+            if (localView != null) {
+                // Chunks without a mesh are meshed completely, otherwise only the dirty sections are remeshed
+                boolean meshAll = !c.hasMesh();
+                boolean[] sections = new boolean[ChunkConstants.MESH_SECTION_COUNT];
+                for (int section = 0; section < sections.length; ++section) {
+                    if (meshAll || c.isDirty(section)) {
+                        sections[section] = true;
+                        c.setDirty(section, false);
+                    }
+                }
+                // Later changes set the sections dirty again, so meshing the current snapshots needs no locking
+                ChunkView chunkView = localView.createSnapshotView();
+                if (chunkView.isValidView()) {
+                    for (int section = 0; section < sections.length; ++section) {
+                        if (sections[section]) {
+                            ChunkMesh newMesh = tessellator.generateMesh(chunkView, ChunkConstants.MESH_SECTION_SIZE_Y,
+                                    section * ChunkConstants.MESH_SECTION_SIZE_Y);
+                            c.setPendingMesh(section, newMesh);
+                            ChunkMonitor.fireChunkTessellated(c.getPosition(), newMesh);
+                        }
                     }
-                } finally {
-                    chunkView.readUnlock();
                 }
-
             }
             chunkMeshUpdateManager.finishedProcessing(c);
             // Clean these up because the task executor holds the object in memory.
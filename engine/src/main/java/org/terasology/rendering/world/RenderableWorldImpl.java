@@ -81,7 +81,7 @@ public class RenderableWorldImpl implements RenderableWorld {
     public RenderableWorldImpl(WorldProvider worldProvider, ChunkProvider chunkProvider, GLBufferPool bufferPool, Camera playerCamera, Camera shadowMapCamera) {
         this.worldProvider = worldProvider;
         this.chunkProvider = chunkProvider;
-        chunkTessellator = new ChunkTessellator(bufferPool);
+        chunkTessellator = new ChunkTessellator(bufferPool, renderingConfig.isGreedyMeshing());
         chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
 
         this.playerCamera = playerCamera;
@@ -131,6 +131,7 @@ public boolean pregenerateChunks() {
         RenderableChunk chunk;
         ChunkMesh newMesh;
         ChunkView localView;
+        int sectionHeight = ChunkConstants.MESH_SECTION_SIZE_Y;
         for (Vector3i chunkCoordinates : calculateRenderableRegion(renderingConfig.getViewDistance())) {
             chunk = chunkProvider.getChunk(chunkCoordinates);
             if (chunk == null) {
@@ -142,13 +143,15 @@ public boolean pregenerateChunks() {
                 }
                 chunk.setDirty(false);
 
-                newMesh = chunkTessellator.generateMesh(localView, ChunkConstants.SIZE_Y, 0);
-                newMesh.generateVBOs();
+                for (int section = 0; section < ChunkConstants.MESH_SECTION_COUNT; ++section) {
+                    newMesh = chunkTessellator.generateMesh(localView, sectionHeight, section * sectionHeight);
+                    newMesh.generateVBOs();
 
-                if (chunk.hasMesh()) {
-                    chunk.getMesh().dispose();
+                    if (chunk.getMesh(section) != null) {
+                        chunk.getMesh(section).dispose();
+                    }
+                    chunk.setMesh(section, newMesh);
                 }
-                chunk.setMesh(newMesh);
 
                 pregenerationIsComplete = false;
                 break;
@@ -254,21 +257,22 @@ public void generateVBOs() {
         ChunkMesh pendingMesh;
         chunkMeshUpdateManager.setCameraPosition(playerCamera.getPosition());
         for (RenderableChunk chunk : chunkMeshUpdateManager.availableChunksForUpdate()) {
-
-            if (chunk.hasPendingMesh() && chunksInProximityOfCamera.contains(chunk)) {
-                pendingMesh = chunk.getPendingMesh();
-                pendingMesh.generateVBOs();
-                if (chunk.hasMesh()) {
-                    chunk.getMesh().dispose();
+            boolean inProximity = chunksInProximityOfCamera.contains(chunk);
+            for (int section = 0; section < ChunkConstants.MESH_SECTION_COUNT; ++section) {
+                if (!chunk.hasPendingMesh(section)) {
+                    continue;
                 }
-                chunk.setMesh(pendingMesh);
-                chunk.setPendingMesh(null);
-
-            } else {
-                if (chunk.hasPendingMesh()) {
-                    chunk.getPendingMesh().dispose();
-                    chunk.setPendingMesh(null);
+                pendingMesh = chunk.getPendingMesh(section);
+                if (inProximity) {
+                    pendingMesh.generateVBOs();
+                    if (chunk.getMesh(section) != null) {
+                        chunk.getMesh(section).dispose();
+                    }
+                    chunk.setMesh(section, pendingMesh);
+                } else {
+                    pendingMesh.dispose();
                 }
+                chunk.setPendingMesh(section, null);
             }
         }
         PerformanceMonitor.endActivity();
@@ -286,7 +290,6 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
 
         int processedChunks = 0;
         int chunkCounter = 0;
-        ChunkMesh mesh;
         RenderableChunk chunk;
         boolean isDynamicShadows = renderingConfig.isDynamicShadows();
         Iterator<RenderableChunk> nearbyChunks = chunksInProximityOfCamera.iterator();
@@ -294,10 +297,8 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
             chunk = nearbyChunks.next();
 
             if (isChunkValidForRender(chunk)) {
-                mesh = chunk.getMesh();
-
                 if (isDynamicShadows && isFirstRenderingStageForCurrentFrame && chunkCounter < maxChunksForShadows && isChunkVisibleLight(chunk)) {
-                    if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
+                    if (triangleCount(chunk, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaqueShadow.add(chunk);
                     } else {
                         statIgnoredPhases++;
@@ -305,19 +306,19 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
                 }
 
                 if (isChunkVisible(chunk)) {
-                    if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
+                    if (triangleCount(chunk, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaque.add(chunk);
                     } else {
                         statIgnoredPhases++;
                     }
 
-                    if (triangleCount(mesh, ChunkMesh.RenderPhase.REFRACTIVE) > 0) {
+                    if (triangleCount(chunk, ChunkMesh.RenderPhase.REFRACTIVE) > 0) {
                         renderQueues.chunksAlphaBlend.add(chunk);
                     } else {
                         statIgnoredPhases++;
                     }
 
-                    if (triangleCount(mesh, ChunkMesh.RenderPhase.ALPHA_REJECT) > 0 && chunkCounter < MAX_BILLBOARD_CHUNKS) {
+                    if (triangleCount(chunk, ChunkMesh.RenderPhase.ALPHA_REJECT) > 0 && chunkCounter < MAX_BILLBOARD_CHUNKS) {
                         renderQueues.chunksAlphaReject.add(chunk);
                     } else {
                         statIgnoredPhases++;
@@ -352,12 +353,15 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         return processedChunks;
     }
 
-    private int triangleCount(ChunkMesh mesh, ChunkMesh.RenderPhase renderPhase) {
-        if (mesh != null) {
-            return mesh.triangleCount(renderPhase);
-        } else {
-            return 0;
+    private int triangleCount(RenderableChunk chunk, ChunkMesh.RenderPhase renderPhase) {
+        int triangleCount = 0;
+        for (int section = 0; section < ChunkConstants.MESH_SECTION_COUNT; ++section) {
+            ChunkMesh mesh = chunk.getMesh(section);
+            if (mesh != null) {
+                triangleCount += mesh.triangleCount(renderPhase);
+            }
         }
+        return triangleCount;
     }
 
     @Override
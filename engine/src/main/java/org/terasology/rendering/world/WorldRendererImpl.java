@@ -637,8 +637,13 @@ private void renderChunk(RenderableChunk chunk, ChunkMesh.RenderPhase phase, Cam
                     statRenderedTriangles += 12;
                 }
 
-                chunk.getMesh().render(phase);
-                statRenderedTriangles += chunk.getMesh().triangleCount();
+                for (int section = 0; section < ChunkConstants.MESH_SECTION_COUNT; ++section) {
+                    ChunkMesh mesh = chunk.getMesh(section);
+                    if (mesh != null) {
+                        mesh.render(phase);
+                        statRenderedTriangles += mesh.triangleCount();
+                    }
+                }
             }
 
             graphicState.postRenderCleanupChunk();
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+/**
+ * A task waiting in the queue of a {@link TaskMaster}, along with the time it was queued.
+ *
+ */
+final class QueuedTask<T extends Task> {
+    private final TaskMaster<T> taskMaster;
+    private final T task;
+    private final long queueTime;
+
+    /**
+     * The run time charged to the task master when the task was dispatched, before the actual run time was known.
+     */
+    long chargedRunTime;
+
+    QueuedTask(TaskMaster<T> taskMaster, T task) {
+        this.taskMaster = taskMaster;
+        this.task = task;
+        this.queueTime = System.nanoTime();
+    }
+
+    TaskMaster<T> getTaskMaster() {
+        return taskMaster;
+    }
+
+    T getTask() {
+        return task;
+    }
+
+    long getQueueTime() {
+        return queueTime;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Lists;
+import org.terasology.monitoring.TaskQueueStatistics;
+
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A pool of worker threads shared by all {@link TaskMaster}s, with a worker for each processor besides the one
+ * used by the main thread.
+ * <br><br>
+ * Idle workers take the next task from the task master that has received the least run time relative to its weight,
+ * so task masters with waiting tasks share the workers in proportion to their weights, while a single busy task
+ * master can use all of them. Task masters that were idle don't get to catch up on the run time they did not use.
+ *
+ */
+public final class SharedTaskExecutor {
+    private static final SharedTaskExecutor INSTANCE = new SharedTaskExecutor(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    private final int workerCount;
+    private boolean workersStarted;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition taskCompleted = lock.newCondition();
+    private final List<TaskMaster<?>> taskMasters = Lists.newArrayList();
+
+    /**
+     * The largest virtual run time of a task master that has been given a task.
+     */
+    private long virtualTime;
+
+    /**
+     * @param workerCount the number of worker threads, which may be 0 to take tasks with {@link #take()} directly
+     */
+    SharedTaskExecutor(int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    public static SharedTaskExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * @return the statistics of the running task masters
+     */
+    public List<TaskQueueStatistics> getStatistics() {
+        lock.lock();
+        try {
+            List<TaskQueueStatistics> result = Lists.newArrayListWithCapacity(taskMasters.size());
+            for (TaskMaster<?> taskMaster : taskMasters) {
+                result.add(taskMaster.createStatistics());
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    TaskQueueStatistics getStatistics(TaskMaster<?> taskMaster) {
+        lock.lock();
+        try {
+            return taskMaster.createStatistics();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    <T extends Task> boolean offer(TaskMaster<T> taskMaster, QueuedTask<T> queuedTask) {
+        lock.lock();
+        try {
+            if (taskMaster.isIdle()) {
+                taskMaster.virtualRunTime = Math.max(taskMaster.virtualRunTime, virtualTime);
+            }
+            if (taskMaster.getTaskQueue().offer(queuedTask)) {
+                workAvailable.signal();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void start(TaskMaster<?> taskMaster) {
+        lock.lock();
+        try {
+            if (!taskMaster.running) {
+                taskMaster.running = true;
+                taskMasters.add(taskMaster);
+                workAvailable.signalAll();
+            }
+            if (!workersStarted) {
+                for (int i = 0; i < workerCount; ++i) {
+                    Thread worker = new Thread(new TaskProcessor(this), "Task-Worker-" + i);
+                    worker.setDaemon(true);
+                    worker.start();
+                }
+                workersStarted = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the given shutdown task and waits for the tasks of the task master to complete, before taking it off
+     * the workers.
+     *
+     * @return false if the timeout elapsed before the tasks completed
+     */
+    <T extends Task> boolean stop(TaskMaster<T> taskMaster, QueuedTask<T> shutdownTask, long timeoutNanos) {
+        lock.lock();
+        try {
+            if (!taskMaster.running) {
+                return true;
+            }
+            taskMaster.getTaskQueue().offer(shutdownTask);
+            workAvailable.signal();
+            long nanos = timeoutNanos;
+            while (!taskMaster.isIdle() && nanos > 0) {
+                nanos = taskCompleted.awaitNanos(nanos);
+            }
+            return taskMaster.isIdle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            taskMaster.running = false;
+            taskMasters.remove(taskMaster);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until a task is available to a worker.
+     */
+    QueuedTask<?> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                TaskMaster<?> next = null;
+                for (TaskMaster<?> taskMaster : taskMasters) {
+                    if (taskMaster.runningTasks < taskMaster.getMaxConcurrency() && !taskMaster.getTaskQueue().isEmpty()
+                            && (next == null || taskMaster.virtualRunTime < next.virtualRunTime)) {
+                        next = taskMaster;
+                    }
+                }
+                if (next == null) {
+                    workAvailable.await();
+                } else {
+                    QueuedTask<?> queuedTask = next.getTaskQueue().poll();
+                    if (queuedTask != null) {
+                        next.taskStarted(queuedTask, System.nanoTime() - queuedTask.getQueueTime());
+                        virtualTime = Math.max(virtualTime, next.virtualRunTime);
+                        return queuedTask;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void complete(QueuedTask<?> queuedTask, long runTime) {
+        lock.lock();
+        try {
+            queuedTask.getTaskMaster().taskCompleted(queuedTask, runTime);
+            taskCompleted.signalAll();
+            // The task master may have been held back by its concurrency limit
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
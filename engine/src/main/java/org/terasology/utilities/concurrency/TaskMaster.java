@@ -13,120 +13,200 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.terasology.utilities.concurrency;
 
-import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.monitoring.ActivityId;
+import org.terasology.monitoring.TaskQueueStatistics;
 
-import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.util.Comparator;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * A queue of tasks that are run by the worker threads of the {@link SharedTaskExecutor}.
+ * <br><br>
+ * The weight of a task master determines its share of the worker threads while other task masters have tasks
+ * waiting too, and the maximum concurrency limits how many of its tasks may run at the same time. Tasks are taken
+ * from the queue in its order, so the order of priority task masters holds among their own tasks.
+ *
  */
 public final class TaskMaster<T extends Task> {
+    public static final int UNLIMITED_CONCURRENCY = Integer.MAX_VALUE;
+    public static final int DEFAULT_WEIGHT = 1;
+
     private static final Logger logger = LoggerFactory.getLogger(TaskMaster.class);
+    private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toNanos(20);
+    private static final double MEAN_DECAY = 0.9;
 
-    private BlockingQueue<T> taskQueue;
-    private ExecutorService executorService;
-    private int threads;
-    private boolean running;
-    private String name;
+    private final String name;
+    private final ActivityId activityId;
+    private final int maxConcurrency;
+    private final int weight;
+    private final BlockingQueue<QueuedTask<T>> taskQueue;
+    private final SharedTaskExecutor executor;
 
-    private TaskMaster(String name, int threads, BlockingQueue<T> queue) {
-        this.name = name;
-        this.threads = threads;
-        if (threads <= 0) {
-            throw new IllegalArgumentException("Must have at least one thread.");
+    // The scheduling state, guarded by the lock of the executor
+    boolean running;
+    int runningTasks;
+    long virtualRunTime;
+    private long startedTasks;
+    private long completedTasks;
+    private double meanWaitTime;
+    private double meanRunTime;
+
+    private TaskMaster(String name, int maxConcurrency, int weight, BlockingQueue<QueuedTask<T>> queue) {
+        this(SharedTaskExecutor.getInstance(), name, maxConcurrency, weight, queue);
+    }
+
+    /**
+     * Creates a task master whose tasks are run by the given executor instead of the shared one.
+     */
+    TaskMaster(SharedTaskExecutor executor, String name, int maxConcurrency, int weight, BlockingQueue<QueuedTask<T>> queue) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Must allow at least one task to run.");
         }
-        taskQueue = queue;
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive.");
+        }
+        this.executor = executor;
+        this.name = name;
+        this.activityId = ActivityId.of(name);
+        this.maxConcurrency = maxConcurrency;
+        this.weight = weight;
+        this.taskQueue = queue;
         restart();
     }
 
-    public static <T extends Task> TaskMaster<T> createFIFOTaskMaster(String name, int threads) {
-        return new TaskMaster<>(name, threads, new LinkedBlockingQueue<T>());
+    public static <T extends Task> TaskMaster<T> createFIFOTaskMaster(String name, int maxConcurrency) {
+        return createFIFOTaskMaster(name, maxConcurrency, DEFAULT_WEIGHT);
     }
 
-    public static <T extends Task & Comparable<? super T>> TaskMaster<T> createPriorityTaskMaster(String name, int threads, int queueSize) {
-        return new TaskMaster<>(name, threads, new PriorityBlockingQueue<T>(queueSize));
+    public static <T extends Task> TaskMaster<T> createFIFOTaskMaster(String name, int maxConcurrency, int weight) {
+        return new TaskMaster<>(name, maxConcurrency, weight, new LinkedBlockingQueue<>());
     }
 
-    public static <T extends Task> TaskMaster<T> createPriorityTaskMaster(String name, int threads, int queueSize, Comparator<T> comparator) {
-        return new TaskMaster<>(name, threads, new PriorityBlockingQueue<T>(queueSize, comparator));
+    public static <T extends Task & Comparable<? super T>> TaskMaster<T> createPriorityTaskMaster(String name, int maxConcurrency, int queueSize) {
+        return new TaskMaster<>(name, maxConcurrency, DEFAULT_WEIGHT,
+                new PriorityBlockingQueue<QueuedTask<T>>(queueSize, (a, b) -> a.getTask().compareTo(b.getTask())));
     }
 
-    public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(String name, int threads, Comparator<T> comparator) {
-        return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<T>(comparator));
+    public static <T extends Task> TaskMaster<T> createPriorityTaskMaster(String name, int maxConcurrency, int queueSize, Comparator<T> comparator) {
+        return new TaskMaster<>(name, maxConcurrency, DEFAULT_WEIGHT,
+                new PriorityBlockingQueue<QueuedTask<T>>(queueSize, (a, b) -> comparator.compare(a.getTask(), b.getTask())));
+    }
+
+    public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(String name, int maxConcurrency, Comparator<T> comparator) {
+        return createDynamicPriorityTaskMaster(name, maxConcurrency, DEFAULT_WEIGHT, comparator);
+    }
+
+    public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(String name, int maxConcurrency, int weight, Comparator<T> comparator) {
+        return new TaskMaster<>(name, maxConcurrency, weight,
+                new DynamicPriorityBlockingQueue<QueuedTask<T>>((a, b) -> comparator.compare(a.getTask(), b.getTask())));
+    }
+
+    public String getName() {
+        return name;
     }
 
     /**
-     * Offers a task to this task master. This does not block, but may fail if the queue is full.
+     * Offers a task to this task master. This does not block.
      *
      * @param task
      * @return Whether the task was successfully added to the queue.
      */
     public boolean offer(T task) {
-        return taskQueue.offer(task);
+        return executor.offer(this, new QueuedTask<>(this, task));
     }
 
     /**
-     * Adds a task to this task master. This blocks until the task can be added if the queue is full.
+     * Adds a task to this task master. The queues of task masters are unbounded, so this does not block.
      *
      * @param task
      */
     public void put(T task) throws InterruptedException {
-        taskQueue.put(task);
+        offer(task);
     }
 
+    /**
+     * Stops running the tasks of this task master, after the given shutdown task and the tasks already running have
+     * completed. The remaining tasks are run after a restart.
+     *
+     * @param shutdownTask  a task providing the terminate signal, run as the last task
+     * @param awaitComplete whether to run the tasks already queued before shutting down, instead of discarding them
+     */
     public void shutdown(T shutdownTask, boolean awaitComplete) {
         if (!shutdownTask.isTerminateSignal()) {
             throw new IllegalArgumentException("Expected task to provide terminate signal");
         }
         if (!awaitComplete) {
-            taskQueue.drainTo(Lists.newArrayList());
+            taskQueue.clear();
         }
-        for (int i = 0; i < threads; ++i) {
-            try {
-                taskQueue.offer(shutdownTask, 250, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                logger.error("Failed to enqueue shutdown request", e);
-            }
+        if (!executor.stop(this, new QueuedTask<>(this, shutdownTask), SHUTDOWN_TIMEOUT)) {
+            logger.warn("Timed out awaiting completion of the {} tasks", name);
         }
-        AccessController.doPrivileged(new PrivilegedAction<Object>() {
-            @Override
-            public Object run() {
-                executorService.shutdown();
-                try {
-                    if (!executorService.awaitTermination(20, TimeUnit.SECONDS)) {
-                        logger.warn("Timed out awaiting thread termination");
-                        executorService.shutdownNow();
-                    }
-                } catch (InterruptedException e) {
-                    logger.warn("Interrupted awaiting chunk thread termination");
-                    executorService.shutdownNow();
-                }
-                return null;
-            }
-        });
-        running = false;
     }
 
     public void restart() {
-        if (!running) {
-            executorService = Executors.newFixedThreadPool(threads);
-            for (int i = 0; i < threads; ++i) {
-                executorService.execute(new TaskProcessor<>(name + "-" + i, taskQueue));
-            }
-            running = true;
-        }
+        executor.start(this);
+    }
+
+    public TaskQueueStatistics getStatistics() {
+        return executor.getStatistics(this);
     }
 
+    /**
+     * @return the activity the tasks of this task master are recorded under by the performance monitor
+     */
+    ActivityId getActivityId() {
+        return activityId;
+    }
+
+    int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    BlockingQueue<QueuedTask<T>> getTaskQueue() {
+        return taskQueue;
+    }
+
+    boolean isIdle() {
+        return runningTasks == 0 && taskQueue.isEmpty();
+    }
+
+    /**
+     * Records the start of a task. Must be called while holding the lock of the executor.
+     */
+    void taskStarted(QueuedTask<?> queuedTask, long waitTime) {
+        runningTasks++;
+        meanWaitTime = (startedTasks++ == 0) ? waitTime : MEAN_DECAY * meanWaitTime + (1 - MEAN_DECAY) * waitTime;
+        // Charge the expected run time up front, so that idle workers don't all pick the same task master
+        queuedTask.chargedRunTime = (long) meanRunTime;
+        virtualRunTime += queuedTask.chargedRunTime / weight;
+    }
+
+    /**
+     * Records the completion of a task. Must be called while holding the lock of the executor.
+     */
+    void taskCompleted(QueuedTask<?> queuedTask, long runTime) {
+        runningTasks--;
+        virtualRunTime += (runTime - queuedTask.chargedRunTime) / weight;
+        meanRunTime = (completedTasks == 0) ? runTime : MEAN_DECAY * meanRunTime + (1 - MEAN_DECAY) * runTime;
+        completedTasks++;
+    }
+
+    /**
+     * Must be called while holding the lock of the executor.
+     */
+    TaskQueueStatistics createStatistics() {
+        return new TaskQueueStatistics(name, weight, taskQueue.size(), runningTasks, completedTasks,
+                meanWaitTime / TimeUnit.MILLISECONDS.toNanos(1), meanRunTime / TimeUnit.MILLISECONDS.toNanos(1));
+    }
 }
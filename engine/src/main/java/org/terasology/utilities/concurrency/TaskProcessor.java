@@ -19,51 +19,51 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.GameThread;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
 
-import java.util.concurrent.BlockingQueue;
-
 /**
+ * A worker thread of the {@link SharedTaskExecutor}.
  */
-final class TaskProcessor<T extends Task> implements Runnable {
+final class TaskProcessor implements Runnable {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskProcessor.class);
 
-    private String name;
-    private BlockingQueue<T> queue;
+    private final SharedTaskExecutor executor;
 
-    public TaskProcessor(String name, BlockingQueue<T> taskQueue) {
-        this.queue = taskQueue;
-        this.name = name;
+    TaskProcessor(SharedTaskExecutor executor) {
+        this.executor = executor;
     }
 
     @Override
     public void run() {
-        boolean running = true;
         Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
-        Thread.currentThread().setName(name);
-        while (running) {
+        while (true) {
+            QueuedTask<?> queuedTask;
             try {
-                T task = queue.take();
-                try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
-                    task.run();
-                }
-                if (task.isTerminateSignal()) {
-                    running = false;
-                }
+                queuedTask = executor.take();
             } catch (InterruptedException e) {
                 ThreadMonitor.addError(e);
                 logger.error("Thread interrupted", e);
+                continue;
+            }
+            Task task = queuedTask.getTask();
+            long startTime = System.nanoTime();
+            try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName());
+                 Activity ignoredActivity = PerformanceMonitor.startActivity(queuedTask.getTaskMaster().getActivityId())) {
+                task.run();
             } catch (RuntimeException e) {
                 ThreadMonitor.addError(e);
-                logger.error("Error in thread {}", Thread.currentThread().getName(), e);
+                logger.error("Error in task {} of {}", task.getName(), queuedTask.getTaskMaster().getName(), e);
             } catch (Error e) {
                 GameThread.asynch(() -> {
                     throw e;  // re-throw on game thread to terminate the entire application
                 });
+            } finally {
+                executor.complete(queuedTask, System.nanoTime() - startTime);
             }
         }
-        logger.debug("Thread shutdown safely");
     }
 }
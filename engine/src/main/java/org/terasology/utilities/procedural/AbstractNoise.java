@@ -16,6 +16,9 @@
 
 package org.terasology.utilities.procedural;
 
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * An abstract implementation of most methods.
  * The int-based methods delegate to float-bases ones.
@@ -36,4 +39,25 @@ public float noise(int x, int y, int z) {
     public float noise(float x, float y) {
         return noise(x, y, 0);
     }
+
+    /**
+     * The int-based methods delegate to float-based ones, so regions can use the grid methods.
+     */
+    @Override
+    public float[] noise(Rect2i region) {
+        float[] result = new float[region.sizeX() * region.sizeY()];
+        noise(NoiseGrid.coordinates(region.minX(), region.sizeX()), NoiseGrid.coordinates(region.minY(), region.sizeY()), result);
+        return result;
+    }
+
+    /**
+     * The int-based methods delegate to float-based ones, so regions can use the grid methods.
+     */
+    @Override
+    public float[] noise(Region3i region) {
+        float[] result = new float[region.sizeX() * region.sizeY() * region.sizeZ()];
+        noise(NoiseGrid.coordinates(region.minX(), region.sizeX()), NoiseGrid.coordinates(region.minY(), region.sizeY()),
+                NoiseGrid.coordinates(region.minZ(), region.sizeZ()), result);
+        return result;
+    }
 }
@@ -16,6 +16,8 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -107,6 +109,62 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Computes each octave for the whole grid at once, so the base noise can use its grid implementation.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        int size = xs.length * ys.length;
+        NoiseGrid.checkResultSize(result, size);
+        float[] workingXs = Arrays.copyOf(xs, xs.length);
+        float[] workingYs = Arrays.copyOf(ys, ys.length);
+        float[] octave = new float[size];
+        Arrays.fill(result, 0, size, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingXs, workingYs, octave);
+            float weight = spectralWeights[i];
+            for (int index = 0; index < size; index++) {
+                result[index] += octave[index] * weight;
+            }
+
+            NoiseGrid.scale(workingXs, getLacunarity());
+            NoiseGrid.scale(workingYs, getLacunarity());
+        }
+
+        for (int index = 0; index < size; index++) {
+            result[index] *= scale;
+        }
+    }
+
+    /**
+     * Computes each octave for the whole grid at once, so the base noise can use its grid implementation.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int size = xs.length * ys.length * zs.length;
+        NoiseGrid.checkResultSize(result, size);
+        float[] workingXs = Arrays.copyOf(xs, xs.length);
+        float[] workingYs = Arrays.copyOf(ys, ys.length);
+        float[] workingZs = Arrays.copyOf(zs, zs.length);
+        float[] octave = new float[size];
+        Arrays.fill(result, 0, size, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingXs, workingYs, workingZs, octave);
+            float weight = spectralWeights[i];
+            for (int index = 0; index < size; index++) {
+                result[index] += octave[index] * weight;
+            }
+
+            NoiseGrid.scale(workingXs, getLacunarity());
+            NoiseGrid.scale(workingYs, getLacunarity());
+            NoiseGrid.scale(workingZs, getLacunarity());
+        }
+
+        for (int index = 0; index < size; index++) {
+            result[index] *= scale;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
@@ -16,6 +16,9 @@
 
 package org.terasology.utilities.procedural;
 
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * Provides or generates noise
  *
@@ -59,4 +62,75 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Computes the noise values of all points of a grid. Implementations may do this considerably faster than
+     * computing the points one by one, but must return the same values.
+     *
+     * @param xs     the x positions of the grid
+     * @param ys     the y positions of the grid
+     * @param result receives the value of the point (xs[i], ys[j]) at index i + xs.length * j
+     */
+    default void noise(float[] xs, float[] ys, float[] result) {
+        NoiseGrid.checkResultSize(result, xs.length * ys.length);
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                result[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values of all points of a grid. Implementations may do this considerably faster than
+     * computing the points one by one, but must return the same values.
+     *
+     * @param xs     the x positions of the grid
+     * @param ys     the y positions of the grid
+     * @param zs     the z positions of the grid
+     * @param result receives the value of the point (xs[i], ys[j], zs[k]) at index i + xs.length * (j + ys.length * k)
+     */
+    default void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        NoiseGrid.checkResultSize(result, xs.length * ys.length * zs.length);
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    result[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param region the positions to compute the noise for
+     * @return the noise values of all positions of the region, with x varying fastest
+     */
+    default float[] noise(Rect2i region) {
+        float[] result = new float[region.sizeX() * region.sizeY()];
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); ++y) {
+            for (int x = region.minX(); x <= region.maxX(); ++x) {
+                result[index++] = noise(x, y);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param region the positions to compute the noise for
+     * @return the noise values of all positions of the region, with x varying fastest and z slowest
+     */
+    default float[] noise(Region3i region) {
+        float[] result = new float[region.sizeX() * region.sizeY() * region.sizeZ()];
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); ++z) {
+            for (int y = region.minY(); y <= region.maxY(); ++y) {
+                for (int x = region.minX(); x <= region.maxX(); ++x) {
+                    result[index++] = noise(x, y, z);
+                }
+            }
+        }
+        return result;
+    }
 }
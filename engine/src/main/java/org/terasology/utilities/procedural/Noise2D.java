@@ -32,4 +32,21 @@ public interface Noise2D {
      * @return The noise value
      */
     float noise(float x, float y);
+
+    /**
+     * Computes the noise values of all points of a grid, see {@link Noise#noise(float[], float[], float[])}.
+     *
+     * @param xs     the x positions of the grid
+     * @param ys     the y positions of the grid
+     * @param result receives the value of the point (xs[i], ys[j]) at index i + xs.length * j
+     */
+    default void noise(float[] xs, float[] ys, float[] result) {
+        NoiseGrid.checkResultSize(result, xs.length * ys.length);
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                result[index++] = noise(x, y);
+            }
+        }
+    }
 }
@@ -33,4 +33,23 @@ public interface Noise3D {
      */
     float noise(float x, float y, float z);
 
+    /**
+     * Computes the noise values of all points of a grid, see {@link Noise#noise(float[], float[], float[], float[])}.
+     *
+     * @param xs     the x positions of the grid
+     * @param ys     the y positions of the grid
+     * @param zs     the z positions of the grid
+     * @param result receives the value of the point (xs[i], ys[j], zs[k]) at index i + xs.length * (j + ys.length * k)
+     */
+    default void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        NoiseGrid.checkResultSize(result, xs.length * ys.length * zs.length);
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    result[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.procedural;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Helpers for the grid based noise methods.
+ *
+ */
+final class NoiseGrid {
+
+    private NoiseGrid() {
+    }
+
+    /**
+     * @return the positions min, min + 1, ..., min + size - 1
+     */
+    static float[] coordinates(int min, int size) {
+        float[] result = new float[size];
+        for (int i = 0; i < size; ++i) {
+            result[i] = min + i;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies all positions by the given factor in place, the same way the single point implementations do.
+     */
+    static void scale(float[] coordinates, double factor) {
+        for (int i = 0; i < coordinates.length; ++i) {
+            coordinates[i] *= factor;
+        }
+    }
+
+    static void checkResultSize(float[] result, int size) {
+        Preconditions.checkArgument(result.length >= size, "Result array too small: %s < %s", result.length, size);
+    }
+}
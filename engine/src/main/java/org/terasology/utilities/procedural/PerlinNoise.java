@@ -24,6 +24,8 @@
  */
 public class PerlinNoise extends AbstractNoise implements Noise2D, Noise3D {
 
+    private static final float[] ORIGIN = {0};
+
     private final int[] noisePermutations;
 
     /**
@@ -77,9 +79,46 @@ public float noise(float posX, float posY, float posZ) {
         float y = posY - TeraMath.fastFloor(posY);
         float z = posZ - TeraMath.fastFloor(posZ);
 
-        float u = TeraMath.fadePerlin(x);
-        float v = TeraMath.fadePerlin(y);
-        float w = TeraMath.fadePerlin(z);
+        return interpolate(xInt, x, TeraMath.fadePerlin(x), yInt, y, TeraMath.fadePerlin(y), zInt, z, TeraMath.fadePerlin(z));
+    }
+
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        // 2D noise is the slice at z = 0
+        noise(xs, ys, ORIGIN, result);
+    }
+
+    /**
+     * Computes the per axis parts of the noise only once per column, row and slice.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        NoiseGrid.checkResultSize(result, xs.length * ys.length * zs.length);
+        int[] xInts = new int[xs.length];
+        float[] xFractions = new float[xs.length];
+        float[] us = new float[xs.length];
+        for (int i = 0; i < xs.length; ++i) {
+            xInts[i] = (int) TeraMath.fastFloor(xs[i]) & 255;
+            xFractions[i] = xs[i] - TeraMath.fastFloor(xs[i]);
+            us[i] = TeraMath.fadePerlin(xFractions[i]);
+        }
+        int index = 0;
+        for (float posZ : zs) {
+            int zInt = (int) TeraMath.fastFloor(posZ) & 255;
+            float z = posZ - TeraMath.fastFloor(posZ);
+            float w = TeraMath.fadePerlin(z);
+            for (float posY : ys) {
+                int yInt = (int) TeraMath.fastFloor(posY) & 255;
+                float y = posY - TeraMath.fastFloor(posY);
+                float v = TeraMath.fadePerlin(y);
+                for (int i = 0; i < xs.length; ++i) {
+                    result[index++] = interpolate(xInts[i], xFractions[i], us[i], yInt, y, v, zInt, z, w);
+                }
+            }
+        }
+    }
+
+    private float interpolate(int xInt, float x, float u, int yInt, float y, float v, int zInt, float z, float w) {
         int a = noisePermutations[xInt] + yInt;
         int aa = noisePermutations[a] + zInt;
         int ab = noisePermutations[(a + 1)] + zInt;
@@ -54,6 +54,19 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
             new Grad(1, 1, 1, 0), new Grad(1, 1, -1, 0), new Grad(1, -1, 1, 0), new Grad(1, -1, -1, 0),
             new Grad(-1, 1, 1, 0), new Grad(-1, 1, -1, 0), new Grad(-1, -1, 1, 0), new Grad(-1, -1, -1, 0)};
 
+    // The components of grad3 in flat arrays, which saves a dereference per corner
+    private static final float[] GRAD3_X = new float[grad3.length];
+    private static final float[] GRAD3_Y = new float[grad3.length];
+    private static final float[] GRAD3_Z = new float[grad3.length];
+
+    static {
+        for (int i = 0; i < grad3.length; i++) {
+            GRAD3_X[i] = grad3[i].x;
+            GRAD3_Y[i] = grad3[i].y;
+            GRAD3_Z[i] = grad3[i].z;
+        }
+    }
+
     // Skewing and unskewing factors for 2, 3, and 4 dimensions
     private static final float F2 = 0.5f * (float) (Math.sqrt(3.0f) - 1.0f);
     private static final float G2 = (3.0f - (float) Math.sqrt(3.0f)) / 6.0f;
@@ -98,12 +111,12 @@ public SimplexNoise(long seed) {
     // This method is a *lot* faster than using (int)Math.floor(x)
 
 
-    private static float dot(Grad g, float x, float y) {
-        return g.x * x + g.y * y;
+    private static float dot(int grad, float x, float y) {
+        return GRAD3_X[grad] * x + GRAD3_Y[grad] * y;
     }
 
-    private static float dot(Grad g, float x, float y, float z) {
-        return g.x * x + g.y * y + g.z * z;
+    private static float dot(int grad, float x, float y, float z) {
+        return GRAD3_X[grad] * x + GRAD3_Y[grad] * y + GRAD3_Z[grad] * z;
     }
 
     private static float dot(Grad g, float x, float y, float z, float w) {
@@ -119,6 +132,21 @@ private static float dot(Grad g, float x, float y, float z, float w) {
      */
     @Override
     public float noise(float xin, float yin) {
+        return simplex(xin, yin);
+    }
+
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        NoiseGrid.checkResultSize(result, xs.length * ys.length);
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                result[index++] = simplex(x, y);
+            }
+        }
+    }
+
+    private float simplex(float xin, float yin) {
         float n0;
         float n1;
         float n2; // Noise contributions from the three corners
@@ -166,21 +194,21 @@ public float noise(float xin, float yin) {
             n0 = 0.0f;
         } else {
             t0 *= t0;
-            n0 = t0 * t0 * dot(grad3[gi0], x0, y0); // (x,y) of grad3 used for 2D gradient
+            n0 = t0 * t0 * dot(gi0, x0, y0); // (x,y) of grad3 used for 2D gradient
         }
         float t1 = 0.5f - x1 * x1 - y1 * y1;
         if (t1 < 0) {
             n1 = 0.0f;
         } else {
             t1 *= t1;
-            n1 = t1 * t1 * dot(grad3[gi1], x1, y1);
+            n1 = t1 * t1 * dot(gi1, x1, y1);
         }
         float t2 = 0.5f - x2 * x2 - y2 * y2;
         if (t2 < 0) {
             n2 = 0.0f;
         } else {
             t2 *= t2;
-            n2 = t2 * t2 * dot(grad3[gi2], x2, y2);
+            n2 = t2 * t2 * dot(gi2, x2, y2);
         }
 
         // Add contributions from each corner to get the final noise value.
@@ -198,6 +226,23 @@ public float noise(float xin, float yin) {
      */
     @Override
     public float noise(float xin, float yin, float zin) {
+        return simplex(xin, yin, zin);
+    }
+
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        NoiseGrid.checkResultSize(result, xs.length * ys.length * zs.length);
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    result[index++] = simplex(x, y, z);
+                }
+            }
+        }
+    }
+
+    private float simplex(float xin, float yin, float zin) {
         float n0;
         float n1;
         float n2;
@@ -302,28 +347,28 @@ public float noise(float xin, float yin, float zin) {
             n0 = 0.0f;
         } else {
             t0 *= t0;
-            n0 = t0 * t0 * dot(grad3[gi0], x0, y0, z0);
+            n0 = t0 * t0 * dot(gi0, x0, y0, z0);
         }
         float t1 = 0.6f - x1 * x1 - y1 * y1 - z1 * z1;
         if (t1 < 0) {
             n1 = 0.0f;
         } else {
             t1 *= t1;
-            n1 = t1 * t1 * dot(grad3[gi1], x1, y1, z1);
+            n1 = t1 * t1 * dot(gi1, x1, y1, z1);
         }
         float t2 = 0.6f - x2 * x2 - y2 * y2 - z2 * z2;
         if (t2 < 0) {
             n2 = 0.0f;
         } else {
             t2 *= t2;
-            n2 = t2 * t2 * dot(grad3[gi2], x2, y2, z2);
+            n2 = t2 * t2 * dot(gi2, x2, y2, z2);
         }
         float t3 = 0.6f - x3 * x3 - y3 * y3 - z3 * z3;
         if (t3 < 0) {
             n3 = 0.0f;
         } else {
             t3 *= t3;
-            n3 = t3 * t3 * dot(grad3[gi3], x3, y3, z3);
+            n3 = t3 * t3 * dot(gi3, x3, y3, z3);
         }
 
         // Add contributions from each corner to get the final noise value.
@@ -20,12 +20,28 @@
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.block.Block;
 
+import java.util.Map;
+
 /**
  */
 public interface WorldChangeListener {
 
     void onBlockChanged(Vector3i pos, Block newBlock, Block originalBlock);
 
+    /**
+     * Called once per chunk for the blocks changed within it by a bulk change. Both maps have the same keys.
+     * By default this calls {@link #onBlockChanged(Vector3i, Block, Block)} for each block.
+     *
+     * @param chunkPos       The position of the chunk containing the changed blocks
+     * @param newBlocks      The new blocks by world position
+     * @param originalBlocks The previous blocks by world position
+     */
+    default void onBlocksChanged(Vector3i chunkPos, Map<Vector3i, Block> newBlocks, Map<Vector3i, Block> originalBlocks) {
+        for (Map.Entry<Vector3i, Block> entry : newBlocks.entrySet()) {
+            onBlockChanged(entry.getKey(), entry.getValue(), originalBlocks.get(entry.getKey()));
+        }
+    }
+
     void onBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome);
 
 }
@@ -30,7 +30,10 @@
  *
  */
 public class BlockMeshPart {
-    private static final float BORDER = 1f / 128f;
+    /**
+     * The fraction of an atlas tile left out on each side of the tile, to avoid bleeding of neighbouring tiles.
+     */
+    public static final float BORDER = 1f / 128f;
 
     private Vector3f[] vertices;
     private Vector3f[] normals;
@@ -29,6 +29,12 @@ public final class ChunkConstants {
     public static final int SIZE_Y = 64;
     public static final int SIZE_Z = 32;
 
+    /**
+     * Chunk meshes are split into vertical sections of this height, which are remeshed independently.
+     */
+    public static final int MESH_SECTION_SIZE_Y = 16;
+    public static final int MESH_SECTION_COUNT = SIZE_Y / MESH_SECTION_SIZE_Y;
+
     public static final int INNER_CHUNK_POS_FILTER_X = TeraMath.ceilPowerOfTwo(SIZE_X) - 1;
     public static final int INNER_CHUNK_POS_FILTER_Y = TeraMath.ceilPowerOfTwo(SIZE_Y) - 1;
     public static final int INNER_CHUNK_POS_FILTER_Z = TeraMath.ceilPowerOfTwo(SIZE_Z) - 1;
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks;
+
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.BaseVector3i;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * Packs a chunk position into a single long, so it can be used as a key of primitive collections without allocating.
+ * <br><br>
+ * Each coordinate is stored as a signed 21 bit value, which covers chunk positions in the range [-1048576, 1048575].
+ *
+ */
+public final class ChunkKey {
+    public static final int BITS_PER_AXIS = 21;
+    public static final int MIN_COORDINATE = -(1 << (BITS_PER_AXIS - 1));
+    public static final int MAX_COORDINATE = (1 << (BITS_PER_AXIS - 1)) - 1;
+
+    private static final long AXIS_MASK = (1L << BITS_PER_AXIS) - 1;
+    private static final int UNUSED_BITS = Long.SIZE - BITS_PER_AXIS;
+
+    private ChunkKey() {
+    }
+
+    public static long of(int x, int y, int z) {
+        return (x & AXIS_MASK) | ((y & AXIS_MASK) << BITS_PER_AXIS) | ((z & AXIS_MASK) << (2 * BITS_PER_AXIS));
+    }
+
+    public static long of(BaseVector3i chunkPos) {
+        return of(chunkPos.x(), chunkPos.y(), chunkPos.z());
+    }
+
+    /**
+     * @return the key of the chunk containing the given block position
+     */
+    public static long ofBlock(BaseVector3i blockPos) {
+        return of(ChunkMath.calcChunkPosX(blockPos.x(), ChunkConstants.POWER_X),
+                ChunkMath.calcChunkPosY(blockPos.y(), ChunkConstants.POWER_Y),
+                ChunkMath.calcChunkPosZ(blockPos.z(), ChunkConstants.POWER_Z));
+    }
+
+    public static int x(long key) {
+        return (int) (key << UNUSED_BITS >> UNUSED_BITS);
+    }
+
+    public static int y(long key) {
+        return (int) (key << (UNUSED_BITS - BITS_PER_AXIS) >> UNUSED_BITS);
+    }
+
+    public static int z(long key) {
+        return (int) (key << (UNUSED_BITS - 2 * BITS_PER_AXIS) >> UNUSED_BITS);
+    }
+
+    public static Vector3i toVector(long key) {
+        return new Vector3i(x(key), y(key), z(key));
+    }
+
+    /**
+     * @return the key of the chunk at the given offset from the chunk with the given key
+     */
+    public static long offset(long key, int dx, int dy, int dz) {
+        return of(x(key) + dx, y(key) + dy, z(key) + dz);
+    }
+}
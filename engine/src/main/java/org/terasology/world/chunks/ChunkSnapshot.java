@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks;
+
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+import org.terasology.world.liquid.LiquidData;
+
+/**
+ * An immutable view of the block, liquid, biome and light data of a chunk at one point in time.
+ * <br><br>
+ * Snapshots are obtained through {@link ManagedChunk#getSnapshot()} or, without the light data,
+ * {@link ManagedChunk#getStoreSnapshot()} without taking the chunk's lock. The chunk copies its data before changing it
+ * once a snapshot of it has been taken, so a snapshot never changes and can be read from any thread. Each new snapshot
+ * of a chunk has a higher version than the previous one of the same kind.
+ *
+ */
+public final class ChunkSnapshot {
+    private final Vector3i position;
+    private final int version;
+    private final BlockManager blockManager;
+    private final BiomeManager biomeManager;
+
+    private final TeraArray blockData;
+    private final TeraArray extraData;
+    private final TeraArray biomeData;
+    private final TeraArray sunlightData;
+    private final TeraArray lightData;
+
+    /**
+     * The given arrays must not be changed after the snapshot has been created. The light arrays may be null if the
+     * chunk has been disposed or the snapshot only covers the stored data, in which case the snapshot reports no light.
+     */
+    public ChunkSnapshot(Vector3i position, int version, BlockManager blockManager, BiomeManager biomeManager,
+                         TeraArray blockData, TeraArray extraData, TeraArray biomeData,
+                         TeraArray sunlightData, TeraArray lightData) {
+        this.position = new Vector3i(position);
+        this.version = version;
+        this.blockManager = blockManager;
+        this.biomeManager = biomeManager;
+        this.blockData = blockData;
+        this.extraData = extraData;
+        this.biomeData = biomeData;
+        this.sunlightData = sunlightData;
+        this.lightData = lightData;
+    }
+
+    public Vector3i getPosition() {
+        return new Vector3i(position);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public short getBlockId(int x, int y, int z) {
+        return (short) blockData.get(x, y, z);
+    }
+
+    public Block getBlock(int x, int y, int z) {
+        return blockManager.getBlock(getBlockId(x, y, z));
+    }
+
+    public LiquidData getLiquid(int x, int y, int z) {
+        return new LiquidData((byte) extraData.get(x, y, z));
+    }
+
+    public Biome getBiome(int x, int y, int z) {
+        return biomeManager.getBiomeByShortId((short) biomeData.get(x, y, z));
+    }
+
+    public byte getSunlight(int x, int y, int z) {
+        return (sunlightData != null) ? (byte) sunlightData.get(x, y, z) : 0;
+    }
+
+    public byte getLight(int x, int y, int z) {
+        return (lightData != null) ? (byte) lightData.get(x, y, z) : 0;
+    }
+
+    public EntityData.ChunkStore.Builder encode() {
+        return ChunkSerializer.encode(position, blockData, extraData, biomeData);
+    }
+}
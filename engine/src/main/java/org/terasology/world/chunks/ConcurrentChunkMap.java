@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks;
+
+import com.google.common.collect.Lists;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.math.geom.BaseVector3i;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A thread safe map from chunk positions to values, keyed by {@link ChunkKey}s so lookups don't allocate.
+ * <br><br>
+ * The entries are split over a fixed number of segments, each guarded by its own read-write lock, so readers
+ * never block each other and writers only block the readers of one segment.
+ * Iteration happens over snapshots of the keys or values.
+ *
+ * @param <V> The type of the values
+ */
+public class ConcurrentChunkMap<V> {
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentChunkMap() {
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; ++i) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    public V get(long key) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.readLock().lock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            segment.lock.readLock().unlock();
+        }
+    }
+
+    public V get(int x, int y, int z) {
+        return get(ChunkKey.of(x, y, z));
+    }
+
+    public V get(BaseVector3i chunkPos) {
+        return get(ChunkKey.of(chunkPos));
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public boolean containsKey(BaseVector3i chunkPos) {
+        return containsKey(ChunkKey.of(chunkPos));
+    }
+
+    /**
+     * @return the previous value for the key, or null if there was none
+     */
+    public V put(long key, V value) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    public V put(BaseVector3i chunkPos, V value) {
+        return put(ChunkKey.of(chunkPos), value);
+    }
+
+    /**
+     * @return the removed value, or null if there was none
+     */
+    public V remove(long key) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    public V remove(BaseVector3i chunkPos) {
+        return remove(ChunkKey.of(chunkPos));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.lock.writeLock().lock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the keys. Entries added or removed concurrently may or may not be included.
+     */
+    public TLongList keys() {
+        TLongList result = new TLongArrayList();
+        for (Segment<V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                result.addAll(segment.map.keys());
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the values. Entries added or removed concurrently may or may not be included.
+     */
+    public List<V> values() {
+        List<V> result = Lists.newArrayList();
+        for (Segment<V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                result.addAll(segment.map.valueCollection());
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return result;
+    }
+
+    private Segment<V> segmentFor(long key) {
+        // Fibonacci hashing, so that neighbouring chunks spread over the segments
+        return segments[(int) ((key * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    private static final class Segment<V> {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TLongObjectMap<V> map = new TLongObjectHashMap<>();
+    }
+}
@@ -27,6 +27,12 @@ public interface ManagedChunk extends CoreChunk {
 
     boolean isReady();
 
+    /**
+     * Marks the chunk as reachable from other threads. Until then the chunk is only used by the thread that creates
+     * it, so its setters skip the write lock.
+     */
+    void markPublished();
+
     void deflate();
 
     void deflateSunlight();
@@ -37,6 +43,22 @@ public interface ManagedChunk extends CoreChunk {
 
     void prepareForReactivation();
 
+    /**
+     * Returns an immutable view of the current state of the chunk. This does not take the chunk's lock, as long as
+     * the chunk hasn't changed since the last snapshot was taken.
+     *
+     * @return the snapshot of the current version of the chunk
+     */
+    ChunkSnapshot getSnapshot();
+
+    /**
+     * Returns an immutable view of the block, liquid and biome data of the chunk, as stored and sent to clients. Light
+     * changes don't replace this snapshot.
+     *
+     * @return the snapshot of the current version of the stored data of the chunk
+     */
+    ChunkSnapshot getStoreSnapshot();
+
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
 }
@@ -16,6 +16,8 @@
 package org.terasology.world.chunks;
 
 import org.terasology.math.AABB;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.BaseVector3i;
 import org.terasology.module.sandbox.API;
 import org.terasology.rendering.primitives.ChunkMesh;
 
@@ -24,28 +26,56 @@
 @API
 public interface RenderableChunk extends LitChunk {
 
+    /**
+     * @return true if any mesh section of this chunk is dirty
+     */
     boolean isDirty();
 
+    /**
+     * Marks all mesh sections of this chunk dirty or clean.
+     */
     void setDirty(boolean dirty);
 
+    boolean isDirty(int section);
+
+    void setDirty(int section, boolean dirty);
+
+    /**
+     * Marks the mesh sections dirty whose mesh may be affected by a change of the block at the given world position,
+     * i.e. those containing a block within one block height of it. The position may lie outside of this chunk.
+     */
+    void setDirtyAround(BaseVector3i worldPos);
+
+    /**
+     * Marks the mesh sections dirty whose mesh may be affected by changes of blocks within the given world region.
+     * The region may extend beyond this chunk.
+     */
+    void setDirtyAround(Region3i worldRegion);
+
     AABB getAABB();
 
-    void setMesh(ChunkMesh newMesh);
+    void setMesh(int section, ChunkMesh newMesh);
 
-    void setPendingMesh(ChunkMesh newPendingMesh);
+    void setPendingMesh(int section, ChunkMesh newPendingMesh);
 
     void setAnimated(boolean animated);
 
     boolean isAnimated();
 
+    /**
+     * @return true if any mesh section of this chunk has a mesh
+     */
     boolean hasMesh();
 
-    boolean hasPendingMesh();
+    boolean hasPendingMesh(int section);
 
-    ChunkMesh getMesh();
+    ChunkMesh getMesh(int section);
 
-    ChunkMesh getPendingMesh();
+    ChunkMesh getPendingMesh(int section);
 
+    /**
+     * Disposes the meshes of all sections.
+     */
     void disposeMesh();
 
     void setAdjacentChunksReady(boolean b);
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import gnu.trove.map.TShortIntMap;
+import gnu.trove.map.hash.TShortIntHashMap;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * TeraPaletteArray implements an array with elements of 16 bit size, which stores each distinct value once in a palette
+ * and packs the palette index of every element into as few bits as the size of the palette requires.
+ * <br><br>
+ * An array holding a single value needs no index data at all. Whenever the palette outgrows the current index size,
+ * the indices are repacked with one more bit, up to 16 bits. Palette entries which are no longer used are only dropped
+ * by {@link #compact()}, which is what deflating the array does.
+ * <br><br>
+ * Chunks usually contain only a few dozen distinct blocks and biomes, so this needs a fraction of the memory of
+ * {@link TeraDenseArray16Bit}, at the cost of slightly slower reads and writes.
+ *
+ */
+public class TeraPaletteArray extends TeraArray {
+
+    private static final int MAX_BITS_PER_ENTRY = 16;
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+    private static final int NO_INDEX = -1;
+
+    private short[] palette;
+    private int paletteSize;
+    private int bitsPerEntry;
+    private long[] data;
+    // only used for large palettes, smaller ones are searched linearly
+    private TShortIntMap paletteIndices;
+
+    public TeraPaletteArray() {
+        super();
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, true);
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, short fill) {
+        super(sizeX, sizeY, sizeZ, false);
+        initialize(fill);
+    }
+
+    public TeraPaletteArray(int sizeX, int sizeY, int sizeZ, short[] values) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkNotNull(values);
+        Preconditions.checkArgument(values.length == getSizeXYZ(), "The length of parameter 'values' has to be " + getSizeXYZ() + " but is " + values.length);
+        palette = new short[]{values[0]};
+        paletteSize = 1;
+        short last = values[0];
+        for (short value : values) {
+            if (value != last) {
+                if (indexOf(value) == NO_INDEX) {
+                    addToPalette(value);
+                }
+                last = value;
+            }
+        }
+        bitsPerEntry = bitsFor(paletteSize);
+        if (bitsPerEntry > 0) {
+            data = new long[dataLength(getSizeXYZ(), bitsPerEntry)];
+            last = values[0];
+            int lastIndex = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != last) {
+                    last = values[i];
+                    lastIndex = indexOf(last);
+                }
+                write(data, bitsPerEntry, i, lastIndex);
+            }
+        }
+    }
+
+    public TeraPaletteArray(TeraArray in) {
+        this(Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ());
+        for (int y = 0; y < getSizeY(); y++) {
+            for (int z = 0; z < getSizeZ(); z++) {
+                for (int x = 0; x < getSizeX(); x++) {
+                    set(x, y, z, in.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    private TeraPaletteArray(int sizeX, int sizeY, int sizeZ, short[] palette, int paletteSize, long[] data) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkArgument(paletteSize > 0 && paletteSize <= palette.length, "Invalid palette size " + paletteSize);
+        this.palette = palette;
+        this.paletteSize = paletteSize;
+        this.bitsPerEntry = bitsFor(paletteSize);
+        this.data = data;
+        Preconditions.checkArgument(dataLength(getSizeXYZ(), bitsPerEntry) == (data == null ? 0 : data.length),
+                "The length of the index data does not match the palette size " + paletteSize);
+        if (paletteSize > LINEAR_SEARCH_LIMIT) {
+            createPaletteIndices();
+        }
+    }
+
+    @Override
+    protected void initialize() {
+        initialize((short) 0);
+    }
+
+    private void initialize(short fill) {
+        palette = new short[]{fill};
+        paletteSize = 1;
+        bitsPerEntry = 0;
+        data = null;
+        paletteIndices = null;
+    }
+
+    /**
+     * @return the number of values in the palette, including values which are no longer used
+     */
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    /**
+     * @return the number of bits used to store the palette index of each element
+     */
+    public int getBitsPerEntry() {
+        return bitsPerEntry;
+    }
+
+    /**
+     * Creates a copy of this array whose palette only contains the values which are actually used.
+     *
+     * @return the compacted copy, or null if every value in the palette is in use
+     */
+    public TeraPaletteArray compact() {
+        if (paletteSize == 1) {
+            return null;
+        }
+        final int sizeXYZ = getSizeXYZ();
+        final boolean[] used = new boolean[paletteSize];
+        int usedCount = 0;
+        for (int i = 0; i < sizeXYZ && usedCount < paletteSize; i++) {
+            int index = read(data, bitsPerEntry, i);
+            if (!used[index]) {
+                used[index] = true;
+                usedCount++;
+            }
+        }
+        if (usedCount == paletteSize) {
+            return null;
+        }
+        final short[] newPalette = new short[usedCount];
+        final int[] remap = new int[paletteSize];
+        int next = 0;
+        for (int i = 0; i < paletteSize; i++) {
+            if (used[i]) {
+                newPalette[next] = palette[i];
+                remap[i] = next++;
+            }
+        }
+        final int newBits = bitsFor(usedCount);
+        long[] newData = null;
+        if (newBits > 0) {
+            newData = new long[dataLength(sizeXYZ, newBits)];
+            for (int i = 0; i < sizeXYZ; i++) {
+                write(newData, newBits, i, remap[read(data, bitsPerEntry, i)]);
+            }
+        }
+        return new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), newPalette, usedCount, newData);
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public TeraArray copy() {
+        return new TeraPaletteArray(getSizeX(), getSizeY(), getSizeZ(), Arrays.copyOf(palette, paletteSize), paletteSize,
+                (data == null) ? null : data.clone());
+    }
+
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        return Preconditions.checkNotNull(deflator).deflatePaletteArray(this);
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        int size = 32 + 16 + palette.length * 2;
+        if (data != null) {
+            size += 16 + data.length * 8;
+        }
+        if (paletteIndices != null) {
+            // a trove map uses a short key, an int value and a state byte per slot
+            size += 32 + paletteSize * 2 * 7;
+        }
+        return size;
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 16;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        if (bitsPerEntry == 0) {
+            return palette[0];
+        }
+        return palette[read(data, bitsPerEntry, pos(x, y, z))];
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        final int pos = pos(x, y, z);
+        final short old = palette[(bitsPerEntry == 0) ? 0 : read(data, bitsPerEntry, pos)];
+        if (old != (short) value) {
+            writeValue(pos, (short) value);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        final int pos = pos(x, y, z);
+        final short old = palette[(bitsPerEntry == 0) ? 0 : read(data, bitsPerEntry, pos)];
+        if (old == expected) {
+            if (old != (short) value) {
+                writeValue(pos, (short) value);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void writeValue(int pos, short value) {
+        int index = indexOf(value);
+        if (index == NO_INDEX) {
+            index = addToPalette(value);
+            int requiredBits = bitsFor(paletteSize);
+            if (requiredBits > bitsPerEntry) {
+                resize(requiredBits);
+            }
+        }
+        write(data, bitsPerEntry, pos, index);
+    }
+
+    private int indexOf(short value) {
+        if (paletteIndices != null) {
+            return paletteIndices.get(value);
+        }
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == value) {
+                return i;
+            }
+        }
+        return NO_INDEX;
+    }
+
+    private int addToPalette(short value) {
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, Math.min(palette.length * 2, 1 << MAX_BITS_PER_ENTRY));
+        }
+        final int index = paletteSize++;
+        palette[index] = value;
+        if (paletteIndices != null) {
+            paletteIndices.put(value, index);
+        } else if (paletteSize > LINEAR_SEARCH_LIMIT) {
+            createPaletteIndices();
+        }
+        return index;
+    }
+
+    private void createPaletteIndices() {
+        paletteIndices = new TShortIntHashMap(paletteSize * 2, 0.5f, (short) 0, NO_INDEX);
+        for (int i = 0; i < paletteSize; i++) {
+            paletteIndices.put(palette[i], i);
+        }
+    }
+
+    private void resize(int newBits) {
+        final int sizeXYZ = getSizeXYZ();
+        final long[] newData = new long[dataLength(sizeXYZ, newBits)];
+        if (bitsPerEntry > 0) {
+            for (int i = 0; i < sizeXYZ; i++) {
+                write(newData, newBits, i, read(data, bitsPerEntry, i));
+            }
+        }
+        data = newData;
+        bitsPerEntry = newBits;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return (paletteSize <= 1) ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+
+    private static int dataLength(int entries, int bits) {
+        return (entries * bits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /*
+     * Entries are packed back to back, so an entry may span two longs.
+     */
+
+    private static int read(long[] data, int bits, int index) {
+        final int bitIndex = index * bits;
+        final int word = bitIndex >>> 6;
+        final int offset = bitIndex & 63;
+        long value = data[word] >>> offset;
+        if (offset + bits > Long.SIZE) {
+            value |= data[word + 1] << (Long.SIZE - offset);
+        }
+        return (int) (value & ((1L << bits) - 1));
+    }
+
+    private static void write(long[] data, int bits, int index, int value) {
+        final int bitIndex = index * bits;
+        final int word = bitIndex >>> 6;
+        final int offset = bitIndex & 63;
+        final long mask = (1L << bits) - 1;
+        data[word] = (data[word] & ~(mask << offset)) | ((long) value << offset);
+        if (offset + bits > Long.SIZE) {
+            final int shift = Long.SIZE - offset;
+            data[word + 1] = (data[word + 1] & ~(mask >>> shift)) | ((long) value >>> shift);
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraPaletteArray> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraPaletteArray.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraPaletteArray array) {
+            final long[] data = array.data;
+            return 4 + array.paletteSize * 2 + 4 + ((data == null) ? 0 : data.length * 8);
+        }
+
+        @Override
+        protected void internalSerialize(TeraPaletteArray array, ByteBuffer buffer) {
+            buffer.putInt(array.paletteSize);
+            final ShortBuffer sbuffer = buffer.asShortBuffer();
+            sbuffer.put(array.palette, 0, array.paletteSize);
+            buffer.position(buffer.position() + array.paletteSize * 2);
+            final long[] data = array.data;
+            if (data == null) {
+                buffer.putInt(0);
+            } else {
+                buffer.putInt(data.length);
+                final LongBuffer lbuffer = buffer.asLongBuffer();
+                lbuffer.put(data);
+                buffer.position(buffer.position() + data.length * 8);
+            }
+        }
+
+        @Override
+        protected TeraPaletteArray internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int paletteSize = buffer.getInt();
+            final short[] palette = new short[paletteSize];
+            final ShortBuffer sbuffer = buffer.asShortBuffer();
+            sbuffer.get(palette, 0, paletteSize);
+            buffer.position(buffer.position() + paletteSize * 2);
+            final int length = buffer.getInt();
+            long[] data = null;
+            if (length > 0) {
+                data = new long[length];
+                final LongBuffer lbuffer = buffer.asLongBuffer();
+                lbuffer.get(data, 0, length);
+                buffer.position(buffer.position() + length * 8);
+            }
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ, palette, paletteSize, data);
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraPaletteArray> {
+
+        @Override
+        public Class<TeraPaletteArray> getArrayClass() {
+            return TeraPaletteArray.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraPaletteArray create() {
+            return new TeraPaletteArray();
+        }
+
+        @Override
+        public TeraPaletteArray create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraPaletteArray(sizeX, sizeY, sizeZ);
+        }
+    }
+
+}
@@ -18,6 +18,7 @@
 
 import com.google.common.base.Preconditions;
 import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
 
 /**
  * TeraVisitingDeflator uses the visitor pattern to gain access to the internal implementation details of specific
@@ -51,4 +52,6 @@ public final TeraArray deflate(TeraArray in) {
 
     public abstract TeraArray deflateSparseArray4Bit(byte[][] inflated, byte[] deflated, byte fill, int rowSize, int sizeX, int sizeY, int sizeZ);
 
+    public abstract TeraArray deflatePaletteArray(TeraPaletteArray array);
+
 }
@@ -35,15 +35,15 @@
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkBlockIterator;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSnapshot;
 import org.terasology.world.chunks.blockdata.TeraArray;
-import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray;
 import org.terasology.world.chunks.deflate.TeraDeflator;
 import org.terasology.world.chunks.deflate.TeraStandardDeflator;
 import org.terasology.world.liquid.LiquidData;
 
 import java.text.DecimalFormat;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -62,6 +62,21 @@ public class ChunkImpl implements Chunk {
     private static final DecimalFormat PERCENT_FORMAT = new DecimalFormat("0.##");
     private static final DecimalFormat SIZE_FORMAT = new DecimalFormat("#,###");
 
+    // Flags for the arrays that are referenced by the latest snapshots and must be copied before they get changed
+    private static final int BLOCK_DATA = 1;
+    private static final int EXTRA_DATA = 1 << 1;
+    private static final int BIOME_DATA = 1 << 2;
+    private static final int SUNLIGHT_DATA = 1 << 3;
+    private static final int LIGHT_DATA = 1 << 4;
+
+    // The arrays read through each kind of snapshot. Sunlight regen is only used by the light propagation, which works
+    // on the chunk itself, so no snapshot references it.
+    private static final int VIEW_DATA = BLOCK_DATA | EXTRA_DATA | BIOME_DATA | SUNLIGHT_DATA | LIGHT_DATA;
+    private static final int STORE_DATA = BLOCK_DATA | EXTRA_DATA | BIOME_DATA;
+
+    // One dirty flag per mesh section
+    private static final int ALL_SECTIONS = (1 << ChunkConstants.MESH_SECTION_COUNT) - 1;
+
     private final Vector3i chunkPos = new Vector3i();
 
     private BlockManager blockManager;
@@ -72,25 +87,29 @@ public class ChunkImpl implements Chunk {
     private TeraArray lightData;
 
     private TeraArray blockData;
-    private volatile TeraArray blockDataSnapshot;
     private TeraArray extraData;
-    private volatile TeraArray extraDataSnapshot;
     private TeraArray biomeData;
-    private volatile TeraArray biomeDataSnapshot;
+
+    private volatile ChunkSnapshot snapshot;
+    private volatile ChunkSnapshot storeSnapshot;
+    private volatile boolean changedSinceSnapshot = true;
+    private volatile boolean changedSinceStoreSnapshot = true;
+    private int sharedData;
+    private boolean published;
 
     private AABB aabb;
     private Region3i region;
 
-    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
     private boolean disposed;
     private boolean ready;
-    private boolean dirty;
+    private int dirtySections;
     private boolean animated;
 
     // Rendering
-    private ChunkMesh activeMesh;
-    private ChunkMesh pendingMesh;
+    private final ChunkMesh[] activeMeshes = new ChunkMesh[ChunkConstants.MESH_SECTION_COUNT];
+    private final ChunkMesh[] pendingMeshes = new ChunkMesh[ChunkConstants.MESH_SECTION_COUNT];
     private boolean adjacentChunksReady;
 
     public ChunkImpl(int x, int y, int z, BlockManager blockManager, BiomeManager biomeManager) {
@@ -98,9 +117,9 @@ public ChunkImpl(int x, int y, int z, BlockManager blockManager, BiomeManager bi
     }
 
     public ChunkImpl(Vector3i chunkPos, BlockManager blockManager, BiomeManager biomeManager) {
-        this(chunkPos, new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
-                new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+        this(chunkPos, new TeraPaletteArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
                 new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+                new TeraPaletteArray(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
                 blockManager, biomeManager);
     }
 
@@ -113,7 +132,7 @@ public ChunkImpl(Vector3i chunkPos, TeraArray blocks, TeraArray liquid, TeraArra
         sunlightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
         sunlightRegenData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
         lightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        dirty = true;
+        dirtySections = ALL_SECTIONS;
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
         region = Region3i.createFromMinAndSize(new Vector3i(chunkPos.x * ChunkConstants.SIZE_X, chunkPos.y * ChunkConstants.SIZE_Y, chunkPos.z * ChunkConstants.SIZE_Z),
@@ -143,11 +162,7 @@ public void writeUnlock() {
 
     @Override
     public boolean isLocked() {
-        if (readWriteLock.writeLock().tryLock()) {
-            readWriteLock.writeLock().unlock();
-            return false;
-        }
-        return true;
+        return readWriteLock.isWriteLocked() || readWriteLock.getReadLockCount() > 0;
     }
 
     @Override
@@ -157,19 +172,64 @@ public Vector3i getPosition() {
 
     @Override
     public boolean isDirty() {
-        return dirty;
+        return dirtySections != 0;
     }
 
     @Override
     public void setDirty(boolean dirty) {
         writeLock();
         try {
-            this.dirty = dirty;
+            dirtySections = dirty ? ALL_SECTIONS : 0;
+        } finally {
+            writeUnlock();
+        }
+    }
+
+    @Override
+    public boolean isDirty(int section) {
+        return (dirtySections & (1 << section)) != 0;
+    }
+
+    @Override
+    public void setDirty(int section, boolean dirty) {
+        writeLock();
+        try {
+            if (dirty) {
+                dirtySections |= 1 << section;
+            } else {
+                dirtySections &= ~(1 << section);
+            }
         } finally {
             writeUnlock();
         }
     }
 
+    @Override
+    public void setDirtyAround(BaseVector3i worldPos) {
+        setDirtyBetween(worldPos.y(), worldPos.y());
+    }
+
+    @Override
+    public void setDirtyAround(Region3i worldRegion) {
+        setDirtyBetween(worldRegion.minY(), worldRegion.maxY());
+    }
+
+    private void setDirtyBetween(int minWorldY, int maxWorldY) {
+        int minSection = Math.max(0, Math.floorDiv(minWorldY - getChunkWorldOffsetY() - 1, ChunkConstants.MESH_SECTION_SIZE_Y));
+        int maxSection = Math.min(ChunkConstants.MESH_SECTION_COUNT - 1,
+                Math.floorDiv(maxWorldY - getChunkWorldOffsetY() + 1, ChunkConstants.MESH_SECTION_SIZE_Y));
+        if (minSection <= maxSection) {
+            writeLock();
+            try {
+                for (int section = minSection; section <= maxSection; ++section) {
+                    dirtySections |= 1 << section;
+                }
+            } finally {
+                writeUnlock();
+            }
+        }
+    }
+
     @Override
     public int getEstimatedMemoryConsumptionInBytes() {
         return blockData.getEstimatedMemoryConsumptionInBytes()
@@ -194,16 +254,26 @@ public final Block getBlock(int x, int y, int z) {
 
     @Override
     public Block setBlock(int x, int y, int z, Block block) {
-        if (blockData == blockDataSnapshot) {
-            blockData = blockData.copy();
-        }
-        int oldValue = blockData.set(x, y, z, block.getId());
-        if (oldValue != block.getId()) {
-            if (!block.isLiquid()) {
-                setLiquid(x, y, z, new LiquidData());
+        boolean locked = lockForChange();
+        try {
+            short oldValue = (short) blockData.get(x, y, z);
+            if (oldValue != block.getId()) {
+                if ((sharedData & BLOCK_DATA) != 0) {
+                    blockData = blockData.copy();
+                    sharedData &= ~BLOCK_DATA;
+                }
+                blockData.set(x, y, z, block.getId());
+                markChanged(BLOCK_DATA);
+                if (!block.isLiquid()) {
+                    setLiquid(x, y, z, new LiquidData());
+                }
+            }
+            return blockManager.getBlock(oldValue);
+        } finally {
+            if (locked) {
+                writeUnlock();
             }
         }
-        return blockManager.getBlock((short) oldValue);
     }
 
     @Override
@@ -229,7 +299,23 @@ public boolean setSunlight(BaseVector3i pos, byte amount) {
     @Override
     public boolean setSunlight(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= ChunkConstants.MAX_SUNLIGHT);
-        return sunlightData.set(x, y, z, amount) != amount;
+        boolean locked = lockForChange();
+        try {
+            if (sunlightData.get(x, y, z) == amount) {
+                return false;
+            }
+            if ((sharedData & SUNLIGHT_DATA) != 0) {
+                sunlightData = sunlightData.copy();
+                sharedData &= ~SUNLIGHT_DATA;
+            }
+            sunlightData.set(x, y, z, amount);
+            markChanged(SUNLIGHT_DATA);
+            return true;
+        } finally {
+            if (locked) {
+                writeUnlock();
+            }
+        }
     }
 
     @Override
@@ -250,7 +336,18 @@ public boolean setSunlightRegen(BaseVector3i pos, byte amount) {
     @Override
     public boolean setSunlightRegen(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= ChunkConstants.MAX_SUNLIGHT_REGEN);
-        return sunlightRegenData.set(x, y, z, amount) != amount;
+        boolean locked = lockForChange();
+        try {
+            if (sunlightRegenData.get(x, y, z) == amount) {
+                return false;
+            }
+            sunlightRegenData.set(x, y, z, amount);
+            return true;
+        } finally {
+            if (locked) {
+                writeUnlock();
+            }
+        }
     }
 
     @Override
@@ -271,7 +368,23 @@ public boolean setLight(BaseVector3i pos, byte amount) {
     @Override
     public boolean setLight(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= ChunkConstants.MAX_LIGHT);
-        return lightData.set(x, y, z, amount) != amount;
+        boolean locked = lockForChange();
+        try {
+            if (lightData.get(x, y, z) == amount) {
+                return false;
+            }
+            if ((sharedData & LIGHT_DATA) != 0) {
+                lightData = lightData.copy();
+                sharedData &= ~LIGHT_DATA;
+            }
+            lightData.set(x, y, z, amount);
+            markChanged(LIGHT_DATA);
+            return true;
+        } finally {
+            if (locked) {
+                writeUnlock();
+            }
+        }
     }
 
     @Override
@@ -282,10 +395,22 @@ public void setLiquid(BaseVector3i pos, LiquidData state) {
     @Override
     public void setLiquid(int x, int y, int z, LiquidData newState) {
         byte newValue = newState.toByte();
-        if (extraData == extraDataSnapshot) {
-            extraData = extraData.copy();
+        boolean locked = lockForChange();
+        try {
+            if (extraData.get(x, y, z) == newValue) {
+                return;
+            }
+            if ((sharedData & EXTRA_DATA) != 0) {
+                extraData = extraData.copy();
+                sharedData &= ~EXTRA_DATA;
+            }
+            extraData.set(x, y, z, newValue);
+            markChanged(EXTRA_DATA);
+        } finally {
+            if (locked) {
+                writeUnlock();
+            }
         }
-        extraData.set(x, y, z, newValue);
     }
 
     @Override
@@ -305,12 +430,24 @@ public Biome getBiome(int x, int y, int z) {
 
     @Override
     public Biome setBiome(int x, int y, int z, Biome biome) {
-        if (biomeData == biomeDataSnapshot) {
-            biomeData = biomeData.copy();
-        }
         short shortId = biomeManager.getBiomeShortId(biome);
-        short previousShortId = (short) biomeData.set(x, y, z, shortId);
-        return biomeManager.getBiomeByShortId(previousShortId);
+        boolean locked = lockForChange();
+        try {
+            short previousShortId = (short) biomeData.get(x, y, z);
+            if (previousShortId != shortId) {
+                if ((sharedData & BIOME_DATA) != 0) {
+                    biomeData = biomeData.copy();
+                    sharedData &= ~BIOME_DATA;
+                }
+                biomeData.set(x, y, z, shortId);
+                markChanged(BIOME_DATA);
+            }
+            return biomeManager.getBiomeByShortId(previousShortId);
+        } finally {
+            if (locked) {
+                writeUnlock();
+            }
+        }
     }
 
     @Override
@@ -480,13 +617,13 @@ public int hashCode() {
     }
 
     @Override
-    public void setMesh(ChunkMesh mesh) {
-        this.activeMesh = mesh;
+    public void setMesh(int section, ChunkMesh mesh) {
+        activeMeshes[section] = mesh;
     }
 
     @Override
-    public void setPendingMesh(ChunkMesh mesh) {
-        this.pendingMesh = mesh;
+    public void setPendingMesh(int section, ChunkMesh mesh) {
+        pendingMeshes[section] = mesh;
     }
 
     @Override
@@ -501,22 +638,27 @@ public boolean isAnimated() {
 
     @Override
     public boolean hasMesh() {
-        return activeMesh != null;
+        for (ChunkMesh mesh : activeMeshes) {
+            if (mesh != null) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
-    public boolean hasPendingMesh() {
-        return pendingMesh != null;
+    public boolean hasPendingMesh(int section) {
+        return pendingMeshes[section] != null;
     }
 
     @Override
-    public ChunkMesh getMesh() {
-        return activeMesh;
+    public ChunkMesh getMesh(int section) {
+        return activeMeshes[section];
     }
 
     @Override
-    public ChunkMesh getPendingMesh() {
-        return pendingMesh;
+    public ChunkMesh getPendingMesh(int section) {
+        return pendingMeshes[section];
     }
 
     @Override
@@ -524,13 +666,25 @@ public void markReady() {
         ready = true;
     }
 
+    @Override
+    public void markPublished() {
+        published = true;
+    }
+
     @Override
     public void prepareForReactivation() {
         if (disposed) {
-            disposed = false;
-            sunlightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
-            sunlightRegenData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
-            lightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+            writeLock();
+            try {
+                disposed = false;
+                sunlightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+                sunlightRegenData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+                lightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+                sharedData &= ~(SUNLIGHT_DATA | LIGHT_DATA);
+                markChanged(SUNLIGHT_DATA | LIGHT_DATA);
+            } finally {
+                writeUnlock();
+            }
         }
     }
 
@@ -539,17 +693,25 @@ public void dispose() {
         disposed = true;
         ready = false;
         disposeMesh();
-        lightData = null;
-        sunlightData = null;
-        sunlightRegenData = null;
+        writeLock();
+        try {
+            lightData = null;
+            sunlightData = null;
+            sunlightRegenData = null;
+            markChanged(SUNLIGHT_DATA | LIGHT_DATA);
+        } finally {
+            writeUnlock();
+        }
         ChunkMonitor.fireChunkDisposed(this);
     }
 
     @Override
     public void disposeMesh() {
-        if (activeMesh != null) {
-            activeMesh.dispose();
-            activeMesh = null;
+        for (int section = 0; section < activeMeshes.length; ++section) {
+            if (activeMeshes[section] != null) {
+                activeMeshes[section].dispose();
+                activeMeshes[section] = null;
+            }
         }
     }
 
@@ -600,33 +762,89 @@ public ChunkBlockIterator getBlockIterator() {
 
     @Override
     public EntityData.ChunkStore.Builder encode() {
-        return ChunkSerializer.encode(chunkPos, blockData, extraData, biomeData);
+        return getStoreSnapshot().encode();
     }
 
     /**
-     * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk.
-     * This snapshot can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
+     * Returns the latest snapshot if the chunk hasn't changed since it was taken, without any locking.
+     * <br><br>
+     * Otherwise a new snapshot is published. The data arrays are captured, marked as shared and the snapshot is
+     * published under the write lock, which every setter of a published chunk also takes, so no write can land in
+     * between. Setters copy shared arrays before changing them, so the published snapshot never changes.
      */
-    public void createSnapshot() {
-        this.blockDataSnapshot = this.blockData;
-        this.extraDataSnapshot = this.extraData;
-        this.biomeDataSnapshot = this.biomeData;
+    @Override
+    public ChunkSnapshot getSnapshot() {
+        ChunkSnapshot current = snapshot;
+        if (current != null && !changedSinceSnapshot) {
+            return current;
+        }
+        writeLock();
+        try {
+            current = snapshot;
+            if (current != null && !changedSinceSnapshot) {
+                return current;
+            }
+            int version = (current != null) ? current.getVersion() + 1 : 0;
+            current = new ChunkSnapshot(chunkPos, version, blockManager, biomeManager, blockData, extraData, biomeData,
+                    sunlightData, lightData);
+            sharedData |= VIEW_DATA;
+            changedSinceSnapshot = false;
+            snapshot = current;
+            return current;
+        } finally {
+            writeUnlock();
+        }
     }
 
     /**
-     * This method can only be
-     * called once after {@link #createSnapshot()} has been called. It can be called from a different thread than
-     * {@link #createSnapshot()}, but it must be made sure that neither method is still running when the other gets
-     * called.
+     * Works like {@link #getSnapshot()}, but the snapshot only holds the block, liquid and biome data, so later light
+     * changes neither copy any arrays nor replace this snapshot.
+     */
+    @Override
+    public ChunkSnapshot getStoreSnapshot() {
+        ChunkSnapshot current = storeSnapshot;
+        if (current != null && !changedSinceStoreSnapshot) {
+            return current;
+        }
+        writeLock();
+        try {
+            current = storeSnapshot;
+            if (current != null && !changedSinceStoreSnapshot) {
+                return current;
+            }
+            int version = (current != null) ? current.getVersion() + 1 : 0;
+            current = new ChunkSnapshot(chunkPos, version, blockManager, biomeManager, blockData, extraData, biomeData,
+                    null, null);
+            sharedData |= STORE_DATA;
+            changedSinceStoreSnapshot = false;
+            storeSnapshot = current;
+            return current;
+        } finally {
+            writeUnlock();
+        }
+    }
+
+    /**
+     * Takes the write lock for a single change, unless the chunk hasn't been published to other threads yet or the
+     * current thread already holds the write lock for a bulk change.
      *
-     * @return an encoded version of the snapshot taken with {@link #createSnapshot()}.
+     * @return whether the lock was taken and has to be released after the change
      */
-    public EntityData.ChunkStore.Builder encodeAndReleaseSnapshot() {
-        EntityData.ChunkStore.Builder result = ChunkSerializer.encode(chunkPos, blockDataSnapshot, extraDataSnapshot, biomeDataSnapshot);
-        this.blockDataSnapshot = null;
-        this.extraDataSnapshot = null;
-        this.biomeDataSnapshot = null;
-        return result;
+    private boolean lockForChange() {
+        if (!published || readWriteLock.isWriteLockedByCurrentThread()) {
+            return false;
+        }
+        writeLock();
+        return true;
+    }
+
+    private void markChanged(int data) {
+        if (!changedSinceSnapshot && (data & VIEW_DATA) != 0) {
+            changedSinceSnapshot = true;
+        }
+        if (!changedSinceStoreSnapshot && (data & STORE_DATA) != 0) {
+            changedSinceStoreSnapshot = true;
+        }
     }
 
 }
@@ -19,12 +19,14 @@
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
-import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongIterator;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TShortObjectMap;
 import gnu.trove.map.hash.TShortObjectHashMap;
 import gnu.trove.procedure.TShortObjectProcedure;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
@@ -35,7 +37,6 @@
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
-import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.chunk.ChunkMonitor;
@@ -52,7 +53,9 @@
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkBlockIterator;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkKey;
 import org.terasology.world.chunks.ChunkRegionListener;
+import org.terasology.world.chunks.ConcurrentChunkMap;
 import org.terasology.world.chunks.event.BeforeChunkUnload;
 import org.terasology.world.chunks.event.OnChunkGenerated;
 import org.terasology.world.chunks.event.OnChunkLoaded;
@@ -77,7 +80,6 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -88,6 +90,7 @@ public class LocalChunkProvider implements GeneratingChunkProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(LocalChunkProvider.class);
     private static final int UNLOAD_PER_FRAME = 64;
+    private static final int UNLOAD_TASK_WEIGHT = 2;
     private static final Vector3i UNLOAD_LEEWAY = Vector3i.one();
 
     private StorageManager storageManager;
@@ -99,9 +102,9 @@ public class LocalChunkProvider implements GeneratingChunkProvider {
 
     private Map<EntityRef, ChunkRelevanceRegion> regions = Maps.newHashMap();
 
-    private Map<Vector3i, Chunk> nearCache = Maps.newConcurrentMap();
+    private final ConcurrentChunkMap<Chunk> nearCache = new ConcurrentChunkMap<>();
 
-    private final Set<Vector3i> preparingChunks = Sets.newHashSet();
+    private final TLongSet preparingChunks = new TLongHashSet();
     private final BlockingQueue<ReadyChunkInfo> readyChunks = Queues.newLinkedBlockingQueue();
     private List<ReadyChunkInfo> sortedReadyChunks = Lists.newArrayList();
     private final BlockingQueue<TShortObjectMap<TIntList>> deactivateBlocksQueue = Queues.newLinkedBlockingQueue();
@@ -124,7 +127,7 @@ public LocalChunkProvider(StorageManager storageManager, EntityManager entityMan
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
         this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
-        this.unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 4);
+        this.unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", TaskMaster.UNLIMITED_CONCURRENCY, UNLOAD_TASK_WEIGHT);
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
 
@@ -157,17 +160,7 @@ public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
     }
 
     private ChunkViewCore createWorldView(Region3i region, Vector3i offset) {
-        Chunk[] chunks = new Chunk[region.sizeX() * region.sizeY() * region.sizeZ()];
-        for (Vector3i chunkPos : region) {
-            Chunk chunk = nearCache.get(chunkPos);
-            if (chunk == null || !chunk.isReady()) {
-                return null;
-            }
-            chunkPos.sub(region.minX(), region.minY(), region.minZ());
-            int index = TeraMath.calculate3DArrayIndex(chunkPos, region.size());
-            chunks[index] = chunk;
-        }
-        return new ChunkViewCoreImpl(chunks, region, offset, blockManager.getBlock(BlockManager.AIR_ID));
+        return ChunkViewCoreImpl.create(nearCache, region, offset, blockManager.getBlock(BlockManager.AIR_ID));
     }
 
     @Override
@@ -241,66 +234,69 @@ public void removeRelevanceEntity(EntityRef entity) {
 
     @Override
     public void completeUpdate() {
-        ReadyChunkInfo readyChunkInfo = lightMerger.completeMerge();
-        if (readyChunkInfo != null) {
-            Chunk chunk = readyChunkInfo.getChunk();
-            chunk.writeLock();
-            try {
-                chunk.markReady();
-                updateAdjacentChunksReadyFieldOf(chunk);
-                updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
-
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Generating Block Entities");
-                    generateBlockEntities(chunk);
-                    PerformanceMonitor.endActivity();
-                }
+        for (ReadyChunkInfo readyChunkInfo : lightMerger.completeMerges()) {
+            completeChunkAvailable(readyChunkInfo);
+        }
+    }
 
-                if (readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Generating queued Entities");
-                    for (EntityStore entity : readyChunkInfo.getEntities()) {
-                        generateQueuedEntities(entity);
-                    }
-                    PerformanceMonitor.endActivity();
-                }
+    private void completeChunkAvailable(ReadyChunkInfo readyChunkInfo) {
+        Chunk chunk = readyChunkInfo.getChunk();
+        chunk.writeLock();
+        try {
+            chunk.markReady();
+            updateAdjacentChunksReadyFieldOf(chunk);
+            updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
 
-                if (readyChunkInfo.getChunkStore() != null) {
-                    readyChunkInfo.getChunkStore().restoreEntities();
-                }
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Generating Block Entities");
+                generateBlockEntities(chunk);
+                PerformanceMonitor.endActivity();
+            }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Sending OnAddedBlocks");
-                    readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
-                        @Override
-                        public boolean execute(short id, TIntList positions) {
-                            if (positions.size() > 0) {
-                                blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
-                            }
-                            return true;
-                        }
-                    });
-                    PerformanceMonitor.endActivity();
+            if (readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Generating queued Entities");
+                for (EntityStore entity : readyChunkInfo.getEntities()) {
+                    generateQueuedEntities(entity);
                 }
+                PerformanceMonitor.endActivity();
+            }
+
+            if (readyChunkInfo.getChunkStore() != null) {
+                readyChunkInfo.getChunkStore().restoreEntities();
+            }
 
-                PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Sending OnAddedBlocks");
                 readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
                     @Override
                     public boolean execute(short id, TIntList positions) {
                         if (positions.size() > 0) {
-                            blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                            blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
                         }
                         return true;
                     }
                 });
                 PerformanceMonitor.endActivity();
+            }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
+            PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
+                @Override
+                public boolean execute(short id, TIntList positions) {
+                    if (positions.size() > 0) {
+                        blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                    }
+                    return true;
                 }
-                worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
-            } finally {
-                chunk.writeUnlock();
+            });
+            PerformanceMonitor.endActivity();
+
+            if (!readyChunkInfo.isNewChunk()) {
+                worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
             }
+            worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
+        } finally {
+            chunk.writeUnlock();
         }
     }
 
@@ -334,8 +330,9 @@ private void makeChunksAvailable() {
         List<ReadyChunkInfo> newReadyChunks = Lists.newArrayListWithExpectedSize(readyChunks.size());
         readyChunks.drainTo(newReadyChunks);
         for (ReadyChunkInfo readyChunkInfo : newReadyChunks) {
-            nearCache.put(readyChunkInfo.getPos(), readyChunkInfo.getChunk());
-            preparingChunks.remove(readyChunkInfo.getPos());
+            long key = ChunkKey.of(readyChunkInfo.getPos());
+            nearCache.put(key, readyChunkInfo.getChunk());
+            preparingChunks.remove(key);
         }
         updateRelevanceRegionsWithNewChunks(newReadyChunks);
         if (!newReadyChunks.isEmpty()) {
@@ -343,13 +340,11 @@ private void makeChunksAvailable() {
             Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
         }
         if (!sortedReadyChunks.isEmpty()) {
-            boolean loaded = false;
-            for (int i = sortedReadyChunks.size() - 1; i >= 0 && !loaded; i--) {
+            for (int i = sortedReadyChunks.size() - 1; i >= 0 && lightMerger.canBeginMerge(); i--) {
                 ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
                 PerformanceMonitor.startActivity("Make Chunk Available");
                 if (makeChunkAvailable(chunkInfo)) {
                     sortedReadyChunks.remove(i);
-                    loaded = true;
                 }
                 PerformanceMonitor.endActivity();
             }
@@ -384,12 +379,19 @@ private void checkForUnload() {
         PerformanceMonitor.startActivity("Unloading irrelevant chunks");
         int unloaded = 0;
         logger.debug("Compacting cache");
-        Iterator<Vector3i> iterator = nearCache.keySet().iterator();
+        List<Region3i> keptRegions = Lists.newArrayListWithCapacity(regions.size());
+        for (ChunkRelevanceRegion region : regions.values()) {
+            keptRegions.add(region.getCurrentRegion().expand(UNLOAD_LEEWAY));
+        }
+        TLongIterator iterator = nearCache.keys().iterator();
         while (iterator.hasNext()) {
-            Vector3i pos = iterator.next();
+            long key = iterator.next();
+            int x = ChunkKey.x(key);
+            int y = ChunkKey.y(key);
+            int z = ChunkKey.z(key);
             boolean keep = false;
-            for (ChunkRelevanceRegion region : regions.values()) {
-                if (region.getCurrentRegion().expand(UNLOAD_LEEWAY).encompasses(pos)) {
+            for (Region3i keptRegion : keptRegions) {
+                if (keptRegion.encompasses(x, y, z)) {
                     keep = true;
                     break;
                 }
@@ -397,8 +399,9 @@ private void checkForUnload() {
             if (!keep) {
                 // TODO: need some way to not dispose chunks being edited or processed (or do so safely)
                 // Note: Above won't matter if all changes are on the main thread
-                if (unloadChunkInternal(pos)) {
-                    iterator.remove();
+                Chunk chunk = nearCache.get(key);
+                if (chunk != null && unloadChunkInternal(chunk)) {
+                    nearCache.remove(key);
                     if (++unloaded >= UNLOAD_PER_FRAME) {
                         break;
                     }
@@ -408,8 +411,7 @@ private void checkForUnload() {
         PerformanceMonitor.endActivity();
     }
 
-    private boolean unloadChunkInternal(Vector3i pos) {
-        Chunk chunk = nearCache.get(pos);
+    private boolean unloadChunkInternal(Chunk chunk) {
         if (chunk.isLocked()) {
             return false;
         }
@@ -428,6 +430,7 @@ private boolean unloadChunkInternal(Vector3i pos) {
                 }
                 return true;
             }
+            Vector3i pos = chunk.getPosition();
             worldEntity.send(new BeforeChunkUnload(pos));
             for (ChunkRelevanceRegion region : regions.values()) {
                 region.chunkUnloaded(pos);
@@ -449,10 +452,10 @@ private boolean unloadChunkInternal(Vector3i pos) {
     }
 
     private boolean areAdjacentChunksReady(Chunk chunk) {
-        Vector3i centerChunkPos = chunk.getPosition();
+        long centerKey = ChunkKey.of(chunk.getPosition());
         for (Side side : Side.values()) {
-            Vector3i adjChunkPos = side.getAdjacentPos(centerChunkPos);
-            Chunk adjChunk = nearCache.get(adjChunkPos);
+            Vector3i direction = side.getVector3i();
+            Chunk adjChunk = nearCache.get(ChunkKey.offset(centerKey, direction.x, direction.y, direction.z));
             boolean adjChunkReady = (adjChunk != null && adjChunk.isReady());
             if (!adjChunkReady) {
                 return false;
@@ -466,10 +469,10 @@ private void updateAdjacentChunksReadyFieldOf(Chunk chunk) {
     }
 
     private void updateAdjacentChunksReadyFieldOfAdjChunks(Chunk chunkInCenter) {
-        Vector3i centerChunkPos = chunkInCenter.getPosition();
+        long centerKey = ChunkKey.of(chunkInCenter.getPosition());
         for (Side side : Side.values()) {
-            Vector3i adjChunkPos = side.getAdjacentPos(centerChunkPos);
-            Chunk adjChunk = nearCache.get(adjChunkPos);
+            Vector3i direction = side.getVector3i();
+            Chunk adjChunk = nearCache.get(ChunkKey.offset(centerKey, direction.x, direction.y, direction.z));
             if (adjChunk != null) {
                 updateAdjacentChunksReadyFieldOf(adjChunk);
             }
@@ -495,17 +498,21 @@ private void updateRelevance() {
     }
 
     private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
-        final Chunk chunk = nearCache.get(readyChunkInfo.getPos());
+        long key = ChunkKey.of(readyChunkInfo.getPos());
+        final Chunk chunk = nearCache.get(key);
         if (chunk == null) {
             return false;
         }
-        for (Vector3i pos : Region3i.createFromCenterExtents(readyChunkInfo.getPos(), 1)) {
-            if (nearCache.get(pos) == null) {
-                return false;
+        for (int z = -1; z <= 1; ++z) {
+            for (int y = -1; y <= 1; ++y) {
+                for (int x = -1; x <= 1; ++x) {
+                    if (nearCache.get(ChunkKey.offset(key, x, y, z)) == null) {
+                        return false;
+                    }
+                }
             }
         }
-        lightMerger.beginMerge(chunk, readyChunkInfo);
-        return true;
+        return lightMerger.beginMerge(chunk, readyChunkInfo);
     }
 
     // Generates all non-temporary block entities
@@ -548,7 +555,11 @@ private TShortObjectMap<TIntList> createBatchBlockEventMappings(Chunk chunk) {
 
     @Override
     public Chunk getChunk(int x, int y, int z) {
-        return getChunk(new Vector3i(x, y, z));
+        Chunk chunk = nearCache.get(x, y, z);
+        if (isChunkReady(chunk)) {
+            return chunk;
+        }
+        return null;
     }
 
     @Override
@@ -585,7 +596,7 @@ public void dispose() {
         shutdown();
 
         for (Chunk chunk : nearCache.values()) {
-            unloadChunkInternal(chunk.getPosition());
+            unloadChunkInternal(chunk);
             chunk.dispose();
         }
         nearCache.clear();
@@ -598,11 +609,12 @@ public void dispose() {
 
     @Override
     public boolean reloadChunk(Vector3i coords) {
-        if (!nearCache.containsKey(coords)) {
+        Chunk chunk = nearCache.get(coords);
+        if (chunk == null) {
             return false;
         }
 
-        if (unloadChunkInternal(coords)) {
+        if (unloadChunkInternal(chunk)) {
             nearCache.remove(coords);
             createOrLoadChunk(coords);
             return true;
@@ -633,7 +645,7 @@ public void purgeWorld() {
         worldEntity.send(new PurgeWorldEvent());
 
         pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
-        unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 8);
+        unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", TaskMaster.UNLIMITED_CONCURRENCY, UNLOAD_TASK_WEIGHT);
         lightMerger = new LightMerger<>(this);
         lightMerger.restart();
         ChunkMonitor.fireChunkProviderInitialized(this);
@@ -647,9 +659,8 @@ public void purgeWorld() {
     }
 
     private void createOrLoadChunk(Vector3i chunkPos) {
-        Chunk chunk = nearCache.get(chunkPos);
-        if (chunk == null && !preparingChunks.contains(chunkPos)) {
-            preparingChunks.add(chunkPos);
+        long key = ChunkKey.of(chunkPos);
+        if (nearCache.get(key) == null && preparingChunks.add(key)) {
             pipeline.doTask(new AbstractChunkTask(chunkPos) {
                 @Override
                 public String getName() {
@@ -671,6 +682,7 @@ public void run() {
                     InternalLightProcessor.generateInternalLighting(chunk);
                     chunk.deflate();
                     TShortObjectMap<TIntList> mappings = createBatchBlockEventMappings(chunk);
+                    chunk.markPublished();
                     readyChunks.offer(new ReadyChunkInfo(chunk, mappings, chunkStore, buffer.getAll()));
                 }
             });
@@ -680,6 +692,7 @@ public void run() {
 
     @Override
     public void onChunkIsReady(Chunk chunk) {
+        chunk.markPublished();
         readyChunks.offer(new ReadyChunkInfo(chunk, createBatchBlockEventMappings(chunk), Collections.emptyList()));
     }
 
@@ -37,6 +37,7 @@
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.ChunkRegionListener;
+import org.terasology.world.chunks.ConcurrentChunkMap;
 import org.terasology.world.chunks.event.OnChunkLoaded;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
 import org.terasology.world.chunks.pipeline.AbstractChunkTask;
@@ -59,11 +60,15 @@
  */
 public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvider {
 
-    private static final int LOAD_PER_FRAME = 1;
     private static final Logger logger = LoggerFactory.getLogger(RemoteChunkProvider.class);
-    private Map<Vector3i, Chunk> chunkCache = Maps.newHashMap();
+    private final ConcurrentChunkMap<Chunk> chunkCache = new ConcurrentChunkMap<>();
     private final BlockingQueue<Chunk> readyChunks = Queues.newLinkedBlockingQueue();
     private List<Chunk> sortedReadyChunks = Lists.newArrayList();
+    /**
+     * Chunks resent by the server for positions that already have a ready chunk. The old chunk keeps being served
+     * until the light of its replacement has been merged.
+     */
+    private final Map<Vector3i, Chunk> replacementChunks = Maps.newHashMap();
     private ChunkReadyListener listener;
     private EntityRef worldEntity = EntityRef.NULL;
 
@@ -107,6 +112,10 @@ public void invalidateChunks(Vector3i pos) {
         if (removed != null && !removed.isReady()) {
             sortedReadyChunks.remove(removed);
         }
+        Chunk replacement = replacementChunks.remove(pos);
+        if (replacement != null) {
+            sortedReadyChunks.remove(replacement);
+        }
 
     }
 
@@ -116,24 +125,30 @@ public void beginUpdate() {
             List<Chunk> newReadyChunks = Lists.newArrayList();
             readyChunks.drainTo(newReadyChunks);
             if (!newReadyChunks.isEmpty()) {
-                sortedReadyChunks.addAll(newReadyChunks);
-                Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
+                List<Chunk> deferredChunks = Lists.newArrayList();
                 for (Chunk chunk : newReadyChunks) {
-                    Chunk oldChunk = chunkCache.put(chunk.getPosition(), chunk);
-                    if (oldChunk != null) {
-                        oldChunk.dispose();
-                        updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
+                    Chunk oldChunk = chunkCache.get(chunk.getPosition());
+                    if (replacementChunks.containsKey(chunk.getPosition()) || (oldChunk != null && !oldChunk.isReady())) {
+                        // Another chunk for this position is not ready yet, so each received chunk becomes ready in
+                        // the order it arrived
+                        deferredChunks.add(chunk);
+                    } else if (oldChunk != null) {
+                        replacementChunks.put(chunk.getPosition(), chunk);
+                        sortedReadyChunks.add(chunk);
+                    } else {
+                        chunkCache.put(chunk.getPosition(), chunk);
+                        sortedReadyChunks.add(chunk);
                     }
                 }
+                readyChunks.addAll(deferredChunks);
+                Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
             }
             if (!sortedReadyChunks.isEmpty()) {
-                int loaded = 0;
-                for (int i = sortedReadyChunks.size() - 1; i >= 0 && loaded < LOAD_PER_FRAME; i--) {
+                for (int i = sortedReadyChunks.size() - 1; i >= 0 && lightMerger.canBeginMerge(); i--) {
                     Chunk chunkInfo = sortedReadyChunks.get(i);
                     PerformanceMonitor.startActivity("Make Chunk Available");
                     if (makeChunkAvailable(chunkInfo)) {
                         sortedReadyChunks.remove(i);
-                        loaded++;
                     }
                     PerformanceMonitor.endActivity();
                 }
@@ -148,14 +163,17 @@ private boolean makeChunkAvailable(final Chunk chunk) {
             }
         }
 
-        lightMerger.beginMerge(chunk, chunk);
-        return true;
+        return lightMerger.beginMerge(chunk, chunk);
     }
 
 
     @Override
     public Chunk getChunk(int x, int y, int z) {
-        return getChunk(new Vector3i(x, y, z));
+        Chunk chunk = chunkCache.get(x, y, z);
+        if (chunk != null && chunk.isReady()) {
+            return chunk;
+        }
+        return null;
     }
 
     @Override
@@ -229,17 +247,7 @@ public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
     }
 
     private ChunkViewCore createWorldView(Region3i region, Vector3i offset) {
-        Chunk[] chunks = new Chunk[region.size().x * region.size().y * region.size().z];
-        for (Vector3i chunkPos : region) {
-            Chunk chunk = chunkCache.get(chunkPos);
-            if (chunk == null || !chunk.isReady()) {
-                return null;
-            }
-            chunkPos.sub(region.min());
-            int index = TeraMath.calculate3DArrayIndex(chunkPos, region.size());
-            chunks[index] = chunk;
-        }
-        return new ChunkViewCoreImpl(chunks, region, offset, blockManager.getBlock(BlockManager.AIR_ID));
+        return ChunkViewCoreImpl.create(chunkCache, region, offset, blockManager.getBlock(BlockManager.AIR_ID));
     }
 
     @Override
@@ -265,8 +273,17 @@ public void removeRelevanceEntity(EntityRef entity) {
 
     @Override
     public void completeUpdate() {
-        Chunk chunk = lightMerger.completeMerge();
-        if (chunk != null) {
+        for (Chunk chunk : lightMerger.completeMerges()) {
+            if (replacementChunks.remove(chunk.getPosition(), chunk)) {
+                Chunk oldChunk = chunkCache.put(chunk.getPosition(), chunk);
+                if (oldChunk != null) {
+                    oldChunk.dispose();
+                }
+            } else if (chunkCache.get(chunk.getPosition()) != chunk) {
+                // Invalidated while its light was merged
+                chunk.dispose();
+                continue;
+            }
             chunk.markReady();
             updateAdjacentChunksReadyFieldOf(chunk);
             updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
@@ -277,6 +294,7 @@ public void completeUpdate() {
 
     @Override
     public void onChunkIsReady(Chunk chunk) {
+        chunk.markPublished();
         try {
             readyChunks.put(chunk);
         } catch (InterruptedException e) {
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.ImmutableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.Region3i;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the results of column invariant facet provider chains, so that vertically stacked regions with the same
+ * XZ extent don't compute the same {@link WorldFacet2D}s again.
+ * <br><br>
+ * Entries are keyed by the facet class, the XZ rectangle of the target region and the facet's border. Each entry
+ * holds every facet the chain of that facet produced, in its final state. The least recently used entries get
+ * dropped once the cache is full. The cache is shared by all threads that generate chunks, and must be cleared
+ * whenever the facet providers change, e.g. when the seed or their configuration changes.
+ * <br><br>
+ * The hit rate is logged at debug level every {@value #STATISTICS_LOG_INTERVAL} lookups, and when the cache is cleared.
+ *
+ */
+public class Facet2DCache {
+    public static final int DEFAULT_CAPACITY = 2048;
+    public static final int STATISTICS_LOG_INTERVAL = 65536;
+
+    private static final Logger logger = LoggerFactory.getLogger(Facet2DCache.class);
+
+    private final Map<Key, Map<Class<? extends WorldFacet>, WorldFacet>> entries;
+    private final int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Facet2DCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Facet2DCache(final int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, Map<Class<? extends WorldFacet>, WorldFacet>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Map<Class<? extends WorldFacet>, WorldFacet>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the facets produced by the chain of the given facet for a region with the same XZ extent, or null
+     */
+    public Map<Class<? extends WorldFacet>, WorldFacet> get(Class<? extends WorldFacet> facet, Region3i region, Border3D border) {
+        Map<Class<? extends WorldFacet>, WorldFacet> result;
+        synchronized (entries) {
+            result = entries.get(new Key(facet, region, border));
+        }
+        long lookups;
+        if (result != null) {
+            lookups = hits.incrementAndGet() + misses.get();
+        } else {
+            lookups = misses.incrementAndGet() + hits.get();
+        }
+        if (lookups % STATISTICS_LOG_INTERVAL == 0) {
+            logStatistics();
+        }
+        return result;
+    }
+
+    /**
+     * Stores the facets produced by the chain of the given facet. The facets must not be changed afterwards.
+     */
+    public void put(Class<? extends WorldFacet> facet, Region3i region, Border3D border, Map<Class<? extends WorldFacet>, WorldFacet> facets) {
+        Map<Class<? extends WorldFacet>, WorldFacet> copy = ImmutableMap.copyOf(facets);
+        synchronized (entries) {
+            entries.put(new Key(facet, region, border), copy);
+        }
+    }
+
+    public void clear() {
+        logStatistics();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the fraction of lookups that were answered from the cache, or 0 if there were none
+     */
+    public float getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return (total == 0) ? 0 : (float) hitCount / total;
+    }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private void logStatistics() {
+        if (logger.isDebugEnabled()) {
+            long hitCount = hits.get();
+            long lookups = hitCount + misses.get();
+            if (lookups > 0) {
+                logger.debug("Facet cache hit rate {}% over {} lookups, {} of {} entries used",
+                        String.format("%.1f", 100.0 * hitCount / lookups), lookups, size(), capacity);
+            }
+        }
+    }
+
+    private static final class Key {
+        private final Class<? extends WorldFacet> facet;
+        private final int minX;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeZ;
+        private final int sides;
+
+        private Key(Class<? extends WorldFacet> facet, Region3i region, Border3D border) {
+            this.facet = facet;
+            this.minX = region.minX();
+            this.minZ = region.minZ();
+            this.sizeX = region.sizeX();
+            this.sizeZ = region.sizeZ();
+            this.sides = border.getSides();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return facet == other.facet && minX == other.minX && minZ == other.minZ
+                        && sizeX == other.sizeX && sizeZ == other.sizeZ && sides == other.sides;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(facet, minX, minZ, sizeX, sizeZ, sides);
+        }
+    }
+}
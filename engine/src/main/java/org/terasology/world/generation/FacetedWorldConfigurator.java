@@ -33,8 +33,16 @@ public class FacetedWorldConfigurator implements WorldConfigurator {
     private final Map<String, Component> properties = Maps.newHashMap();
 
     private final List<ConfigurableFacetProvider> providers;
+    private final Facet2DCache facetCache;
 
     public FacetedWorldConfigurator(List<ConfigurableFacetProvider> providersList) {
+        this(providersList, null);
+    }
+
+    /**
+     * @param facetCache the cache to clear when the configuration changes, or null
+     */
+    public FacetedWorldConfigurator(List<ConfigurableFacetProvider> providersList, Facet2DCache facetCache) {
         for (ConfigurableFacetProvider provider : providersList) {
             Component old = properties.put(provider.getConfigurationName(), provider.getConfiguration());
             if (old != null) {
@@ -42,6 +50,7 @@ public FacetedWorldConfigurator(List<ConfigurableFacetProvider> providersList) {
             }
         }
         this.providers = providersList;
+        this.facetCache = facetCache;
     }
 
     @Override
@@ -55,6 +64,10 @@ public void setProperty(String key, Component comp) {
             if (key.equals(facetProvider.getConfigurationName())) {
                 facetProvider.setConfiguration(comp);
                 properties.put(key, comp);
+                if (facetCache != null) {
+                    // the cached facets were produced with the old configuration
+                    facetCache.clear();
+                }
                 return;
             }
         }
@@ -15,11 +15,14 @@
  */
 package org.terasology.world.generation;
 
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,33 +33,100 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final Facet2DCache facetCache;
+    private final Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> columnFacetOutputs;
+    private final ListMultimap<Class<? extends WorldFacet>, Class<? extends WorldFacet>> columnFacetsByChain;
 
     private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null, Collections.emptyMap(), ImmutableListMultimap.of());
+    }
+
+    /**
+     * @param facetCache          the cache shared by all regions of the world, or null to not cache anything
+     * @param columnFacetOutputs  for each column invariant facet, all facets produced or updated by its provider chain
+     * @param columnFacetsByChain for each facet, the column invariant facets produced by its provider chain, in chain order
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+                      Facet2DCache facetCache, Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> columnFacetOutputs,
+                      ListMultimap<Class<? extends WorldFacet>, Class<? extends WorldFacet>> columnFacetsByChain) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.facetCache = facetCache;
+        this.columnFacetOutputs = columnFacetOutputs;
+        this.columnFacetsByChain = columnFacetsByChain;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            for (FacetProvider provider : facetProviderChains.get(dataType)) {
-                if (!processedProviders.contains(provider)) {
-                    provider.process(this);
-                    processedProviders.add(provider);
+            if (facetCache != null) {
+                // resolve the column invariant part of the chain first, so it can come from the cache
+                for (Class<? extends WorldFacet> columnFacet : columnFacetsByChain.get(dataType)) {
+                    if (!generatedFacets.containsKey(columnFacet)) {
+                        getColumnFacet(columnFacet);
+                    }
+                }
+                facet = generatedFacets.get(dataType);
+                if (facet != null) {
+                    return facet;
                 }
             }
-            facet = generatingFacets.get(dataType);
-            generatedFacets.put(dataType, facet);
+            facet = generate(dataType);
         }
         return facet;
     }
 
+    private <T extends WorldFacet> T generate(Class<T> dataType) {
+        for (FacetProvider provider : facetProviderChains.get(dataType)) {
+            if (!processedProviders.contains(provider)) {
+                provider.process(this);
+                processedProviders.add(provider);
+            }
+        }
+        T facet = generatingFacets.get(dataType);
+        generatedFacets.put(dataType, facet);
+        return facet;
+    }
+
+    /**
+     * Column invariant facets only depend on the XZ extent of the region, and no provider outside of their chain
+     * changes any of the facets their chain produces. So the state after running the chain can be shared with all
+     * regions of the same column.
+     */
+    private <T extends WorldFacet> void getColumnFacet(Class<T> dataType) {
+        Border3D border = getBorderForFacet(dataType);
+        Map<Class<? extends WorldFacet>, WorldFacet> cached = facetCache.get(dataType, region, border);
+        if (cached != null) {
+            for (Map.Entry<Class<? extends WorldFacet>, WorldFacet> entry : cached.entrySet()) {
+                if (!generatingFacets.containsKey(entry.getKey())) {
+                    putFacet(generatingFacets, entry.getKey(), entry.getValue());
+                }
+            }
+            processedProviders.addAll(facetProviderChains.get(dataType));
+            generatedFacets.put(dataType, generatingFacets.get(dataType));
+        } else {
+            generate(dataType);
+            Map<Class<? extends WorldFacet>, WorldFacet> produced = Maps.newHashMap();
+            for (Class<? extends WorldFacet> output : columnFacetOutputs.get(dataType)) {
+                WorldFacet outputFacet = generatingFacets.get(output);
+                if (outputFacet != null) {
+                    produced.put(output, outputFacet);
+                }
+            }
+            facetCache.put(dataType, region, border, produced);
+        }
+    }
+
+    private static <T extends WorldFacet> void putFacet(TypeMap<WorldFacet> facets, Class<T> type, WorldFacet facet) {
+        facets.put(type, type.cast(facet));
+    }
+
     @Override
     public Region3i getRegion() {
         return region;
@@ -43,6 +43,7 @@ public class WorldBuilder {
     private final Set<Class<? extends WorldFacet>> facetCalculationInProgress = Sets.newHashSet();
     private final List<WorldRasterizer> rasterizers = Lists.newArrayList();
     private final List<EntityProvider> entityProviders = new ArrayList<>();
+    private final Facet2DCache facetCache = new Facet2DCache();
     private int seaLevel = 32;
     private Long seed;
 
@@ -98,7 +99,76 @@ public World build() {
             provider.setSeed(seed);
         }
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
-        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel);
+        Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> columnFacetOutputs = determineColumnFacets(providerChains);
+        facetCache.clear();
+        facetCache.resetStatistics();
+        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel,
+                facetCache, columnFacetOutputs, determineColumnFacetsByChain(providerChains, columnFacetOutputs));
+    }
+
+    /**
+     * @return the cache of column invariant facets shared by the worlds built by this builder
+     */
+    public Facet2DCache getFacetCache() {
+        return facetCache;
+    }
+
+    /**
+     * A facet is column invariant if it is a {@link WorldFacet2D}, every provider in its chain only requires, produces
+     * and updates 2D facets, and no provider outside of its chain produces or updates any of those facets.
+     * Providers of 2D facets are expected to only use the XZ extent of the region.
+     *
+     * @return all facets produced or updated by the chain of each column invariant facet
+     */
+    private Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> determineColumnFacets(
+            ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
+        Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> result = Maps.newHashMap();
+        for (Class<? extends WorldFacet> facet : providerChains.keySet()) {
+            if (!WorldFacet2D.class.isAssignableFrom(facet)) {
+                continue;
+            }
+            List<FacetProvider> chain = providerChains.get(facet);
+            Set<Class<? extends WorldFacet>> outputs = Sets.newLinkedHashSet();
+            boolean columnInvariant = true;
+            for (FacetProvider provider : chain) {
+                for (Facet requirement : requiredFacets(provider)) {
+                    columnInvariant &= WorldFacet2D.class.isAssignableFrom(requirement.value());
+                }
+                outputs.addAll(producedFacets(provider));
+                for (Facet updated : updatedFacets(provider)) {
+                    outputs.add(updated.value());
+                }
+            }
+            for (Class<? extends WorldFacet> output : outputs) {
+                columnInvariant &= WorldFacet2D.class.isAssignableFrom(output);
+                for (FacetProvider provider : providersList) {
+                    if ((producesFacet(provider, output) || updatesFacet(provider, output)) && !chain.contains(provider)) {
+                        columnInvariant = false;
+                    }
+                }
+            }
+            if (columnInvariant && outputs.contains(facet)) {
+                result.put(facet, outputs);
+            }
+        }
+        logger.debug("Column invariant facets: {}", result.keySet());
+        return result;
+    }
+
+    private ListMultimap<Class<? extends WorldFacet>, Class<? extends WorldFacet>> determineColumnFacetsByChain(
+            ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains,
+            Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> columnFacets) {
+        ListMultimap<Class<? extends WorldFacet>, Class<? extends WorldFacet>> result = ArrayListMultimap.create();
+        for (Class<? extends WorldFacet> facet : providerChains.keySet()) {
+            for (FacetProvider provider : providerChains.get(facet)) {
+                for (Class<? extends WorldFacet> produced : producedFacets(provider)) {
+                    if (columnFacets.containsKey(produced) && !result.containsEntry(facet, produced)) {
+                        result.put(facet, produced);
+                    }
+                }
+            }
+        }
+        return result;
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
@@ -259,6 +329,14 @@ private Facet[] requiredFacets(FacetProvider provider) {
         return new Facet[0];
     }
 
+    private List<Class<? extends WorldFacet>> producedFacets(FacetProvider provider) {
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            return Arrays.asList(produces.value());
+        }
+        return new ArrayList<>();
+    }
+
     private Facet[] updatedFacets(FacetProvider provider) {
         Updates updates = provider.getClass().getAnnotation(Updates.class);
         if (updates != null) {
@@ -294,7 +372,7 @@ public FacetedWorldConfigurator createConfigurator() {
                 configurables.add((ConfigurableFacetProvider) facetProvider);
             }
         }
-        FacetedWorldConfigurator worldConfigurator = new FacetedWorldConfigurator(configurables);
+        FacetedWorldConfigurator worldConfigurator = new FacetedWorldConfigurator(configurables, facetCache);
         return worldConfigurator;
     }
 }
@@ -24,6 +24,7 @@
 import org.terasology.math.Region3i;
 import org.terasology.world.chunks.CoreChunk;
 
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -36,22 +37,44 @@ public class WorldImpl implements World {
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final Facet2DCache facetCache;
+    private final Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> columnFacetOutputs;
+    private final ListMultimap<Class<? extends WorldFacet>, Class<? extends WorldFacet>> columnFacetsByChain;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
                      List<EntityProvider> entityProviders,
                      Map<Class<? extends WorldFacet>, Border3D> borders,
                      int seaLevel) {
+        this(facetProviderChains, worldRasterizers, entityProviders, borders, seaLevel, null, Maps.newHashMap(), ImmutableListMultimap.of());
+    }
+
+    /**
+     * @param facetCache          the cache for column invariant facets shared by all regions, or null to not cache
+     * @param columnFacetOutputs  for each column invariant facet, all facets produced or updated by its provider chain
+     * @param columnFacetsByChain for each facet, the column invariant facets produced by its provider chain, in chain order
+     */
+    public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                     List<WorldRasterizer> worldRasterizers,
+                     List<EntityProvider> entityProviders,
+                     Map<Class<? extends WorldFacet>, Border3D> borders,
+                     int seaLevel,
+                     Facet2DCache facetCache,
+                     Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> columnFacetOutputs,
+                     ListMultimap<Class<? extends WorldFacet>, Class<? extends WorldFacet>> columnFacetsByChain) {
         this.facetProviderChains = facetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.facetCache = facetCache;
+        this.columnFacetOutputs = columnFacetOutputs;
+        this.columnFacetsByChain = columnFacetsByChain;
     }
 
     @Override
     public Region getWorldData(Region3i region) {
-        return new RegionImpl(region, facetProviderChains, borders);
+        return new RegionImpl(region, facetProviderChains, borders, facetCache, columnFacetOutputs, columnFacetsByChain);
     }
 
     @Override
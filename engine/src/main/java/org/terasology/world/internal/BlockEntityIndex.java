@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import com.google.common.base.Objects;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.BaseVector3i;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkKey;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Maps block positions to the entities of the blocks, grouped by chunk.
+ * <br><br>
+ * The entities of each chunk are kept in a primitive map keyed by the index of the block within the chunk, so lookups
+ * don't allocate and all entities of a chunk can be dropped at once when it unloads.
+ *
+ */
+public class BlockEntityIndex {
+    private final TLongObjectMap<TIntObjectMap<EntityRef>> chunks = new TLongObjectHashMap<>();
+    private int size;
+
+    /**
+     * @return the entity at the given block position, or null if there is none
+     */
+    public EntityRef get(BaseVector3i blockPos) {
+        TIntObjectMap<EntityRef> chunkEntities = chunks.get(ChunkKey.ofBlock(blockPos));
+        return (chunkEntities != null) ? chunkEntities.get(localIndex(blockPos)) : null;
+    }
+
+    /**
+     * @return the previous entity at the given block position, or null if there was none
+     */
+    public EntityRef put(BaseVector3i blockPos, EntityRef entity) {
+        long key = ChunkKey.ofBlock(blockPos);
+        TIntObjectMap<EntityRef> chunkEntities = chunks.get(key);
+        if (chunkEntities == null) {
+            chunkEntities = new TIntObjectHashMap<>();
+            chunks.put(key, chunkEntities);
+        }
+        EntityRef oldEntity = chunkEntities.put(localIndex(blockPos), entity);
+        if (oldEntity == null) {
+            size++;
+        }
+        return oldEntity;
+    }
+
+    /**
+     * Removes the entry of the given block position if it maps to the given entity.
+     *
+     * @return whether the entry was removed
+     */
+    public boolean remove(BaseVector3i blockPos, EntityRef entity) {
+        long key = ChunkKey.ofBlock(blockPos);
+        TIntObjectMap<EntityRef> chunkEntities = chunks.get(key);
+        if (chunkEntities == null) {
+            return false;
+        }
+        int index = localIndex(blockPos);
+        if (!Objects.equal(chunkEntities.get(index), entity)) {
+            return false;
+        }
+        chunkEntities.remove(index);
+        size--;
+        if (chunkEntities.isEmpty()) {
+            chunks.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the entries of all blocks within a chunk.
+     *
+     * @param chunkPos the position of the chunk
+     * @return the removed entities
+     */
+    public Collection<EntityRef> removeChunk(BaseVector3i chunkPos) {
+        TIntObjectMap<EntityRef> chunkEntities = chunks.remove(ChunkKey.of(chunkPos));
+        if (chunkEntities == null) {
+            return Collections.emptyList();
+        }
+        size -= chunkEntities.size();
+        return chunkEntities.valueCollection();
+    }
+
+    /**
+     * @return the number of chunks with at least one entry
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        chunks.clear();
+        size = 0;
+    }
+
+    private static int localIndex(BaseVector3i blockPos) {
+        int x = ChunkMath.calcBlockPosX(blockPos.x(), ChunkConstants.INNER_CHUNK_POS_FILTER_X);
+        int y = ChunkMath.calcBlockPosY(blockPos.y(), ChunkConstants.INNER_CHUNK_POS_FILTER_Y);
+        int z = ChunkMath.calcBlockPosZ(blockPos.z(), ChunkConstants.INNER_CHUNK_POS_FILTER_Z);
+        return x + ChunkConstants.SIZE_X * (z + ChunkConstants.SIZE_Z * y);
+    }
+}
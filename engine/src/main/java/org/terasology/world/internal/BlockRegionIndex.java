@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.BaseVector3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkKey;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the block region entity covering a block position.
+ * <br><br>
+ * Each region is listed in a grid cell for every chunk it overlaps, instead of an entry for every block it covers.
+ * A lookup tests the few regions of the cell containing the position. Where regions overlap, the one added last wins.
+ *
+ */
+public class BlockRegionIndex {
+    private final Map<EntityRef, Region3i> regions = Maps.newHashMap();
+    private final TLongObjectMap<List<EntityRef>> cells = new TLongObjectHashMap<>();
+
+    /**
+     * @return the entity of the region covering the given block position, or null if there is none
+     */
+    public EntityRef get(BaseVector3i blockPos) {
+        List<EntityRef> candidates = cells.get(ChunkKey.ofBlock(blockPos));
+        if (candidates != null) {
+            for (int i = candidates.size() - 1; i >= 0; --i) {
+                EntityRef entity = candidates.get(i);
+                if (regions.get(entity).encompasses(blockPos)) {
+                    return entity;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the region of the given entity, or null if it isn't indexed
+     */
+    public Region3i getRegion(EntityRef entity) {
+        return regions.get(entity);
+    }
+
+    /**
+     * Adds the region of an entity, replacing its previous region.
+     */
+    public void put(EntityRef entity, Region3i region) {
+        remove(entity);
+        regions.put(entity, region);
+        if (region.isEmpty()) {
+            return;
+        }
+        for (Vector3i chunkPos : ChunkMath.calcChunkPos(region)) {
+            long key = ChunkKey.of(chunkPos);
+            List<EntityRef> cell = cells.get(key);
+            if (cell == null) {
+                cell = Lists.newArrayListWithCapacity(1);
+                cells.put(key, cell);
+            }
+            cell.add(entity);
+        }
+    }
+
+    /**
+     * @return the removed region of the entity, or null if it wasn't indexed
+     */
+    public Region3i remove(EntityRef entity) {
+        Region3i region = regions.remove(entity);
+        if (region != null && !region.isEmpty()) {
+            for (Vector3i chunkPos : ChunkMath.calcChunkPos(region)) {
+                long key = ChunkKey.of(chunkPos);
+                List<EntityRef> cell = cells.get(key);
+                if (cell != null) {
+                    cell.remove(entity);
+                    if (cell.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+        return region;
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    public void clear() {
+        regions.clear();
+        cells.clear();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.internal;
+
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.ChunkView;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSnapshot;
+import org.terasology.world.liquid.LiquidData;
+
+/**
+ * A read-only chunk view that reads from {@link ChunkSnapshot}s instead of the chunks themselves, so it needs no locking.
+ *
+ */
+class ChunkSnapshotView extends ChunkViewCoreImpl {
+
+    private final ChunkSnapshot[] snapshots;
+    private final Block defaultBlock;
+
+    ChunkSnapshotView(Chunk[] chunks, ChunkSnapshot[] snapshots, Region3i chunkRegion, Vector3i offset, Block defaultBlock) {
+        super(chunks, chunkRegion, offset, defaultBlock);
+        this.snapshots = snapshots;
+        this.defaultBlock = defaultBlock;
+    }
+
+    @Override
+    public Block getBlock(int blockX, int blockY, int blockZ) {
+        if (!getWorldRegion().encompasses(blockX, blockY, blockZ)) {
+            return defaultBlock;
+        }
+        return snapshotAt(blockX, blockY, blockZ).getBlock(innerX(blockX), innerY(blockY), innerZ(blockZ));
+    }
+
+    @Override
+    public Biome getBiome(int blockX, int blockY, int blockZ) {
+        if (!getWorldRegion().encompasses(blockX, blockY, blockZ)) {
+            return BiomeManager.getUnknownBiome();
+        }
+        return snapshotAt(blockX, blockY, blockZ).getBiome(innerX(blockX), innerY(blockY), innerZ(blockZ));
+    }
+
+    @Override
+    public byte getSunlight(int blockX, int blockY, int blockZ) {
+        if (!getWorldRegion().encompasses(blockX, blockY, blockZ)) {
+            return 0;
+        }
+        return snapshotAt(blockX, blockY, blockZ).getSunlight(innerX(blockX), innerY(blockY), innerZ(blockZ));
+    }
+
+    @Override
+    public byte getLight(int blockX, int blockY, int blockZ) {
+        if (!getWorldRegion().encompasses(blockX, blockY, blockZ)) {
+            return 0;
+        }
+        return snapshotAt(blockX, blockY, blockZ).getLight(innerX(blockX), innerY(blockY), innerZ(blockZ));
+    }
+
+    @Override
+    public LiquidData getLiquid(int x, int y, int z) {
+        if (!getWorldRegion().encompasses(x, y, z)) {
+            return new LiquidData();
+        }
+        return snapshotAt(x, y, z).getLiquid(innerX(x), innerY(y), innerZ(z));
+    }
+
+    @Override
+    public void setBlock(int blockX, int blockY, int blockZ, Block type) {
+        throw new UnsupportedOperationException("Snapshot views are read only");
+    }
+
+    @Override
+    public void setBiome(int blockX, int blockY, int blockZ, Biome biome) {
+        throw new UnsupportedOperationException("Snapshot views are read only");
+    }
+
+    @Override
+    public void setLiquid(int x, int y, int z, LiquidData newState) {
+        throw new UnsupportedOperationException("Snapshot views are read only");
+    }
+
+    @Override
+    public void setLight(int blockX, int blockY, int blockZ, byte light) {
+        throw new UnsupportedOperationException("Snapshot views are read only");
+    }
+
+    @Override
+    public void setSunlight(int blockX, int blockY, int blockZ, byte light) {
+        throw new UnsupportedOperationException("Snapshot views are read only");
+    }
+
+    @Override
+    public ChunkView createSnapshotView() {
+        return this;
+    }
+
+    @Override
+    public void writeLock() {
+        throw new UnsupportedOperationException("Snapshot views are read only");
+    }
+
+    @Override
+    public void readLock() {
+    }
+
+    @Override
+    public void readUnlock() {
+    }
+
+    private ChunkSnapshot snapshotAt(int blockX, int blockY, int blockZ) {
+        return snapshots[relChunkIndex(blockX, blockY, blockZ)];
+    }
+
+    private static int innerX(int blockX) {
+        return ChunkMath.calcBlockPosX(blockX, ChunkConstants.INNER_CHUNK_POS_FILTER_X);
+    }
+
+    private static int innerY(int blockY) {
+        return ChunkMath.calcBlockPosY(blockY, ChunkConstants.INNER_CHUNK_POS_FILTER_Y);
+    }
+
+    private static int innerZ(int blockZ) {
+        return ChunkMath.calcBlockPosZ(blockZ, ChunkConstants.INNER_CHUNK_POS_FILTER_Z);
+    }
+}
@@ -57,4 +57,12 @@ public interface ChunkViewCore extends ChunkView {
      */
     void setSunlight(int blockX, int blockY, int blockZ, byte light);
 
+    /**
+     * Creates a read-only view of the current snapshots of this view's chunks. Reading it doesn't require any locks,
+     * and it isn't affected by later changes to the chunks.
+     *
+     * @return the snapshot view
+     */
+    ChunkView createSnapshotView();
+
 }
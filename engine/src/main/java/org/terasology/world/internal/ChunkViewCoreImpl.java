@@ -22,11 +22,14 @@
 import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.world.ChunkView;
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSnapshot;
+import org.terasology.world.chunks.ConcurrentChunkMap;
 import org.terasology.world.chunks.RenderableChunk;
 import org.terasology.world.liquid.LiquidData;
 
@@ -57,6 +60,39 @@ public ChunkViewCoreImpl(Chunk[] chunks, Region3i chunkRegion, Vector3i offset,
         this.defaultBlock = defaultBlock;
     }
 
+    /**
+     * Creates a view of the chunks in the given region, looking them up by their packed key.
+     *
+     * @param loadedChunks the chunks to take the view's chunks from
+     * @return the view, or null if any chunk of the region isn't loaded or isn't ready yet
+     */
+    public static ChunkViewCoreImpl create(ConcurrentChunkMap<Chunk> loadedChunks, Region3i chunkRegion, Vector3i offset,
+                                           Block defaultBlock) {
+        Vector3i size = chunkRegion.size();
+        Chunk[] chunks = new Chunk[size.x * size.y * size.z];
+        for (int z = 0; z < size.z; ++z) {
+            for (int y = 0; y < size.y; ++y) {
+                for (int x = 0; x < size.x; ++x) {
+                    Chunk chunk = loadedChunks.get(chunkRegion.minX() + x, chunkRegion.minY() + y, chunkRegion.minZ() + z);
+                    if (chunk == null || !chunk.isReady()) {
+                        return null;
+                    }
+                    chunks[TeraMath.calculate3DArrayIndex(x, y, z, size)] = chunk;
+                }
+            }
+        }
+        return new ChunkViewCoreImpl(chunks, chunkRegion, offset, defaultBlock);
+    }
+
+    @Override
+    public ChunkView createSnapshotView() {
+        ChunkSnapshot[] snapshots = new ChunkSnapshot[chunks.length];
+        for (int i = 0; i < chunks.length; ++i) {
+            snapshots[i] = chunks[i].getSnapshot();
+        }
+        return new ChunkSnapshotView(chunks, snapshots, chunkRegion, offset, defaultBlock);
+    }
+
     @Override
     public Region3i getWorldRegion() {
         return blockRegion;
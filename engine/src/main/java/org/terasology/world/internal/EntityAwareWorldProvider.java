@@ -44,17 +44,19 @@
 import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.logic.health.HealthComponent;
 import org.terasology.logic.location.LocationComponent;
-import org.terasology.math.Region3i;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.NetworkComponent;
+import org.terasology.persistence.internal.AbstractStorageManager;
 import org.terasology.reflection.metadata.FieldMetadata;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.OnChangedBlock;
+import org.terasology.world.WorldComponent;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockComponent;
 import org.terasology.world.block.regions.BlockRegionComponent;
+import org.terasology.world.chunks.event.BeforeChunkUnload;
 
 import java.math.RoundingMode;
 import java.util.Collection;
@@ -75,12 +77,8 @@ public class EntityAwareWorldProvider extends AbstractWorldProviderDecorator imp
 
     private EngineEntityManager entityManager;
 
-    // TODO: Perhaps a better datastructure for spatial lookups
-    // TODO: Or perhaps a build in indexing system for entities
-    private Map<Vector3i, EntityRef> blockEntityLookup = Maps.newHashMap();
-
-    private Map<Vector3i, EntityRef> blockRegionLookup = Maps.newHashMap();
-    private Map<EntityRef, Region3i> blockRegions = Maps.newHashMap();
+    private BlockEntityIndex blockEntityLookup = new BlockEntityIndex();
+    private BlockRegionIndex blockRegionLookup = new BlockRegionIndex();
 
     private Set<EntityRef> temporaryBlockEntities = Sets.newLinkedHashSet();
 
@@ -129,6 +127,45 @@ public Block setBlock(Vector3i pos, Block type) {
         return null;
     }
 
+    @Override
+    public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
+        if (GameThread.isCurrentThread()) {
+            // Unlike setBlock, only blocks that already have an entity or need one get one, so bulk changes of plain
+            // blocks don't create (and immediately discard) an entity per position
+            Map<Vector3i, EntityRef> blockEntities = Maps.newHashMap();
+            for (Map.Entry<Vector3i, Block> entry : blocks.entrySet()) {
+                Vector3i pos = entry.getKey();
+                EntityRef blockEntity = getExistingBlockEntityAt(pos);
+                if (!blockEntity.exists() && (requiresBlockEntity(entry.getValue()) || requiresBlockEntity(getBlock(pos.x, pos.y, pos.z)))) {
+                    blockEntity = getBlockEntityAt(pos);
+                }
+                if (blockEntity.exists()) {
+                    blockEntities.put(pos, blockEntity);
+                }
+            }
+            Map<Vector3i, Block> oldBlocks = super.setBlocks(blocks);
+            for (Map.Entry<Vector3i, Block> entry : oldBlocks.entrySet()) {
+                Vector3i pos = entry.getKey();
+                EntityRef blockEntity = blockEntities.get(pos);
+                if (blockEntity != null) {
+                    updateBlockEntity(blockEntity, pos, entry.getValue(), blocks.get(pos), false,
+                            Collections.<Class<? extends Component>>emptySet());
+                } else {
+                    EntityRef regionEntity = blockRegionLookup.get(pos);
+                    if (regionEntity != null) {
+                        regionEntity.send(new OnChangedBlock(pos, blocks.get(pos), entry.getValue()));
+                    }
+                }
+            }
+            return oldBlocks;
+        }
+        return Collections.emptyMap();
+    }
+
+    private static boolean requiresBlockEntity(Block block) {
+        return block.isKeepActive() || block.isLifecycleEventsRequired() || block.getPrefab().isPresent();
+    }
+
     @Override
     @SafeVarargs
     public final Block setBlockRetainComponent(Vector3i pos, Block type, Class<? extends Component>... components) {
@@ -329,7 +366,7 @@ private EntityRef createBlockEntity(Vector3i blockPosition, Block block) {
             blockEntity = builder.build();
         }
 
-        blockEntityLookup.put(new Vector3i(blockPosition), blockEntity);
+        blockEntityLookup.put(blockPosition, blockEntity);
         return blockEntity;
     }
 
@@ -372,7 +409,7 @@ public boolean hasPermanentBlockEntity(Vector3i blockPos) {
     @ReceiveEvent(components = {BlockComponent.class})
     public void onActivateBlock(OnActivatedComponent event, EntityRef entity) {
         BlockComponent block = entity.getComponent(BlockComponent.class);
-        EntityRef oldEntity = blockEntityLookup.put(new Vector3i(block.getPosition()), entity);
+        EntityRef oldEntity = blockEntityLookup.put(block.getPosition(), entity);
         // If this is a client, then an existing block entity may exist. Destroy it.
         if (oldEntity != null && !Objects.equal(oldEntity, entity)) {
             oldEntity.destroy();
@@ -382,41 +419,38 @@ public void onActivateBlock(OnActivatedComponent event, EntityRef entity) {
     @ReceiveEvent(components = {BlockComponent.class})
     public void onDeactivateBlock(BeforeDeactivateComponent event, EntityRef entity) {
         BlockComponent block = entity.getComponent(BlockComponent.class);
-        Vector3i pos = new Vector3i(block.getPosition());
-        if (blockEntityLookup.get(pos) == entity) {
-            blockEntityLookup.remove(pos);
+        blockEntityLookup.remove(block.getPosition(), entity);
+    }
+
+    @ReceiveEvent(components = WorldComponent.class)
+    public void onChunkUnloaded(BeforeChunkUnload event, EntityRef worldEntity) {
+        Collection<EntityRef> removed = blockEntityLookup.removeChunk(event.getChunkPos());
+        // Entities that aren't stored with the chunk stay active, so they keep their entry
+        for (EntityRef entity : removed) {
+            if (entity.isActive() && !AbstractStorageManager.isStoredWithChunk(entity)) {
+                BlockComponent block = entity.getComponent(BlockComponent.class);
+                if (block != null) {
+                    blockEntityLookup.put(block.getPosition(), entity);
+                }
+            }
         }
     }
 
     @ReceiveEvent(components = {BlockRegionComponent.class})
     public void onBlockRegionActivated(OnActivatedComponent event, EntityRef entity) {
         BlockRegionComponent regionComp = entity.getComponent(BlockRegionComponent.class);
-        blockRegions.put(entity, regionComp.region);
-        for (Vector3i pos : regionComp.region) {
-            blockRegionLookup.put(pos, entity);
-        }
+        blockRegionLookup.put(entity, regionComp.region);
     }
 
     @ReceiveEvent(components = {BlockRegionComponent.class})
     public void onBlockRegionChanged(OnChangedComponent event, EntityRef entity) {
-        Region3i oldRegion = blockRegions.get(entity);
-        for (Vector3i pos : oldRegion) {
-            blockRegionLookup.remove(pos);
-        }
         BlockRegionComponent regionComp = entity.getComponent(BlockRegionComponent.class);
-        blockRegions.put(entity, regionComp.region);
-        for (Vector3i pos : regionComp.region) {
-            blockRegionLookup.put(pos, entity);
-        }
+        blockRegionLookup.put(entity, regionComp.region);
     }
 
     @ReceiveEvent(components = {BlockRegionComponent.class})
     public void onBlockRegionDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
-        Region3i oldRegion = blockRegions.get(entity);
-        for (Vector3i pos : oldRegion) {
-            blockRegionLookup.remove(pos);
-        }
-        blockRegions.remove(entity);
+        blockRegionLookup.remove(entity);
     }
 
     @Override
@@ -461,6 +495,10 @@ private void cleanUpTemporaryEntity(EntityRef entity) {
                 }
             }
         }
+        BlockComponent block = entity.getComponent(BlockComponent.class);
+        if (block != null) {
+            blockEntityLookup.remove(block.getPosition(), entity);
+        }
         entityManager.destroyEntityWithoutEvents(entity);
     }
 
@@ -15,6 +15,7 @@
  */
 package org.terasology.world.internal;
 
+import com.google.common.collect.Maps;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.math.Region3i;
 import org.terasology.math.geom.Vector3i;
@@ -25,6 +26,7 @@
 import org.terasology.world.time.WorldTime;
 
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * Provides the basic interface for all world providers.
@@ -104,6 +106,31 @@ public interface WorldProviderCore {
      */
     Block setBlock(Vector3i pos, Block type);
 
+    /**
+     * Places many blocks at once. Each affected chunk is locked once, listeners are informed once per chunk and the
+     * light of all changes is propagated together.
+     *
+     * @param blocks The world positions to change, mapped to the types of the blocks to set
+     * @return The previous block types of the changed positions. Positions whose chunk was not loaded are left out
+     */
+    Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks);
+
+    /**
+     * Fills a region with blocks of a specific type, see {@link #setBlocks(Map)}.
+     *
+     * @param region The world region to fill
+     * @param type   The type of the blocks to set
+     * @return The previous block types of the changed positions. Positions whose chunk was not loaded are left out
+     */
+    default Map<Vector3i, Block> setBlocks(Region3i region, Block type) {
+        Vector3i size = region.size();
+        Map<Vector3i, Block> blocks = Maps.newHashMapWithExpectedSize(size.x * size.y * size.z);
+        for (Vector3i pos : region) {
+            blocks.put(pos, type);
+        }
+        return setBlocks(blocks);
+    }
+
     /**
      * Changes the biome at the given position.
      *
@@ -21,6 +21,8 @@
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.terasology.context.Context;
 import org.terasology.engine.SimpleUri;
 import org.terasology.entitySystem.entity.EntityManager;
@@ -34,6 +36,8 @@
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkKey;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.LitChunk;
@@ -199,7 +203,7 @@ public Block setBlock(Vector3i worldPos, Block type) {
                 for (Vector3i pos : ChunkMath.getChunkRegionAroundWorldPos(worldPos, 1)) {
                     RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
                     if (dirtiedChunk != null) {
-                        dirtiedChunk.setDirty(true);
+                        dirtiedChunk.setDirtyAround(worldPos);
                     }
                 }
                 notifyBlockChanged(worldPos, type, oldBlockType);
@@ -210,6 +214,86 @@ public Block setBlock(Vector3i worldPos, Block type) {
         return null;
     }
 
+    @Override
+    public Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
+        TLongObjectMap<List<Map.Entry<Vector3i, Block>>> blocksByChunk = new TLongObjectHashMap<>();
+        for (Map.Entry<Vector3i, Block> entry : blocks.entrySet()) {
+            long key = ChunkKey.ofBlock(entry.getKey());
+            List<Map.Entry<Vector3i, Block>> chunkBlocks = blocksByChunk.get(key);
+            if (chunkBlocks == null) {
+                chunkBlocks = Lists.newArrayList();
+                blocksByChunk.put(key, chunkBlocks);
+            }
+            chunkBlocks.add(entry);
+        }
+
+        Map<Vector3i, Block> oldBlocks = Maps.newHashMapWithExpectedSize(blocks.size());
+        blocksByChunk.forEachEntry((key, chunkBlocks) -> {
+            setChunkBlocks(ChunkKey.toVector(key), chunkBlocks, oldBlocks);
+            return true;
+        });
+        return oldBlocks;
+    }
+
+    /**
+     * Sets all given blocks of one chunk under a single lock, then records the changes for propagation, dirties the
+     * surrounding meshes and notifies the listeners once for the whole chunk.
+     */
+    private void setChunkBlocks(Vector3i chunkPos, List<Map.Entry<Vector3i, Block>> chunkBlocks, Map<Vector3i, Block> oldBlocks) {
+        CoreChunk chunk = chunkProvider.getChunk(chunkPos);
+        if (chunk == null) {
+            return;
+        }
+        Map<Vector3i, Block> newTypes = Maps.newHashMapWithExpectedSize(chunkBlocks.size());
+        Map<Vector3i, Block> oldTypes = Maps.newHashMapWithExpectedSize(chunkBlocks.size());
+        chunk.writeLock();
+        try {
+            for (Map.Entry<Vector3i, Block> entry : chunkBlocks) {
+                Vector3i worldPos = entry.getKey();
+                Block type = entry.getValue();
+                Block oldType = chunk.setBlock(
+                        ChunkMath.calcBlockPosX(worldPos.x, ChunkConstants.INNER_CHUNK_POS_FILTER_X),
+                        ChunkMath.calcBlockPosY(worldPos.y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y),
+                        ChunkMath.calcBlockPosZ(worldPos.z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z), type);
+                oldBlocks.put(worldPos, oldType);
+                if (oldType != type) {
+                    newTypes.put(worldPos, type);
+                    oldTypes.put(worldPos, oldType);
+                }
+            }
+        } finally {
+            chunk.writeUnlock();
+        }
+        if (newTypes.isEmpty()) {
+            return;
+        }
+
+        Vector3i min = new Vector3i(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        Vector3i max = new Vector3i(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE);
+        for (Map.Entry<Vector3i, Block> entry : newTypes.entrySet()) {
+            Vector3i worldPos = entry.getKey();
+            BlockChange oldChange = blockChanges.get(worldPos);
+            if (oldChange == null) {
+                blockChanges.put(worldPos, new BlockChange(worldPos, oldTypes.get(worldPos), entry.getValue()));
+            } else {
+                oldChange.setTo(entry.getValue());
+            }
+            min.set(Math.min(min.x, worldPos.x), Math.min(min.y, worldPos.y), Math.min(min.z, worldPos.z));
+            max.set(Math.max(max.x, worldPos.x), Math.max(max.y, worldPos.y), Math.max(max.z, worldPos.z));
+        }
+        Region3i changedRegion = Region3i.createFromMinMax(min, max);
+        Region3i dirtiedChunks = Region3i.createFromMinMax(
+                ChunkMath.getChunkRegionAroundWorldPos(min, 1).min(),
+                ChunkMath.getChunkRegionAroundWorldPos(max, 1).max());
+        for (Vector3i pos : dirtiedChunks) {
+            RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
+            if (dirtiedChunk != null) {
+                dirtiedChunk.setDirtyAround(changedRegion);
+            }
+        }
+        notifyBlocksChanged(chunkPos, newTypes, oldTypes);
+    }
+
     private void notifyBlockChanged(Vector3i pos, Block type, Block oldType) {
         // TODO: Could use a read/write writeLock.
         // TODO: Review, should only happen on main thread (as should changes to listeners)
@@ -220,6 +304,14 @@ private void notifyBlockChanged(Vector3i pos, Block type, Block oldType) {
         }
     }
 
+    private void notifyBlocksChanged(Vector3i chunkPos, Map<Vector3i, Block> types, Map<Vector3i, Block> oldTypes) {
+        synchronized (listeners) {
+            for (WorldChangeListener listener : listeners) {
+                listener.onBlocksChanged(chunkPos, types, oldTypes);
+            }
+        }
+    }
+
     private void notifyBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiome) {
         // TODO: Could use a read/write writeLock.
         // TODO: Review, should only happen on main thread (as should changes to listeners)
@@ -302,7 +394,7 @@ public Biome setBiome(Vector3i worldPos, Biome biome) {
                 for (Vector3i pos : ChunkMath.getChunkRegionAroundWorldPos(worldPos, 1)) {
                     RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
                     if (dirtiedChunk != null) {
-                        dirtiedChunk.setDirty(true);
+                        dirtiedChunk.setDirtyAround(worldPos);
                     }
                 }
                 notifyBiomeChanged(worldPos, biome, oldBiomeType);
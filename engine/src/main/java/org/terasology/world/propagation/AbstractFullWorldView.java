@@ -64,7 +64,7 @@ public void setValueAt(Vector3i pos, byte value) {
         for (Vector3i affectedChunkPos : ChunkMath.getChunkRegionAroundWorldPos(pos, 1)) {
             Chunk dirtiedChunk = chunkProvider.getChunk(affectedChunkPos);
             if (dirtiedChunk != null) {
-                dirtiedChunk.setDirty(true);
+                dirtiedChunk.setDirtyAround(pos);
             }
         }
     }
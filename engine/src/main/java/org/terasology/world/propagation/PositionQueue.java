@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import com.google.common.collect.Lists;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TObjectLongHashMap;
+import gnu.trove.procedure.TLongProcedure;
+import org.terasology.math.geom.BaseVector3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkKey;
+
+import java.util.List;
+
+/**
+ * An insertion ordered set of block positions, packed into longs so that queueing a position doesn't allocate.
+ * <br><br>
+ * Behaves like a LinkedHashSet: adding a position that is already queued keeps its place, and a position that is
+ * removed and added again goes to the end.
+ * <br><br>
+ * Positions are packed relative to the first position added to the empty queue, with the {@link ChunkKey} layout.
+ * A propagation batch stays within a small neighbourhood, so this covers every position anywhere in the world. A
+ * position further than {@link ChunkKey#MAX_COORDINATE} blocks from that origin along an axis is still queued, but
+ * gets a key from a lookup table instead, which allocates.
+ *
+ */
+final class PositionQueue {
+    private static final int NO_SLOT = -1;
+    // Relative keys are never negative, as ChunkKey only uses the lower 63 bits; Long.MIN_VALUE is the map's free key
+    private static final long FAR_KEY_BASE = Long.MIN_VALUE + 1;
+    private static final long NO_KEY = -1;
+
+    private final TLongArrayList order = new TLongArrayList();
+    private final TLongIntHashMap slots = new TLongIntHashMap(16, 0.5f, Long.MIN_VALUE, NO_SLOT);
+
+    private int originX;
+    private int originY;
+    private int originZ;
+
+    private final List<Vector3i> farPositions = Lists.newArrayList();
+    private final TObjectLongHashMap<Vector3i> farKeys = new TObjectLongHashMap<>(16, 0.5f, NO_KEY);
+
+    /**
+     * @param key    a position key passed to a {@link #forEach(TLongProcedure)} procedure
+     * @param target the vector to set to the position
+     */
+    public void unpack(long key, Vector3i target) {
+        if (key < 0) {
+            Vector3i farPos = farPositions.get((int) (key - FAR_KEY_BASE));
+            target.set(farPos.x, farPos.y, farPos.z);
+        } else {
+            target.set(originX + ChunkKey.x(key), originY + ChunkKey.y(key), originZ + ChunkKey.z(key));
+        }
+    }
+
+    /**
+     * @return whether the position was not queued already
+     */
+    public boolean add(BaseVector3i pos) {
+        if (slots.isEmpty()) {
+            order.resetQuick();
+            farPositions.clear();
+            farKeys.clear();
+            originX = pos.x();
+            originY = pos.y();
+            originZ = pos.z();
+        }
+        long key = key(pos);
+        if (key == NO_KEY) {
+            Vector3i farPos = new Vector3i(pos);
+            key = FAR_KEY_BASE + farPositions.size();
+            farPositions.add(farPos);
+            farKeys.put(farPos, key);
+        } else if (slots.containsKey(key)) {
+            return false;
+        }
+        slots.put(key, order.size());
+        order.add(key);
+        return true;
+    }
+
+    /**
+     * @return whether the position was queued
+     */
+    public boolean remove(BaseVector3i pos) {
+        long key = key(pos);
+        return key != NO_KEY && slots.remove(key) != NO_SLOT;
+    }
+
+    public boolean contains(BaseVector3i pos) {
+        long key = key(pos);
+        return key != NO_KEY && slots.containsKey(key);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    public void clear() {
+        slots.clear();
+        order.resetQuick();
+        farPositions.clear();
+        farKeys.clear();
+    }
+
+    /**
+     * Visits the queued positions in insertion order. The queue must not be changed while it is being visited.
+     *
+     * @param procedure the procedure to call with the key of each position, which {@link #unpack(long, Vector3i)}
+     *                  turns back into the position. Returning false stops the iteration.
+     */
+    public void forEach(TLongProcedure procedure) {
+        for (int i = 0; i < order.size(); ++i) {
+            long key = order.getQuick(i);
+            if (slots.get(key) == i && !procedure.execute(key)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the key of the position, or NO_KEY if it is out of the relative range and has no far key yet
+     */
+    private long key(BaseVector3i pos) {
+        long dx = (long) pos.x() - originX;
+        long dy = (long) pos.y() - originY;
+        long dz = (long) pos.z() - originZ;
+        if (inRange(dx) && inRange(dy) && inRange(dz)) {
+            return ChunkKey.of((int) dx, (int) dy, (int) dz);
+        }
+        return farKeys.get(pos);
+    }
+
+    private static boolean inRange(long offset) {
+        return offset >= ChunkKey.MIN_COORDINATE && offset <= ChunkKey.MAX_COORDINATE;
+    }
+}
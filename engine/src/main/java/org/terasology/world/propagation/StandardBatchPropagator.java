@@ -16,7 +16,6 @@
 package org.terasology.world.propagation;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
@@ -27,21 +26,28 @@
 
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
+ * <br><br>
+ * Queued positions are kept packed in {@link PositionQueue}s, and the world is queried through reused vectors, so
+ * propagating doesn't allocate per position.
  *
  */
 public class StandardBatchPropagator implements BatchPropagator {
 
     private static final byte NO_VALUE = 0;
+    private static final Side[] SIDES = Side.values();
 
     private PropagationRules rules;
     private PropagatorWorldView world;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+    private PositionQueue spareQueue = new PositionQueue();
+
+    private final Vector3i processPos = new Vector3i();
+    private final Vector3i adjPos = new Vector3i();
 
     private Map<Side, Vector3i> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
 
@@ -69,11 +75,11 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             chunkEdgeDeltas.put(side, delta);
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        increaseQueues = new PositionQueue[rules.getMaxValue()];
+        reduceQueues = new PositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
 
     }
@@ -106,11 +112,11 @@ private void reviewChange(BlockChange blockChange) {
             reduce(blockChange.getPosition(), oldValue);
         }
 
-        for (Side side : Side.values()) {
+        for (Side side : SIDES) {
             PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), side);
             if (comparison.isRestricting() && existingValue > 0) {
                 reduce(blockChange.getPosition(), existingValue);
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
+                setAdjacent(blockChange.getPosition(), side);
                 byte adjValue = world.getValueAt(adjPos);
                 if (adjValue == rules.propagateValue(existingValue, side, blockChange.getFrom())) {
                     reduce(adjPos, adjValue);
@@ -119,7 +125,7 @@ private void reviewChange(BlockChange blockChange) {
                 if (existingValue > 0) {
                     queueSpreadValue(blockChange.getPosition(), existingValue);
                 }
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
+                setAdjacent(blockChange.getPosition(), side);
                 byte adjValue = world.getValueAt(adjPos);
                 if (adjValue != PropagatorWorldView.UNAVAILABLE) {
                     queueSpreadValue(adjPos, adjValue);
@@ -131,17 +137,18 @@ private void reviewChange(BlockChange blockChange) {
     private void processReduction() {
         int depth = 0;
         while (depth < rules.getMaxValue()) {
-            byte oldValue = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = reduceQueues[depth];
+            final byte oldValue = (byte) (rules.getMaxValue() - depth);
+            PositionQueue toProcess = reduceQueues[depth];
             if (!toProcess.isEmpty()) {
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                for (Vector3i pos : toProcess) {
-                    purge(pos, oldValue);
-                }
-                if (toProcess.isEmpty()) {
-                    depth++;
-                }
+                // Positions reduced while processing this depth are queued for the next round
+                reduceQueues[depth] = spareQueue;
+                toProcess.forEach(pos -> {
+                    toProcess.unpack(pos, processPos);
+                    purge(processPos, oldValue);
+                    return true;
+                });
+                toProcess.clear();
+                spareQueue = toProcess;
             } else {
                 depth++;
             }
@@ -158,10 +165,10 @@ private void purge(Vector3i pos, byte oldValue) {
             world.setValueAt(pos, NO_VALUE);
         }
 
-        for (Side side : Side.values()) {
+        for (Side side : SIDES) {
             byte expectedValue = rules.propagateValue(oldValue, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
             if (rules.canSpreadOutOf(block, side)) {
+                setAdjacent(pos, side);
                 byte adjValue = world.getValueAt(adjPos);
                 if (adjValue == expectedValue) {
                     Block adjBlock = world.getBlockAt(adjPos);
@@ -178,17 +185,17 @@ private void purge(Vector3i pos, byte oldValue) {
     private void processIncrease() {
         int depth = 0;
         while (depth < rules.getMaxValue() - 1) {
-            byte value = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = increaseQueues[depth];
+            final byte value = (byte) (rules.getMaxValue() - depth);
+            PositionQueue toProcess = increaseQueues[depth];
             if (!toProcess.isEmpty()) {
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                for (Vector3i pos : toProcess) {
-                    push(pos, value);
-                }
-                if (increaseQueues[depth].isEmpty()) {
-                    depth++;
-                }
+                increaseQueues[depth] = spareQueue;
+                toProcess.forEach(pos -> {
+                    toProcess.unpack(pos, processPos);
+                    push(processPos, value);
+                    return true;
+                });
+                toProcess.clear();
+                spareQueue = toProcess;
             } else {
                 depth++;
             }
@@ -197,10 +204,10 @@ private void processIncrease() {
 
     private void push(Vector3i pos, byte value) {
         Block block = world.getBlockAt(pos);
-        for (Side side : Side.values()) {
+        for (Side side : SIDES) {
             byte spreadValue = rules.propagateValue(value, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
             if (rules.canSpreadOutOf(block, side)) {
+                setAdjacent(pos, side);
                 byte adjValue = world.getValueAt(adjPos);
                 if (adjValue < spreadValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
                     Block adjBlock = world.getBlockAt(adjPos);
@@ -212,8 +219,13 @@ private void push(Vector3i pos, byte value) {
         }
     }
 
+    private void setAdjacent(Vector3i pos, Side side) {
+        adjPos.set(pos);
+        adjPos.add(side.getVector3i());
+    }
+
     private void cleanUp() {
-        for (Set<Vector3i> queue : increaseQueues) {
+        for (PositionQueue queue : increaseQueues) {
             queue.clear();
         }
     }
@@ -15,7 +15,6 @@
  */
 package org.terasology.world.propagation;
 
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
@@ -24,7 +23,6 @@
 import org.terasology.world.chunks.LitChunk;
 
 import java.util.Arrays;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -37,8 +35,11 @@ public class SunlightRegenBatchPropagator implements BatchPropagator {
     private PropagatorWorldView sunlightWorld;
     private BatchPropagator sunlightPropagator;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    private final Vector3i processPos = new Vector3i();
+    private final Vector3i columnPos = new Vector3i();
 
     public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorldView regenWorld, BatchPropagator sunlightPropagator, PropagatorWorldView sunlightWorld) {
         this.regenRules = regenRules;
@@ -46,11 +47,11 @@ public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorld
         this.sunlightPropagator = sunlightPropagator;
         this.sunlightWorld = sunlightWorld;
 
-        increaseQueues = new Set[regenRules.getMaxValue() + 1];
-        reduceQueues = new Set[regenRules.getMaxValue() + 1];
+        increaseQueues = new PositionQueue[regenRules.getMaxValue() + 1];
+        reduceQueues = new PositionQueue[regenRules.getMaxValue() + 1];
         for (int i = 0; i < regenRules.getMaxValue() + 1; ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
     }
 
@@ -107,11 +108,12 @@ private void queueSpreadRegen(Vector3i position, byte value) {
 
     private void processRegenReduction() {
         for (byte depth = 0; depth <= regenRules.getMaxValue(); depth++) {
-            Set<Vector3i> toProcess = reduceQueues[depth];
-
-            for (Vector3i pos : toProcess) {
-                purge(pos);
-            }
+            PositionQueue toProcess = reduceQueues[depth];
+            toProcess.forEach(pos -> {
+                toProcess.unpack(pos, processPos);
+                purge(processPos);
+                return true;
+            });
             toProcess.clear();
         }
     }
@@ -119,12 +121,13 @@ private void processRegenReduction() {
     private void purge(Vector3i pos) {
         int expectedValue = regenWorld.getValueAt(pos);
         if (expectedValue != 0) {
-            Vector3i position = new Vector3i(pos);
+            Vector3i position = columnPos;
+            position.set(pos);
             for (byte i = 0; i <= ChunkConstants.MAX_SUNLIGHT_REGEN; ++i) {
                 if (regenWorld.getValueAt(position) == expectedValue) {
                     regenWorld.setValueAt(position, i);
                     if (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD > 0) {
-                        sunlightPropagator.regenerate(new Vector3i(position), (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
+                        sunlightPropagator.regenerate(position, (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
                     }
                 } else {
                     break;
@@ -139,11 +142,13 @@ private void purge(Vector3i pos) {
 
     private void processRegenIncrease() {
         for (byte depth = regenRules.getMaxValue(); depth >= 0; depth--) {
-            Set<Vector3i> toProcess = increaseQueues[depth];
-
-            for (Vector3i pos : toProcess) {
-                push(pos, depth);
-            }
+            final byte value = depth;
+            PositionQueue toProcess = increaseQueues[depth];
+            toProcess.forEach(pos -> {
+                toProcess.unpack(pos, processPos);
+                push(processPos, value);
+                return true;
+            });
             toProcess.clear();
         }
     }
@@ -151,7 +156,8 @@ private void processRegenIncrease() {
     private void push(Vector3i pos, byte value) {
         byte regenValue = value;
         Block block = regenWorld.getBlockAt(pos);
-        Vector3i position = new Vector3i(pos);
+        Vector3i position = columnPos;
+        position.set(pos);
         while (regenRules.canSpreadOutOf(block, Side.BOTTOM)) {
             regenValue = regenRules.propagateValue(regenValue, Side.BOTTOM, block);
             position.y -= 1;
@@ -166,7 +172,7 @@ private void push(Vector3i pos, byte value) {
                         byte prevValue = sunlightWorld.getValueAt(position);
                         if (prevValue < sunlightValue) {
                             sunlightWorld.setValueAt(position, sunlightValue);
-                            sunlightPropagator.propagateFrom(new Vector3i(position), sunlightValue);
+                            sunlightPropagator.propagateFrom(position, sunlightValue);
                         }
                     }
                 } else {
@@ -16,10 +16,12 @@
 package org.terasology.world.propagation.light;
 
 import com.google.common.collect.Lists;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.concurrency.SharedTaskExecutor;
+import org.terasology.utilities.concurrency.ShutdownTask;
+import org.terasology.utilities.concurrency.Task;
+import org.terasology.utilities.concurrency.TaskMaster;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.LitChunk;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
@@ -30,23 +32,36 @@
 import org.terasology.world.propagation.StandardBatchPropagator;
 import org.terasology.world.propagation.SunlightRegenBatchPropagator;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.FutureTask;
 
 /**
+ * Merges the light of newly available chunks with their neighbours on the shared worker threads.
+ * <br><br>
+ * Each merge locks and writes to the 3x3x3 chunks around its chunk, so merges only run concurrently when those
+ * neighbourhoods don't overlap. A merge that would overlap one in progress is refused, and should be retried after
+ * the in progress merges have been completed.
+ * <br><br>
+ * The workers are shared with chunk generation and meshing, so a merge may not have started by the time it is
+ * completed. Completing runs such merges on the calling thread instead of waiting for a worker to pick them up.
+ *
  */
 public class LightMerger<T> {
     private static final int CENTER_INDEX = 13;
+    private static final int MAX_MERGE_THREADS = 4;
+    private static final int TASK_WEIGHT = 2;
 
-    private static Logger logger = LoggerFactory.getLogger(LightMerger.class);
+    /**
+     * Chunks closer than this along every axis share a chunk in their neighbourhoods.
+     */
+    private static final int MIN_MERGE_SEPARATION = 3;
 
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
-    private Future<T> resultFuture;
+    private final int mergeThreads = Math.min(MAX_MERGE_THREADS, SharedTaskExecutor.getInstance().getWorkerCount());
+    private final TaskMaster<Task> mergeTaskMaster = TaskMaster.createFIFOTaskMaster("Light-Merger", mergeThreads, TASK_WEIGHT);
+    private final List<PendingMerge<T>> pendingMerges = Lists.newArrayList();
 
     private GeneratingChunkProvider chunkProvider;
     private LightPropagationRules lightRules = new LightPropagationRules();
@@ -58,27 +73,68 @@ public LightMerger(GeneratingChunkProvider chunkProvider) {
         this.chunkProvider = chunkProvider;
     }
 
-    public void beginMerge(final Chunk chunk, final T data) {
-        resultFuture = executorService.submit(new Callable<T>() {
-            @Override
-            public T call() throws Exception {
-                merge(chunk);
-                return data;
-            }
+    /**
+     * @return whether another merge can be started before the in progress merges are completed
+     */
+    public boolean canBeginMerge() {
+        return pendingMerges.size() < mergeThreads;
+    }
+
+    /**
+     * Starts merging the light of the given chunk, unless its neighbourhood overlaps that of a merge in progress.
+     *
+     * @param chunk the chunk to merge
+     * @param data  the value to return from {@link #completeMerges()} once the merge is done
+     * @return whether the merge was started
+     */
+    public boolean beginMerge(final Chunk chunk, final T data) {
+        if (!canBeginMerge() || overlapsPendingMerge(chunk.getPosition())) {
+            return false;
+        }
+        FutureTask<T> future = new FutureTask<>(() -> {
+            merge(chunk);
+            return data;
         });
+        mergeTaskMaster.offer(new MergeTask(future));
+        pendingMerges.add(new PendingMerge<>(chunk.getPosition(), future));
+        return true;
     }
 
-    public T completeMerge() {
-        if (resultFuture != null) {
+    /**
+     * Completes all merges in progress, running those that no worker has started yet on the calling thread.
+     *
+     * @return the data of the completed merges, in the order they were begun
+     */
+    public List<T> completeMerges() {
+        if (pendingMerges.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> results = Lists.newArrayListWithCapacity(pendingMerges.size());
+        Iterator<PendingMerge<T>> iterator = pendingMerges.iterator();
+        while (iterator.hasNext()) {
+            PendingMerge<T> pendingMerge = iterator.next();
             try {
-                T result = resultFuture.get();
-                resultFuture = null;
-                return result;
+                // Does nothing if a worker has started the merge already, and the worker skips it if it runs here
+                pendingMerge.future.run();
+                results.add(pendingMerge.future.get());
             } catch (InterruptedException | ExecutionException e) {
                 throw new RuntimeException("Error completing lighting merge", e);
+            } finally {
+                iterator.remove();
             }
         }
-        return null;
+        return results;
+    }
+
+    private boolean overlapsPendingMerge(Vector3i chunkPos) {
+        for (PendingMerge<T> pendingMerge : pendingMerges) {
+            if (Math.abs(pendingMerge.chunkPos.x - chunkPos.x) < MIN_MERGE_SEPARATION
+                    && Math.abs(pendingMerge.chunkPos.y - chunkPos.y) < MIN_MERGE_SEPARATION
+                    && Math.abs(pendingMerge.chunkPos.z - chunkPos.z) < MIN_MERGE_SEPARATION) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void merge(Chunk chunk) {
@@ -151,18 +207,47 @@ private Chunk[] assembleLocalChunks(Chunk chunk) {
 
     public void shutdown() {
         running = false;
-        executorService.shutdown();
-        try {
-            executorService.awaitTermination(10, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            logger.error("Failed to shutdown light merge thread in a timely manner");
-        }
+        mergeTaskMaster.shutdown(new ShutdownTask(), true);
     }
 
     public void restart() {
         if (!running) {
-            executorService = Executors.newSingleThreadExecutor();
+            pendingMerges.clear();
+            mergeTaskMaster.restart();
             running = true;
         }
     }
+
+    private static final class MergeTask implements Task {
+        private final FutureTask<?> future;
+
+        MergeTask(FutureTask<?> future) {
+            this.future = future;
+        }
+
+        @Override
+        public String getName() {
+            return "Merge light";
+        }
+
+        @Override
+        public void run() {
+            future.run();
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return false;
+        }
+    }
+
+    private static final class PendingMerge<T> {
+        private final Vector3i chunkPos;
+        private final FutureTask<T> future;
+
+        PendingMerge(Vector3i chunkPos, FutureTask<T> future) {
+            this.chunkPos = chunkPos;
+            this.future = future;
+        }
+    }
 }
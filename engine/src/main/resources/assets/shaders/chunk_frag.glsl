@@ -71,6 +71,7 @@ varying vec3 normal;
 
 varying float blockHint;
 varying float isUpside;
+varying vec3 repeatedTile;
 
 uniform sampler2D textureWater;
 uniform sampler2D textureLava;
@@ -90,6 +91,9 @@ void main() {
 #endif
 
     vec2 texCoord = gl_TexCoord[0].xy;
+    if (repeatedTile.z > 0.5) {
+        texCoord = repeatedTile.xy + TEXTURE_OFFSET * (TEXTURE_BORDER + fract(texCoord) * (1.0 - 2.0 * TEXTURE_BORDER));
+    }
 
     vec3 normalizedVPos = -normalize(vertexViewPos.xyz);
     vec2 projectedPos = projectVertexToTexCoord(vertexProjPos);
@@ -106,16 +106,32 @@ varying vec3 sunVecView;
 
 varying float isUpside;
 varying float blockHint;
+// xy: origin of the atlas tile repeated over a face spanning several blocks, z: 1.0 for such faces
+varying vec3 repeatedTile;
 
 void main()
 {
 	gl_TexCoord[0] = gl_MultiTexCoord0;
-	blockHint = int(gl_TexCoord[0].z);
 
-    gl_TexCoord[1] = gl_MultiTexCoord1;
-
-	vertexViewPos = gl_ModelViewMatrix * gl_Vertex;
-	vertexWorldPos = gl_Vertex.xyz + chunkPositionWorld.xyz;
+	// Faces spanning several blocks store their atlas tile in the block hint, and their texture coordinates in tiles
+	float tile = floor(gl_TexCoord[0].z / BLOCK_HINT_TILE_STRIDE);
+	blockHint = gl_TexCoord[0].z - tile * BLOCK_HINT_TILE_STRIDE;
+	if (tile > 0.5) {
+	    float tilesPerRow = floor(1.0 / TEXTURE_OFFSET + 0.5);
+	    float tileIndex = tile - 1.0;
+	    float tileRow = floor((tileIndex + 0.5) / tilesPerRow);
+	    repeatedTile = vec3((tileIndex - tileRow * tilesPerRow) * TEXTURE_OFFSET, tileRow * TEXTURE_OFFSET, 1.0);
+	} else {
+	    repeatedTile = vec3(0.0);
+	}
+
+    // The light values are stored as bytes in the secondary colour
+    gl_TexCoord[1] = vec4(gl_SecondaryColor.rgb, 1.0);
+
+	// Positions are stored in fixed point relative to the chunk
+	vec4 vertexPos = vec4(gl_Vertex.xyz / CHUNK_POSITION_SCALE, 1.0);
+	vertexViewPos = gl_ModelViewMatrix * vertexPos;
+	vertexWorldPos = vertexPos.xyz + chunkPositionWorld.xyz;
 
 	sunVecView = (gl_ModelViewMatrix * vec4(sunVec.x, sunVec.y, sunVec.z, 0.0)).xyz;
 
@@ -18,7 +18,7 @@ varying vec4 positionProj;
 
 void main()
 {
-	gl_Position = ftransform();
+	gl_Position = gl_ModelViewProjectionMatrix * vec4(gl_Vertex.xyz / CHUNK_POSITION_SCALE, 1.0);
 	positionProj = gl_Position;
 
     gl_FrontColor = gl_Color;